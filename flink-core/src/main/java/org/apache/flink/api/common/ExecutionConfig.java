@@ -119,6 +119,10 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 
     private boolean objectReuse = false;
 
+    private boolean windowSlicing = false;
+
+    private int windowBufferSize = 0;
+
     private boolean autoTypeRegistrationEnabled = true;
 
     private boolean forceAvro = false;
@@ -689,6 +693,65 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
         return objectReuse;
     }
 
+    /**
+     * Enables the sliced execution of sliding windows. Sliding event time and processing time
+     * windows that are aggregated with a {@code ReduceFunction} or an {@code AggregateFunction}
+     * then keep one accumulator per slice of the window slide instead of one accumulator per
+     * window, and merge the slices of a window when it fires.
+     *
+     * <p>Keep in mind that the state of sliced windows is not compatible with the state of regular
+     * windows. Changing this setting requires to start the job without state.
+     */
+    @PublicEvolving
+    public ExecutionConfig enableWindowSlicing() {
+        windowSlicing = true;
+        return this;
+    }
+
+    /** Disables the sliced execution of sliding windows. @see #enableWindowSlicing() */
+    @PublicEvolving
+    public ExecutionConfig disableWindowSlicing() {
+        windowSlicing = false;
+        return this;
+    }
+
+    /**
+     * Returns whether the sliced execution of sliding windows is enabled. @see
+     * #enableWindowSlicing()
+     */
+    @PublicEvolving
+    public boolean isWindowSlicingEnabled() {
+        return windowSlicing;
+    }
+
+    /**
+     * Sets the maximum number of key and window pairs for which the elements of windows that are
+     * aggregated with a {@code ReduceFunction} or an {@code AggregateFunction} are combined on the
+     * heap before they are written to the window state. The buffer is flushed when it is full,
+     * before windows fire and before checkpoints. A value of {@code 0} disables the buffer.
+     *
+     * <p>The buffer reduces the state accesses from one per element to one per key and window,
+     * which is mostly relevant for state backends that serialize the state on every access.
+     *
+     * @param windowBufferSize The maximum number of buffered key and window pairs.
+     */
+    @PublicEvolving
+    public ExecutionConfig setWindowBufferSize(int windowBufferSize) {
+        Preconditions.checkArgument(
+                windowBufferSize >= 0, "The window buffer size must not be negative.");
+        this.windowBufferSize = windowBufferSize;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of buffered key and window pairs of window aggregations. @see
+     * #setWindowBufferSize(int)
+     */
+    @PublicEvolving
+    public int getWindowBufferSize() {
+        return windowBufferSize;
+    }
+
     public GlobalJobParameters getGlobalJobParameters() {
         return globalJobParameters;
     }
@@ -893,6 +956,8 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                     && forceKryo == other.forceKryo
                     && disableGenericTypes == other.disableGenericTypes
                     && objectReuse == other.objectReuse
+                    && windowSlicing == other.windowSlicing
+                    && windowBufferSize == other.windowBufferSize
                     && autoTypeRegistrationEnabled == other.autoTypeRegistrationEnabled
                     && forceAvro == other.forceAvro
                     && Objects.equals(globalJobParameters, other.globalJobParameters)
@@ -920,6 +985,8 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                 forceKryo,
                 disableGenericTypes,
                 objectReuse,
+                windowSlicing,
+                windowBufferSize,
                 autoTypeRegistrationEnabled,
                 forceAvro,
                 globalJobParameters,
@@ -953,6 +1020,10 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                 + enableAutoGeneratedUids
                 + ", objectReuse="
                 + objectReuse
+                + ", windowSlicing="
+                + windowSlicing
+                + ", windowBufferSize="
+                + windowBufferSize
                 + ", autoTypeRegistrationEnabled="
                 + autoTypeRegistrationEnabled
                 + ", forceAvro="
@@ -1107,6 +1178,12 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
         configuration
                 .getOptional(PipelineOptions.OBJECT_REUSE)
                 .ifPresent(o -> this.objectReuse = o);
+        configuration
+                .getOptional(PipelineOptions.WINDOW_SLICING)
+                .ifPresent(s -> this.windowSlicing = s);
+        configuration
+                .getOptional(PipelineOptions.WINDOW_BUFFER_SIZE)
+                .ifPresent(this::setWindowBufferSize);
         configuration
                 .getOptional(TaskManagerOptions.TASK_CANCELLATION_INTERVAL)
                 .ifPresent(this::setTaskCancellationInterval);
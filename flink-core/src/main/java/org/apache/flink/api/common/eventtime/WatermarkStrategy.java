@@ -75,6 +75,14 @@ public interface WatermarkStrategy<T>
         return new RecordTimestampAssigner<>();
     }
 
+    /**
+     * Provides the configuration for aligning the watermarks of the subtasks of all sources in the
+     * same watermark group. By default, the watermarks are not aligned.
+     */
+    default WatermarkAlignmentParams getAlignmentParameters() {
+        return WatermarkAlignmentParams.WATERMARK_ALIGNMENT_DISABLED;
+    }
+
     // ------------------------------------------------------------------------
     //  Builder methods for enriching a base WatermarkStrategy
     // ------------------------------------------------------------------------
@@ -138,6 +146,59 @@ public interface WatermarkStrategy<T>
         return new WatermarkStrategyWithIdleness<>(this, idleTimeout);
     }
 
+    /**
+     * Creates a new {@link WatermarkStrategy} that configures the maximum watermark drift from the
+     * other source subtasks in the same watermark group. The group may contain completely
+     * independent sources (e.g. File and Kafka).
+     *
+     * <p>Once configured, a source subtask stops reading while its watermark is more than the
+     * maxAllowedWatermarkDrift ahead of the smallest watermark in the group. This bounds the state
+     * that downstream operators accumulate while they wait for the slower sources.
+     *
+     * @param watermarkGroup A group of sources to align watermarks
+     * @param maxAllowedWatermarkDrift Maximal drift, before we pause consuming from the source
+     *     subtask
+     */
+    default WatermarkStrategy<T> withWatermarkAlignment(
+            String watermarkGroup, Duration maxAllowedWatermarkDrift) {
+        return withWatermarkAlignment(
+                watermarkGroup, maxAllowedWatermarkDrift, Duration.ofMillis(1000));
+    }
+
+    /**
+     * Creates a new {@link WatermarkStrategy} that configures the maximum watermark drift from the
+     * other source subtasks in the same watermark group. The group may contain completely
+     * independent sources (e.g. File and Kafka).
+     *
+     * <p>Once configured, a source subtask stops reading while its watermark is more than the
+     * maxAllowedWatermarkDrift ahead of the smallest watermark in the group. This bounds the state
+     * that downstream operators accumulate while they wait for the slower sources.
+     *
+     * @param watermarkGroup A group of sources to align watermarks
+     * @param maxAllowedWatermarkDrift Maximal drift, before we pause consuming from the source
+     *     subtask
+     * @param updateInterval How often the source subtasks report their current watermark to the
+     *     coordinator and how often the coordinator announces the maximal allowed watermark.
+     */
+    default WatermarkStrategy<T> withWatermarkAlignment(
+            String watermarkGroup, Duration maxAllowedWatermarkDrift, Duration updateInterval) {
+        checkNotNull(watermarkGroup, "watermarkGroup");
+        checkNotNull(maxAllowedWatermarkDrift, "maxAllowedWatermarkDrift");
+        checkNotNull(updateInterval, "updateInterval");
+        checkArgument(
+                !maxAllowedWatermarkDrift.isNegative(),
+                "maxAllowedWatermarkDrift must not be negative");
+        checkArgument(
+                !(updateInterval.isZero() || updateInterval.isNegative()),
+                "updateInterval must be greater than zero");
+        return new WatermarkStrategyWithAlignment<>(
+                this,
+                new WatermarkAlignmentParams(
+                        maxAllowedWatermarkDrift.toMillis(),
+                        watermarkGroup,
+                        updateInterval.toMillis()));
+    }
+
     // ------------------------------------------------------------------------
     //  Convenience methods for common watermark strategies
     // ------------------------------------------------------------------------
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a user function that neither modifies nor retains the input records it receives. The
+ * function must not change the fields of an input record, and must not keep a reference to an input
+ * record or to an object reachable from it after the invocation returned. Emitting an input record
+ * unmodified is allowed.
+ *
+ * <p>When object reuse is disabled, the DataStream API copies every record that is handed from one
+ * chained operator to the next, to protect the operators from each other's modifications. For a
+ * chained map, filter, flatMap, process or sink function with this annotation, which is the only
+ * consumer of its predecessor on a non-keyed stream, the copy is skipped.
+ *
+ * <p>The annotation is not inherited by subclasses of the annotated function.
+ */
+@PublicEvolving
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyInput {}
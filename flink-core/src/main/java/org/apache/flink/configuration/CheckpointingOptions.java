@@ -190,6 +190,31 @@ public class CheckpointingOptions {
                                     + "deactivated. Local recovery currently only covers keyed state backends. Currently, MemoryStateBackend and "
                                     + "HashMapStateBackend do not support local recovery and ignore this option.");
 
+    /**
+     * Option whether the HashMapStateBackend restores the key/value states of each key group on
+     * first access instead of during the restore, when it recovers from the local state copies of
+     * local recovery.
+     *
+     * <p>Only the meta data and the priority queue states, e.g. timers, are read during the
+     * restore, so that a restarted task starts processing records sooner. The local snapshot files
+     * are memory mapped and stay open until all key groups are loaded. Snapshots and operations
+     * over all keys, e.g. the next checkpoint, load all remaining key groups first. Restores from
+     * the checkpoint storage are not lazy.
+     */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Boolean> HASHMAP_LAZY_RESTORE =
+            ConfigOptions.key("state.backend.hashmap.lazy-restore")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Option whether the HashMapStateBackend restores the key/value states of each key group on "
+                                    + "first access instead of during the restore, when it recovers from the local state copies "
+                                    + "of local recovery. Only the meta data and the priority queue states, e.g. timers, are "
+                                    + "read during the restore, so that a restarted task starts processing records sooner. The "
+                                    + "local snapshot files are memory mapped and stay open until all key groups are loaded. "
+                                    + "Snapshots and operations over all keys, e.g. the next checkpoint, load all remaining key "
+                                    + "groups first. Restores from the checkpoint storage are not lazy.");
+
     /**
      * The config parameter defining the root directories for storing file-based state for local
      * recovery.
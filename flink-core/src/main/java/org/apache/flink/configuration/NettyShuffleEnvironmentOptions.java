@@ -84,6 +84,23 @@ public class NettyShuffleEnvironmentOptions {
                                     + "is more effective for IO bounded scenario when compression "
                                     + "ratio is high.");
 
+    /**
+     * Boolean flag indicating whether the in-flight data persisted by unaligned checkpoints will be
+     * compressed.
+     *
+     * <p>Note: The data is compressed per persisted buffer with the same codec as the shuffle data.
+     */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Boolean> UNALIGNED_CHECKPOINT_COMPRESSION_ENABLED =
+            key("taskmanager.network.unaligned-checkpoint.compression.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "Boolean flag indicating whether the in-flight data which is persisted "
+                                    + "by unaligned checkpoints will be compressed. Note that data "
+                                    + "is compressed per buffer and compression can incur extra "
+                                    + "CPU overhead, so it is more effective when the in-flight "
+                                    + "data is large and the compression ratio is high.");
+
     /** The codec to be used when compressing shuffle data. */
     @Documentation.ExcludeFromDocumentation("Currently, LZ4 is the only legal option.")
     public static final ConfigOption<String> SHUFFLE_COMPRESSION_CODEC =
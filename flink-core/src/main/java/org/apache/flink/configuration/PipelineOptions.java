@@ -197,6 +197,30 @@ public class PipelineOptions {
                                     + " data to user-code functions will be reused. Keep in mind that this can lead to bugs when the"
                                     + " user-code function of an operation is not aware of this behaviour.");
 
+    public static final ConfigOption<Boolean> WINDOW_SLICING =
+            key("pipeline.window-slicing")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "When enabled, sliding event time and processing time windows that are aggregated with a"
+                                    + " ReduceFunction or an AggregateFunction keep one accumulator per slice of the window"
+                                    + " slide instead of one accumulator per window and merge the slices when a window fires."
+                                    + " This only applies to windows with the default trigger, without evictor and without"
+                                    + " allowed lateness. The state of sliced windows is not compatible with the state of"
+                                    + " regular windows.");
+
+    public static final ConfigOption<Integer> WINDOW_BUFFER_SIZE =
+            key("pipeline.window-buffer-size")
+                    .intType()
+                    .defaultValue(0)
+                    .withDescription(
+                            "The maximum number of key and window pairs for which the elements of windows that are"
+                                    + " aggregated with a ReduceFunction or an AggregateFunction are combined on the heap"
+                                    + " before they are written to the window state. The buffer is flushed when it is full,"
+                                    + " before windows fire and before checkpoints. This reduces the state accesses from one"
+                                    + " per element to one per key and window. The buffer is not used for merging windows"
+                                    + " and evicting windows. A value of 0 disables the buffer.");
+
     public static final ConfigOption<List<String>> KRYO_DEFAULT_SERIALIZERS =
             key("pipeline.default-kryo-serializers")
                     .stringType()
@@ -253,6 +277,24 @@ public class PipelineOptions {
                             "Operator chaining allows non-shuffle operations to be co-located in the same thread "
                                     + "fully avoiding serialization and de-serialization.");
 
+    public static final ConfigOption<Boolean> OPERATOR_FUSION =
+            key("pipeline.operator-fusion")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Operator fusion merges chained map, filter and flatMap operators on "
+                                    + "non-keyed streams into a single operator, which passes "
+                                    + "records between the user functions directly instead of "
+                                    + "through the operator chain. It requires operator chaining "
+                                    + "and skips functions with operator state. Records are "
+                                    + "copied between the fused functions unless object reuse is "
+                                    + "enabled or the receiving function is annotated with "
+                                    + "@ReadOnlyInput. Only the metrics of the fused operator are "
+                                    + "reported, the metrics of the operators fused into it are "
+                                    + "not available. Operators without a uid keep the IDs that "
+                                    + "they have without fusion, so that their state can be "
+                                    + "restored from savepoints taken with fusion disabled.");
+
     public static final ConfigOption<List<String>> CACHED_FILES =
             key("pipeline.cached-files")
                     .stringType()
@@ -632,6 +632,22 @@ public class TaskManagerOptions {
                             "Time we wait for the timers in milliseconds to finish all pending timer threads"
                                     + " when the stream task is cancelled.");
 
+    /**
+     * The maximum number of records a stream task processes in one invocation of its default
+     * mailbox action.
+     */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER)
+    public static final ConfigOption<Integer> TASK_INPUT_BATCH_SIZE =
+            ConfigOptions.key("task.input.batch-size")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The maximum number of records a stream task processes in one iteration of its"
+                                    + " mailbox loop. Larger values reduce the per record overhead of the mailbox"
+                                    + " loop for small records. A batch ends early when the input or the output is"
+                                    + " not available or when a mail, for example a timer or a checkpoint, is"
+                                    + " enqueued, so mails are not delayed by more than one record.");
+
     // ------------------------------------------------------------------------
 
     /** Not intended to be instantiated. */
@@ -20,6 +20,7 @@ package org.apache.flink.formats.parquet;
 
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.util.CheckpointedPosition;
 import org.apache.flink.connector.file.src.util.Pool;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.formats.parquet.utils.SerializableConfiguration;
@@ -29,6 +30,7 @@ import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.vector.ColumnVector;
 import org.apache.flink.table.data.vector.VectorizedColumnBatch;
 import org.apache.flink.table.data.vector.writable.WritableColumnVector;
+import org.apache.flink.table.filesystem.ColumnBatchFilter;
 import org.apache.flink.table.filesystem.ColumnarRowIterator;
 import org.apache.flink.table.filesystem.PartitionFieldExtractor;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
@@ -36,6 +38,8 @@ import org.apache.flink.table.types.logical.RowType;
 
 import org.apache.hadoop.conf.Configuration;
 
+import javax.annotation.Nullable;
+
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -52,6 +56,9 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
 
     private final RowType producedType;
 
+    /** The filter that is evaluated on the column batches, or null if all rows are returned. */
+    @Nullable private final ColumnBatchFilter filter;
+
     /** Constructor to create parquet format without extra fields. */
     public ParquetColumnarRowInputFormat(
             Configuration hadoopConfig,
@@ -84,6 +91,35 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
             int batchSize,
             boolean isUtcTimestamp,
             boolean isCaseSensitive) {
+        this(
+                hadoopConfig,
+                projectedType,
+                producedType,
+                batchFactory,
+                batchSize,
+                isUtcTimestamp,
+                isCaseSensitive,
+                null);
+    }
+
+    /**
+     * Constructor to create parquet format with extra fields created by {@link ColumnBatchFactory}
+     * and a filter that is evaluated on the column batches before the rows are returned.
+     *
+     * @param projectedType the projected row type for parquet format, excludes extra fields.
+     * @param producedType the produced row type for this input format, includes extra fields.
+     * @param batchFactory factory for creating column batch, can cram in extra fields.
+     * @param filter filter on the fields of the produced row type, or null to return all rows.
+     */
+    public ParquetColumnarRowInputFormat(
+            Configuration hadoopConfig,
+            RowType projectedType,
+            RowType producedType,
+            ColumnBatchFactory<SplitT> batchFactory,
+            int batchSize,
+            boolean isUtcTimestamp,
+            boolean isCaseSensitive,
+            @Nullable ColumnBatchFilter filter) {
         super(
                 new SerializableConfiguration(hadoopConfig),
                 projectedType,
@@ -92,6 +128,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                 isUtcTimestamp,
                 isCaseSensitive);
         this.producedType = producedType;
+        this.filter = filter;
     }
 
     @Override
@@ -108,7 +145,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
             WritableColumnVector[] writableVectors,
             VectorizedColumnBatch columnarBatch,
             Pool.Recycler<ParquetReaderBatch<RowData>> recycler) {
-        return new ColumnarRowReaderBatch(writableVectors, columnarBatch, recycler);
+        return new ColumnarRowReaderBatch(writableVectors, columnarBatch, recycler, filter);
     }
 
     @Override
@@ -120,18 +157,45 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
 
         private final ColumnarRowIterator result;
 
+        @Nullable private final ColumnBatchFilter filter;
+
+        private int[] selection;
+
         private ColumnarRowReaderBatch(
                 WritableColumnVector[] writableVectors,
                 VectorizedColumnBatch columnarBatch,
-                Pool.Recycler<ParquetReaderBatch<RowData>> recycler) {
+                Pool.Recycler<ParquetReaderBatch<RowData>> recycler,
+                @Nullable ColumnBatchFilter filter) {
             super(writableVectors, columnarBatch, recycler);
             this.result =
                     new ColumnarRowIterator(new ColumnarRowData(columnarBatch), this::recycle);
+            this.filter = filter;
+            this.selection = new int[0];
         }
 
         @Override
         public RecordIterator<RowData> convertAndGetIterator(long rowsReturned) {
-            result.set(columnarBatch.getNumRows(), rowsReturned);
+            return convertAndGetIterator(rowsReturned, 0);
+        }
+
+        @Override
+        public RecordIterator<RowData> convertAndGetIterator(long rowsReturned, int rowsToSkip) {
+            final int numRows = columnarBatch.getNumRows();
+            if (filter == null) {
+                result.set(numRows, rowsReturned);
+                for (int i = 0; i < rowsToSkip && result.next() != null; i++) {}
+                return result;
+            }
+
+            if (selection.length < numRows) {
+                selection = new int[numRows];
+            }
+            int numSelected = 0;
+            for (int i = rowsToSkip; i < numRows; i++) {
+                selection[numSelected++] = i;
+            }
+            numSelected = filter.filter(columnarBatch, selection, numSelected);
+            result.set(selection, numSelected, CheckpointedPosition.NO_OFFSET, rowsReturned);
             return result;
         }
     }
@@ -149,6 +213,32 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                     int batchSize,
                     boolean isUtcTimestamp,
                     boolean isCaseSensitive) {
+        return createPartitionedFormat(
+                hadoopConfig,
+                producedRowType,
+                partitionKeys,
+                extractor,
+                batchSize,
+                isUtcTimestamp,
+                isCaseSensitive,
+                null);
+    }
+
+    /**
+     * Create a partitioned {@link ParquetColumnarRowInputFormat}, the partition columns can be
+     * generated by {@link Path}. Only the rows that pass the given filter on the fields of the
+     * produced row type are returned.
+     */
+    public static <SplitT extends FileSourceSplit>
+            ParquetColumnarRowInputFormat<SplitT> createPartitionedFormat(
+                    Configuration hadoopConfig,
+                    RowType producedRowType,
+                    List<String> partitionKeys,
+                    PartitionFieldExtractor<SplitT> extractor,
+                    int batchSize,
+                    boolean isUtcTimestamp,
+                    boolean isCaseSensitive,
+                    @Nullable ColumnBatchFilter filter) {
         RowType projectedRowType =
                 new RowType(
                         producedRowType.getFields().stream()
@@ -182,6 +272,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                 factory,
                 batchSize,
                 isUtcTimestamp,
-                isCaseSensitive);
+                isCaseSensitive,
+                filter);
     }
 }
@@ -31,9 +31,12 @@ import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.expressions.ResolvedExpression;
 import org.apache.flink.table.factories.BulkReaderFormatFactory;
 import org.apache.flink.table.factories.BulkWriterFormatFactory;
 import org.apache.flink.table.factories.DynamicTableFactory;
+import org.apache.flink.table.filesystem.ColumnBatchFilter;
+import org.apache.flink.table.filesystem.ColumnBatchFilters;
 import org.apache.flink.table.filesystem.FileSystemOptions;
 import org.apache.flink.table.filesystem.PartitionFieldExtractor;
 import org.apache.flink.table.types.DataType;
@@ -42,6 +45,7 @@ import org.apache.flink.table.types.logical.RowType;
 import org.apache.hadoop.conf.Configuration;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
@@ -61,13 +65,34 @@ public class ParquetFileFormatFactory implements BulkReaderFormatFactory, BulkWr
                                     + " time and LocalDateTime. Hive 0.x/1.x/2.x use local timezone. But Hive 3.x"
                                     + " use UTC timezone");
 
+    public static final ConfigOption<Boolean> VECTORIZED_FILTER =
+            key("vectorized-filter")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Evaluate the filters that are pushed into the source on the column"
+                                    + " vectors of each batch before the rows are materialized."
+                                    + " Comparisons with literals and null checks on boolean,"
+                                    + " numeric and date columns are supported, other filters"
+                                    + " are only evaluated after reading.");
+
     @Override
     public BulkDecodingFormat<RowData> createDecodingFormat(
             DynamicTableFactory.Context context, ReadableConfig formatOptions) {
         return new BulkDecodingFormat<RowData>() {
+
+            private List<ResolvedExpression> filters;
+
             @Override
             public BulkFormat<RowData, FileSourceSplit> createRuntimeDecoder(
                     DynamicTableSource.Context sourceContext, DataType producedDataType) {
+                RowType producedRowType = (RowType) producedDataType.getLogicalType();
+                ColumnBatchFilter filter = null;
+                if (formatOptions.get(VECTORIZED_FILTER) && filters != null) {
+                    filter =
+                            ColumnBatchFilters.fromExpressions(filters, producedRowType)
+                                    .orElse(null);
+                }
                 String defaultPartName =
                         context.getCatalogTable()
                                 .getOptions()
@@ -76,12 +101,18 @@ public class ParquetFileFormatFactory implements BulkReaderFormatFactory, BulkWr
                                         FileSystemOptions.PARTITION_DEFAULT_NAME.defaultValue());
                 return ParquetColumnarRowInputFormat.createPartitionedFormat(
                         getParquetConfiguration(formatOptions),
-                        (RowType) producedDataType.getLogicalType(),
+                        producedRowType,
                         context.getCatalogTable().getPartitionKeys(),
                         PartitionFieldExtractor.forFileSystem(defaultPartName),
                         VectorizedColumnBatch.DEFAULT_SIZE,
                         formatOptions.get(UTC_TIMEZONE),
-                        true);
+                        true,
+                        filter);
+            }
+
+            @Override
+            public void applyFilters(List<ResolvedExpression> filters) {
+                this.filters = filters;
             }
 
             @Override
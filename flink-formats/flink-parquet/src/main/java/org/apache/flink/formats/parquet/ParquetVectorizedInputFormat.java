@@ -338,12 +338,12 @@ public abstract class ParquetVectorizedInputFormat<T, SplitT extends FileSourceS
                 return null;
             }
 
-            final RecordIterator<T> records = batch.convertAndGetIterator(rowsReturnedBefore);
+            final int rowsToSkip = (int) Math.min(recordsToSkip, batch.columnarBatch.getNumRows());
+            recordsToSkip -= rowsToSkip;
 
-            // this may leave an exhausted iterator, which is a valid result for this method
+            // this may return an exhausted iterator, which is a valid result for this method
             // and is not interpreted as end-of-input or anything
-            skipRecord(records);
-            return records;
+            return batch.convertAndGetIterator(rowsReturnedBefore, rowsToSkip);
         }
 
         /** Advances to the next batch of rows. Returns false if there are no more. */
@@ -421,12 +421,6 @@ public abstract class ParquetVectorizedInputFormat<T, SplitT extends FileSourceS
             }
         }
 
-        private void skipRecord(RecordIterator<T> records) {
-            while (recordsToSkip > 0 && records.next() != null) {
-                recordsToSkip--;
-            }
-        }
-
         @Override
         public void close() throws IOException {
             if (reader != null) {
@@ -478,5 +472,20 @@ public abstract class ParquetVectorizedInputFormat<T, SplitT extends FileSourceS
          */
         public abstract RecordIterator<T> convertAndGetIterator(long rowsReturned)
                 throws IOException;
+
+        /**
+         * Provides reading iterator after the records are written to the {@link #columnarBatch},
+         * without the first rows of the batch.
+         *
+         * @param rowsReturned The number of rows that have been returned before this batch.
+         * @param rowsToSkip The number of rows at the start of this batch that must not be
+         *     returned, because they have been returned before the reader was restored.
+         */
+        public RecordIterator<T> convertAndGetIterator(long rowsReturned, int rowsToSkip)
+                throws IOException {
+            final RecordIterator<T> records = convertAndGetIterator(rowsReturned);
+            for (int i = 0; i < rowsToSkip && records.next() != null; i++) {}
+            return records;
+        }
     }
 }
@@ -21,9 +21,13 @@ package org.apache.flink.formats.parquet;
 import org.apache.flink.connector.file.src.FileSourceSplit;
 import org.apache.flink.connector.file.src.reader.BulkFormat;
 import org.apache.flink.connector.file.src.util.CheckpointedPosition;
+import org.apache.flink.connector.file.src.util.RecordAndPosition;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.formats.parquet.vector.ColumnBatchFactory;
 import org.apache.flink.table.data.DecimalData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.filesystem.ColumnBatchFilter;
+import org.apache.flink.table.filesystem.ColumnBatchFilters;
 import org.apache.flink.table.filesystem.PartitionFieldExtractor;
 import org.apache.flink.table.runtime.functions.SqlDateTimeUtils;
 import org.apache.flink.table.types.logical.BigIntType;
@@ -253,6 +257,103 @@ public class ParquetColumnarRowInputFormatTest {
                 });
     }
 
+    @Test
+    public void testFilter() throws IOException {
+        int number = 1000;
+        List<Row> records = new ArrayList<>(number);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            Integer v = i % 7 == 0 ? null : i;
+            records.add(newRow(v));
+            if (v != null && ((v >= 100 && v < 300) || v > 950)) {
+                expected.add(v);
+            }
+        }
+
+        Path testPath =
+                createTempParquetFile(
+                        TEMPORARY_FOLDER.newFolder(), PARQUET_SCHEMA, records, rowGroupSize);
+
+        // f4 >= 100 AND f4 < 300 OR f7 > 950
+        ColumnBatchFilter filter =
+                ColumnBatchFilters.or(
+                        ColumnBatchFilters.and(
+                                ColumnBatchFilters.compare(
+                                        0,
+                                        new IntType(),
+                                        ColumnBatchFilters.Comparison.GREATER_THAN_OR_EQUAL,
+                                        100),
+                                ColumnBatchFilters.compare(
+                                        0,
+                                        new IntType(),
+                                        ColumnBatchFilters.Comparison.LESS_THAN,
+                                        300)),
+                        ColumnBatchFilters.compare(
+                                1,
+                                new DoubleType(),
+                                ColumnBatchFilters.Comparison.GREATER_THAN,
+                                950.0));
+        RowType rowType =
+                RowType.of(
+                        new LogicalType[] {new IntType(), new DoubleType()},
+                        new String[] {"f4", "f7"});
+        ParquetColumnarRowInputFormat<FileSourceSplit> format =
+                new ParquetColumnarRowInputFormat<>(
+                        new Configuration(),
+                        rowType,
+                        rowType,
+                        ColumnBatchFactory.withoutExtraFields(),
+                        500,
+                        false,
+                        true,
+                        filter);
+
+        List<Integer> values = new ArrayList<>();
+        List<CheckpointedPosition> positions = new ArrayList<>();
+        readRecords(
+                format.createReader(
+                        EMPTY_CONF, new FileSourceSplit("id", testPath, 0, Long.MAX_VALUE)),
+                values,
+                positions);
+        assertEquals(expected, values);
+
+        // restoring from the position of a record continues with the next matching record
+        for (int i : new int[] {0, 150, expected.size() - 1}) {
+            List<Integer> valuesAfterRestore = new ArrayList<>();
+            readRecords(
+                    format.restoreReader(
+                            EMPTY_CONF,
+                            new FileSourceSplit(
+                                    "id",
+                                    testPath,
+                                    0,
+                                    Long.MAX_VALUE,
+                                    new String[0],
+                                    positions.get(i))),
+                    valuesAfterRestore,
+                    new ArrayList<>());
+            assertEquals(subList(expected, i + 1), valuesAfterRestore);
+        }
+    }
+
+    private static void readRecords(
+            BulkFormat.Reader<RowData> reader,
+            List<Integer> values,
+            List<CheckpointedPosition> positions)
+            throws IOException {
+        BulkFormat.RecordIterator<RowData> batch;
+        while ((batch = reader.readBatch()) != null) {
+            RecordAndPosition<RowData> record;
+            while ((record = batch.next()) != null) {
+                values.add(record.getRecord().getInt(0));
+                positions.add(
+                        new CheckpointedPosition(record.getOffset(), record.getRecordSkipCount()));
+            }
+            batch.releaseBatch();
+        }
+        reader.close();
+    }
+
     @Test
     public void testPartitionValues() throws IOException {
         // prepare parquet file
@@ -83,6 +83,7 @@ public class ParquetFileSystemITCase extends BatchFileSystemITCaseBase {
         if (configure) {
             ret.add("'parquet.utc-timezone'='true'");
             ret.add("'parquet.compression'='gzip'");
+            ret.add("'parquet.vectorized-filter'='true'");
         }
         return ret.toArray(new String[0]);
     }
@@ -21,13 +21,16 @@ package org.apache.flink.runtime.checkpoint;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.OperatorIDPair;
 import org.apache.flink.runtime.checkpoint.CheckpointType.PostCheckpointAction;
 import org.apache.flink.runtime.checkpoint.hooks.MasterHooks;
 import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.executiongraph.JobStatusListener;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
@@ -36,10 +39,15 @@ import org.apache.flink.runtime.messages.checkpoint.DeclineCheckpoint;
 import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
 import org.apache.flink.runtime.operators.coordination.OperatorInfo;
 import org.apache.flink.runtime.persistence.PossibleInconsistentStateException;
+import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.state.CheckpointStorage;
 import org.apache.flink.runtime.state.CheckpointStorageCoordinatorView;
 import org.apache.flink.runtime.state.CheckpointStorageLocation;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
 import org.apache.flink.runtime.state.CompletedCheckpointStorageLocation;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.SharedStateRegistryFactory;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
@@ -60,10 +68,12 @@ import javax.annotation.concurrent.GuardedBy;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +90,7 @@ import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toMap;
@@ -100,6 +111,9 @@ public class CheckpointCoordinator {
     /** The number of recent checkpoints whose IDs are remembered. */
     private static final int NUM_GHOST_CHECKPOINT_IDS = 16;
 
+    /** The maximum number of tasks listed when reporting an expired checkpoint. */
+    private static final int MAX_REPORTED_NON_ACKNOWLEDGED_TASKS = 10;
+
     // ------------------------------------------------------------------------
 
     /** Coordinator-wide lock to safeguard the checkpoint updates. */
@@ -150,6 +164,12 @@ public class CheckpointCoordinator {
      */
     private final long baseInterval;
 
+    /**
+     * The current checkpoint interval, which is the base interval unless it is adapted to the
+     * target checkpoint duration.
+     */
+    private long checkpointInterval;
+
     /** The max time (in ms) that a checkpoint may take. */
     private final long checkpointTimeout;
 
@@ -209,6 +229,9 @@ public class CheckpointCoordinator {
     /** Id of checkpoint for which in-flight data should be ignored on recovery. */
     private final long checkpointIdOfIgnoredInFlightData;
 
+    /** Whether expired checkpoints complete for the regions whose tasks acknowledged them. */
+    private final boolean regionCheckpointsEnabled;
+
     private final CheckpointFailureManager failureManager;
 
     private final Clock clock;
@@ -220,6 +243,12 @@ public class CheckpointCoordinator {
 
     private final CheckpointRequestDecider requestDecider;
 
+    /**
+     * Chooses the interval and the alignment of the checkpoints to meet the target checkpoint
+     * duration, null if no target duration is configured.
+     */
+    @Nullable private final CheckpointCostEstimator costEstimator;
+
     private final CheckpointPlanCalculator checkpointPlanCalculator;
 
     private final ExecutionAttemptMappingProvider attemptMappingProvider;
@@ -293,6 +322,7 @@ public class CheckpointCoordinator {
 
         this.job = checkNotNull(job);
         this.baseInterval = baseInterval;
+        this.checkpointInterval = baseInterval;
         this.checkpointTimeout = chkConfig.getCheckpointTimeout();
         this.minPauseBetweenCheckpoints = minPauseBetweenCheckpoints;
         this.coordinatorsToCheckpoint =
@@ -313,6 +343,14 @@ public class CheckpointCoordinator {
         this.unalignedCheckpointsEnabled = chkConfig.isUnalignedCheckpointsEnabled();
         this.alignedCheckpointTimeout = chkConfig.getAlignedCheckpointTimeout();
         this.checkpointIdOfIgnoredInFlightData = chkConfig.getCheckpointIdOfIgnoredInFlightData();
+        this.regionCheckpointsEnabled = chkConfig.isRegionCheckpointsEnabled();
+
+        try {
+            // recovered checkpoints keep the states that later checkpoints inherited from them
+            CompletedCheckpoint.retainInheritedStates(completedCheckpointStore.getAllCheckpoints());
+        } catch (Exception e) {
+            LOG.warn("Could not link the inherited states of the recovered checkpoints.", e);
+        }
 
         this.recentPendingCheckpoints = new ArrayDeque<>(NUM_GHOST_CHECKPOINT_IDS);
         this.masterHooks = new HashMap<>();
@@ -346,6 +384,14 @@ public class CheckpointCoordinator {
                         this.minPauseBetweenCheckpoints,
                         this.pendingCheckpoints::size,
                         this.checkpointsCleaner::getNumberOfCheckpointsToClean);
+        this.costEstimator =
+                chkConfig.getTargetCheckpointDuration() > 0 && isPeriodicCheckpointingConfigured()
+                        ? new CheckpointCostEstimator(
+                                chkConfig.getTargetCheckpointDuration(),
+                                minPauseBetweenCheckpoints,
+                                baseInterval,
+                                isExactlyOnceMode && unalignedCheckpointsEnabled)
+                        : null;
     }
 
     // --------------------------------------------------------------------------------------------
@@ -819,12 +865,9 @@ public class CheckpointCoordinator {
             List<Execution> tasksToTrigger) {
 
         final CheckpointOptions checkpointOptions =
-                CheckpointOptions.forConfig(
+                createCheckpointOptions(
                         props.getCheckpointType(),
-                        checkpointStorageLocation.getLocationReference(),
-                        isExactlyOnceMode,
-                        unalignedCheckpointsEnabled,
-                        alignedCheckpointTimeout);
+                        checkpointStorageLocation.getLocationReference());
 
         // send the messages to the tasks that trigger their checkpoint
         for (Execution execution : tasksToTrigger) {
@@ -836,6 +879,39 @@ public class CheckpointCoordinator {
         }
     }
 
+    /**
+     * Creates the options of a checkpoint. If a target checkpoint duration is configured and
+     * unaligned checkpoints are enabled, the alignment of a checkpoint is chosen by the {@link
+     * CheckpointCostEstimator}. An aligned checkpoint still times out to an unaligned checkpoint,
+     * after the aligned checkpoint timeout or, if none is configured, after the target duration.
+     */
+    private CheckpointOptions createCheckpointOptions(
+            CheckpointType checkpointType, CheckpointStorageLocationReference locationReference) {
+        synchronized (lock) {
+            if (costEstimator == null
+                    || !isExactlyOnceMode
+                    || !unalignedCheckpointsEnabled
+                    || checkpointType.isSavepoint()) {
+                return CheckpointOptions.forConfig(
+                        checkpointType,
+                        locationReference,
+                        isExactlyOnceMode,
+                        unalignedCheckpointsEnabled,
+                        alignedCheckpointTimeout);
+            } else if (costEstimator.isUnaligned()) {
+                return CheckpointOptions.unaligned(locationReference);
+            } else {
+                return CheckpointOptions.alignedWithTimeout(
+                        locationReference,
+                        alignedCheckpointTimeout > 0
+                                        && alignedCheckpointTimeout
+                                                != CheckpointOptions.NO_ALIGNED_CHECKPOINT_TIME_OUT
+                                ? alignedCheckpointTimeout
+                                : costEstimator.getTargetCheckpointDuration());
+            }
+        }
+    }
+
     /** Trigger request is successful. NOTE, it must be invoked if trigger request is successful. */
     private void onTriggerSuccess() {
         isTriggering = false;
@@ -1175,6 +1251,8 @@ public class CheckpointCoordinator {
             throws CheckpointException {
         final long checkpointId = pendingCheckpoint.getCheckpointId();
         final CompletedCheckpoint completedCheckpoint;
+        // the stats of the pending checkpoint are no longer available after the finalization
+        final PendingCheckpointStats pendingCheckpointStats = getStatsCallback(pendingCheckpoint);
 
         // As a first step to complete the checkpoint, we register its state with the registry
         Map<OperatorID, OperatorState> operatorStates = pendingCheckpoint.getOperatorStates();
@@ -1246,6 +1324,15 @@ public class CheckpointCoordinator {
         // record the time when this was completed, to calculate
         // the 'min delay between checkpoints'
         lastCheckpointCompletionRelativeTime = clock.relativeTimeMillis();
+        if (costEstimator != null
+                && pendingCheckpointStats != null
+                && !completedCheckpoint.getProperties().isSavepoint()) {
+            costEstimator.reportCompletedCheckpoint(
+                    completedCheckpoint.getTimestamp(),
+                    pendingCheckpointStats.getAllTaskStateStats());
+            adaptCheckpointInterval(
+                    costEstimator.getCheckpointInterval(), completedCheckpoint.getTimestamp());
+        }
 
         LOG.info(
                 "Completed checkpoint {} for job {} ({} bytes, checkpointDuration={} ms, finalizationTime={} ms).",
@@ -1270,9 +1357,17 @@ public class CheckpointCoordinator {
 
         // send the "notify complete" call to all vertices, coordinators, etc.
         sendAcknowledgeMessages(
-                pendingCheckpoint.getCheckpointPlan().getTasksToCommitTo(),
+                pendingCheckpoint.getTasksToCommitTo(),
                 checkpointId,
                 completedCheckpoint.getTimestamp());
+
+        // the tasks which inherited their states did not complete the checkpoint
+        final List<ExecutionVertex> tasksWithInheritedStates =
+                pendingCheckpoint.getTasksWithInheritedStates();
+        if (!tasksWithInheritedStates.isEmpty()) {
+            sendAbortedMessages(
+                    tasksWithInheritedStates, checkpointId, completedCheckpoint.getTimestamp());
+        }
     }
 
     void scheduleTriggerRequest() {
@@ -1823,6 +1918,28 @@ public class CheckpointCoordinator {
         }
     }
 
+    /**
+     * Changes the interval of the periodic checkpoints. The next checkpoint is triggered the new
+     * interval after the given trigger timestamp of the latest checkpoint.
+     */
+    private void adaptCheckpointInterval(long interval, long lastCheckpointTimestamp) {
+        assert Thread.holdsLock(lock);
+
+        if (interval == checkpointInterval) {
+            return;
+        }
+        LOG.info(
+                "Changing the checkpoint interval of job {} from {} ms to {} ms.",
+                job,
+                checkpointInterval,
+                interval);
+        checkpointInterval = interval;
+        if (periodicScheduling) {
+            rescheduleTrigger(
+                    Math.max(0, lastCheckpointTimestamp + interval - System.currentTimeMillis()));
+        }
+    }
+
     private void rescheduleTrigger(long tillNextMillis) {
         cancelPeriodicTrigger();
         currentPeriodicTrigger = scheduleTriggerWithDelay(tillNextMillis);
@@ -1841,7 +1958,7 @@ public class CheckpointCoordinator {
 
     private ScheduledFuture<?> scheduleTriggerWithDelay(long initDelay) {
         return timer.scheduleAtFixedRate(
-                new ScheduledTrigger(), initDelay, baseInterval, TimeUnit.MILLISECONDS);
+                new ScheduledTrigger(), initDelay, checkpointInterval, TimeUnit.MILLISECONDS);
     }
 
     private void restoreStateToCoordinators(
@@ -2024,16 +2141,198 @@ public class CheckpointCoordinator {
                 // note that checkpoint completion discards the pending checkpoint object
                 if (!pendingCheckpoint.isDisposed()) {
                     LOG.info(
-                            "Checkpoint {} of job {} expired before completing.",
+                            "Checkpoint {} of job {} expired before completing. {}",
                             pendingCheckpoint.getCheckpointId(),
-                            job);
+                            job,
+                            describeNonAcknowledgedTasks(pendingCheckpoint));
 
-                    abortPendingCheckpoint(
-                            pendingCheckpoint,
-                            new CheckpointException(CheckpointFailureReason.CHECKPOINT_EXPIRED));
+                    if (!completeAcknowledgedRegions(pendingCheckpoint)) {
+                        abortPendingCheckpoint(
+                                pendingCheckpoint,
+                                new CheckpointException(
+                                        CheckpointFailureReason.CHECKPOINT_EXPIRED));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Describes the tasks which did not acknowledge the given checkpoint. For jobs which consist of
+     * many independent pipelines this points to the pipelines which hold back the checkpoint, e.g.
+     * because they are backpressured.
+     */
+    private static String describeNonAcknowledgedTasks(PendingCheckpoint pendingCheckpoint) {
+        final List<ExecutionVertex> nonAcknowledgedTasks =
+                pendingCheckpoint.getNonAcknowledgedTasks();
+        if (nonAcknowledgedTasks.isEmpty()) {
+            return "All tasks acknowledged the checkpoint.";
+        }
+        final String tasks =
+                nonAcknowledgedTasks.stream()
+                        .limit(MAX_REPORTED_NON_ACKNOWLEDGED_TASKS)
+                        .map(ExecutionVertex::getTaskNameWithSubtaskIndex)
+                        .collect(Collectors.joining(", "));
+        return String.format(
+                "%d of %d tasks did not acknowledge the checkpoint: %s%s",
+                nonAcknowledgedTasks.size(),
+                pendingCheckpoint.getCheckpointPlan().getTasksToWaitFor().size(),
+                tasks,
+                nonAcknowledgedTasks.size() > MAX_REPORTED_NON_ACKNOWLEDGED_TASKS ? ", ..." : ".");
+    }
+
+    /**
+     * Completes the given expired checkpoint for the independent regions of the job whose tasks all
+     * acknowledged it, if region checkpoints are enabled. The tasks of the other regions inherit
+     * their states from the latest completed checkpoint. As the regions do not exchange any
+     * records, the state of every region stays consistent.
+     *
+     * @return True, if the checkpoint was completed for some regions, false if it must be aborted.
+     */
+    @GuardedBy("lock")
+    private boolean completeAcknowledgedRegions(PendingCheckpoint pendingCheckpoint) {
+        final CheckpointPlan plan = pendingCheckpoint.getCheckpointPlan();
+        if (!regionCheckpointsEnabled
+                || shutdown
+                || pendingCheckpoint.getProps().isSavepoint()
+                || !coordinatorsToCheckpoint.isEmpty()
+                || !masterHooks.isEmpty()
+                || !plan.getFinishedTasks().isEmpty()) {
+            return false;
+        }
+
+        final CompletedCheckpoint latest;
+        try {
+            latest = completedCheckpointStore.getLatestCheckpoint(isPreferCheckpointForRecovery);
+        } catch (Exception e) {
+            LOG.warn("Could not retrieve the latest completed checkpoint of job {}.", job, e);
+            return false;
+        }
+        if (latest == null) {
+            return false;
+        }
+
+        final Set<ExecutionVertex> nonAcknowledgedTasks =
+                new HashSet<>(pendingCheckpoint.getNonAcknowledgedTasks());
+        final Collection<List<ExecutionVertex>> regions =
+                computeIndependentRegions(plan.getTasksToCommitTo());
+        final List<ExecutionVertex> tasksToInherit = new ArrayList<>();
+        int numAcknowledgedRegions = 0;
+        for (List<ExecutionVertex> region : regions) {
+            if (region.stream().anyMatch(nonAcknowledgedTasks::contains)) {
+                tasksToInherit.addAll(region);
+            } else {
+                numAcknowledgedRegions++;
+            }
+        }
+
+        if (numAcknowledgedRegions == 0
+                || tasksToInherit.isEmpty()
+                || !canInheritStates(tasksToInherit, latest)) {
+            return false;
+        }
+
+        LOG.info(
+                "Completing checkpoint {} of job {} for {} of {} independent regions. "
+                        + "The tasks of the other regions keep their states of checkpoint {}.",
+                pendingCheckpoint.getCheckpointId(),
+                job,
+                numAcknowledgedRegions,
+                regions.size(),
+                latest.getCheckpointID());
+
+        pendingCheckpoint.inheritSubtaskStates(tasksToInherit, latest, executor);
+        try {
+            completePendingCheckpoint(pendingCheckpoint);
+        } catch (CheckpointException e) {
+            // the pending checkpoint has been aborted or discarded already
+            LOG.warn(
+                    "Could not complete checkpoint {} of job {} for the acknowledged regions.",
+                    pendingCheckpoint.getCheckpointId(),
+                    job,
+                    e);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given tasks can inherit their states from the given checkpoint, i.e. the
+     * checkpoint contains the states of all their operators with the same parallelism, and none of
+     * these states contain shared state, whose references are tracked per checkpoint.
+     */
+    private static boolean canInheritStates(
+            Collection<ExecutionVertex> tasks, CompletedCheckpoint checkpoint) {
+        for (ExecutionVertex task : tasks) {
+            for (OperatorIDPair operatorID : task.getJobVertex().getOperatorIDs()) {
+                final OperatorState operatorState =
+                        checkpoint.getOperatorStates().get(operatorID.getGeneratedOperatorID());
+                if (operatorState == null
+                        || operatorState.isFullyFinished()
+                        || operatorState.getParallelism() != task.getTotalNumberOfParallelSubtasks()
+                        || operatorState.getMaxParallelism() != task.getMaxParallelism()) {
+                    return false;
+                }
+
+                final OperatorSubtaskState subtaskState =
+                        operatorState.getState(task.getParallelSubtaskIndex());
+                if (subtaskState != null
+                        && !(hasNoSharedState(subtaskState.getManagedKeyedState())
+                                && hasNoSharedState(subtaskState.getRawKeyedState()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasNoSharedState(Collection<KeyedStateHandle> keyedStateHandles) {
+        return keyedStateHandles.stream()
+                .allMatch(handle -> handle instanceof KeyGroupsStateHandle);
+    }
+
+    /**
+     * Groups the given tasks into independent regions, which are the sets of tasks that are
+     * connected by exchanging records.
+     */
+    @VisibleForTesting
+    static Collection<List<ExecutionVertex>> computeIndependentRegions(
+            Collection<ExecutionVertex> tasks) {
+        final Map<ExecutionVertexID, List<ExecutionVertex>> regionsByTask = new HashMap<>();
+        for (ExecutionVertex task : tasks) {
+            regionsByTask.put(task.getID(), new ArrayList<>(Collections.singletonList(task)));
+        }
+
+        for (ExecutionVertex task : tasks) {
+            for (ConsumedPartitionGroup partitionGroup : task.getAllConsumedPartitionGroups()) {
+                for (IntermediateResultPartitionID partitionId : partitionGroup) {
+                    final IntermediateResultPartition partition =
+                            task.getExecutionGraphAccessor().getResultPartitionOrThrow(partitionId);
+                    final List<ExecutionVertex> producerRegion =
+                            regionsByTask.get(partition.getProducer().getID());
+                    final List<ExecutionVertex> consumerRegion = regionsByTask.get(task.getID());
+                    if (producerRegion == null || producerRegion == consumerRegion) {
+                        continue;
+                    }
+
+                    // merge the smaller region into the larger one
+                    final List<ExecutionVertex> larger =
+                            producerRegion.size() >= consumerRegion.size()
+                                    ? producerRegion
+                                    : consumerRegion;
+                    final List<ExecutionVertex> smaller =
+                            larger == producerRegion ? consumerRegion : producerRegion;
+                    larger.addAll(smaller);
+                    for (ExecutionVertex merged : smaller) {
+                        regionsByTask.put(merged.getID(), larger);
+                    }
                 }
             }
         }
+
+        final Set<List<ExecutionVertex>> regions =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        regions.addAll(regionsByTask.values());
+        return regions;
     }
 
     private static CheckpointException getCheckpointException(
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Estimates the end-to-end duration of the upcoming checkpoints from the {@link TaskStateStats}
+ * reported for the completed checkpoints, and chooses the checkpoint interval and the alignment of
+ * the next checkpoint to meet a target checkpoint duration.
+ *
+ * <p>The estimates are kept per subtask, as moving averages of:
+ *
+ * <ul>
+ *   <li>the start delay and the alignment duration of the barriers,
+ *   <li>the duration of the synchronous part of the snapshot,
+ *   <li>the rate at which the state size grows between two checkpoints,
+ *   <li>the rate at which the state is uploaded in the asynchronous part of the snapshot,
+ *   <li>the in-flight data, which an unaligned checkpoint persists in addition to the state.
+ * </ul>
+ *
+ * <p>The subtasks take their snapshots in parallel, so the estimated duration of a checkpoint is
+ * the largest estimated duration of its subtasks. Only the upload of the state growing between two
+ * checkpoints depends on the checkpoint interval. The chosen interval is the longest one, up to the
+ * configured interval, for which the estimated duration does not exceed the target.
+ *
+ * <p>If unaligned checkpoints are enabled, the next checkpoint is unaligned if the estimated
+ * duration of an aligned checkpoint exceeds the target and an unaligned checkpoint is estimated to
+ * be faster. Otherwise, the next checkpoint starts aligned.
+ *
+ * <p>This class is not thread-safe.
+ */
+class CheckpointCostEstimator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckpointCostEstimator.class);
+
+    /** Weight of the latest reported stats in the moving averages. */
+    private static final double ESTIMATE_WEIGHT = 0.3;
+
+    private final long targetCheckpointDuration;
+
+    private final long minCheckpointInterval;
+
+    private final long maxCheckpointInterval;
+
+    private final boolean unalignedCheckpointsEnabled;
+
+    private final Map<JobVertexID, SubtaskCostEstimate[]> subtaskEstimates = new HashMap<>();
+
+    /** The trigger timestamp of the latest reported checkpoint, -1 if there is none. */
+    private long lastCheckpointTimestamp = -1;
+
+    private long checkpointInterval;
+
+    private boolean unaligned;
+
+    CheckpointCostEstimator(
+            long targetCheckpointDuration,
+            long minCheckpointInterval,
+            long maxCheckpointInterval,
+            boolean unalignedCheckpointsEnabled) {
+        checkArgument(targetCheckpointDuration > 0, "The target duration must be positive.");
+        checkArgument(minCheckpointInterval <= maxCheckpointInterval);
+        this.targetCheckpointDuration = targetCheckpointDuration;
+        this.minCheckpointInterval = minCheckpointInterval;
+        this.maxCheckpointInterval = maxCheckpointInterval;
+        this.unalignedCheckpointsEnabled = unalignedCheckpointsEnabled;
+        this.checkpointInterval = maxCheckpointInterval;
+    }
+
+    /** Returns the target end-to-end duration of the checkpoints in milliseconds. */
+    long getTargetCheckpointDuration() {
+        return targetCheckpointDuration;
+    }
+
+    /** Returns the interval in milliseconds between the triggers of the next checkpoints. */
+    long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /** Returns whether the next checkpoint should be triggered as an unaligned checkpoint. */
+    boolean isUnaligned() {
+        return unaligned;
+    }
+
+    /**
+     * Updates the estimates with the stats of the subtasks of a completed checkpoint, and chooses
+     * the interval and the alignment of the next checkpoints.
+     *
+     * @param checkpointTimestamp The trigger timestamp of the completed checkpoint.
+     * @param taskStateStats The stats of the tasks of the completed checkpoint.
+     */
+    void reportCompletedCheckpoint(
+            long checkpointTimestamp, Collection<TaskStateStats> taskStateStats) {
+        long millisSinceLastCheckpoint =
+                lastCheckpointTimestamp < 0 ? -1 : checkpointTimestamp - lastCheckpointTimestamp;
+        lastCheckpointTimestamp = checkpointTimestamp;
+
+        for (TaskStateStats taskStats : taskStateStats) {
+            SubtaskCostEstimate[] estimates = subtaskEstimates.get(taskStats.getJobVertexId());
+            SubtaskStateStats[] subtaskStats = taskStats.getSubtaskStats();
+            if (estimates == null || estimates.length != subtaskStats.length) {
+                estimates = new SubtaskCostEstimate[subtaskStats.length];
+                subtaskEstimates.put(taskStats.getJobVertexId(), estimates);
+            }
+            for (int i = 0; i < subtaskStats.length; i++) {
+                if (subtaskStats[i] == null) {
+                    continue;
+                }
+                if (estimates[i] == null) {
+                    estimates[i] = new SubtaskCostEstimate();
+                }
+                estimates[i].update(subtaskStats[i], millisSinceLastCheckpoint);
+            }
+        }
+
+        long alignedInterval = chooseInterval(false);
+        long alignedDuration = estimateDuration(alignedInterval, false);
+        checkpointInterval = alignedInterval;
+        unaligned = false;
+        if (unalignedCheckpointsEnabled && alignedDuration > targetCheckpointDuration) {
+            long unalignedInterval = chooseInterval(true);
+            if (estimateDuration(unalignedInterval, true) < alignedDuration) {
+                checkpointInterval = unalignedInterval;
+                unaligned = true;
+            }
+        }
+
+        LOG.debug(
+                "Estimated checkpoint duration of {} ms for {} checkpoints with an interval of {} ms, target duration is {} ms.",
+                estimateDuration(checkpointInterval, unaligned),
+                unaligned ? "unaligned" : "aligned",
+                checkpointInterval,
+                targetCheckpointDuration);
+    }
+
+    /**
+     * Returns the estimated end-to-end duration of a checkpoint triggered after the given interval,
+     * or 0 if there is no estimate yet.
+     */
+    @VisibleForTesting
+    long estimateDuration(long interval, boolean unaligned) {
+        double duration = 0;
+        for (SubtaskCostEstimate[] estimates : subtaskEstimates.values()) {
+            for (SubtaskCostEstimate estimate : estimates) {
+                if (estimate != null) {
+                    duration = Math.max(duration, estimate.estimateDuration(interval, unaligned));
+                }
+            }
+        }
+        return (long) Math.ceil(duration);
+    }
+
+    /**
+     * Returns the longest interval between the min and the max interval, for which the estimated
+     * duration of all subtasks does not exceed the target duration. The subtasks whose duration
+     * does not depend on the interval, or exceeds the target duration anyway, do not limit the
+     * interval.
+     */
+    private long chooseInterval(boolean unaligned) {
+        double interval = maxCheckpointInterval;
+        for (SubtaskCostEstimate[] estimates : subtaskEstimates.values()) {
+            for (SubtaskCostEstimate estimate : estimates) {
+                if (estimate == null) {
+                    continue;
+                }
+                double millisPerIntervalMilli = estimate.getDurationPerIntervalMilli();
+                double fixedDuration = estimate.estimateDuration(0, unaligned);
+                if (millisPerIntervalMilli > 0 && fixedDuration < targetCheckpointDuration) {
+                    interval =
+                            Math.min(
+                                    interval,
+                                    (targetCheckpointDuration - fixedDuration)
+                                            / millisPerIntervalMilli);
+                }
+            }
+        }
+        return Math.max(minCheckpointInterval, (long) interval);
+    }
+
+    /** The moving averages of the reported stats of a subtask. */
+    private static final class SubtaskCostEstimate {
+
+        private double startDelay = -1;
+        private double alignmentDuration = -1;
+        private double syncDuration = -1;
+        private double asyncDuration = -1;
+        /** The state size in bytes of the latest reported checkpoint. */
+        private long stateSize = -1;
+        /** The growth of the state size in bytes per millisecond between two checkpoints. */
+        private double stateSizeGrowthRate = -1;
+        /** The uploaded bytes per millisecond in the asynchronous part of the snapshot. */
+        private double uploadRate = -1;
+        /** The in-flight data in bytes which an unaligned checkpoint persists. */
+        private double inFlightData = -1;
+
+        void update(SubtaskStateStats stats, long millisSinceLastCheckpoint) {
+            startDelay = average(startDelay, stats.getCheckpointStartDelay());
+            syncDuration = average(syncDuration, stats.getSyncCheckpointDuration());
+            asyncDuration = average(asyncDuration, stats.getAsyncCheckpointDuration());
+            if (stats.getUnalignedCheckpoint()) {
+                inFlightData = average(inFlightData, stats.getPersistedData());
+            } else {
+                alignmentDuration = average(alignmentDuration, stats.getAlignmentDuration());
+                // the data processed during the alignment is persisted by unaligned checkpoints
+                inFlightData = average(inFlightData, stats.getProcessedData());
+            }
+            if (stats.getStateSize() > 0 && stats.getAsyncCheckpointDuration() > 0) {
+                uploadRate =
+                        average(
+                                uploadRate,
+                                (double) stats.getStateSize() / stats.getAsyncCheckpointDuration());
+            }
+            if (stateSize >= 0 && millisSinceLastCheckpoint > 0) {
+                stateSizeGrowthRate =
+                        average(
+                                stateSizeGrowthRate,
+                                Math.max(0, stats.getStateSize() - stateSize)
+                                        / (double) millisSinceLastCheckpoint);
+            }
+            stateSize = stats.getStateSize();
+        }
+
+        /**
+         * Returns the additional duration in milliseconds for every millisecond of the checkpoint
+         * interval, i.e. the time to upload the state which grows in that millisecond.
+         */
+        double getDurationPerIntervalMilli() {
+            return uploadRate > 0 && stateSizeGrowthRate > 0 ? stateSizeGrowthRate / uploadRate : 0;
+        }
+
+        double estimateDuration(long interval, boolean unaligned) {
+            double duration = positive(startDelay) + positive(syncDuration);
+            if (!unaligned) {
+                duration += positive(alignmentDuration);
+            }
+            if (uploadRate > 0) {
+                double uploadedBytes =
+                        Math.max(0, stateSize) + positive(stateSizeGrowthRate) * interval;
+                if (unaligned) {
+                    uploadedBytes += positive(inFlightData);
+                }
+                duration += uploadedBytes / uploadRate;
+            } else {
+                // nothing has been uploaded yet to estimate the upload rate
+                duration += positive(asyncDuration);
+            }
+            return duration;
+        }
+
+        /** Returns the updated moving average, ignoring the unavailable values. */
+        private static double average(double average, double value) {
+            if (value < 0) {
+                return average;
+            } else if (average < 0) {
+                return value;
+            } else {
+                return ESTIMATE_WEIGHT * value + (1 - ESTIMATE_WEIGHT) * average;
+            }
+        }
+
+        private static double positive(double value) {
+            return Math.max(0, value);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.CompletedCheckpointStorageLocation;
 import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StateObject;
 import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.util.ExceptionUtils;
@@ -43,6 +44,7 @@ import java.util.Map;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * A CompletedCheckpoint describes a checkpoint after all required tasks acknowledged it (with their
@@ -65,6 +67,13 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * checkpoint in a file system, that pointer is the file path to the checkpoint's folder or the
  * metadata file. For a state backend that stores metadata in database tables, the pointer could be
  * the table name and row key. The pointer is encoded as a String.
+ *
+ * <h2>Inherited States</h2>
+ *
+ * <p>A checkpoint that was completed for some independent regions of the job only contains the
+ * states of the tasks of the other regions from a previous checkpoint. These inherited states are
+ * owned by the previous checkpoint, which defers discarding its states until all checkpoints that
+ * inherited them are discarded.
  */
 public class CompletedCheckpoint implements Serializable, Checkpoint {
 
@@ -104,9 +113,25 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
     /** External pointer to the completed checkpoint (for example file path). */
     private final String externalPointer;
 
+    /**
+     * The subtask states that this checkpoint inherited from previous checkpoints, by operator and
+     * subtask index, with the IDs of the checkpoints that own them. May be null for checkpoints
+     * that were serialized by an older version.
+     */
+    @Nullable private final Map<OperatorID, Map<Integer, Long>> inheritedSubtaskStates;
+
     /** Optional stats tracker callback for discard. */
     @Nullable private transient volatile CompletedCheckpointStats.DiscardCallback discardCallback;
 
+    /** The retained checkpoints that own the inherited subtask states, by checkpoint ID. */
+    @Nullable private transient Map<Long, CompletedCheckpoint> inheritedStateOwners;
+
+    /** The number of later checkpoints that retain this checkpoint for their inherited states. */
+    private transient int numInheritingCheckpoints;
+
+    /** Whether the discard of this checkpoint is deferred until it is not retained anymore. */
+    private transient boolean discardDeferred;
+
     // ------------------------------------------------------------------------
 
     public CompletedCheckpoint(
@@ -118,6 +143,35 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
             @Nullable Collection<MasterState> masterHookStates,
             CheckpointProperties props,
             CompletedCheckpointStorageLocation storageLocation) {
+        this(
+                job,
+                checkpointID,
+                timestamp,
+                completionTimestamp,
+                operatorStates,
+                masterHookStates,
+                props,
+                storageLocation,
+                Collections.emptyMap(),
+                Collections.emptyMap());
+    }
+
+    /**
+     * Creates a checkpoint that inherited some of its subtask states from previous checkpoints. The
+     * given owners of the inherited states must already {@link #retainStates() retain} their states
+     * for this checkpoint.
+     */
+    CompletedCheckpoint(
+            JobID job,
+            long checkpointID,
+            long timestamp,
+            long completionTimestamp,
+            Map<OperatorID, OperatorState> operatorStates,
+            @Nullable Collection<MasterState> masterHookStates,
+            CheckpointProperties props,
+            CompletedCheckpointStorageLocation storageLocation,
+            Map<OperatorID, Map<Integer, Long>> inheritedSubtaskStates,
+            Map<Long, CompletedCheckpoint> inheritedStateOwners) {
 
         checkArgument(checkpointID >= 0);
         checkArgument(timestamp >= 0);
@@ -140,6 +194,12 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
         this.storageLocation = checkNotNull(storageLocation);
         this.metadataHandle = storageLocation.getMetadataHandle();
         this.externalPointer = storageLocation.getExternalPointer();
+
+        this.inheritedSubtaskStates =
+                inheritedSubtaskStates.isEmpty()
+                        ? Collections.emptyMap()
+                        : new HashMap<>(inheritedSubtaskStates);
+        this.inheritedStateOwners = new HashMap<>(inheritedStateOwners);
     }
 
     // ------------------------------------------------------------------------
@@ -171,6 +231,36 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
         return operatorStates;
     }
 
+    /**
+     * Returns the subtask states that this checkpoint inherited from previous checkpoints, by
+     * operator and subtask index, with the IDs of the checkpoints that own them.
+     */
+    public Map<OperatorID, Map<Integer, Long>> getInheritedSubtaskStates() {
+        return inheritedSubtaskStates == null
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(inheritedSubtaskStates);
+    }
+
+    /** Returns the ID of the checkpoint that owns the state of the given subtask. */
+    long getOwnerOfSubtaskState(OperatorID operatorID, int subtaskIndex) {
+        final Map<Integer, Long> inherited = getInheritedSubtaskStates().get(operatorID);
+        final Long owner = inherited == null ? null : inherited.get(subtaskIndex);
+        return owner == null ? checkpointID : owner;
+    }
+
+    /**
+     * Returns this checkpoint or the retained checkpoint with the given ID that owns inherited
+     * states of this checkpoint, or null if the owner is not known, because it was not retained
+     * anymore when this checkpoint was recovered.
+     */
+    @Nullable
+    synchronized CompletedCheckpoint getStateOwner(long ownerCheckpointID) {
+        if (ownerCheckpointID == checkpointID) {
+            return this;
+        }
+        return inheritedStateOwners == null ? null : inheritedStateOwners.get(ownerCheckpointID);
+    }
+
     public Collection<MasterState> getMasterHookStates() {
         return Collections.unmodifiableCollection(masterHookStates);
     }
@@ -207,6 +297,98 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
         sharedStateRegistry.registerAll(operatorStates.values());
     }
 
+    // ------------------------------------------------------------------------
+    //  Inherited States
+    // ------------------------------------------------------------------------
+
+    /**
+     * Retains the states of this checkpoint for a later checkpoint that inherited some of them.
+     * Discarding this checkpoint is deferred until the states are {@link #releaseStates() released}
+     * again.
+     */
+    synchronized void retainStates() {
+        numInheritingCheckpoints++;
+    }
+
+    /**
+     * Releases the states that were retained for a later checkpoint, and discards this checkpoint
+     * if it was discarded in the meantime.
+     */
+    void releaseStates() {
+        final boolean discard;
+        synchronized (this) {
+            checkState(numInheritingCheckpoints > 0, "The states are not retained.");
+            numInheritingCheckpoints--;
+            discard = numInheritingCheckpoints == 0 && discardDeferred;
+        }
+
+        if (discard) {
+            try {
+                discard();
+            } catch (Exception e) {
+                LOG.warn("Could not properly discard completed checkpoint {}.", checkpointID, e);
+            }
+        }
+    }
+
+    /**
+     * Lets the given checkpoints retain the states that the other checkpoints inherited from them.
+     * This restores the links between the checkpoints after they were recovered, for example after
+     * a failover of the job manager.
+     */
+    static void retainInheritedStates(Collection<CompletedCheckpoint> checkpoints) {
+        final Map<Long, CompletedCheckpoint> checkpointsById = new HashMap<>();
+        for (CompletedCheckpoint checkpoint : checkpoints) {
+            checkpointsById.put(checkpoint.getCheckpointID(), checkpoint);
+        }
+
+        for (CompletedCheckpoint checkpoint : checkpoints) {
+            for (Map<Integer, Long> owners : checkpoint.getInheritedSubtaskStates().values()) {
+                for (Long ownerId : owners.values()) {
+                    final CompletedCheckpoint owner = checkpointsById.get(ownerId);
+                    if (owner != null && checkpoint.getStateOwner(ownerId) == null) {
+                        owner.retainStates();
+                        synchronized (checkpoint) {
+                            if (checkpoint.inheritedStateOwners == null) {
+                                checkpoint.inheritedStateOwners = new HashMap<>();
+                            }
+                            checkpoint.inheritedStateOwners.put(ownerId, owner);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the states of the given operators without the inherited subtask states, which are
+     * owned by previous checkpoints.
+     */
+    static List<StateObject> getOwnedStates(
+            Map<OperatorID, OperatorState> operatorStates,
+            Map<OperatorID, Map<Integer, Long>> inheritedSubtaskStates) {
+        final List<StateObject> states = new ArrayList<>(operatorStates.size());
+        for (OperatorState operatorState : operatorStates.values()) {
+            final Map<Integer, Long> inherited =
+                    inheritedSubtaskStates.get(operatorState.getOperatorID());
+            if (inherited == null) {
+                states.add(operatorState);
+                continue;
+            }
+
+            for (Map.Entry<Integer, OperatorSubtaskState> subtaskState :
+                    operatorState.getSubtaskStates().entrySet()) {
+                if (!inherited.containsKey(subtaskState.getKey())) {
+                    states.add(subtaskState.getValue());
+                }
+            }
+            if (operatorState.getCoordinatorState() != null) {
+                states.add(operatorState.getCoordinatorState());
+            }
+        }
+        return states;
+    }
+
     // ------------------------------------------------------------------------
     //  Discard and Dispose
     // ------------------------------------------------------------------------
@@ -238,6 +420,17 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
 
     @Override
     public void discard() throws Exception {
+        synchronized (this) {
+            if (numInheritingCheckpoints > 0) {
+                LOG.debug(
+                        "Deferring the discard of {}, whose states are inherited by {} later checkpoints.",
+                        this,
+                        numInheritingCheckpoints);
+                discardDeferred = true;
+                return;
+            }
+        }
+
         LOG.trace("Executing discard procedure for {}.", this);
 
         try {
@@ -251,9 +444,10 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
                 exception = e;
             }
 
-            // discard private state objects
+            // discard private state objects, the inherited ones are owned by other checkpoints
             try {
-                StateUtil.bestEffortDiscardAllStateObjects(operatorStates.values());
+                StateUtil.bestEffortDiscardAllStateObjects(
+                        getOwnedStates(operatorStates, getInheritedSubtaskStates()));
             } catch (Exception e) {
                 exception = ExceptionUtils.firstOrSuppressed(e, exception);
             }
@@ -270,6 +464,7 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
             }
         } finally {
             operatorStates.clear();
+            releaseInheritedStates();
 
             // to be null-pointer safe, copy reference to stack
             CompletedCheckpointStats.DiscardCallback discardCallback = this.discardCallback;
@@ -279,6 +474,21 @@ public class CompletedCheckpoint implements Serializable, Checkpoint {
         }
     }
 
+    private void releaseInheritedStates() {
+        final Collection<CompletedCheckpoint> owners;
+        synchronized (this) {
+            if (inheritedStateOwners == null) {
+                return;
+            }
+            owners = inheritedStateOwners.values();
+            inheritedStateOwners = null;
+        }
+
+        for (CompletedCheckpoint owner : owners) {
+            owner.releaseStates();
+        }
+    }
+
     public boolean shouldBeDiscardedOnSubsume() {
         return props.discardOnSubsumed();
     }
@@ -99,6 +99,12 @@ public class OperatorState implements CompositeStateHandle {
         }
     }
 
+    /** Removes the state of the given subtask and returns it, or null if it had no state. */
+    @Nullable
+    public OperatorSubtaskState removeState(int subtaskIndex) {
+        return operatorSubtaskStates.remove(subtaskIndex);
+    }
+
     public OperatorSubtaskState getState(int subtaskIndex) {
         if (subtaskIndex < 0 || subtaskIndex >= parallelism) {
             throw new IndexOutOfBoundsException(
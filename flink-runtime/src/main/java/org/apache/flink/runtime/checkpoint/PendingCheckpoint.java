@@ -103,6 +103,18 @@ public class PendingCheckpoint implements Checkpoint {
     /** Set of acknowledged tasks. */
     private final Set<ExecutionAttemptID> acknowledgedTasks;
 
+    /** The tasks that inherited their states from a previous checkpoint. */
+    private final Set<ExecutionVertex> tasksWithInheritedStates;
+
+    /**
+     * The subtask states inherited from a previous checkpoint, by operator and subtask index, with
+     * the IDs of the checkpoints that own them.
+     */
+    private final Map<OperatorID, Map<Integer, Long>> inheritedSubtaskStates;
+
+    /** The checkpoints that retain the inherited subtask states for this checkpoint. */
+    private final Map<Long, CompletedCheckpoint> inheritedStateOwners;
+
     /** The checkpoint properties. */
     private final CheckpointProperties props;
 
@@ -163,6 +175,9 @@ public class PendingCheckpoint implements Checkpoint {
                         ? Collections.emptySet()
                         : new HashSet<>(operatorCoordinatorsToConfirm);
         this.acknowledgedTasks = new HashSet<>(checkpointPlan.getTasksToWaitFor().size());
+        this.tasksWithInheritedStates = new HashSet<>();
+        this.inheritedSubtaskStates = new HashMap<>();
+        this.inheritedStateOwners = new HashMap<>();
         this.onCompletionPromise = checkNotNull(onCompletionPromise);
     }
 
@@ -199,6 +214,39 @@ public class PendingCheckpoint implements Checkpoint {
         return notYetAcknowledgedTasks.size();
     }
 
+    /** Returns a snapshot of the tasks which have not acknowledged this checkpoint yet. */
+    public List<ExecutionVertex> getNonAcknowledgedTasks() {
+        synchronized (lock) {
+            return new ArrayList<>(notYetAcknowledgedTasks.values());
+        }
+    }
+
+    /**
+     * Returns the tasks to notify about the completion of this checkpoint, which are the tasks of
+     * the plan that did not inherit their states from a previous checkpoint.
+     */
+    List<ExecutionVertex> getTasksToCommitTo() {
+        synchronized (lock) {
+            if (tasksWithInheritedStates.isEmpty()) {
+                return checkpointPlan.getTasksToCommitTo();
+            }
+            final List<ExecutionVertex> tasksToCommitTo = new ArrayList<>();
+            for (ExecutionVertex task : checkpointPlan.getTasksToCommitTo()) {
+                if (!tasksWithInheritedStates.contains(task)) {
+                    tasksToCommitTo.add(task);
+                }
+            }
+            return tasksToCommitTo;
+        }
+    }
+
+    /** Returns the tasks that inherited their states from a previous checkpoint. */
+    List<ExecutionVertex> getTasksWithInheritedStates() {
+        synchronized (lock) {
+            return new ArrayList<>(tasksWithInheritedStates);
+        }
+    }
+
     public int getNumberOfNonAcknowledgedOperatorCoordinators() {
         return notYetAcknowledgedOperatorCoordinators.size();
     }
@@ -335,7 +383,11 @@ public class PendingCheckpoint implements Checkpoint {
                                 operatorStates,
                                 masterStates,
                                 props,
-                                finalizedLocation);
+                                finalizedLocation,
+                                inheritedSubtaskStates,
+                                inheritedStateOwners);
+                // the completed checkpoint releases the inherited states from now on
+                inheritedStateOwners.clear();
 
                 onCompletionPromise.complete(completed);
 
@@ -388,6 +440,99 @@ public class PendingCheckpoint implements Checkpoint {
         }
     }
 
+    /**
+     * Lets the given tasks inherit their states from the given previous checkpoint, instead of
+     * waiting for their acknowledgements. This completes the checkpoint for the independent regions
+     * of the job whose tasks acknowledged it, while the tasks of the other regions keep their
+     * states of the previous checkpoint. The states that the given tasks already acknowledged are
+     * discarded.
+     *
+     * <p>The checkpoints that own the inherited states retain them until this checkpoint is
+     * discarded.
+     *
+     * @param tasks The tasks of the regions that did not acknowledge the checkpoint
+     * @param previous The checkpoint to inherit the states from
+     * @param executor The executor to discard the replaced states with
+     */
+    void inheritSubtaskStates(
+            Collection<ExecutionVertex> tasks, CompletedCheckpoint previous, Executor executor) {
+        synchronized (lock) {
+            checkState(!disposed, "checkpoint is discarded");
+
+            final List<OperatorSubtaskState> replacedStates = new ArrayList<>();
+            for (ExecutionVertex task : tasks) {
+                final int subtaskIndex = task.getParallelSubtaskIndex();
+                for (OperatorIDPair operatorIDPair : task.getJobVertex().getOperatorIDs()) {
+                    final OperatorID operatorID = operatorIDPair.getGeneratedOperatorID();
+                    final OperatorState previousState =
+                            checkNotNull(
+                                    previous.getOperatorStates().get(operatorID),
+                                    "No state of operator %s in the previous checkpoint.",
+                                    operatorID);
+
+                    OperatorState operatorState = operatorStates.get(operatorID);
+                    if (operatorState == null) {
+                        operatorState =
+                                new OperatorState(
+                                        operatorID,
+                                        task.getTotalNumberOfParallelSubtasks(),
+                                        task.getMaxParallelism());
+                        operatorStates.put(operatorID, operatorState);
+                    }
+
+                    final OperatorSubtaskState replacedState =
+                            operatorState.removeState(subtaskIndex);
+                    if (replacedState != null) {
+                        replacedStates.add(replacedState);
+                    }
+
+                    final OperatorSubtaskState inheritedState =
+                            previousState.getState(subtaskIndex);
+                    if (inheritedState != null) {
+                        operatorState.putState(subtaskIndex, inheritedState);
+                        retainInheritedState(previous, operatorID, subtaskIndex);
+                    }
+                }
+
+                notYetAcknowledgedTasks.remove(task.getCurrentExecutionAttempt().getAttemptId());
+                tasksWithInheritedStates.add(task);
+            }
+
+            if (!replacedStates.isEmpty()) {
+                executor.execute(
+                        () -> {
+                            try {
+                                StateUtil.bestEffortDiscardAllStateObjects(replacedStates);
+                            } catch (Exception e) {
+                                LOG.warn(
+                                        "Could not properly discard the replaced states of checkpoint {} of job {}.",
+                                        checkpointId,
+                                        jobId,
+                                        e);
+                            }
+                        });
+            }
+        }
+    }
+
+    private void retainInheritedState(
+            CompletedCheckpoint previous, OperatorID operatorID, int subtaskIndex) {
+        final long ownerId = previous.getOwnerOfSubtaskState(operatorID, subtaskIndex);
+        inheritedSubtaskStates
+                .computeIfAbsent(operatorID, ignored -> new HashMap<>())
+                .put(subtaskIndex, ownerId);
+
+        if (!inheritedStateOwners.containsKey(ownerId)) {
+            // the owner is unknown if it was not retained anymore when the previous checkpoint
+            // was recovered, in which case its states are never discarded
+            final CompletedCheckpoint owner = previous.getStateOwner(ownerId);
+            if (owner != null) {
+                owner.retainStates();
+                inheritedStateOwners.put(ownerId, owner);
+            }
+        }
+    }
+
     /**
      * Acknowledges the task with the given execution attempt id and the given subtask state.
      *
@@ -606,8 +751,10 @@ public class PendingCheckpoint implements Checkpoint {
         }
         // discard the private states.
         // unregistered shared states are still considered private at this point.
+        // inherited states are owned by previous checkpoints.
         try {
-            StateUtil.bestEffortDiscardAllStateObjects(operatorStates.values());
+            StateUtil.bestEffortDiscardAllStateObjects(
+                    CompletedCheckpoint.getOwnedStates(operatorStates, inheritedSubtaskStates));
             targetLocation.disposeOnFailure();
         } catch (Throwable t) {
             LOG.warn(
@@ -617,6 +764,10 @@ public class PendingCheckpoint implements Checkpoint {
                     t);
         } finally {
             operatorStates.clear();
+            for (CompletedCheckpoint owner : inheritedStateOwners.values()) {
+                owner.releaseStates();
+            }
+            inheritedStateOwners.clear();
         }
     }
 
@@ -18,12 +18,17 @@
 package org.apache.flink.runtime.checkpoint.channel;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.io.compression.BlockCompressionFactory;
+import org.apache.flink.runtime.io.compression.BlockCompressor;
+import org.apache.flink.runtime.io.compression.BlockDecompressor;
+import org.apache.flink.runtime.io.compression.Lz4BlockCompressionFactory;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
 import org.apache.flink.util.Preconditions;
 
 import org.apache.flink.shaded.netty4.io.netty.buffer.ByteBuf;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.ByteArrayInputStream;
@@ -148,16 +153,57 @@ interface ChannelStateByteBuffer extends AutoCloseable {
     }
 }
 
+/**
+ * Default {@link ChannelStateSerializer}. Depending on the version written in the header, the data
+ * entries are either stored as they are (version 0) or each entry is compressed with LZ4 (version
+ * 1). Readers always support both versions, so the compression setting of the writer can be changed
+ * between checkpoints.
+ */
 class ChannelStateSerializerImpl implements ChannelStateSerializer {
     private static final int SERIALIZATION_VERSION = 0;
+    private static final int COMPRESSED_SERIALIZATION_VERSION = 1;
+
+    private static final BlockCompressionFactory COMPRESSION_FACTORY =
+            new Lz4BlockCompressionFactory();
+
+    private final boolean compressionEnabled;
+
+    /** Lazily created codec, only needed when writing or reading compressed data. */
+    @Nullable private BlockCompressor compressor;
+
+    @Nullable private BlockDecompressor decompressor;
+
+    /** Reusable staging arrays for compressing and decompressing entries. */
+    private byte[] uncompressedBytes = new byte[0];
+
+    private byte[] compressedBytes = new byte[0];
+
+    /** Whether the data which is currently read was written compressed. */
+    private boolean readCompressed;
+
+    /** The decompressed data of the entry currently read, if it was written compressed. */
+    private ByteArrayInputStream decompressedEntry = new ByteArrayInputStream(new byte[0]);
+
+    ChannelStateSerializerImpl() {
+        this(false);
+    }
+
+    ChannelStateSerializerImpl(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
 
     @Override
     public void writeHeader(DataOutputStream dataStream) throws IOException {
-        dataStream.writeInt(SERIALIZATION_VERSION);
+        dataStream.writeInt(
+                compressionEnabled ? COMPRESSED_SERIALIZATION_VERSION : SERIALIZATION_VERSION);
     }
 
     @Override
     public void writeData(DataOutputStream stream, Buffer... flinkBuffers) throws IOException {
+        if (compressionEnabled) {
+            writeCompressedData(stream, flinkBuffers);
+            return;
+        }
         stream.writeInt(getSize(flinkBuffers));
         for (Buffer buffer : flinkBuffers) {
             ByteBuf nettyByteBuf = buffer.asByteBuf();
@@ -165,6 +211,42 @@ class ChannelStateSerializerImpl implements ChannelStateSerializer {
         }
     }
 
+    private void writeCompressedData(DataOutputStream stream, Buffer[] flinkBuffers)
+            throws IOException {
+        final int size = getSize(flinkBuffers);
+        final byte[] data = ensureUncompressedCapacity(size);
+        int position = 0;
+        for (Buffer buffer : flinkBuffers) {
+            ByteBuf nettyByteBuf = buffer.asByteBuf();
+            int readable = nettyByteBuf.readableBytes();
+            nettyByteBuf.getBytes(nettyByteBuf.readerIndex(), data, position, readable);
+            position += readable;
+        }
+        writeCompressedEntry(stream, data, size);
+    }
+
+    /**
+     * Writes a compressed entry: the uncompressed length, the length of the compressed block and
+     * the compressed block itself. Empty entries are written without a block.
+     */
+    private void writeCompressedEntry(DataOutputStream stream, byte[] data, int length)
+            throws IOException {
+        if (length == 0) {
+            stream.writeInt(0);
+            stream.writeInt(0);
+            return;
+        }
+        final BlockCompressor compressor = getCompressor();
+        final int maxCompressedSize = compressor.getMaxCompressedSize(length);
+        if (compressedBytes.length < maxCompressedSize) {
+            compressedBytes = new byte[maxCompressedSize];
+        }
+        final int compressedSize = compressor.compress(data, 0, length, compressedBytes, 0);
+        stream.writeInt(length);
+        stream.writeInt(compressedSize);
+        stream.write(compressedBytes, 0, compressedSize);
+    }
+
     private int getSize(Buffer[] buffers) {
         int len = 0;
         for (Buffer buffer : buffers) {
@@ -177,19 +259,53 @@ class ChannelStateSerializerImpl implements ChannelStateSerializer {
     public void readHeader(InputStream stream) throws IOException {
         int version = readInt(stream);
         Preconditions.checkArgument(
-                version == SERIALIZATION_VERSION, "unsupported version: " + version);
+                version == SERIALIZATION_VERSION || version == COMPRESSED_SERIALIZATION_VERSION,
+                "unsupported version: " + version);
+        readCompressed = version == COMPRESSED_SERIALIZATION_VERSION;
     }
 
     @Override
     public int readLength(InputStream stream) throws IOException {
         int len = readInt(stream);
         Preconditions.checkArgument(len >= 0, "negative state size");
+        if (readCompressed) {
+            decompressedEntry = new ByteArrayInputStream(readCompressedEntry(stream, len), 0, len);
+        }
         return len;
     }
 
+    private byte[] readCompressedEntry(InputStream stream, int uncompressedLength)
+            throws IOException {
+        final DataInputStream dataInputStream = new DataInputStream(stream);
+        final int compressedLength = dataInputStream.readInt();
+        Preconditions.checkArgument(compressedLength >= 0, "negative compressed state size");
+        if (compressedBytes.length < compressedLength) {
+            compressedBytes = new byte[compressedLength];
+        }
+        dataInputStream.readFully(compressedBytes, 0, compressedLength);
+
+        final byte[] data = ensureUncompressedCapacity(uncompressedLength);
+        if (uncompressedLength == 0) {
+            return data;
+        }
+        final int decompressedLength =
+                getDecompressor().decompress(compressedBytes, 0, compressedLength, data, 0);
+        Preconditions.checkState(
+                decompressedLength == uncompressedLength,
+                "unexpected decompressed state size: %s, expected: %s",
+                decompressedLength,
+                uncompressedLength);
+        return data;
+    }
+
     @Override
     public int readData(InputStream stream, ChannelStateByteBuffer buffer, int bytes)
             throws IOException {
+        if (readCompressed) {
+            return decompressedEntry.available() > 0
+                    ? buffer.writeBytes(decompressedEntry, bytes)
+                    : 0;
+        }
         return buffer.writeBytes(stream, bytes);
     }
 
@@ -203,13 +319,20 @@ class ChannelStateSerializerImpl implements ChannelStateSerializer {
         DataOutputStream dataOutputStream = new DataOutputStream(out);
         byte[] merged = extractByOffsets(bytes, offsets);
         writeHeader(dataOutputStream);
-        dataOutputStream.writeInt(merged.length);
-        dataOutputStream.write(merged, 0, merged.length);
+        if (compressionEnabled) {
+            writeCompressedEntry(dataOutputStream, merged, merged.length);
+        } else {
+            dataOutputStream.writeInt(merged.length);
+            dataOutputStream.write(merged, 0, merged.length);
+        }
         dataOutputStream.close();
         return out.toByteArray();
     }
 
     private byte[] extractByOffsets(byte[] data, List<Long> offsets) throws IOException {
+        if (compressionEnabled) {
+            return extractCompressedByOffsets(data, offsets);
+        }
         DataInputStream lengthReadingStream =
                 new DataInputStream(new ByteArrayInputStream(data, 0, data.length));
         ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -223,6 +346,38 @@ class ChannelStateSerializerImpl implements ChannelStateSerializer {
         return out.toByteArray();
     }
 
+    private byte[] extractCompressedByOffsets(byte[] data, List<Long> offsets) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long offset : offsets) {
+            ByteArrayInputStream entryStream =
+                    new ByteArrayInputStream(data, (int) offset, data.length - (int) offset);
+            int length = readInt(entryStream);
+            out.write(readCompressedEntry(entryStream, length), 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] ensureUncompressedCapacity(int size) {
+        if (uncompressedBytes.length < size) {
+            uncompressedBytes = new byte[size];
+        }
+        return uncompressedBytes;
+    }
+
+    private BlockCompressor getCompressor() {
+        if (compressor == null) {
+            compressor = COMPRESSION_FACTORY.getCompressor();
+        }
+        return compressor;
+    }
+
+    private BlockDecompressor getDecompressor() {
+        if (decompressor == null) {
+            decompressor = COMPRESSION_FACTORY.getDecompressor();
+        }
+        return decompressor;
+    }
+
     @Override
     public long getHeaderLength() {
         return Integer.BYTES;
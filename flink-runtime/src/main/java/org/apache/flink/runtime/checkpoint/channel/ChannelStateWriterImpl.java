@@ -74,7 +74,26 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
      */
     public ChannelStateWriterImpl(
             String taskName, int subtaskIndex, CheckpointStorageWorkerView streamFactoryResolver) {
-        this(taskName, subtaskIndex, streamFactoryResolver, DEFAULT_MAX_CHECKPOINTS);
+        this(taskName, subtaskIndex, streamFactoryResolver, false);
+    }
+
+    /**
+     * Creates a {@link ChannelStateWriterImpl} with {@link #DEFAULT_MAX_CHECKPOINTS} as {@link
+     * #maxCheckpoints}.
+     *
+     * @param compressionEnabled whether the written channel state should be compressed.
+     */
+    public ChannelStateWriterImpl(
+            String taskName,
+            int subtaskIndex,
+            CheckpointStorageWorkerView streamFactoryResolver,
+            boolean compressionEnabled) {
+        this(
+                taskName,
+                subtaskIndex,
+                streamFactoryResolver,
+                DEFAULT_MAX_CHECKPOINTS,
+                compressionEnabled);
     }
 
     /**
@@ -85,12 +104,14 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
      * @param streamFactoryResolver a factory to obtain output stream factory for a given checkpoint
      * @param maxCheckpoints maximum number of checkpoints to be written currently or finished but
      *     not taken yet.
+     * @param compressionEnabled whether the written channel state should be compressed.
      */
     ChannelStateWriterImpl(
             String taskName,
             int subtaskIndex,
             CheckpointStorageWorkerView streamFactoryResolver,
-            int maxCheckpoints) {
+            int maxCheckpoints,
+            boolean compressionEnabled) {
         this(
                 taskName,
                 new ConcurrentHashMap<>(maxCheckpoints),
@@ -100,7 +121,7 @@ public class ChannelStateWriterImpl implements ChannelStateWriter {
                                 taskName,
                                 subtaskIndex,
                                 streamFactoryResolver,
-                                new ChannelStateSerializerImpl())),
+                                new ChannelStateSerializerImpl(compressionEnabled))),
                 maxCheckpoints);
     }
 
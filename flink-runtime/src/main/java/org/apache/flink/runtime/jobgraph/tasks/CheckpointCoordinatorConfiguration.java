@@ -66,6 +66,19 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 
     private final long checkpointIdOfIgnoredInFlightData;
 
+    /**
+     * The end-to-end duration in milliseconds which the checkpoints should not exceed. The
+     * checkpoint interval and the alignment of the checkpoints are chosen to meet it. A value of
+     * <code>0</code> disables the adaptive checkpoint interval.
+     */
+    private final long targetCheckpointDuration;
+
+    /**
+     * Whether expired checkpoints complete for the independent regions of the job whose tasks
+     * acknowledged them.
+     */
+    private final boolean isRegionCheckpointsEnabled;
+
     /** @deprecated use {@link #builder()}. */
     @Deprecated
     @VisibleForTesting
@@ -91,7 +104,9 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 tolerableCpFailureNumber,
                 isUnalignedCheckpoint,
                 0,
-                checkpointIdOfIgnoredInFlightData);
+                checkpointIdOfIgnoredInFlightData,
+                0,
+                false);
     }
 
     private CheckpointCoordinatorConfiguration(
@@ -105,7 +120,9 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
             int tolerableCpFailureNumber,
             boolean isUnalignedCheckpointsEnabled,
             long alignedCheckpointTimeout,
-            long checkpointIdOfIgnoredInFlightData) {
+            long checkpointIdOfIgnoredInFlightData,
+            long targetCheckpointDuration,
+            boolean isRegionCheckpointsEnabled) {
 
         // sanity checks
         if (checkpointInterval < MINIMAL_CHECKPOINT_TIME
@@ -118,6 +135,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         Preconditions.checkArgument(
                 !isUnalignedCheckpointsEnabled || maxConcurrentCheckpoints <= 1,
                 "maxConcurrentCheckpoints can't be > 1 if UnalignedCheckpoints enabled");
+        Preconditions.checkArgument(
+                targetCheckpointDuration >= 0, "targetCheckpointDuration must not be negative");
 
         this.checkpointInterval = checkpointInterval;
         this.checkpointTimeout = checkpointTimeout;
@@ -130,6 +149,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         this.isUnalignedCheckpointsEnabled = isUnalignedCheckpointsEnabled;
         this.alignedCheckpointTimeout = alignedCheckpointTimeout;
         this.checkpointIdOfIgnoredInFlightData = checkpointIdOfIgnoredInFlightData;
+        this.targetCheckpointDuration = targetCheckpointDuration;
+        this.isRegionCheckpointsEnabled = isRegionCheckpointsEnabled;
     }
 
     public long getCheckpointInterval() {
@@ -176,6 +197,14 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         return checkpointIdOfIgnoredInFlightData;
     }
 
+    public long getTargetCheckpointDuration() {
+        return targetCheckpointDuration;
+    }
+
+    public boolean isRegionCheckpointsEnabled() {
+        return isRegionCheckpointsEnabled;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -195,7 +224,9 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 && checkpointRetentionPolicy == that.checkpointRetentionPolicy
                 && isPreferCheckpointForRecovery == that.isPreferCheckpointForRecovery
                 && tolerableCheckpointFailureNumber == that.tolerableCheckpointFailureNumber
-                && checkpointIdOfIgnoredInFlightData == that.checkpointIdOfIgnoredInFlightData;
+                && checkpointIdOfIgnoredInFlightData == that.checkpointIdOfIgnoredInFlightData
+                && targetCheckpointDuration == that.targetCheckpointDuration
+                && isRegionCheckpointsEnabled == that.isRegionCheckpointsEnabled;
     }
 
     @Override
@@ -211,7 +242,9 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 alignedCheckpointTimeout,
                 isPreferCheckpointForRecovery,
                 tolerableCheckpointFailureNumber,
-                checkpointIdOfIgnoredInFlightData);
+                checkpointIdOfIgnoredInFlightData,
+                targetCheckpointDuration,
+                isRegionCheckpointsEnabled);
     }
 
     @Override
@@ -239,6 +272,10 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                 + tolerableCheckpointFailureNumber
                 + ", checkpointIdOfIgnoredInFlightData="
                 + checkpointIdOfIgnoredInFlightData
+                + ", targetCheckpointDuration="
+                + targetCheckpointDuration
+                + ", isRegionCheckpointsEnabled="
+                + isRegionCheckpointsEnabled
                 + '}';
     }
 
@@ -260,6 +297,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
         private boolean isUnalignedCheckpointsEnabled;
         private long alignedCheckpointTimeout = 0;
         private long checkpointIdOfIgnoredInFlightData;
+        private long targetCheckpointDuration = 0;
+        private boolean isRegionCheckpointsEnabled;
 
         public CheckpointCoordinatorConfiguration build() {
             return new CheckpointCoordinatorConfiguration(
@@ -273,7 +312,9 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
                     tolerableCheckpointFailureNumber,
                     isUnalignedCheckpointsEnabled,
                     alignedCheckpointTimeout,
-                    checkpointIdOfIgnoredInFlightData);
+                    checkpointIdOfIgnoredInFlightData,
+                    targetCheckpointDuration,
+                    isRegionCheckpointsEnabled);
         }
 
         public CheckpointCoordinatorConfigurationBuilder setCheckpointInterval(
@@ -340,5 +381,17 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
             this.checkpointIdOfIgnoredInFlightData = checkpointIdOfIgnoredInFlightData;
             return this;
         }
+
+        public CheckpointCoordinatorConfigurationBuilder setTargetCheckpointDuration(
+                long targetCheckpointDuration) {
+            this.targetCheckpointDuration = targetCheckpointDuration;
+            return this;
+        }
+
+        public CheckpointCoordinatorConfigurationBuilder setRegionCheckpointsEnabled(
+                boolean regionCheckpointsEnabled) {
+            this.isRegionCheckpointsEnabled = regionCheckpointsEnabled;
+            return this;
+        }
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.runtime.operators.coordination;
+
+import org.apache.flink.annotation.Internal;
+
+import java.util.function.Function;
+
+/**
+ * A store that is shared by all {@link OperatorCoordinator operator coordinators} of a job. It
+ * allows the coordinators of different operators to exchange information, for example the
+ * watermarks of sources whose watermarks are aligned with each other.
+ *
+ * <p>The store is accessed by the threads of different coordinators, so the stored values must be
+ * thread-safe.
+ */
+@Internal
+public interface CoordinatorStore {
+
+    /** Returns the value of the given key, or null if there is no value. */
+    Object get(Object key);
+
+    /**
+     * Returns the value of the given key. If there is no value, the value is atomically computed
+     * with the given function and stored.
+     */
+    Object computeIfAbsent(Object key, Function<Object, Object> mappingFunction);
+}
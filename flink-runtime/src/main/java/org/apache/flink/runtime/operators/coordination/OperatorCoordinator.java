@@ -252,6 +252,9 @@ public interface OperatorCoordinator extends CheckpointListener, AutoCloseable {
          * JVM's classpath.
          */
         ClassLoader getUserCodeClassloader();
+
+        /** Gets the {@link CoordinatorStore} that is shared by all coordinators of the job. */
+        CoordinatorStore getCoordinatorStore();
     }
 
     // ------------------------------------------------------------------------
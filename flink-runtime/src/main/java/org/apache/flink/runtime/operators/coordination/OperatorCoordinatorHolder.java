@@ -445,7 +445,8 @@ public class OperatorCoordinatorHolder
                     jobVertex.getGraph().getUserClassLoader(),
                     jobVertex.getParallelism(),
                     jobVertex.getMaxParallelism(),
-                    taskAccesses);
+                    taskAccesses,
+                    jobVertex.getGraph().getCoordinatorStore());
         }
     }
 
@@ -460,9 +461,35 @@ public class OperatorCoordinatorHolder
             final SubtaskAccess.SubtaskAccessFactory taskAccesses)
             throws Exception {
 
+        return create(
+                opId,
+                coordinatorProvider,
+                operatorName,
+                userCodeClassLoader,
+                operatorParallelism,
+                operatorMaxParallelism,
+                taskAccesses,
+                new CoordinatorStoreImpl());
+    }
+
+    private static OperatorCoordinatorHolder create(
+            final OperatorID opId,
+            final OperatorCoordinator.Provider coordinatorProvider,
+            final String operatorName,
+            final ClassLoader userCodeClassLoader,
+            final int operatorParallelism,
+            final int operatorMaxParallelism,
+            final SubtaskAccess.SubtaskAccessFactory taskAccesses,
+            final CoordinatorStore coordinatorStore)
+            throws Exception {
+
         final LazyInitializedCoordinatorContext context =
                 new LazyInitializedCoordinatorContext(
-                        opId, operatorName, userCodeClassLoader, operatorParallelism);
+                        opId,
+                        operatorName,
+                        userCodeClassLoader,
+                        operatorParallelism,
+                        coordinatorStore);
 
         final OperatorCoordinator coordinator = coordinatorProvider.create(context);
 
@@ -498,6 +525,7 @@ public class OperatorCoordinatorHolder
         private final String operatorName;
         private final ClassLoader userCodeClassLoader;
         private final int operatorParallelism;
+        private final CoordinatorStore coordinatorStore;
 
         private Consumer<Throwable> globalFailureHandler;
         private Executor schedulerExecutor;
@@ -508,11 +536,13 @@ public class OperatorCoordinatorHolder
                 final OperatorID operatorId,
                 final String operatorName,
                 final ClassLoader userCodeClassLoader,
-                final int operatorParallelism) {
+                final int operatorParallelism,
+                final CoordinatorStore coordinatorStore) {
             this.operatorId = checkNotNull(operatorId);
             this.operatorName = checkNotNull(operatorName);
             this.userCodeClassLoader = checkNotNull(userCodeClassLoader);
             this.operatorParallelism = operatorParallelism;
+            this.coordinatorStore = checkNotNull(coordinatorStore);
         }
 
         void lazyInitialize(Consumer<Throwable> globalFailureHandler, Executor schedulerExecutor) {
@@ -575,6 +605,11 @@ public class OperatorCoordinatorHolder
         public ClassLoader getUserCodeClassloader() {
             return userCodeClassLoader;
         }
+
+        @Override
+        public CoordinatorStore getCoordinatorStore() {
+            return coordinatorStore;
+        }
     }
 
     // ------------------------------------------------------------------------
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.source.coordinator;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.eventtime.WatermarkAlignmentParams;
 import org.apache.flink.api.connector.source.ReaderInfo;
 import org.apache.flink.api.connector.source.Source;
 import org.apache.flink.api.connector.source.SourceSplit;
@@ -27,11 +28,14 @@ import org.apache.flink.api.connector.source.SplitEnumerator;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
+import org.apache.flink.runtime.source.event.ReportedWatermarkEvent;
 import org.apache.flink.runtime.source.event.RequestSplitEvent;
 import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.runtime.source.event.WatermarkAlignmentEvent;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.TemporaryClassLoaderContext;
@@ -47,7 +51,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
@@ -94,17 +101,38 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
     private SplitEnumerator<SplitT, EnumChkT> enumerator;
     /** A flag marking whether the coordinator has started. */
     private boolean started;
+    /** The parameters for aligning the watermarks of the source subtasks. */
+    private final WatermarkAlignmentParams alignmentParams;
+    /** The latest reported watermarks of the subtasks, if the watermarks are aligned. */
+    private final Map<Integer, Long> subtaskWatermarks = new HashMap<>();
+    /** The watermark alignment group this source belongs to, if the watermarks are aligned. */
+    @Nullable private WatermarkAlignmentGroup alignmentGroup;
 
     public SourceCoordinator(
             String operatorName,
             ExecutorService coordinatorExecutor,
             Source<?, SplitT, EnumChkT> source,
             SourceCoordinatorContext<SplitT> context) {
+        this(
+                operatorName,
+                coordinatorExecutor,
+                source,
+                context,
+                WatermarkAlignmentParams.WATERMARK_ALIGNMENT_DISABLED);
+    }
+
+    public SourceCoordinator(
+            String operatorName,
+            ExecutorService coordinatorExecutor,
+            Source<?, SplitT, EnumChkT> source,
+            SourceCoordinatorContext<SplitT> context,
+            WatermarkAlignmentParams alignmentParams) {
         this.operatorName = operatorName;
         this.coordinatorExecutor = coordinatorExecutor;
         this.source = source;
         this.enumCheckpointSerializer = source.getEnumeratorCheckpointSerializer();
         this.context = context;
+        this.alignmentParams = alignmentParams;
     }
 
     @Override
@@ -130,6 +158,22 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
         // the other methods are invoked after the enumerator has started.
         started = true;
         runInEventLoop(() -> enumerator.start(), "starting the SplitEnumerator.");
+
+        if (alignmentParams.isEnabled()) {
+            alignmentGroup =
+                    (WatermarkAlignmentGroup)
+                            context.getCoordinatorContext()
+                                    .getCoordinatorStore()
+                                    .computeIfAbsent(
+                                            WatermarkAlignmentGroup.storeKey(
+                                                    alignmentParams.getWatermarkGroup()),
+                                            key -> new WatermarkAlignmentGroup());
+            context.callAsync(
+                    () -> null,
+                    (ignored, failure) -> announceMaxAllowedWatermark(),
+                    alignmentParams.getUpdateInterval(),
+                    alignmentParams.getUpdateInterval());
+        }
     }
 
     @Override
@@ -168,6 +212,8 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
                                 subtask, ((SourceEventWrapper) event).getSourceEvent());
                     } else if (event instanceof ReaderRegistrationEvent) {
                         handleReaderRegistrationEvent((ReaderRegistrationEvent) event);
+                    } else if (event instanceof ReportedWatermarkEvent) {
+                        handleReportedWatermark(subtask, (ReportedWatermarkEvent) event);
                     } else {
                         throw new FlinkException("Unrecognized Operator Event: " + event);
                     }
@@ -187,6 +233,7 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
                             operatorName);
                     context.unregisterSourceReader(subtaskId);
                     context.subtaskNotReady(subtaskId);
+                    subtaskWatermarks.remove(subtaskId);
                 },
                 "handling subtask %d failure",
                 subtaskId);
@@ -406,6 +453,40 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
         enumerator.addReader(event.subtaskId());
     }
 
+    private void handleReportedWatermark(int subtask, ReportedWatermarkEvent event) {
+        if (alignmentGroup == null) {
+            throw new IllegalStateException(
+                    "Received a watermark report, but the watermarks are not aligned.");
+        }
+        subtaskWatermarks.put(subtask, event.getWatermark());
+        alignmentGroup.update(
+                context.getCoordinatorContext().getOperatorId(),
+                Collections.min(subtaskWatermarks.values()));
+    }
+
+    /**
+     * Sends the maximal watermark the subtasks may emit, which is the smallest watermark of the
+     * alignment group plus the maximal allowed drift, to all registered subtasks.
+     */
+    @VisibleForTesting
+    void announceMaxAllowedWatermark() {
+        final long minWatermark = alignmentGroup.getMinWatermark();
+        final long maxAllowedWatermark =
+                minWatermark > Long.MAX_VALUE - alignmentParams.getMaxAllowedWatermarkDrift()
+                        ? Long.MAX_VALUE
+                        : minWatermark + alignmentParams.getMaxAllowedWatermarkDrift();
+
+        LOG.debug(
+                "Announcing the maximal allowed watermark {} of group {} to source {}.",
+                maxAllowedWatermark,
+                alignmentParams.getWatermarkGroup(),
+                operatorName);
+        for (Integer subtask : context.registeredReaders().keySet()) {
+            context.sendEventToSourceOperator(
+                    subtask, new WatermarkAlignmentEvent(maxAllowedWatermark));
+        }
+    }
+
     private void ensureStarted() {
         if (!started) {
             throw new IllegalStateException("The coordinator has not started yet.");
@@ -413,4 +494,27 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
 
         assert enumerator != null;
     }
+
+    /**
+     * The smallest watermarks of the sources in a watermark alignment group. The group is shared by
+     * the coordinators of these sources through the {@link
+     * org.apache.flink.runtime.operators.coordination.CoordinatorStore}, so it is thread-safe.
+     */
+    static final class WatermarkAlignmentGroup {
+
+        private final Map<OperatorID, Long> watermarks = new HashMap<>();
+
+        static String storeKey(String watermarkGroup) {
+            return WatermarkAlignmentGroup.class.getName() + '#' + watermarkGroup;
+        }
+
+        synchronized void update(OperatorID source, long watermark) {
+            watermarks.put(source, watermark);
+        }
+
+        /** Returns the smallest watermark of the group, or Long.MAX_VALUE if there is none. */
+        synchronized long getMinWatermark() {
+            return watermarks.isEmpty() ? Long.MAX_VALUE : Collections.min(watermarks.values());
+        }
+    }
 }
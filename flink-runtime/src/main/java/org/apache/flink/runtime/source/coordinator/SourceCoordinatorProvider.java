@@ -19,6 +19,7 @@ limitations under the License.
 package org.apache.flink.runtime.source.coordinator;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.eventtime.WatermarkAlignmentParams;
 import org.apache.flink.api.connector.source.Source;
 import org.apache.flink.api.connector.source.SourceSplit;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
@@ -40,6 +41,7 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
     private final String operatorName;
     private final Source<?, SplitT, ?> source;
     private final int numWorkerThreads;
+    private final WatermarkAlignmentParams alignmentParams;
 
     /**
      * Construct the {@link SourceCoordinatorProvider}.
@@ -57,10 +59,35 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
             OperatorID operatorID,
             Source<?, SplitT, ?> source,
             int numWorkerThreads) {
+        this(
+                operatorName,
+                operatorID,
+                source,
+                numWorkerThreads,
+                WatermarkAlignmentParams.WATERMARK_ALIGNMENT_DISABLED);
+    }
+
+    /**
+     * Construct the {@link SourceCoordinatorProvider}.
+     *
+     * @param operatorName the name of the operator.
+     * @param operatorID the ID of the operator this coordinator corresponds to.
+     * @param source the Source that will be used for this coordinator.
+     * @param numWorkerThreads the number of threads the should provide to the SplitEnumerator for
+     *     doing async calls.
+     * @param alignmentParams the parameters for aligning the watermarks of the source subtasks.
+     */
+    public SourceCoordinatorProvider(
+            String operatorName,
+            OperatorID operatorID,
+            Source<?, SplitT, ?> source,
+            int numWorkerThreads,
+            WatermarkAlignmentParams alignmentParams) {
         super(operatorID);
         this.operatorName = operatorName;
         this.source = source;
         this.numWorkerThreads = numWorkerThreads;
+        this.alignmentParams = alignmentParams;
     }
 
     @Override
@@ -81,7 +108,11 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
                         context,
                         splitSerializer);
         return new SourceCoordinator<>(
-                operatorName, coordinatorExecutor, source, sourceCoordinatorContext);
+                operatorName,
+                coordinatorExecutor,
+                source,
+                sourceCoordinatorContext,
+                alignmentParams);
     }
 
     /** A thread factory class that provides some helper methods. */
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.runtime.source.event;
+
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+
+/**
+ * An event sent periodically from the SourceOperator to the SourceCoordinator to report the current
+ * watermark of the source subtask, if the watermarks of the source are aligned. An idle or finished
+ * subtask reports {@link Long#MAX_VALUE}, so that it does not hold back the other subtasks.
+ */
+public final class ReportedWatermarkEvent implements OperatorEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long watermark;
+
+    public ReportedWatermarkEvent(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(watermark);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return watermark == ((ReportedWatermarkEvent) o).watermark;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportedWatermarkEvent{watermark=" + watermark + '}';
+    }
+}
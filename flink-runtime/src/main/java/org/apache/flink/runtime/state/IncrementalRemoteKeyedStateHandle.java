@@ -26,6 +26,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -186,10 +188,11 @@ public class IncrementalRemoteKeyedStateHandle implements IncrementalKeyedStateH
         if (isRegistered) {
             // If this was registered, we only unregister all our referenced shared states
             // from the registry.
+            List<SharedStateRegistryKey> registryKeys = new ArrayList<>(sharedState.size());
             for (StateHandleID stateHandleID : sharedState.keySet()) {
-                registry.unregisterReference(
-                        createSharedStateRegistryKeyFromFileName(stateHandleID));
+                registryKeys.add(createSharedStateRegistryKeyFromFileName(stateHandleID));
             }
+            registry.unregisterReferences(registryKeys);
         } else {
             // Otherwise, we assume to own those handles and dispose them directly.
             try {
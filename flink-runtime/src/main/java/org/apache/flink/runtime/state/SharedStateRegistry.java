@@ -18,15 +18,20 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.util.MathUtils;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -37,6 +42,12 @@ import java.util.concurrent.RejectedExecutionException;
  * <p>A {@code SharedStateRegistry} will be deployed in the {@link
  * org.apache.flink.runtime.checkpoint.CheckpointCoordinator} to maintain the reference count of
  * {@link StreamStateHandle}s by a key that (logically) identifies them.
+ *
+ * <p>The registry may hold millions of handles for jobs with many subtasks using incremental
+ * checkpoints. To not serialize all registrations of the coordinator on a single lock, updates of
+ * an entry are guarded by one of a fixed number of lock stripes, selected by the hash of the key.
+ * State that is no longer referenced by a batch of unregistrations is discarded by a single task of
+ * the disposal executor.
  */
 public class SharedStateRegistry implements AutoCloseable {
 
@@ -45,12 +56,18 @@ public class SharedStateRegistry implements AutoCloseable {
     /** A singleton object for the default implementation of a {@link SharedStateRegistryFactory} */
     public static final SharedStateRegistryFactory DEFAULT_FACTORY = SharedStateRegistry::new;
 
+    /** The number of locks that guard the updates of the registered states. */
+    private static final int NUM_LOCK_STRIPES = 64;
+
     /** All registered state objects by an artificial key */
     private final Map<SharedStateRegistryKey, SharedStateRegistry.SharedStateEntry>
             registeredStates;
 
+    /** Locks guarding the updates of the registered states, selected by the hash of the key. */
+    private final Object[] lockStripes;
+
     /** This flag indicates whether or not the registry is open or if close() was called */
-    private boolean open;
+    private volatile boolean open;
 
     /** Executor for async state deletion */
     private final Executor asyncDisposalExecutor;
@@ -61,7 +78,11 @@ public class SharedStateRegistry implements AutoCloseable {
     }
 
     public SharedStateRegistry(Executor asyncDisposalExecutor) {
-        this.registeredStates = new HashMap<>();
+        this.registeredStates = new ConcurrentHashMap<>();
+        this.lockStripes = new Object[NUM_LOCK_STRIPES];
+        for (int i = 0; i < lockStripes.length; i++) {
+            lockStripes[i] = new Object();
+        }
         this.asyncDisposalExecutor = Preconditions.checkNotNull(asyncDisposalExecutor);
         this.open = true;
     }
@@ -89,7 +110,7 @@ public class SharedStateRegistry implements AutoCloseable {
         StreamStateHandle scheduledStateDeletion = null;
         SharedStateRegistry.SharedStateEntry entry;
 
-        synchronized (registeredStates) {
+        synchronized (getLock(registrationKey)) {
             Preconditions.checkState(
                     open, "Attempt to register state to closed SharedStateRegistry.");
 
@@ -139,11 +160,43 @@ public class SharedStateRegistry implements AutoCloseable {
 
         Preconditions.checkNotNull(registrationKey);
 
+        final List<StreamStateHandle> scheduledStateDeletions = new ArrayList<>(1);
+        final Result result = unregisterReference(registrationKey, scheduledStateDeletions);
+        scheduleAsyncDelete(scheduledStateDeletions);
+        return result;
+    }
+
+    /**
+     * Releases one reference to each of the given shared states in the registry. Shared states that
+     * are no longer referenced afterwards are deleted together by a single task of the disposal
+     * executor.
+     *
+     * @param registrationKeys the shared states for which we release a reference.
+     */
+    public void unregisterReferences(Collection<SharedStateRegistryKey> registrationKeys) {
+
+        Preconditions.checkNotNull(registrationKeys);
+
+        final List<StreamStateHandle> scheduledStateDeletions = new ArrayList<>();
+        try {
+            for (SharedStateRegistryKey registrationKey : registrationKeys) {
+                unregisterReference(
+                        Preconditions.checkNotNull(registrationKey), scheduledStateDeletions);
+            }
+        } finally {
+            // also delete the states released before a failing unregistration
+            scheduleAsyncDelete(scheduledStateDeletions);
+        }
+    }
+
+    private Result unregisterReference(
+            SharedStateRegistryKey registrationKey,
+            List<StreamStateHandle> scheduledStateDeletions) {
+
         final Result result;
-        final StreamStateHandle scheduledStateDeletion;
         SharedStateRegistry.SharedStateEntry entry;
 
-        synchronized (registeredStates) {
+        synchronized (getLock(registrationKey)) {
             entry = registeredStates.get(registrationKey);
 
             Preconditions.checkState(
@@ -156,16 +209,16 @@ public class SharedStateRegistry implements AutoCloseable {
             // Remove the state from the registry when it's not referenced any more.
             if (entry.getReferenceCount() <= 0) {
                 registeredStates.remove(registrationKey);
-                scheduledStateDeletion = entry.getStateHandle();
+                if (!isPlaceholder(entry.getStateHandle())) {
+                    scheduledStateDeletions.add(entry.getStateHandle());
+                }
                 result = new Result(null, 0);
             } else {
-                scheduledStateDeletion = null;
                 result = new Result(entry);
             }
         }
 
         LOG.trace("Unregistered shared state {} under key {}.", entry, registrationKey);
-        scheduleAsyncDelete(scheduledStateDeletion);
         return result;
     }
 
@@ -180,26 +233,32 @@ public class SharedStateRegistry implements AutoCloseable {
             return;
         }
 
-        synchronized (registeredStates) {
-            for (CompositeStateHandle stateHandle : stateHandles) {
-                stateHandle.registerSharedStates(this);
-            }
+        for (CompositeStateHandle stateHandle : stateHandles) {
+            stateHandle.registerSharedStates(this);
         }
     }
 
     @Override
     public String toString() {
-        synchronized (registeredStates) {
-            return "SharedStateRegistry{" + "registeredStates=" + registeredStates + '}';
-        }
+        return "SharedStateRegistry{" + "registeredStates=" + registeredStates + '}';
+    }
+
+    private Object getLock(SharedStateRegistryKey registrationKey) {
+        return lockStripes[MathUtils.murmurHash(registrationKey.hashCode()) % lockStripes.length];
     }
 
     private void scheduleAsyncDelete(StreamStateHandle streamStateHandle) {
         // We do the small optimization to not issue discards for placeholders, which are NOPs.
         if (streamStateHandle != null && !isPlaceholder(streamStateHandle)) {
-            LOG.trace("Scheduled delete of state handle {}.", streamStateHandle);
+            scheduleAsyncDelete(Collections.singletonList(streamStateHandle));
+        }
+    }
+
+    private void scheduleAsyncDelete(List<StreamStateHandle> streamStateHandles) {
+        if (!streamStateHandles.isEmpty()) {
+            LOG.trace("Scheduled delete of state handles {}.", streamStateHandles);
             AsyncDisposalRunnable asyncDisposalRunnable =
-                    new AsyncDisposalRunnable(streamStateHandle);
+                    new AsyncDisposalRunnable(streamStateHandles);
             try {
                 asyncDisposalExecutor.execute(asyncDisposalRunnable);
             } catch (RejectedExecutionException ex) {
@@ -223,9 +282,7 @@ public class SharedStateRegistry implements AutoCloseable {
 
     @Override
     public void close() {
-        synchronized (registeredStates) {
-            open = false;
-        }
+        open = false;
     }
 
     /** An entry in the registry, tracking the handle and the corresponding reference count. */
@@ -312,21 +369,23 @@ public class SharedStateRegistry implements AutoCloseable {
     /** Encapsulates the operation the delete state handles asynchronously. */
     private static final class AsyncDisposalRunnable implements Runnable {
 
-        private final StateObject toDispose;
+        private final Collection<? extends StateObject> toDispose;
 
-        public AsyncDisposalRunnable(StateObject toDispose) {
+        public AsyncDisposalRunnable(Collection<? extends StateObject> toDispose) {
             this.toDispose = Preconditions.checkNotNull(toDispose);
         }
 
         @Override
         public void run() {
-            try {
-                toDispose.discardState();
-            } catch (Exception e) {
-                LOG.warn(
-                        "A problem occurred during asynchronous disposal of a shared state object: {}",
-                        toDispose,
-                        e);
+            for (StateObject stateObject : toDispose) {
+                try {
+                    stateObject.discardState();
+                } catch (Exception e) {
+                    LOG.warn(
+                            "A problem occurred during asynchronous disposal of a shared state object: {}",
+                            stateObject,
+                            e);
+                }
             }
         }
     }
@@ -92,8 +92,10 @@ public final class ChangelogStateHandleStreamImpl implements ChangelogStateHandl
 
     @Override
     public void discardState() {
-        handlesAndOffsets.forEach(
-                handleAndOffset -> stateRegistry.unregisterReference(getKey(handleAndOffset.f0)));
+        stateRegistry.unregisterReferences(
+                handlesAndOffsets.stream()
+                        .map(handleAndOffset -> getKey(handleAndOffset.f0))
+                        .collect(Collectors.toList()));
     }
 
     @Override
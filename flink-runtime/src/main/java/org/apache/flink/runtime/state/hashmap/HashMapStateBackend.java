@@ -21,6 +21,7 @@ package org.apache.flink.runtime.state.hashmap;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.fs.CloseableRegistry;
@@ -42,6 +43,7 @@ import org.apache.flink.runtime.state.heap.HeapKeyedStateBackendBuilder;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
 import org.apache.flink.runtime.state.metrics.LatencyTrackingStateConfig;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.TernaryBoolean;
 
 import javax.annotation.Nonnull;
 
@@ -75,6 +77,12 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Whether the key/value states of the key groups are restored on first access. Undefined to use
+     * the configured default.
+     */
+    private TernaryBoolean lazyRestoreEnabled = TernaryBoolean.UNDEFINED;
+
     // -----------------------------------------------------------------------
 
     /** Creates a new state backend. */
@@ -83,6 +91,23 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
     private HashMapStateBackend(HashMapStateBackend original, ReadableConfig config) {
         // configure latency tracking
         latencyTrackingConfigBuilder = original.latencyTrackingConfigBuilder.configure(config);
+        lazyRestoreEnabled =
+                original.lazyRestoreEnabled.resolveUndefined(
+                        config.get(CheckpointingOptions.HASHMAP_LAZY_RESTORE));
+    }
+
+    /**
+     * Sets whether the key/value states of each key group are restored on first access instead of
+     * during the restore. See {@link CheckpointingOptions#HASHMAP_LAZY_RESTORE} for details.
+     */
+    public void setLazyRestoreEnabled(boolean lazyRestoreEnabled) {
+        this.lazyRestoreEnabled = TernaryBoolean.fromBoolean(lazyRestoreEnabled);
+    }
+
+    /** Gets whether the key/value states of each key group are restored on first access. */
+    public boolean isLazyRestoreEnabled() {
+        return lazyRestoreEnabled.getOrDefault(
+                CheckpointingOptions.HASHMAP_LAZY_RESTORE.defaultValue());
     }
 
     @Override
@@ -128,6 +153,7 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
                         priorityQueueSetFactory,
                         true,
                         cancelStreamRegistry)
+                .setLazyRestoreEnabled(isLazyRestoreEnabled())
                 .build();
     }
 
@@ -66,6 +66,7 @@ public class CopyOnWriteStateTable<K, N, S> extends StateTable<K, N, S> {
     @Nonnull
     @Override
     public CopyOnWriteStateTableSnapshot<K, N, S> stateSnapshot() {
+        loadAllKeyGroups();
         return new CopyOnWriteStateTableSnapshot<>(
                 this,
                 getKeySerializer().duplicate(),
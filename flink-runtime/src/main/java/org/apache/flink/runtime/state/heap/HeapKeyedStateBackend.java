@@ -277,6 +277,10 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
                         namespaceSerializer,
                         stateDesc,
                         getStateSnapshotTransformFactory(stateDesc, snapshotTransformFactory));
+        if (stateDesc.isQueryable()) {
+            // queryable state is read by other threads, which must not load key groups lazily
+            stateTable.loadAllKeyGroups();
+        }
         return stateFactory.createState(stateDesc, stateTable, getKeySerializer());
     }
 
@@ -55,6 +55,8 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
     private final HeapPriorityQueueSetFactory priorityQueueSetFactory;
     /** Whether asynchronous snapshot is enabled. */
     private final boolean asynchronousSnapshots;
+    /** Whether the key/value states of the key groups are restored on first access. */
+    private boolean lazyRestoreEnabled;
 
     public HeapKeyedStateBackendBuilder(
             TaskKvStateRegistry kvStateRegistry,
@@ -88,6 +90,11 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
         this.asynchronousSnapshots = asynchronousSnapshots;
     }
 
+    public HeapKeyedStateBackendBuilder<K> setLazyRestoreEnabled(boolean lazyRestoreEnabled) {
+        this.lazyRestoreEnabled = lazyRestoreEnabled;
+        return this;
+    }
+
     @Override
     public HeapKeyedStateBackend<K> build() throws BackendBuildingException {
         // Map of registered Key/Value states
@@ -108,7 +115,12 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
             stateTableFactory = NestedMapsStateTable::new;
         }
 
-        restoreState(registeredKVStates, registeredPQStates, keyContext, stateTableFactory);
+        restoreState(
+                registeredKVStates,
+                registeredPQStates,
+                keyContext,
+                stateTableFactory,
+                cancelStreamRegistryForBackend);
         return new HeapKeyedStateBackend<>(
                 kvStateRegistry,
                 keySerializerProvider.currentSchemaSerializer(),
@@ -132,7 +144,8 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
             Map<String, StateTable<K, ?, ?>> registeredKVStates,
             Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates,
             InternalKeyContext<K> keyContext,
-            StateTableFactory<K> stateTableFactory)
+            StateTableFactory<K> stateTableFactory,
+            CloseableRegistry cancelStreamRegistryForBackend)
             throws BackendBuildingException {
         final RestoreOperation<Void> restoreOperation;
 
@@ -168,7 +181,10 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
                             keyGroupRange,
                             numberOfKeyGroups,
                             stateTableFactory,
-                            keyContext);
+                            keyContext,
+                            localRecoveryConfig,
+                            lazyRestoreEnabled,
+                            cancelStreamRegistryForBackend);
         }
         try {
             restoreOperation.restore();
@@ -23,20 +23,28 @@ import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.runtime.state.KeyGroupPartitioner;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
 import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
 import org.apache.flink.runtime.state.RestoreOperation;
 import org.apache.flink.runtime.state.SnappyStreamCompressionDecorator;
 import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StateSnapshotKeyGroupReader;
 import org.apache.flink.runtime.state.StateSnapshotRestore;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.MemoryMappedFileInputStream;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot.BackendStateType;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.StateMigrationException;
 
@@ -45,10 +53,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -70,6 +81,9 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
     private final CloseableRegistry cancelStreamRegistry;
     @Nonnull private final KeyGroupRange keyGroupRange;
     private final HeapMetaInfoRestoreOperation<K> heapMetaInfoRestoreOperation;
+    private final LocalRecoveryConfig localRecoveryConfig;
+    private final CloseableRegistry backendCloseableRegistry;
+    @Nullable private final LazyKeyGroupLoader lazyKeyGroupLoader;
 
     HeapRestoreOperation(
             @Nonnull Collection<KeyedStateHandle> restoreStateHandles,
@@ -82,7 +96,10 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
             @Nonnull KeyGroupRange keyGroupRange,
             int numberOfKeyGroups,
             StateTableFactory<K> stateTableFactory,
-            InternalKeyContext<K> keyContext) {
+            InternalKeyContext<K> keyContext,
+            LocalRecoveryConfig localRecoveryConfig,
+            boolean lazyRestoreEnabled,
+            CloseableRegistry backendCloseableRegistry) {
         this.restoreStateHandles = restoreStateHandles;
         this.keySerializerProvider = keySerializerProvider;
         this.userCodeClassLoader = userCodeClassLoader;
@@ -90,6 +107,9 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
         this.registeredPQStates = registeredPQStates;
         this.cancelStreamRegistry = cancelStreamRegistry;
         this.keyGroupRange = keyGroupRange;
+        this.localRecoveryConfig = localRecoveryConfig;
+        this.backendCloseableRegistry = backendCloseableRegistry;
+        this.lazyKeyGroupLoader = lazyRestoreEnabled ? new LazyKeyGroupLoader(keyGroupRange) : null;
         this.heapMetaInfoRestoreOperation =
                 new HeapMetaInfoRestoreOperation<>(
                         keySerializerProvider,
@@ -102,6 +122,21 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
 
     @Override
     public Void restore() throws Exception {
+        try {
+            restoreStateHandles();
+        } catch (Exception e) {
+            IOUtils.closeQuietly(lazyKeyGroupLoader);
+            throw e;
+        }
+
+        if (lazyKeyGroupLoader != null
+                && lazyKeyGroupLoader.finishRestore(registeredKVStates.values())) {
+            backendCloseableRegistry.registerCloseable(lazyKeyGroupLoader);
+        }
+        return null;
+    }
+
+    private void restoreStateHandles() throws Exception {
 
         registeredKVStates.clear();
         registeredPQStates.clear();
@@ -121,8 +156,9 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
 
             LOG.info("Starting to restore from state handle: {}.", keyedStateHandle);
             KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) keyedStateHandle;
-            FSDataInputStream fsDataInputStream = keyGroupsStateHandle.openInputStream();
+            FSDataInputStream fsDataInputStream = openInputStream(keyGroupsStateHandle);
             cancelStreamRegistry.registerCloseable(fsDataInputStream);
+            boolean hasPendingKeyGroups = false;
 
             try {
                 DataInputViewStreamWrapper inView =
@@ -163,25 +199,60 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
                         this.heapMetaInfoRestoreOperation.createOrCheckStateForMetaInfo(
                                 restoredMetaInfos, registeredKVStates, registeredPQStates);
 
-                readStateHandleStateData(
-                        fsDataInputStream,
-                        inView,
-                        keyGroupsStateHandle.getGroupRangeOffsets(),
-                        kvStatesById,
-                        restoredMetaInfos.size(),
-                        serializationProxy.getReadVersion(),
-                        serializationProxy.isUsingKeyGroupCompression());
-                LOG.info("Finished restoring from state handle: {}.", keyedStateHandle);
+                hasPendingKeyGroups =
+                        readStateHandleStateData(
+                                fsDataInputStream,
+                                inView,
+                                keyGroupsStateHandle.getGroupRangeOffsets(),
+                                kvStatesById,
+                                restoredMetaInfos.size(),
+                                serializationProxy.getReadVersion(),
+                                serializationProxy.isUsingKeyGroupCompression());
+                LOG.info(
+                        hasPendingKeyGroups
+                                ? "Finished restoring the priority queue states from state handle: {}."
+                                : "Finished restoring from state handle: {}.",
+                        keyedStateHandle);
             } finally {
-                if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)) {
+                // the stream of a state handle with pending key groups is closed by the lazy
+                // key group loader once all of them are loaded
+                if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)
+                        && !hasPendingKeyGroups) {
                     IOUtils.closeQuietly(fsDataInputStream);
                 }
             }
         }
-        return null;
     }
 
-    private void readStateHandleStateData(
+    /**
+     * Opens the input stream for the given state handle. If local recovery is enabled and the
+     * handle points to a file on the local file system, which is the case for the local state
+     * copies, the file is memory mapped. This avoids a system call for each of the many small reads
+     * of the restore.
+     */
+    private FSDataInputStream openInputStream(KeyGroupsStateHandle keyGroupsStateHandle)
+            throws IOException {
+        final StreamStateHandle delegateStateHandle = keyGroupsStateHandle.getDelegateStateHandle();
+        if (localRecoveryConfig.isLocalRecoveryEnabled()
+                && delegateStateHandle instanceof FileStateHandle) {
+            final Path filePath = ((FileStateHandle) delegateStateHandle).getFilePath();
+            final FileSystem fileSystem = filePath.getFileSystem();
+            if (!fileSystem.isDistributedFS() && "file".equals(fileSystem.getUri().getScheme())) {
+                LOG.debug("Memory mapping local state file {} for restore.", filePath);
+                return new MemoryMappedFileInputStream(new File(filePath.toUri().getPath()));
+            }
+        }
+        return keyGroupsStateHandle.openInputStream();
+    }
+
+    /**
+     * Reads the key groups of a state handle. In a lazy restore from a memory mapped local file,
+     * only the priority queue states of the key groups are read and the key groups are registered
+     * with the {@link LazyKeyGroupLoader}, which reads their key/value states on first access.
+     *
+     * @return true if key groups of the state handle are pending, false otherwise.
+     */
+    private boolean readStateHandleStateData(
             FSDataInputStream fsDataInputStream,
             DataInputViewStreamWrapper inView,
             KeyGroupRangeOffsets keyGroupOffsets,
@@ -196,6 +267,29 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
                         ? SnappyStreamCompressionDecorator.INSTANCE
                         : UncompressedStreamCompressionDecorator.INSTANCE;
 
+        // only memory mapped local files are restored lazily, and readers of version 1 look up
+        // the serializers of the state tables on every read, which may have been reconfigured by
+        // the time a key group is loaded lazily
+        final LazyKeyGroupLoader.RestoredSnapshot lazySnapshot =
+                lazyKeyGroupLoader != null
+                                && fsDataInputStream instanceof MemoryMappedFileInputStream
+                                && readVersion > 1
+                        ? new LazyKeyGroupLoader.RestoredSnapshot(
+                                fsDataInputStream,
+                                streamCompressionDecorator,
+                                createLazyKeyGroupReaders(kvStatesById, readVersion),
+                                numStates)
+                        : null;
+        final int numPriorityQueueStates =
+                (int)
+                        kvStatesById.values().stream()
+                                .filter(
+                                        metaInfo ->
+                                                metaInfo.getBackendStateType()
+                                                        == BackendStateType.PRIORITY_QUEUE)
+                                .count();
+        boolean hasPendingKeyGroups = false;
+
         for (Tuple2<Integer, Long> groupOffset : keyGroupOffsets) {
             int keyGroupIndex = groupOffset.f0;
             long offset = groupOffset.f1;
@@ -217,45 +311,135 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
             try (InputStream kgCompressionInStream =
                     streamCompressionDecorator.decorateWithCompression(fsDataInputStream)) {
 
-                readKeyGroupStateData(
-                        kgCompressionInStream, kvStatesById, keyGroupIndex, numStates, readVersion);
+                if (lazySnapshot == null) {
+                    readKeyGroupStateData(
+                            kgCompressionInStream,
+                            kvStatesById,
+                            keyGroupIndex,
+                            numStates,
+                            readVersion);
+                } else if (readPriorityQueueStateData(
+                        kgCompressionInStream,
+                        kvStatesById,
+                        keyGroupIndex,
+                        numStates,
+                        numPriorityQueueStates,
+                        readVersion)) {
+                    lazyKeyGroupLoader.registerKeyGroup(keyGroupIndex, lazySnapshot, offset);
+                    hasPendingKeyGroups = true;
+                }
             }
         }
+        return hasPendingKeyGroups;
     }
 
-    private void readKeyGroupStateData(
+    /**
+     * Reads the priority queue states of a key group, which precede its key/value states in
+     * snapshots of the heap backend. If a key/value state precedes a priority queue state, e.g. in
+     * snapshots of older versions, the key group is read completely.
+     *
+     * @return true if the key/value states of the key group remain to be read, false if the key
+     *     group was read completely.
+     */
+    private boolean readPriorityQueueStateData(
             InputStream inputStream,
             Map<Integer, StateMetaInfoSnapshot> kvStatesById,
             int keyGroupIndex,
             int numStates,
+            int numPriorityQueueStates,
             int readVersion)
             throws IOException {
 
         DataInputViewStreamWrapper inView = new DataInputViewStreamWrapper(inputStream);
 
+        boolean onlyPriorityQueueStatesRead = true;
+        int numReadPriorityQueueStates = 0;
         for (int i = 0; i < numStates; i++) {
+            if (onlyPriorityQueueStatesRead
+                    && numReadPriorityQueueStates == numPriorityQueueStates) {
+                return true;
+            }
 
             final int kvStateId = inView.readShort();
             final StateMetaInfoSnapshot stateMetaInfoSnapshot = kvStatesById.get(kvStateId);
-            final StateSnapshotRestore registeredState;
-
-            switch (stateMetaInfoSnapshot.getBackendStateType()) {
-                case KEY_VALUE:
-                    registeredState = registeredKVStates.get(stateMetaInfoSnapshot.getName());
-                    break;
-                case PRIORITY_QUEUE:
-                    registeredState = registeredPQStates.get(stateMetaInfoSnapshot.getName());
-                    break;
-                default:
-                    throw new IllegalStateException(
-                            "Unexpected state type: "
-                                    + stateMetaInfoSnapshot.getBackendStateType()
-                                    + ".");
+            if (stateMetaInfoSnapshot.getBackendStateType() == BackendStateType.PRIORITY_QUEUE) {
+                numReadPriorityQueueStates++;
+            } else {
+                onlyPriorityQueueStatesRead = false;
             }
+            getRegisteredState(stateMetaInfoSnapshot)
+                    .keyGroupReader(readVersion)
+                    .readMappingsInKeyGroup(inView, keyGroupIndex);
+        }
+        return false;
+    }
+
+    /**
+     * Creates the readers for the lazily loaded key groups. The readers of the key/value states are
+     * created now, so that they use the restored serializers even if the states are registered with
+     * new serializers before the key groups are loaded. The readers of the priority queue states
+     * skip them, because they are restored eagerly.
+     */
+    private Map<Integer, StateSnapshotKeyGroupReader> createLazyKeyGroupReaders(
+            Map<Integer, StateMetaInfoSnapshot> kvStatesById, int readVersion) {
+        final Map<Integer, StateSnapshotKeyGroupReader> keyGroupReaders = new HashMap<>();
+        for (Map.Entry<Integer, StateMetaInfoSnapshot> kvState : kvStatesById.entrySet()) {
+            final StateMetaInfoSnapshot stateMetaInfoSnapshot = kvState.getValue();
+            final StateSnapshotKeyGroupReader keyGroupReader;
+            if (stateMetaInfoSnapshot.getBackendStateType() == BackendStateType.PRIORITY_QUEUE) {
+                keyGroupReader =
+                        createSkippingKeyGroupReader(
+                                registeredPQStates
+                                        .get(stateMetaInfoSnapshot.getName())
+                                        .getMetaInfo()
+                                        .getElementSerializer());
+            } else {
+                keyGroupReader =
+                        getRegisteredState(stateMetaInfoSnapshot).keyGroupReader(readVersion);
+            }
+            keyGroupReaders.put(kvState.getKey(), keyGroupReader);
+        }
+        return keyGroupReaders;
+    }
+
+    private static <T> StateSnapshotKeyGroupReader createSkippingKeyGroupReader(
+            TypeSerializer<T> elementSerializer) {
+        return KeyGroupPartitioner.createKeyGroupPartitionReader(
+                elementSerializer::deserialize, (element, keyGroupId) -> {});
+    }
+
+    private void readKeyGroupStateData(
+            InputStream inputStream,
+            Map<Integer, StateMetaInfoSnapshot> kvStatesById,
+            int keyGroupIndex,
+            int numStates,
+            int readVersion)
+            throws IOException {
+
+        DataInputViewStreamWrapper inView = new DataInputViewStreamWrapper(inputStream);
+
+        for (int i = 0; i < numStates; i++) {
+
+            final int kvStateId = inView.readShort();
+            final StateMetaInfoSnapshot stateMetaInfoSnapshot = kvStatesById.get(kvStateId);
 
             StateSnapshotKeyGroupReader keyGroupReader =
-                    registeredState.keyGroupReader(readVersion);
+                    getRegisteredState(stateMetaInfoSnapshot).keyGroupReader(readVersion);
             keyGroupReader.readMappingsInKeyGroup(inView, keyGroupIndex);
         }
     }
+
+    private StateSnapshotRestore getRegisteredState(StateMetaInfoSnapshot stateMetaInfoSnapshot) {
+        switch (stateMetaInfoSnapshot.getBackendStateType()) {
+            case KEY_VALUE:
+                return registeredKVStates.get(stateMetaInfoSnapshot.getName());
+            case PRIORITY_QUEUE:
+                return registeredPQStates.get(stateMetaInfoSnapshot.getName());
+            default:
+                throw new IllegalStateException(
+                        "Unexpected state type: "
+                                + stateMetaInfoSnapshot.getBackendStateType()
+                                + ".");
+        }
+    }
 }
@@ -44,6 +44,8 @@ import javax.annotation.Nonnull;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -133,8 +135,16 @@ class HeapSnapshotStrategy<K>
 
         return (snapshotCloseableRegistry) -> {
             final Map<StateUID, Integer> stateNamesToId = syncPartResource.getStateNamesToId();
-            final Map<StateUID, StateSnapshot> cowStateStableSnapshots =
-                    syncPartResource.getCowStateStableSnapshots();
+            // the priority queue states are written first in each key group, so that a lazy
+            // restore can read them without deserializing the key/value states
+            final List<Map.Entry<StateUID, StateSnapshot>> cowStateStableSnapshots =
+                    new ArrayList<>(syncPartResource.getCowStateStableSnapshots().entrySet());
+            cowStateStableSnapshots.sort(
+                    Comparator.comparing(
+                            stateSnapshot ->
+                                    stateSnapshot.getKey().getStateType()
+                                            != StateMetaInfoSnapshot.BackendStateType
+                                                    .PRIORITY_QUEUE));
             final CheckpointStreamWithResultProvider streamWithResultProvider =
                     checkpointStreamSupplier.get();
 
@@ -156,8 +166,7 @@ class HeapSnapshotStrategy<K>
                 keyGroupRangeOffsets[keyGroupPos] = localStream.getPos();
                 outView.writeInt(keyGroupId);
 
-                for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
-                        cowStateStableSnapshots.entrySet()) {
+                for (Map.Entry<StateUID, StateSnapshot> stateSnapshot : cowStateStableSnapshots) {
                     StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
                             stateSnapshot.getValue().getKeyGroupWriter();
                     try (OutputStream kgCompressionOut =
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.StateSnapshotKeyGroupReader;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restores the key/value states of the key groups of a {@link HeapKeyedStateBackend} on first
+ * access.
+ *
+ * <p>A lazy restore reads the meta data and the priority queue states (e.g. timers) of all key
+ * groups eagerly, because priority queues must be complete to be polled. For each key group it then
+ * registers the position of the key group in the restored snapshot, which is known from the {@link
+ * KeyGroupRangeOffsets} of the state handle. The key/value states of a key group are deserialized
+ * when a {@link StateTable} accesses the key group for the first time. Operations that need all key
+ * groups, like snapshots or iterating over all keys, load all pending key groups first.
+ *
+ * <p>Only local snapshot files of local recovery are restored lazily, which are memory mapped, so
+ * that a key group is read without seeking a remote stream. The memory mapped files are kept open
+ * until all their key groups are loaded. The restored snapshot cannot be discarded before, because
+ * the next checkpoint loads all pending key groups in its synchronous part.
+ *
+ * <p>The loader is not thread-safe. It is only accessed by the task thread through the state
+ * tables. States which are queryable load all pending key groups when they are registered, because
+ * queryable state is read by other threads.
+ */
+final class LazyKeyGroupLoader implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyKeyGroupLoader.class);
+
+    private final KeyGroupRange keyGroupRange;
+
+    /** The snapshot to restore each pending key group from, by key group offset in the range. */
+    private final RestoredSnapshot[] snapshotsByKeyGroup;
+
+    /** The position of each pending key group in its snapshot, by key group offset in the range. */
+    private final long[] offsetsByKeyGroup;
+
+    private final List<RestoredSnapshot> snapshots = new ArrayList<>();
+
+    private final List<StateTable<?, ?, ?>> stateTables = new ArrayList<>();
+
+    private int numPendingKeyGroups;
+
+    LazyKeyGroupLoader(KeyGroupRange keyGroupRange) {
+        this.keyGroupRange = keyGroupRange;
+        this.snapshotsByKeyGroup = new RestoredSnapshot[keyGroupRange.getNumberOfKeyGroups()];
+        this.offsetsByKeyGroup = new long[keyGroupRange.getNumberOfKeyGroups()];
+    }
+
+    /**
+     * Registers the given key group to be loaded on first access from the given snapshot.
+     *
+     * @param keyGroup the key group to load lazily.
+     * @param snapshot the snapshot which contains the key group.
+     * @param offset the position of the key group in the snapshot.
+     */
+    void registerKeyGroup(int keyGroup, RestoredSnapshot snapshot, long offset) {
+        final int pos = keyGroup - keyGroupRange.getStartKeyGroup();
+        Preconditions.checkState(
+                snapshotsByKeyGroup[pos] == null, "Key group %s is restored twice.", keyGroup);
+        if (snapshot.numPendingKeyGroups++ == 0) {
+            snapshots.add(snapshot);
+        }
+        snapshotsByKeyGroup[pos] = snapshot;
+        offsetsByKeyGroup[pos] = offset;
+        numPendingKeyGroups++;
+    }
+
+    /**
+     * Finishes the restore. If some key groups are pending, the given state tables load them on
+     * first access, otherwise this loader is closed.
+     *
+     * @return true if some key groups are pending, false otherwise.
+     */
+    boolean finishRestore(Collection<? extends StateTable<?, ?, ?>> restoredStateTables) {
+        if (numPendingKeyGroups == 0) {
+            close();
+            return false;
+        }
+
+        LOG.info(
+                "Restored the meta data and priority queue states of {} key groups, their key/value "
+                        + "states are restored on first access.",
+                numPendingKeyGroups);
+        for (StateTable<?, ?, ?> stateTable : restoredStateTables) {
+            stateTable.setLazyKeyGroupLoader(this);
+            stateTables.add(stateTable);
+        }
+        return true;
+    }
+
+    /** Loads the given key group, if it is still pending. */
+    void loadKeyGroup(int keyGroup) {
+        final int pos = keyGroup - keyGroupRange.getStartKeyGroup();
+        if (pos < 0 || pos >= snapshotsByKeyGroup.length || snapshotsByKeyGroup[pos] == null) {
+            return;
+        }
+
+        // the key group is no longer pending before it is read, because the state tables access
+        // it again to insert the restored mappings
+        final RestoredSnapshot snapshot = snapshotsByKeyGroup[pos];
+        snapshotsByKeyGroup[pos] = null;
+        numPendingKeyGroups--;
+
+        try {
+            snapshot.readKeyGroup(keyGroup, offsetsByKeyGroup[pos]);
+        } catch (IOException e) {
+            throw new FlinkRuntimeException(
+                    "Could not restore key group " + keyGroup + " of the heap state backend.", e);
+        } finally {
+            if (--snapshot.numPendingKeyGroups == 0) {
+                snapshots.remove(snapshot);
+                IOUtils.closeQuietly(snapshot.inputStream);
+            }
+            if (numPendingKeyGroups == 0) {
+                LOG.info("Restored all pending key groups of the heap state backend.");
+                releaseStateTables();
+            }
+        }
+    }
+
+    /** Loads all key groups which are still pending. */
+    void loadAllKeyGroups() {
+        for (int keyGroup = keyGroupRange.getStartKeyGroup();
+                numPendingKeyGroups > 0 && keyGroup <= keyGroupRange.getEndKeyGroup();
+                keyGroup++) {
+            loadKeyGroup(keyGroup);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (RestoredSnapshot snapshot : snapshots) {
+            IOUtils.closeQuietly(snapshot.inputStream);
+        }
+        snapshots.clear();
+    }
+
+    private void releaseStateTables() {
+        for (StateTable<?, ?, ?> stateTable : stateTables) {
+            stateTable.setLazyKeyGroupLoader(null);
+        }
+        stateTables.clear();
+    }
+
+    /**
+     * A restored snapshot, i.e. the open input stream of a state handle and the readers for all
+     * states of the snapshot. The readers for the priority queue states skip them, because they are
+     * restored eagerly.
+     */
+    static final class RestoredSnapshot {
+
+        private final FSDataInputStream inputStream;
+
+        private final StreamCompressionDecorator streamCompressionDecorator;
+
+        private final Map<Integer, StateSnapshotKeyGroupReader> keyGroupReadersById;
+
+        private final int numStates;
+
+        private int numPendingKeyGroups;
+
+        RestoredSnapshot(
+                FSDataInputStream inputStream,
+                StreamCompressionDecorator streamCompressionDecorator,
+                Map<Integer, StateSnapshotKeyGroupReader> keyGroupReadersById,
+                int numStates) {
+            this.inputStream = inputStream;
+            this.streamCompressionDecorator = streamCompressionDecorator;
+            this.keyGroupReadersById = keyGroupReadersById;
+            this.numStates = numStates;
+        }
+
+        private void readKeyGroup(int keyGroup, long offset) throws IOException {
+            inputStream.seek(offset);
+
+            final int writtenKeyGroupIndex = new DataInputViewStreamWrapper(inputStream).readInt();
+            Preconditions.checkState(
+                    writtenKeyGroupIndex == keyGroup, "Unexpected key-group in restore.");
+
+            try (InputStream kgCompressionInStream =
+                    streamCompressionDecorator.decorateWithCompression(inputStream)) {
+                final DataInputViewStreamWrapper inView =
+                        new DataInputViewStreamWrapper(kgCompressionInStream);
+                for (int i = 0; i < numStates; i++) {
+                    final int kvStateId = inView.readShort();
+                    keyGroupReadersById.get(kvStateId).readMappingsInKeyGroup(inView, keyGroup);
+                }
+            }
+        }
+    }
+}
@@ -60,6 +60,7 @@ public class NestedMapsStateTable<K, N, S> extends StateTable<K, N, S> {
     @Nonnull
     @Override
     public NestedMapsStateTableSnapshot<K, N, S> stateSnapshot() {
+        loadAllKeyGroups();
         return new NestedMapsStateTableSnapshot<>(
                 this,
                 getKeySerializer(),
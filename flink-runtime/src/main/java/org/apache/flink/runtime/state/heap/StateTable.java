@@ -32,6 +32,7 @@ import org.apache.flink.runtime.state.internal.InternalKvState.StateIncrementalV
 import org.apache.flink.util.Preconditions;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -73,6 +74,12 @@ public abstract class StateTable<K, N, S>
      */
     protected final StateMap<K, N, S>[] keyGroupedStateMaps;
 
+    /**
+     * Loads the key groups of a lazy restore on first access, or null if there are no pending key
+     * groups.
+     */
+    @Nullable private LazyKeyGroupLoader lazyKeyGroupLoader;
+
     /**
      * @param keyContext the key context provides the key scope for all put/get/delete operations.
      * @param metaInfo the meta information, including the type serializer for state copy-on-write.
@@ -123,6 +130,7 @@ public abstract class StateTable<K, N, S>
      * @return the number of entries in this {@link StateTable}.
      */
     public int size() {
+        loadAllKeyGroups();
         int count = 0;
         for (StateMap<K, N, S> stateMap : keyGroupedStateMaps) {
             count += stateMap.size();
@@ -228,6 +236,7 @@ public abstract class StateTable<K, N, S>
     }
 
     public Stream<K> getKeys(N namespace) {
+        loadAllKeyGroups();
         return Arrays.stream(keyGroupedStateMaps)
                 .flatMap(
                         stateMap ->
@@ -239,6 +248,7 @@ public abstract class StateTable<K, N, S>
     }
 
     public Stream<Tuple2<K, N>> getKeysAndNamespaces() {
+        loadAllKeyGroups();
         return Arrays.stream(keyGroupedStateMaps)
                 .flatMap(
                         stateMap ->
@@ -303,6 +313,7 @@ public abstract class StateTable<K, N, S>
     /** Returns the internal data structure. */
     @VisibleForTesting
     public StateMap<K, N, S>[] getState() {
+        loadAllKeyGroups();
         return keyGroupedStateMaps;
     }
 
@@ -312,6 +323,9 @@ public abstract class StateTable<K, N, S>
 
     @VisibleForTesting
     public StateMap<K, N, S> getMapForKeyGroup(int keyGroupIndex) {
+        if (lazyKeyGroupLoader != null) {
+            lazyKeyGroupLoader.loadKeyGroup(keyGroupIndex);
+        }
         final int pos = indexToOffset(keyGroupIndex);
         if (pos >= 0 && pos < keyGroupedStateMaps.length) {
             return keyGroupedStateMaps[pos];
@@ -320,6 +334,25 @@ public abstract class StateTable<K, N, S>
         }
     }
 
+    /** Returns the state map at the given internal array offset, loading it if it is pending. */
+    private StateMap<K, N, S> getMapAtOffset(int pos) {
+        if (lazyKeyGroupLoader != null) {
+            lazyKeyGroupLoader.loadKeyGroup(pos + keyGroupOffset);
+        }
+        return keyGroupedStateMaps[pos];
+    }
+
+    /** Loads all key groups which are still pending from a lazy restore. */
+    protected void loadAllKeyGroups() {
+        if (lazyKeyGroupLoader != null) {
+            lazyKeyGroupLoader.loadAllKeyGroups();
+        }
+    }
+
+    void setLazyKeyGroupLoader(@Nullable LazyKeyGroupLoader lazyKeyGroupLoader) {
+        this.lazyKeyGroupLoader = lazyKeyGroupLoader;
+    }
+
     /** Translates a key-group id to the internal array offset. */
     private int indexToOffset(int index) {
         return index - keyGroupOffset;
@@ -358,6 +391,7 @@ public abstract class StateTable<K, N, S>
 
     @Override
     public Iterator<StateEntry<K, N, S>> iterator() {
+        loadAllKeyGroups();
         return Arrays.stream(keyGroupedStateMaps)
                 .filter(Objects::nonNull)
                 .flatMap(
@@ -372,6 +406,7 @@ public abstract class StateTable<K, N, S>
 
     @VisibleForTesting
     public int sizeOfNamespace(Object namespace) {
+        loadAllKeyGroups();
         int count = 0;
         for (StateMap<K, N, S> stateMap : keyGroupedStateMaps) {
             count += stateMap.sizeOfNamespace(namespace);
@@ -405,7 +440,7 @@ public abstract class StateTable<K, N, S>
 
         private void next() {
             while (keyGroupIndex < keyGroupedStateMaps.length) {
-                StateMap<K, N, S> stateMap = keyGroupedStateMaps[keyGroupIndex++];
+                StateMap<K, N, S> stateMap = getMapAtOffset(keyGroupIndex++);
                 StateIncrementalVisitor<K, N, S> visitor =
                         stateMap.getStateIncrementalVisitor(recommendedMaxNumberOfReturnedRecords);
                 if (visitor.hasNext()) {
@@ -422,8 +457,8 @@ public abstract class StateTable<K, N, S>
                     return false;
                 }
                 StateIncrementalVisitor<K, N, S> visitor =
-                        keyGroupedStateMaps[keyGroupIndex++].getStateIncrementalVisitor(
-                                recommendedMaxNumberOfReturnedRecords);
+                        getMapAtOffset(keyGroupIndex++)
+                                .getStateIncrementalVisitor(recommendedMaxNumberOfReturnedRecords);
                 if (visitor.hasNext()) {
                     stateIncrementalVisitor = visitor;
                     break;
@@ -106,6 +106,18 @@ public interface InternalKvState<K, N, V> extends State {
             final TypeSerializer<V> safeValueSerializer)
             throws Exception;
 
+    /**
+     * Returns whether {@link #getSerializedValue} returns consistent values for a key while the
+     * state of other keys is modified concurrently by the task thread. Only if this is the case,
+     * the value of a key may be read by another thread while the task thread continues processing.
+     *
+     * @return True if the serialized value of a key can be read concurrently to modifications of
+     *     other keys, false otherwise.
+     */
+    default boolean supportsConcurrentReads() {
+        return false;
+    }
+
     /**
      * Get global visitor of state entries.
      *
@@ -82,6 +82,11 @@ class AbstractLatencyTrackState<
                 safeValueSerializer);
     }
 
+    @Override
+    public boolean supportsConcurrentReads() {
+        return original.supportsConcurrentReads();
+    }
+
     @Override
     public StateIncrementalVisitor<K, N, V> getStateIncrementalVisitor(
             int recommendedMaxNumberOfReturnedRecords) {
@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint;
+
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.CheckpointCoordinatorBuilder;
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.CheckpointExecutionGraphBuilder;
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.CheckpointRecorderTaskManagerGateway;
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.NotifiedCheckpoint;
+import org.apache.flink.runtime.concurrent.ManuallyTriggeredScheduledExecutor;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
+import org.apache.flink.runtime.messages.checkpoint.AcknowledgeCheckpoint;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.util.TestLogger;
+
+import org.apache.flink.shaded.guava18.com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/** Tests for the completion of expired checkpoints for the acknowledged independent regions. */
+public class CheckpointCoordinatorRegionCheckpointsTest extends TestLogger {
+
+    private static final String TASK_MANAGER_LOCATION_INFO = "Unknown location";
+
+    private ManuallyTriggeredScheduledExecutor manuallyTriggeredScheduledExecutor;
+
+    private CheckpointRecorderTaskManagerGateway gateway;
+
+    @Before
+    public void setUp() {
+        manuallyTriggeredScheduledExecutor = new ManuallyTriggeredScheduledExecutor();
+        gateway = new CheckpointRecorderTaskManagerGateway();
+    }
+
+    @Test
+    public void testExpiredCheckpointIsCompletedForAcknowledgedRegions() throws Exception {
+        JobVertexID jobVertexID = new JobVertexID();
+        ExecutionGraph graph =
+                new CheckpointExecutionGraphBuilder()
+                        .addJobVertex(jobVertexID, 2, 128)
+                        .setTaskManagerGateway(gateway)
+                        .build();
+        ExecutionVertex vertex1 = graph.getJobVertex(jobVertexID).getTaskVertices()[0];
+        ExecutionVertex vertex2 = graph.getJobVertex(jobVertexID).getTaskVertices()[1];
+        OperatorID operatorID = OperatorID.fromJobVertexID(jobVertexID);
+
+        CompletedCheckpointStore store = new StandaloneCompletedCheckpointStore(1);
+        CheckpointCoordinator coordinator = createCoordinator(graph, store, true);
+
+        // the first checkpoint is acknowledged by all tasks
+        OperatorSubtaskState state11 = spy(OperatorSubtaskState.builder().build());
+        OperatorSubtaskState state12 = spy(OperatorSubtaskState.builder().build());
+        long checkpointId1 = triggerCheckpoint(coordinator);
+        acknowledge(coordinator, graph, vertex1, checkpointId1, operatorID, state11);
+        acknowledge(coordinator, graph, vertex2, checkpointId1, operatorID, state12);
+        assertEquals(checkpointId1, store.getLatestCheckpoint(false).getCheckpointID());
+
+        // the second checkpoint is acknowledged by the first task only and expires
+        OperatorSubtaskState state21 = spy(OperatorSubtaskState.builder().build());
+        long checkpointId2 = triggerCheckpoint(coordinator);
+        acknowledge(coordinator, graph, vertex1, checkpointId2, operatorID, state21);
+        manuallyTriggeredScheduledExecutor.triggerScheduledTasks();
+
+        assertEquals(0, coordinator.getNumberOfPendingCheckpoints());
+        CompletedCheckpoint checkpoint2 = store.getLatestCheckpoint(false);
+        assertEquals(checkpointId2, checkpoint2.getCheckpointID());
+        OperatorState operatorState = checkpoint2.getOperatorStates().get(operatorID);
+        assertSame(state21, operatorState.getState(0));
+        assertSame(state12, operatorState.getState(1));
+        assertEquals(
+                Collections.singletonMap(operatorID, Collections.singletonMap(1, checkpointId1)),
+                checkpoint2.getInheritedSubtaskStates());
+
+        // only the acknowledging task commits the checkpoint, the other one aborts it
+        assertEquals(
+                Arrays.asList(checkpointId1, checkpointId2),
+                getCheckpointIds(
+                        gateway.getNotifiedCompletedCheckpoints(
+                                vertex1.getCurrentExecutionAttempt().getAttemptId())));
+        assertEquals(
+                Collections.singletonList(checkpointId1),
+                getCheckpointIds(
+                        gateway.getNotifiedCompletedCheckpoints(
+                                vertex2.getCurrentExecutionAttempt().getAttemptId())));
+        assertEquals(
+                Collections.singletonList(checkpointId2),
+                getCheckpointIds(
+                        gateway.getNotifiedAbortedCheckpoints(
+                                vertex2.getCurrentExecutionAttempt().getAttemptId())));
+
+        // the subsumed first checkpoint is kept until the inherited state is not referenced
+        verify(state11, never()).discardState();
+        verify(state12, never()).discardState();
+
+        // a late acknowledgement of the completed checkpoint is discarded
+        OperatorSubtaskState state22 = spy(OperatorSubtaskState.builder().build());
+        acknowledge(coordinator, graph, vertex2, checkpointId2, operatorID, state22);
+        verify(state22, times(1)).discardState();
+
+        // the third checkpoint subsumes the second one, which releases the first one
+        OperatorSubtaskState state31 = spy(OperatorSubtaskState.builder().build());
+        OperatorSubtaskState state32 = spy(OperatorSubtaskState.builder().build());
+        long checkpointId3 = triggerCheckpoint(coordinator);
+        acknowledge(coordinator, graph, vertex1, checkpointId3, operatorID, state31);
+        acknowledge(coordinator, graph, vertex2, checkpointId3, operatorID, state32);
+        assertEquals(checkpointId3, store.getLatestCheckpoint(false).getCheckpointID());
+
+        verify(state11, times(1)).discardState();
+        verify(state12, times(1)).discardState();
+        verify(state21, times(1)).discardState();
+        verify(state31, never()).discardState();
+        verify(state32, never()).discardState();
+
+        coordinator.shutdown();
+    }
+
+    @Test
+    public void testExpiredCheckpointIsAbortedIfRegionCheckpointsAreDisabled() throws Exception {
+        JobVertexID jobVertexID = new JobVertexID();
+        ExecutionGraph graph =
+                new CheckpointExecutionGraphBuilder()
+                        .addJobVertex(jobVertexID, 2, 128)
+                        .setTaskManagerGateway(gateway)
+                        .build();
+        ExecutionVertex vertex1 = graph.getJobVertex(jobVertexID).getTaskVertices()[0];
+        ExecutionVertex vertex2 = graph.getJobVertex(jobVertexID).getTaskVertices()[1];
+        OperatorID operatorID = OperatorID.fromJobVertexID(jobVertexID);
+
+        CompletedCheckpointStore store = new StandaloneCompletedCheckpointStore(1);
+        CheckpointCoordinator coordinator = createCoordinator(graph, store, false);
+
+        long checkpointId1 = triggerCheckpoint(coordinator);
+        acknowledge(
+                coordinator,
+                graph,
+                vertex1,
+                checkpointId1,
+                operatorID,
+                OperatorSubtaskState.builder().build());
+        acknowledge(
+                coordinator,
+                graph,
+                vertex2,
+                checkpointId1,
+                operatorID,
+                OperatorSubtaskState.builder().build());
+
+        OperatorSubtaskState state21 = spy(OperatorSubtaskState.builder().build());
+        long checkpointId2 = triggerCheckpoint(coordinator);
+        acknowledge(coordinator, graph, vertex1, checkpointId2, operatorID, state21);
+        manuallyTriggeredScheduledExecutor.triggerScheduledTasks();
+
+        assertEquals(0, coordinator.getNumberOfPendingCheckpoints());
+        assertEquals(checkpointId1, store.getLatestCheckpoint(false).getCheckpointID());
+        verify(state21, times(1)).discardState();
+
+        coordinator.shutdown();
+    }
+
+    @Test
+    public void testExpiredCheckpointIsAbortedWithoutCompletedCheckpoint() throws Exception {
+        JobVertexID jobVertexID = new JobVertexID();
+        ExecutionGraph graph =
+                new CheckpointExecutionGraphBuilder()
+                        .addJobVertex(jobVertexID, 2, 128)
+                        .setTaskManagerGateway(gateway)
+                        .build();
+        ExecutionVertex vertex1 = graph.getJobVertex(jobVertexID).getTaskVertices()[0];
+        OperatorID operatorID = OperatorID.fromJobVertexID(jobVertexID);
+
+        CompletedCheckpointStore store = new StandaloneCompletedCheckpointStore(1);
+        CheckpointCoordinator coordinator = createCoordinator(graph, store, true);
+
+        OperatorSubtaskState state11 = spy(OperatorSubtaskState.builder().build());
+        long checkpointId = triggerCheckpoint(coordinator);
+        acknowledge(coordinator, graph, vertex1, checkpointId, operatorID, state11);
+        manuallyTriggeredScheduledExecutor.triggerScheduledTasks();
+
+        assertEquals(0, coordinator.getNumberOfPendingCheckpoints());
+        assertEquals(0, coordinator.getNumberOfRetainedSuccessfulCheckpoints());
+        verify(state11, times(1)).discardState();
+
+        coordinator.shutdown();
+    }
+
+    @Test
+    public void testComputeIndependentRegions() throws Exception {
+        JobVertex source1 = createJobVertex(2);
+        JobVertex sink1 = createJobVertex(2);
+        sink1.connectNewDataSetAsInput(
+                source1, DistributionPattern.POINTWISE, ResultPartitionType.PIPELINED);
+        JobVertex source2 = createJobVertex(2);
+        JobVertex sink2 = createJobVertex(2);
+        sink2.connectNewDataSetAsInput(
+                source2, DistributionPattern.ALL_TO_ALL, ResultPartitionType.PIPELINED);
+
+        // the builder connects all sources to all non-sources, so the vertices are added as
+        // sources to keep only the edges above
+        ExecutionGraph graph =
+                new CheckpointExecutionGraphBuilder()
+                        .addJobVertex(source1, true)
+                        .addJobVertex(sink1, true)
+                        .addJobVertex(source2, true)
+                        .addJobVertex(sink2, true)
+                        .build();
+
+        Collection<List<ExecutionVertex>> regions =
+                CheckpointCoordinator.computeIndependentRegions(
+                        Lists.newArrayList(graph.getAllExecutionVertices()));
+
+        // the pointwise connected pipeline consists of two regions, the other one of one region
+        assertEquals(3, regions.size());
+        for (List<ExecutionVertex> region : regions) {
+            List<JobVertexID> jobVertices =
+                    region.stream()
+                            .map(ExecutionVertex::getJobvertexId)
+                            .collect(Collectors.toList());
+            if (jobVertices.contains(source2.getID())) {
+                assertEquals(4, region.size());
+                assertFalse(jobVertices.contains(source1.getID()));
+            } else {
+                assertEquals(2, region.size());
+                assertTrue(jobVertices.contains(source1.getID()));
+                assertTrue(jobVertices.contains(sink1.getID()));
+                assertEquals(
+                        region.get(0).getParallelSubtaskIndex(),
+                        region.get(1).getParallelSubtaskIndex());
+            }
+        }
+    }
+
+    private CheckpointCoordinator createCoordinator(
+            ExecutionGraph graph, CompletedCheckpointStore store, boolean regionCheckpoints)
+            throws Exception {
+        return new CheckpointCoordinatorBuilder()
+                .setExecutionGraph(graph)
+                .setCompletedCheckpointStore(store)
+                .setTimer(manuallyTriggeredScheduledExecutor)
+                .setCheckpointCoordinatorConfiguration(
+                        CheckpointCoordinatorConfiguration.builder()
+                                .setMaxConcurrentCheckpoints(Integer.MAX_VALUE)
+                                .setRegionCheckpointsEnabled(regionCheckpoints)
+                                .build())
+                .build();
+    }
+
+    private long triggerCheckpoint(CheckpointCoordinator coordinator) {
+        coordinator.triggerCheckpoint(false);
+        manuallyTriggeredScheduledExecutor.triggerAll();
+        PendingCheckpoint pendingCheckpoint =
+                coordinator.getPendingCheckpoints().values().stream()
+                        .filter(checkpoint -> !checkpoint.isDisposed())
+                        .findFirst()
+                        .orElse(null);
+        assertNotNull(pendingCheckpoint);
+        return pendingCheckpoint.getCheckpointId();
+    }
+
+    private static void acknowledge(
+            CheckpointCoordinator coordinator,
+            ExecutionGraph graph,
+            ExecutionVertex vertex,
+            long checkpointId,
+            OperatorID operatorID,
+            OperatorSubtaskState subtaskState)
+            throws Exception {
+        TaskStateSnapshot taskStateSnapshot = new TaskStateSnapshot();
+        taskStateSnapshot.putSubtaskStateByOperatorID(operatorID, subtaskState);
+        coordinator.receiveAcknowledgeMessage(
+                new AcknowledgeCheckpoint(
+                        graph.getJobID(),
+                        vertex.getCurrentExecutionAttempt().getAttemptId(),
+                        checkpointId,
+                        new CheckpointMetrics(),
+                        taskStateSnapshot),
+                TASK_MANAGER_LOCATION_INFO);
+    }
+
+    private static List<Long> getCheckpointIds(List<NotifiedCheckpoint> checkpoints) {
+        return checkpoints.stream()
+                .map(checkpoint -> checkpoint.checkpointId)
+                .collect(Collectors.toList());
+    }
+
+    private static JobVertex createJobVertex(int parallelism) {
+        JobVertex jobVertex = new JobVertex("anon", new JobVertexID());
+        jobVertex.setParallelism(parallelism);
+        jobVertex.setMaxParallelism(128);
+        jobVertex.setInvokableClass(NoOpInvokable.class);
+        return jobVertex;
+    }
+}
@@ -408,6 +408,75 @@ public class CheckpointCoordinatorTest extends TestLogger {
         }
     }
 
+    @Test
+    public void testTargetCheckpointDurationChoosesAlignment() throws Exception {
+        JobVertexID jobVertexID = new JobVertexID();
+        CheckpointCoordinatorTestingUtils.CheckpointRecorderTaskManagerGateway gateway =
+                new CheckpointCoordinatorTestingUtils.CheckpointRecorderTaskManagerGateway();
+        ExecutionGraph graph =
+                new CheckpointCoordinatorTestingUtils.CheckpointExecutionGraphBuilder()
+                        .addJobVertex(jobVertexID)
+                        .setTaskManagerGateway(gateway)
+                        .build();
+        ExecutionAttemptID attemptID =
+                graph.getJobVertex(jobVertexID)
+                        .getTaskVertices()[0]
+                        .getCurrentExecutionAttempt()
+                        .getAttemptId();
+
+        CheckpointCoordinatorConfiguration chkConfig =
+                CheckpointCoordinatorConfiguration.builder()
+                        .setCheckpointInterval(60_000L)
+                        .setUnalignedCheckpointsEnabled(true)
+                        .setAlignedCheckpointTimeout(0L)
+                        .setTargetCheckpointDuration(10_000L)
+                        .build();
+        CheckpointCoordinator checkpointCoordinator =
+                new CheckpointCoordinatorBuilder()
+                        .setExecutionGraph(graph)
+                        .setCheckpointCoordinatorConfiguration(chkConfig)
+                        .setTimer(manuallyTriggeredScheduledExecutor)
+                        .build();
+        checkpointCoordinator.setCheckpointStatsTracker(
+                new CheckpointStatsTracker(
+                        Integer.MAX_VALUE, chkConfig, new UnregisteredMetricsGroup()));
+
+        // without stats, the first checkpoint starts aligned and times out after the target
+        checkpointCoordinator.triggerCheckpoint(false);
+        manuallyTriggeredScheduledExecutor.triggerAll();
+        CheckpointOptions firstOptions =
+                gateway.getOnlyTriggeredCheckpoint(attemptID).checkpointOptions;
+        assertFalse(firstOptions.isUnalignedCheckpoint());
+        assertEquals(10_000L, firstOptions.getAlignedCheckpointTimeout());
+
+        // the alignment exceeds the target duration
+        long checkpointId =
+                checkpointCoordinator.getPendingCheckpoints().keySet().iterator().next();
+        checkpointCoordinator.receiveAcknowledgeMessage(
+                new AcknowledgeCheckpoint(
+                        graph.getJobID(),
+                        attemptID,
+                        checkpointId,
+                        new CheckpointMetricsBuilder()
+                                .setTotalBytesPersisted(1_000L)
+                                .setBytesProcessedDuringAlignment(1_000L)
+                                .setAsyncDurationMillis(100L)
+                                .setAlignmentDurationNanos(20_000L * 1_000_000)
+                                .setCheckpointStartDelayNanos(0L)
+                                .build(),
+                        new TaskStateSnapshot()),
+                TASK_MANAGER_LOCATION_INFO);
+        assertEquals(1, checkpointCoordinator.getNumberOfRetainedSuccessfulCheckpoints());
+
+        // the next checkpoint is unaligned
+        checkpointCoordinator.triggerCheckpoint(false);
+        manuallyTriggeredScheduledExecutor.triggerAll();
+        List<CheckpointCoordinatorTestingUtils.TriggeredCheckpoint> triggeredCheckpoints =
+                gateway.getTriggeredCheckpoints(attemptID);
+        assertEquals(2, triggeredCheckpoints.size());
+        assertTrue(triggeredCheckpoints.get(1).checkpointOptions.isUnalignedCheckpoint());
+    }
+
     @Test
     public void testCheckpointTriggeredAfterSomeTasksFinishedIfAllowed() throws Exception {
         JobVertexID jobVertexID1 = new JobVertexID();
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint;
+
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link CheckpointCostEstimator}. */
+public class CheckpointCostEstimatorTest {
+
+    private static final JobVertexID VERTEX_ID = new JobVertexID();
+
+    private static final long MIN_INTERVAL = 1_000L;
+
+    private static final long MAX_INTERVAL = 60_000L;
+
+    @Test
+    public void testMaxIntervalWithoutStats() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(10_000L, MIN_INTERVAL, MAX_INTERVAL, true);
+
+        assertEquals(MAX_INTERVAL, estimator.getCheckpointInterval());
+        assertFalse(estimator.isUnaligned());
+        assertEquals(0, estimator.estimateDuration(MAX_INTERVAL, false));
+    }
+
+    @Test
+    public void testIntervalIsShortenedToMeetTargetDuration() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(20_000L, MIN_INTERVAL, MAX_INTERVAL, false);
+
+        // uploads 10 bytes per ms
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 0L, 100L, 0L, 0L, 0L));
+        assertEquals(MAX_INTERVAL, estimator.getCheckpointInterval());
+
+        // the state grows by 2.5 bytes per ms, so every ms of the interval adds 0.25 ms of upload
+        reportCheckpoint(estimator, 60_000L, subtaskStats(0, 151_000L, 0L, 15_100L, 0L, 0L, 0L));
+        assertEquals(15_100L, estimator.estimateDuration(0L, false));
+        assertEquals(30_100L, estimator.estimateDuration(60_000L, false));
+
+        assertEquals(19_600L, estimator.getCheckpointInterval());
+        assertEquals(20_000L, estimator.estimateDuration(19_600L, false));
+        assertFalse(estimator.isUnaligned());
+    }
+
+    @Test
+    public void testIntervalIsNotShortenedIfTargetDurationIsMet() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(31_000L, MIN_INTERVAL, MAX_INTERVAL, false);
+
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 0L, 100L, 0L, 0L, 0L));
+        reportCheckpoint(estimator, 60_000L, subtaskStats(0, 151_000L, 0L, 15_100L, 0L, 0L, 0L));
+
+        assertEquals(MAX_INTERVAL, estimator.getCheckpointInterval());
+    }
+
+    @Test
+    public void testIntervalIsNotShortenedIfItDoesNotHelp() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(10_000L, MIN_INTERVAL, MAX_INTERVAL, false);
+
+        // the upload of the whole state exceeds the target, regardless of the interval
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 0L, 100L, 0L, 0L, 0L));
+        reportCheckpoint(estimator, 60_000L, subtaskStats(0, 151_000L, 0L, 15_100L, 0L, 0L, 0L));
+
+        assertEquals(MAX_INTERVAL, estimator.getCheckpointInterval());
+    }
+
+    @Test
+    public void testIntervalIsAtLeastMinInterval() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(15_200L, MIN_INTERVAL, MAX_INTERVAL, false);
+
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 0L, 100L, 0L, 0L, 0L));
+        reportCheckpoint(estimator, 60_000L, subtaskStats(0, 151_000L, 0L, 15_100L, 0L, 0L, 0L));
+
+        assertEquals(MIN_INTERVAL, estimator.getCheckpointInterval());
+    }
+
+    @Test
+    public void testSlowestSubtaskDeterminesDuration() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(20_000L, MIN_INTERVAL, MAX_INTERVAL, false);
+
+        reportCheckpoint(
+                estimator,
+                0L,
+                subtaskStats(0, 1_000L, 0L, 100L, 0L, 0L, 0L),
+                subtaskStats(1, 1_000L, 0L, 100L, 0L, 0L, 0L));
+        reportCheckpoint(
+                estimator,
+                60_000L,
+                subtaskStats(0, 151_000L, 0L, 15_100L, 0L, 0L, 0L),
+                subtaskStats(1, 1_000L, 0L, 100L, 0L, 0L, 0L));
+
+        assertEquals(30_100L, estimator.estimateDuration(60_000L, false));
+        assertEquals(19_600L, estimator.getCheckpointInterval());
+    }
+
+    @Test
+    public void testUnalignedIfAlignmentExceedsTargetDuration() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(10_000L, MIN_INTERVAL, MAX_INTERVAL, true);
+
+        // the alignment takes 20 s, while the in-flight data takes 100 ms to upload
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 0L, 100L, 20_000L, 1_000L, 0L));
+
+        assertEquals(20_100L, estimator.estimateDuration(MAX_INTERVAL, false));
+        assertEquals(200L, estimator.estimateDuration(MAX_INTERVAL, true));
+        assertTrue(estimator.isUnaligned());
+        assertEquals(MAX_INTERVAL, estimator.getCheckpointInterval());
+
+        // the alignment is fast again
+        reportCheckpoint(estimator, 60_000L, unalignedSubtaskStats(0, 1_000L, 100L, 1_000L));
+        for (int i = 0; i < 10; i++) {
+            reportCheckpoint(
+                    estimator, 120_000L + i, subtaskStats(0, 1_000L, 0L, 100L, 0L, 0L, 0L));
+        }
+        assertFalse(estimator.isUnaligned());
+    }
+
+    @Test
+    public void testAlignedIfUnalignedCheckpointsAreDisabled() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(10_000L, MIN_INTERVAL, MAX_INTERVAL, false);
+
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 0L, 100L, 20_000L, 1_000L, 0L));
+
+        assertFalse(estimator.isUnaligned());
+    }
+
+    @Test
+    public void testStartDelayAndSyncDurationAreIncluded() {
+        CheckpointCostEstimator estimator =
+                new CheckpointCostEstimator(10_000L, MIN_INTERVAL, MAX_INTERVAL, true);
+
+        reportCheckpoint(estimator, 0L, subtaskStats(0, 1_000L, 50L, 100L, 300L, 0L, 500L));
+
+        // start delay, sync duration, alignment and upload
+        assertEquals(500L + 50L + 300L + 100L, estimator.estimateDuration(0L, false));
+        assertEquals(500L + 50L + 100L, estimator.estimateDuration(0L, true));
+    }
+
+    private static void reportCheckpoint(
+            CheckpointCostEstimator estimator,
+            long checkpointTimestamp,
+            SubtaskStateStats... subtaskStats) {
+        TaskStateStats taskStateStats = new TaskStateStats(VERTEX_ID, subtaskStats.length);
+        Arrays.stream(subtaskStats).forEach(taskStateStats::reportSubtaskStats);
+        estimator.reportCompletedCheckpoint(
+                checkpointTimestamp, Collections.singletonList(taskStateStats));
+    }
+
+    private static SubtaskStateStats subtaskStats(
+            int subtaskIndex,
+            long stateSize,
+            long syncDuration,
+            long asyncDuration,
+            long alignmentDuration,
+            long processedData,
+            long startDelay) {
+        return new SubtaskStateStats(
+                subtaskIndex,
+                0L,
+                stateSize,
+                syncDuration,
+                asyncDuration,
+                processedData,
+                0L,
+                alignmentDuration,
+                startDelay,
+                false,
+                true);
+    }
+
+    private static SubtaskStateStats unalignedSubtaskStats(
+            int subtaskIndex, long stateSize, long asyncDuration, long persistedData) {
+        return new SubtaskStateStats(
+                subtaskIndex,
+                0L,
+                stateSize,
+                0L,
+                asyncDuration,
+                0L,
+                persistedData,
+                0L,
+                0L,
+                true,
+                true);
+    }
+}
@@ -336,6 +336,18 @@ public class PendingCheckpointTest {
         }
     }
 
+    @Test
+    public void testNonAcknowledgedTasks() throws Exception {
+        PendingCheckpoint pending =
+                createPendingCheckpoint(
+                        CheckpointProperties.forCheckpoint(
+                                CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION));
+        Assert.assertEquals(TASKS_TO_COMMIT, pending.getNonAcknowledgedTasks());
+
+        pending.acknowledgeTask(ATTEMPT_ID, null, mock(CheckpointMetrics.class), null);
+        Assert.assertTrue(pending.getNonAcknowledgedTasks().isEmpty());
+    }
+
     /**
      * FLINK-5985.
      *
@@ -38,6 +38,7 @@ import static org.apache.flink.runtime.checkpoint.channel.ChannelStateByteBuffer
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /** {@link ChannelStateSerializerImpl} test. */
 public class ChannelStateSerializerImplTest {
@@ -85,6 +86,77 @@ public class ChannelStateSerializerImplTest {
         }
     }
 
+    @Test
+    public void testReadWriteCompressed() throws IOException {
+        byte[] data = generateCompressibleData(1234);
+        ChannelStateSerializerImpl serializer = new ChannelStateSerializerImpl(true);
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length)) {
+            write(data, serializer, baos);
+            assertTrue(baos.size() < data.length);
+            // the reader detects compression from the header
+            readAndCheck(
+                    data,
+                    new ChannelStateSerializerImpl(),
+                    new ByteArrayInputStream(baos.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testReadWriteCompressedWithMultipleBuffers() throws IOException {
+        int bufSize = 10;
+        int[] numBuffersToWriteAtOnce = {0, 1, 2, 3};
+        byte[] data = generateData(bufSize);
+        ChannelStateSerializer s = new ChannelStateSerializerImpl(true);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        s.writeHeader(out);
+        for (int count : numBuffersToWriteAtOnce) {
+            Buffer[] buffers = new Buffer[count];
+            Arrays.fill(buffers, getBuffer(data));
+            s.writeData(out, buffers);
+        }
+        out.close();
+
+        ChannelStateSerializer d = new ChannelStateSerializerImpl();
+        ByteArrayInputStream is = new ByteArrayInputStream(baos.toByteArray());
+        d.readHeader(is);
+        for (int count : numBuffersToWriteAtOnce) {
+            int expected = bufSize * count;
+            assertEquals(expected, d.readLength(is));
+            byte[] readBuf = new byte[expected];
+            assertEquals(expected, d.readData(is, wrap(readBuf), Integer.MAX_VALUE));
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(
+                        data, Arrays.copyOfRange(readBuf, i * bufSize, (i + 1) * bufSize));
+            }
+        }
+    }
+
+    @Test
+    public void testExtractAndMergeCompressed() throws IOException {
+        byte[] first = generateCompressibleData(100);
+        byte[] second = generateCompressibleData(200);
+        ChannelStateSerializerImpl serializer = new ChannelStateSerializerImpl(true);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        serializer.writeHeader(out);
+        long firstOffset = out.size();
+        serializer.writeData(out, getBuffer(first));
+        serializer.writeData(out, getBuffer(generateData(50)));
+        long secondOffset = out.size();
+        serializer.writeData(out, getBuffer(second));
+        out.close();
+
+        byte[] merged =
+                serializer.extractAndMerge(
+                        baos.toByteArray(), Arrays.asList(firstOffset, secondOffset));
+
+        byte[] expected = new byte[first.length + second.length];
+        System.arraycopy(first, 0, expected, 0, first.length);
+        System.arraycopy(second, 0, expected, first.length, second.length);
+        readAndCheck(expected, new ChannelStateSerializerImpl(), new ByteArrayInputStream(merged));
+    }
+
     @Test
     public void testReadToBufferBuilder() throws IOException {
         byte[] data = generateData(100);
@@ -159,6 +231,14 @@ public class ChannelStateSerializerImplTest {
         }
     }
 
+    private static byte[] generateCompressibleData(int len) {
+        byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++) {
+            bytes[i] = (byte) (i % 7);
+        }
+        return bytes;
+    }
+
     static byte[] generateData(int len) {
         byte[] bytes = new byte[len];
         new Random().nextBytes(bytes);
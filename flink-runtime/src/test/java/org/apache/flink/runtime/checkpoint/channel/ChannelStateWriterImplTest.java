@@ -205,7 +205,7 @@ public class ChannelStateWriterImplTest {
         int maxCheckpoints = 3;
         try (ChannelStateWriterImpl writer =
                 new ChannelStateWriterImpl(
-                        TASK_NAME, 0, getStreamFactoryFactory(), maxCheckpoints)) {
+                        TASK_NAME, 0, getStreamFactoryFactory(), maxCheckpoints, false)) {
             writer.open();
             for (int i = 0; i < maxCheckpoints; i++) {
                 writer.start(i, CheckpointOptions.forCheckpointWithDefaultLocation());
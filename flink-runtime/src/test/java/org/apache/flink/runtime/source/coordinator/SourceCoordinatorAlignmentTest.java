@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.api.common.eventtime.WatermarkAlignmentParams;
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.api.connector.source.mocks.MockSplitEnumeratorCheckpointSerializer;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
+import org.apache.flink.runtime.source.event.ReportedWatermarkEvent;
+import org.apache.flink.runtime.source.event.WatermarkAlignmentEvent;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests the watermark alignment of the {@link SourceCoordinator}. */
+public class SourceCoordinatorAlignmentTest extends SourceCoordinatorTestBase {
+
+    private static final String GROUP = "group";
+
+    @Test
+    public void testAnnouncesSmallestWatermarkOfSubtasksPlusDrift() throws Exception {
+        final SourceCoordinator<MockSourceSplit, Set<MockSourceSplit>> coordinator =
+                startAlignedSourceCoordinator();
+
+        reportWatermark(coordinator, 0, 1000L);
+        reportWatermark(coordinator, 1, 2000L);
+        reportWatermark(coordinator, 2, 3000L);
+        announce(coordinator);
+        assertLastAnnouncedWatermarks(1100L);
+
+        // a finished or idle subtask reports Long.MAX_VALUE and does not hold back the others
+        reportWatermark(coordinator, 0, Long.MAX_VALUE);
+        announce(coordinator);
+        assertLastAnnouncedWatermarks(2100L);
+
+        coordinator.close();
+    }
+
+    @Test
+    public void testAnnouncesSmallestWatermarkOfGroup() throws Exception {
+        // another source of the same group, sharing the coordinator store
+        final SourceCoordinator.WatermarkAlignmentGroup group =
+                (SourceCoordinator.WatermarkAlignmentGroup)
+                        operatorCoordinatorContext
+                                .getCoordinatorStore()
+                                .computeIfAbsent(
+                                        SourceCoordinator.WatermarkAlignmentGroup.storeKey(GROUP),
+                                        key -> new SourceCoordinator.WatermarkAlignmentGroup());
+        group.update(new OperatorID(), 500L);
+
+        final SourceCoordinator<MockSourceSplit, Set<MockSourceSplit>> coordinator =
+                startAlignedSourceCoordinator();
+        for (int i = 0; i < NUM_SUBTASKS; i++) {
+            reportWatermark(coordinator, i, 1000L);
+        }
+        announce(coordinator);
+        assertLastAnnouncedWatermarks(600L);
+
+        coordinator.close();
+    }
+
+    // ------------------------------------------------------------------------
+
+    private SourceCoordinator<MockSourceSplit, Set<MockSourceSplit>> startAlignedSourceCoordinator()
+            throws Exception {
+        final Source<Integer, MockSourceSplit, Set<MockSourceSplit>> mockSource =
+                TestingSplitEnumerator.factorySource(
+                        new MockSourceSplitSerializer(),
+                        new MockSplitEnumeratorCheckpointSerializer());
+
+        // the update interval is long enough to only announce the watermark on demand
+        final SourceCoordinator<MockSourceSplit, Set<MockSourceSplit>> coordinator =
+                new SourceCoordinator<>(
+                        OPERATOR_NAME,
+                        coordinatorExecutor,
+                        mockSource,
+                        getNewSourceCoordinatorContext(),
+                        new WatermarkAlignmentParams(100L, GROUP, Long.MAX_VALUE / 2));
+        coordinator.start();
+        setAllReaderTasksReady(coordinator);
+        for (int i = 0; i < NUM_SUBTASKS; i++) {
+            coordinator.handleEventFromOperator(i, new ReaderRegistrationEvent(i, "location_" + i));
+        }
+        return coordinator;
+    }
+
+    private void reportWatermark(SourceCoordinator<?, ?> coordinator, int subtask, long watermark)
+            throws Exception {
+        coordinator.handleEventFromOperator(subtask, new ReportedWatermarkEvent(watermark));
+    }
+
+    private void announce(SourceCoordinator<?, ?> coordinator) {
+        context.runInCoordinatorThread(coordinator::announceMaxAllowedWatermark);
+        waitForCoordinatorToProcessActions();
+    }
+
+    private void assertLastAnnouncedWatermarks(long expected) {
+        for (int i = 0; i < NUM_SUBTASKS; i++) {
+            final List<OperatorEvent> events = receivingTasks.getSentEventsForSubtask(i);
+            final OperatorEvent lastEvent = events.get(events.size() - 1);
+            assertEquals(expected, ((WatermarkAlignmentEvent) lastEvent).getMaxWatermark());
+        }
+    }
+}
@@ -22,11 +22,13 @@ import org.apache.flink.runtime.checkpoint.metadata.CheckpointTestUtils;
 
 import org.junit.Test;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -75,7 +77,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(entry.getKey());
 
-            verify(registry, times(0)).unregisterReference(registryKey);
+            verify(registry, times(0)).unregisterReferences(containsKey(registryKey));
             verify(entry.getValue(), times(0)).discardState();
         }
 
@@ -85,7 +87,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(entry.getKey());
 
-            verify(registry, times(0)).unregisterReference(registryKey);
+            verify(registry, times(0)).unregisterReferences(containsKey(registryKey));
             verify(entry.getValue(), times(0)).discardState();
         }
 
@@ -123,7 +125,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(entry.getKey());
 
-            verify(registry, times(1)).unregisterReference(registryKey);
+            verify(registry, times(1)).unregisterReferences(containsKey(registryKey));
             verify(entry.getValue(), times(0)).discardState();
         }
 
@@ -138,7 +140,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(handleEntry.getKey());
 
-            verify(registry, times(0)).unregisterReference(registryKey);
+            verify(registry, times(0)).unregisterReferences(containsKey(registryKey));
             verify(handleEntry.getValue(), times(1)).discardState();
         }
 
@@ -148,7 +150,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(handleEntry.getKey());
 
-            verify(registry, times(0)).unregisterReference(registryKey);
+            verify(registry, times(0)).unregisterReferences(containsKey(registryKey));
             verify(handleEntry.getValue(), times(0)).discardState();
         }
 
@@ -165,7 +167,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(entry.getKey());
 
-            verify(registry, times(2)).unregisterReference(registryKey);
+            verify(registry, times(2)).unregisterReferences(containsKey(registryKey));
             verify(entry.getValue()).discardState();
         }
 
@@ -175,7 +177,7 @@ public class IncrementalRemoteKeyedStateHandleTest {
             SharedStateRegistryKey registryKey =
                     stateHandle1.createSharedStateRegistryKeyFromFileName(entry.getKey());
 
-            verify(registry, times(2)).unregisterReference(registryKey);
+            verify(registry, times(2)).unregisterReferences(containsKey(registryKey));
             verify(entry.getValue()).discardState();
         }
 
@@ -271,4 +273,8 @@ public class IncrementalRemoteKeyedStateHandleTest {
         }
         return map;
     }
+
+    private static Collection<SharedStateRegistryKey> containsKey(SharedStateRegistryKey key) {
+        return argThat(keys -> keys.contains(key));
+    }
 }
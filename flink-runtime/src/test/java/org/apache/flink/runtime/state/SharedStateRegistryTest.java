@@ -23,7 +23,12 @@ import org.apache.flink.core.fs.FSDataInputStream;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static junit.framework.TestCase.assertFalse;
 import static org.junit.Assert.assertEquals;
@@ -93,6 +98,79 @@ public class SharedStateRegistryTest {
         sharedStateRegistry.unregisterReference(new SharedStateRegistryKey("non-existent"));
     }
 
+    /** Validate that states released by a batch of unregistrations are discarded together. */
+    @Test
+    public void testUnregisterReferencesDiscardsInSingleTask() {
+        final AtomicInteger scheduledDisposals = new AtomicInteger();
+        SharedStateRegistry sharedStateRegistry =
+                new SharedStateRegistry(
+                        runnable -> {
+                            scheduledDisposals.incrementAndGet();
+                            runnable.run();
+                        });
+
+        TestSharedState firstState = new TestSharedState("first");
+        TestSharedState secondState = new TestSharedState("second");
+        TestSharedState thirdState = new TestSharedState("third");
+        for (TestSharedState state : Arrays.asList(firstState, secondState, thirdState)) {
+            sharedStateRegistry.registerReference(state.getRegistrationKey(), state);
+        }
+        // the third state is referenced twice and must survive the batch
+        sharedStateRegistry.registerReference(thirdState.getRegistrationKey(), thirdState);
+
+        sharedStateRegistry.unregisterReferences(
+                Arrays.asList(
+                        firstState.getRegistrationKey(),
+                        secondState.getRegistrationKey(),
+                        thirdState.getRegistrationKey()));
+
+        assertEquals(1, scheduledDisposals.get());
+        assertTrue(firstState.isDiscarded());
+        assertTrue(secondState.isDiscarded());
+        assertFalse(thirdState.isDiscarded());
+
+        // nothing to discard, nothing to schedule
+        sharedStateRegistry.unregisterReferences(Collections.emptyList());
+        assertEquals(1, scheduledDisposals.get());
+    }
+
+    /** Validate that concurrent (un)registrations under the same keys are not lost. */
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        final int numThreads = 8;
+        final int numKeys = 100;
+        final SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        final List<TestSharedState> states = new ArrayList<>(numKeys);
+        for (int i = 0; i < numKeys; i++) {
+            states.add(new TestSharedState("state-" + i));
+        }
+
+        final List<Thread> threads = new ArrayList<>(numThreads);
+        for (int t = 0; t < numThreads; t++) {
+            threads.add(
+                    new Thread(
+                            () -> {
+                                for (TestSharedState state : states) {
+                                    sharedStateRegistry.registerReference(
+                                            state.getRegistrationKey(), state);
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (TestSharedState state : states) {
+            SharedStateRegistry.Result result =
+                    sharedStateRegistry.registerReference(state.getRegistrationKey(), state);
+            assertEquals(numThreads + 1, result.getReferenceCount());
+            assertFalse(state.isDiscarded());
+        }
+    }
+
     private static class TestSharedState implements StreamStateHandle {
         private static final long serialVersionUID = 4468635881465159780L;
 
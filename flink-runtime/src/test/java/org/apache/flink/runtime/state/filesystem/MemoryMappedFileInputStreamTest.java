@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/** Tests for the {@link MemoryMappedFileInputStream}. */
+public class MemoryMappedFileInputStreamTest {
+
+    @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadAcrossRegions() throws Exception {
+        final byte[] data = randomData(1000);
+        final File file = writeFile(data);
+
+        try (MemoryMappedFileInputStream in = new MemoryMappedFileInputStream(file, 64)) {
+            final byte[] read = new byte[data.length];
+            new DataInputViewStreamWrapper(in).readFully(read);
+            assertArrayEquals(data, read);
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(read, 0, 1));
+        }
+    }
+
+    @Test
+    public void testSeek() throws Exception {
+        final byte[] data = randomData(1000);
+        final File file = writeFile(data);
+
+        try (MemoryMappedFileInputStream in = new MemoryMappedFileInputStream(file, 100)) {
+            for (long pos : new long[] {999, 0, 100, 99, 512}) {
+                in.seek(pos);
+                assertEquals(pos, in.getPos());
+                assertEquals(data[(int) pos] & 0xFF, in.read());
+                assertEquals(pos + 1, in.getPos());
+            }
+
+            in.seek(data.length);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testReadStopsAtRegionBoundary() throws Exception {
+        final byte[] data = randomData(100);
+        final File file = writeFile(data);
+
+        try (MemoryMappedFileInputStream in = new MemoryMappedFileInputStream(file, 30)) {
+            in.seek(20);
+            final byte[] read = new byte[50];
+            assertEquals(10, in.read(read, 0, read.length));
+            assertEquals(30, in.getPos());
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        final File file = writeFile(new byte[0]);
+
+        try (MemoryMappedFileInputStream in = new MemoryMappedFileInputStream(file)) {
+            assertEquals(-1, in.read());
+            assertEquals(0, in.available());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testSeekOutOfBounds() throws Exception {
+        final File file = writeFile(randomData(10));
+
+        try (MemoryMappedFileInputStream in = new MemoryMappedFileInputStream(file)) {
+            in.seek(11);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadAfterClose() throws Exception {
+        final File file = writeFile(randomData(10));
+
+        MemoryMappedFileInputStream in = new MemoryMappedFileInputStream(file);
+        in.close();
+        in.read();
+    }
+
+    private File writeFile(byte[] data) throws IOException {
+        final File file = tempFolder.newFile();
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    private static byte[] randomData(int length) {
+        final byte[] data = new byte[length];
+        new Random().nextBytes(data);
+        return data;
+    }
+}
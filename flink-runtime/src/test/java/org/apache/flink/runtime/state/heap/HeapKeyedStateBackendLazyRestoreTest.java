@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.LocalRecoveryDirectoryProviderImpl;
+import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.TestLocalRecoveryConfig;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+import org.apache.flink.runtime.state.memory.MemCheckpointStreamFactory;
+import org.apache.flink.runtime.state.metrics.LatencyTrackingStateConfig;
+import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.runtime.testutils.statemigration.TestType;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.RunnableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the lazy restore of the key groups of the {@link HeapKeyedStateBackend} from the local
+ * state copies of local recovery.
+ */
+@RunWith(Parameterized.class)
+public class HeapKeyedStateBackendLazyRestoreTest {
+
+    private static final KeyGroupRange KEY_GROUP_RANGE = new KeyGroupRange(0, 15);
+
+    private static final int NUM_KEYS = 100;
+
+    private static final ValueStateDescriptor<Integer> VALUE_STATE_DESCRIPTOR =
+            new ValueStateDescriptor<>("value", IntSerializer.INSTANCE);
+
+    private static final String PRIORITY_QUEUE_NAME = "timers";
+
+    @Parameterized.Parameters(name = "compressed = {0}")
+    public static Collection<Boolean> parameters() {
+        return Arrays.asList(false, true);
+    }
+
+    @Parameterized.Parameter public boolean compressed;
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testKeyGroupsAreRestoredOnFirstAccess() throws Exception {
+        KeyedStateHandle stateHandle = toLocalFile(createSnapshot());
+
+        HeapKeyedStateBackend<Integer> backend =
+                createKeyedBackend(Collections.singletonList(stateHandle), true);
+        try {
+            // the priority queue states are restored eagerly
+            KeyGroupedInternalPriorityQueue<TestType> priorityQueue =
+                    backend.create(PRIORITY_QUEUE_NAME, new TestType.V1TestTypeSerializer());
+            assertEquals(NUM_KEYS, priorityQueue.size());
+            assertEquals(0, priorityQueue.peek().getValue());
+
+            ValueState<Integer> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            VALUE_STATE_DESCRIPTOR);
+            StateTable<?, ?, ?> stateTable = ((AbstractHeapState<?, ?, ?>) state).getStateTable();
+            assertEquals(0, getNumberOfLoadedKeyGroups(stateTable));
+
+            backend.setCurrentKey(42);
+            assertEquals(Integer.valueOf(420), state.value());
+            assertEquals(1, getNumberOfLoadedKeyGroups(stateTable));
+            int keyGroup =
+                    KeyGroupRangeAssignment.assignToKeyGroup(
+                            42, KEY_GROUP_RANGE.getNumberOfKeyGroups());
+            assertFalse(stateTable.keyGroupedStateMaps[keyGroup].isEmpty());
+
+            // operations over all keys load all key groups
+            assertEquals(NUM_KEYS, backend.numKeyValueStateEntries());
+            for (int key = 0; key < NUM_KEYS; key++) {
+                backend.setCurrentKey(key);
+                assertEquals(Integer.valueOf(key * 10), state.value());
+            }
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    @Test
+    public void testRemoteSnapshotsAreRestoredEagerly() throws Exception {
+        KeyedStateHandle stateHandle = createSnapshot();
+
+        HeapKeyedStateBackend<Integer> backend =
+                createKeyedBackend(Collections.singletonList(stateHandle), true);
+        try {
+            ValueState<Integer> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            VALUE_STATE_DESCRIPTOR);
+            StateTable<?, ?, ?> stateTable = ((AbstractHeapState<?, ?, ?>) state).getStateTable();
+            assertEquals(getNumberOfKeyGroupsOfKeys(), getNumberOfLoadedKeyGroups(stateTable));
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    @Test
+    public void testQueryableStateLoadsPendingKeyGroups() throws Exception {
+        KeyedStateHandle stateHandle = toLocalFile(createSnapshot());
+
+        HeapKeyedStateBackend<Integer> backend =
+                createKeyedBackend(Collections.singletonList(stateHandle), true);
+        try {
+            ValueStateDescriptor<Integer> queryableStateDescriptor =
+                    new ValueStateDescriptor<>("value", IntSerializer.INSTANCE);
+            queryableStateDescriptor.setQueryable("queryable-value");
+            ValueState<Integer> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            queryableStateDescriptor);
+            StateTable<?, ?, ?> stateTable = ((AbstractHeapState<?, ?, ?>) state).getStateTable();
+            assertEquals(getNumberOfKeyGroupsOfKeys(), getNumberOfLoadedKeyGroups(stateTable));
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    @Test
+    public void testSnapshotLoadsPendingKeyGroups() throws Exception {
+        KeyedStateHandle stateHandle = toLocalFile(createSnapshot());
+
+        HeapKeyedStateBackend<Integer> lazyBackend =
+                createKeyedBackend(Collections.singletonList(stateHandle), true);
+        try {
+            stateHandle = snapshot(lazyBackend);
+        } finally {
+            lazyBackend.dispose();
+        }
+
+        HeapKeyedStateBackend<Integer> backend =
+                createKeyedBackend(Collections.singletonList(stateHandle), false);
+        try {
+            assertEquals(
+                    NUM_KEYS,
+                    backend.create(PRIORITY_QUEUE_NAME, new TestType.V1TestTypeSerializer())
+                            .size());
+
+            ValueState<Integer> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            VALUE_STATE_DESCRIPTOR);
+            for (int key = 0; key < NUM_KEYS; key++) {
+                backend.setCurrentKey(key);
+                assertEquals(Integer.valueOf(key * 10), state.value());
+            }
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    private KeyedStateHandle createSnapshot() throws Exception {
+        HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList(), false);
+        try {
+            ValueState<Integer> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            VALUE_STATE_DESCRIPTOR);
+            KeyGroupedInternalPriorityQueue<TestType> priorityQueue =
+                    backend.create(PRIORITY_QUEUE_NAME, new TestType.V1TestTypeSerializer());
+            for (int key = 0; key < NUM_KEYS; key++) {
+                backend.setCurrentKey(key);
+                state.update(key * 10);
+                priorityQueue.add(new TestType(String.valueOf(key), key));
+            }
+            return snapshot(backend);
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    private static KeyedStateHandle snapshot(HeapKeyedStateBackend<Integer> backend)
+            throws Exception {
+        RunnableFuture<SnapshotResult<KeyedStateHandle>> snapshot =
+                backend.snapshot(
+                        0L,
+                        0L,
+                        new MemCheckpointStreamFactory(4 * 1024 * 1024),
+                        CheckpointOptions.forCheckpointWithDefaultLocation());
+        snapshot.run();
+        return snapshot.get().getJobManagerOwnedSnapshot();
+    }
+
+    /** Writes the given snapshot to a local file, like the local state copies of local recovery. */
+    private KeyedStateHandle toLocalFile(KeyedStateHandle stateHandle) throws IOException {
+        KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) stateHandle;
+        byte[] data =
+                ((ByteStreamStateHandle) keyGroupsStateHandle.getDelegateStateHandle()).getData();
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), data);
+        return new KeyGroupsStateHandle(
+                keyGroupsStateHandle.getGroupRangeOffsets(),
+                new FileStateHandle(new Path(file.toURI()), data.length));
+    }
+
+    private static int getNumberOfKeyGroupsOfKeys() {
+        Set<Integer> keyGroups = new HashSet<>();
+        for (int key = 0; key < NUM_KEYS; key++) {
+            keyGroups.add(
+                    KeyGroupRangeAssignment.assignToKeyGroup(
+                            key, KEY_GROUP_RANGE.getNumberOfKeyGroups()));
+        }
+        return keyGroups.size();
+    }
+
+    private static int getNumberOfLoadedKeyGroups(StateTable<?, ?, ?> stateTable) {
+        int numLoadedKeyGroups = 0;
+        for (StateMap<?, ?, ?> stateMap : stateTable.keyGroupedStateMaps) {
+            if (!stateMap.isEmpty()) {
+                numLoadedKeyGroups++;
+            }
+        }
+        return numLoadedKeyGroups;
+    }
+
+    private HeapKeyedStateBackend<Integer> createKeyedBackend(
+            Collection<KeyedStateHandle> stateHandles, boolean lazyRestore) throws Exception {
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        executionConfig.setUseSnapshotCompression(compressed);
+
+        return new HeapKeyedStateBackendBuilder<>(
+                        mock(TaskKvStateRegistry.class),
+                        IntSerializer.INSTANCE,
+                        getClass().getClassLoader(),
+                        KEY_GROUP_RANGE.getNumberOfKeyGroups(),
+                        KEY_GROUP_RANGE,
+                        executionConfig,
+                        TtlTimeProvider.DEFAULT,
+                        LatencyTrackingStateConfig.disabled(),
+                        stateHandles,
+                        AbstractStateBackend.getCompressionDecorator(executionConfig),
+                        lazyRestore
+                                ? new LocalRecoveryConfig(
+                                        true,
+                                        new LocalRecoveryDirectoryProviderImpl(
+                                                temporaryFolder.newFolder(),
+                                                new JobID(),
+                                                new JobVertexID(),
+                                                0))
+                                : TestLocalRecoveryConfig.disabled(),
+                        new HeapPriorityQueueSetFactory(
+                                KEY_GROUP_RANGE, KEY_GROUP_RANGE.getNumberOfKeyGroups(), 128),
+                        true,
+                        new CloseableRegistry())
+                .setLazyRestoreEnabled(lazyRestore)
+                .build();
+    }
+}
@@ -84,6 +84,11 @@ abstract class AbstractChangelogState<K, N, V, S extends InternalKvState<K, N, V
                 safeValueSerializer);
     }
 
+    @Override
+    public boolean supportsConcurrentReads() {
+        return delegatedState.supportsConcurrentReads();
+    }
+
     @Override
     public StateIncrementalVisitor<K, N, V> getStateIncrementalVisitor(
             int recommendedMaxNumberOfReturnedRecords) {
@@ -143,10 +143,18 @@ public abstract class AbstractRocksDBState<K, N, V> implements InternalKvState<K
                 new SerializedCompositeKeyBuilder<>(
                         safeKeySerializer, backend.getKeyGroupPrefixBytes(), 32);
         keyBuilder.setKeyAndKeyGroup(keyAndNamespace.f0, keyGroup);
-        byte[] key = keyBuilder.buildCompositeKeyNamespace(keyAndNamespace.f1, namespaceSerializer);
+        byte[] key =
+                keyBuilder.buildCompositeKeyNamespace(keyAndNamespace.f1, safeNamespaceSerializer);
         return backend.db.get(columnFamily, key);
     }
 
+    @Override
+    public boolean supportsConcurrentReads() {
+        // RocksDB supports concurrent reads and writes, and getSerializedValue only uses the
+        // given serializers and its own key builder
+        return true;
+    }
+
     <UK> byte[] serializeCurrentKeyWithGroupAndNamespacePlusUserKey(
             UK userKey, TypeSerializer<UK> userKeySerializer) throws IOException {
         return sharedKeyNamespaceSerializer.buildCompositeKeyNamesSpaceUserKey(
@@ -84,6 +84,7 @@ import static org.apache.flink.contrib.streaming.state.RocksDBKeyedStateBackendB
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.reset;
@@ -614,14 +615,24 @@ public class EmbeddedRocksDBStateBackendTest
             throws Exception {
         for (StateHandleID id : remove.getSharedState().keySet()) {
             verify(registry, times(0))
-                    .unregisterReference(remove.createSharedStateRegistryKeyFromFileName(id));
+                    .unregisterReferences(
+                            argThat(
+                                    keys ->
+                                            keys.contains(
+                                                    remove.createSharedStateRegistryKeyFromFileName(
+                                                            id))));
         }
 
         remove.discardState();
 
         for (StateHandleID id : remove.getSharedState().keySet()) {
             verify(registry)
-                    .unregisterReference(remove.createSharedStateRegistryKeyFromFileName(id));
+                    .unregisterReferences(
+                            argThat(
+                                    keys ->
+                                            keys.contains(
+                                                    remove.createSharedStateRegistryKeyFromFileName(
+                                                            id))));
         }
     }
 
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.async.KeyedAsyncStateFunction;
+import org.apache.flink.streaming.api.operators.async.KeyedAsyncStateOperatorFactory;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that value states of the RocksDB state backend are read asynchronously by a {@link
+ * KeyedAsyncStateFunction}, while the elements of each key are still processed in order.
+ */
+public class RocksDBAsyncStateReadTest extends TestLogger {
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testElementsOfKeyAreProcessedInOrder() throws Exception {
+        try (KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                createTestHarness(1000)) {
+            testHarness.open();
+
+            for (int i = 0; i < 100; i++) {
+                testHarness.processElement(new StreamRecord<>("a", i));
+                testHarness.processElement(new StreamRecord<>("b", i));
+            }
+            // the watermark waits for all pending reads
+            testHarness.processWatermark(new Watermark(100L));
+
+            // the keys are read concurrently, so only the output of each key is ordered
+            List<Object> outputA = new ArrayList<>();
+            List<Object> outputB = new ArrayList<>();
+            List<Object> expectedOutputA = new ArrayList<>();
+            List<Object> expectedOutputB = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                expectedOutputA.add(new StreamRecord<>("a:" + (i + 1), i));
+                expectedOutputB.add(new StreamRecord<>("b:" + (i + 1), i));
+            }
+            List<Object> output = new ArrayList<>(testHarness.getOutput());
+            for (Object element : output.subList(0, output.size() - 1)) {
+                String value = ((StreamRecord<?>) element).getValue().toString();
+                (value.startsWith("a") ? outputA : outputB).add(element);
+            }
+
+            assertEquals(expectedOutputA, outputA);
+            assertEquals(expectedOutputB, outputB);
+            assertEquals(new Watermark(100L), output.get(output.size() - 1));
+        }
+    }
+
+    @Test
+    public void testPendingElementsAreBoundedByCapacity() throws Exception {
+        final int capacity = 3;
+        try (KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                createTestHarness(capacity)) {
+            testHarness.open();
+
+            for (int i = 0; i < 100; i++) {
+                testHarness.processElement(new StreamRecord<>(i % 2 == 0 ? "a" : "b", i));
+                // each element emits one record once its read completed
+                assertTrue(i + 1 - testHarness.getOutput().size() <= capacity);
+            }
+            testHarness.processWatermark(new Watermark(100L));
+
+            assertEquals(101, testHarness.getOutput().size());
+        }
+    }
+
+    private KeyedOneInputStreamOperatorTestHarness<String, String, String> createTestHarness(
+            int capacity) throws Exception {
+        KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                new KeyedOneInputStreamOperatorTestHarness<>(
+                        new KeyedAsyncStateOperatorFactory<>(new CountingFunction(), 4, capacity),
+                        (KeySelector<String, String>) value -> value,
+                        BasicTypeInfo.STRING_TYPE_INFO);
+        testHarness.getStreamConfig().setupNetworkInputs(StringSerializer.INSTANCE);
+        testHarness.setStateBackend(new RocksDBStateBackend(temporaryFolder.newFolder().toURI()));
+        return testHarness;
+    }
+
+    /** Counts the elements of each key and emits the key with its count. */
+    private static class CountingFunction extends KeyedAsyncStateFunction<String, String, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient ValueState<Integer> count;
+
+        @Override
+        public void open(Configuration parameters) {
+            count =
+                    getRuntimeContext()
+                            .getState(new ValueStateDescriptor<>("count", Integer.class));
+        }
+
+        @Override
+        public void processElement(String value, Context ctx, Collector<String> out)
+                throws Exception {
+            ctx.readAsync(
+                    count,
+                    current -> {
+                        int newCount = current == null ? 1 : current + 1;
+                        count.update(newCount);
+                        out.collect(ctx.getCurrentKey() + ":" + newCount);
+                    });
+        }
+    }
+}
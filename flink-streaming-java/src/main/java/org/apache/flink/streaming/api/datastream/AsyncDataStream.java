@@ -21,6 +21,7 @@ import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.streaming.api.functions.async.AsyncBatchFunction;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
 import org.apache.flink.streaming.api.operators.async.AsyncWaitOperator;
 import org.apache.flink.streaming.api.operators.async.AsyncWaitOperatorFactory;
@@ -66,6 +67,32 @@ public class AsyncDataStream {
             long timeout,
             int bufSize,
             OutputMode mode) {
+        return addOperator(in, func, timeout, bufSize, mode, 1, 0L);
+    }
+
+    /**
+     * Add an AsyncWaitOperator that hands batches of inputs to the function if it is an {@link
+     * AsyncBatchFunction}.
+     *
+     * @param in The {@link DataStream} where the {@link AsyncWaitOperator} will be added.
+     * @param func {@link AsyncFunction} wrapped inside {@link AsyncWaitOperator}.
+     * @param timeout for the asynchronous operation to complete
+     * @param bufSize The max number of inputs the {@link AsyncWaitOperator} can hold inside.
+     * @param mode Processing mode for {@link AsyncWaitOperator}.
+     * @param batchSize The max number of inputs of a batch.
+     * @param batchTimeout The max time in milliseconds an input waits for its batch, or 0.
+     * @param <IN> Input type.
+     * @param <OUT> Output type.
+     * @return A new {@link SingleOutputStreamOperator}
+     */
+    private static <IN, OUT> SingleOutputStreamOperator<OUT> addOperator(
+            DataStream<IN> in,
+            AsyncFunction<IN, OUT> func,
+            long timeout,
+            int bufSize,
+            OutputMode mode,
+            int batchSize,
+            long batchTimeout) {
 
         TypeInformation<OUT> outTypeInfo =
                 TypeExtractor.getUnaryOperatorReturnType(
@@ -81,7 +108,12 @@ public class AsyncDataStream {
         // create transform
         AsyncWaitOperatorFactory<IN, OUT> operatorFactory =
                 new AsyncWaitOperatorFactory<>(
-                        in.getExecutionEnvironment().clean(func), timeout, bufSize, mode);
+                        in.getExecutionEnvironment().clean(func),
+                        timeout,
+                        bufSize,
+                        mode,
+                        batchSize,
+                        batchTimeout);
 
         return in.transform("async wait operator", outTypeInfo, operatorFactory);
     }
@@ -163,4 +195,82 @@ public class AsyncDataStream {
         return addOperator(
                 in, func, timeUnit.toMillis(timeout), DEFAULT_QUEUE_CAPACITY, OutputMode.ORDERED);
     }
+
+    /**
+     * Add an AsyncWaitOperator that triggers one async operation per batch of inputs. The order of
+     * output stream records may be reordered.
+     *
+     * <p>A batch is triggered once it contains {@code batchSize} inputs, once its first input has
+     * waited for {@code batchTimeout}, and before watermarks and the end of input.
+     *
+     * @param in Input {@link DataStream}
+     * @param func {@link AsyncBatchFunction}
+     * @param timeout for the asynchronous operation to complete
+     * @param timeUnit of the given timeout
+     * @param capacity The max number of async i/o operation that can be triggered
+     * @param batchSize The max number of inputs of a batch, must not be greater than the capacity
+     * @param batchTimeout The max time an input waits for its batch to be triggered, or 0 to only
+     *     trigger full batches
+     * @param batchTimeUnit of the given batch timeout
+     * @param <IN> Type of input record
+     * @param <OUT> Type of output record
+     * @return A new {@link SingleOutputStreamOperator}.
+     */
+    public static <IN, OUT> SingleOutputStreamOperator<OUT> unorderedWaitBatch(
+            DataStream<IN> in,
+            AsyncBatchFunction<IN, OUT> func,
+            long timeout,
+            TimeUnit timeUnit,
+            int capacity,
+            int batchSize,
+            long batchTimeout,
+            TimeUnit batchTimeUnit) {
+        return addOperator(
+                in,
+                func,
+                timeUnit.toMillis(timeout),
+                capacity,
+                OutputMode.UNORDERED,
+                batchSize,
+                batchTimeUnit.toMillis(batchTimeout));
+    }
+
+    /**
+     * Add an AsyncWaitOperator that triggers one async operation per batch of inputs. The order to
+     * process input records is guaranteed to be the same as input ones.
+     *
+     * <p>A batch is triggered once it contains {@code batchSize} inputs, once its first input has
+     * waited for {@code batchTimeout}, and before watermarks and the end of input.
+     *
+     * @param in Input {@link DataStream}
+     * @param func {@link AsyncBatchFunction}
+     * @param timeout for the asynchronous operation to complete
+     * @param timeUnit of the given timeout
+     * @param capacity The max number of async i/o operation that can be triggered
+     * @param batchSize The max number of inputs of a batch, must not be greater than the capacity
+     * @param batchTimeout The max time an input waits for its batch to be triggered, or 0 to only
+     *     trigger full batches
+     * @param batchTimeUnit of the given batch timeout
+     * @param <IN> Type of input record
+     * @param <OUT> Type of output record
+     * @return A new {@link SingleOutputStreamOperator}.
+     */
+    public static <IN, OUT> SingleOutputStreamOperator<OUT> orderedWaitBatch(
+            DataStream<IN> in,
+            AsyncBatchFunction<IN, OUT> func,
+            long timeout,
+            TimeUnit timeUnit,
+            int capacity,
+            int batchSize,
+            long batchTimeout,
+            TimeUnit batchTimeUnit) {
+        return addOperator(
+                in,
+                func,
+                timeUnit.toMillis(timeout),
+                capacity,
+                OutputMode.ORDERED,
+                batchSize,
+                batchTimeUnit.toMillis(batchTimeout));
+    }
 }
@@ -41,6 +41,7 @@ import org.apache.flink.streaming.api.functions.ProcessFunction;
 import org.apache.flink.streaming.api.functions.aggregation.AggregationFunction;
 import org.apache.flink.streaming.api.functions.aggregation.ComparableAggregator;
 import org.apache.flink.streaming.api.functions.aggregation.SumAggregator;
+import org.apache.flink.streaming.api.functions.async.KeyedAsyncStateFunction;
 import org.apache.flink.streaming.api.functions.co.ProcessJoinFunction;
 import org.apache.flink.streaming.api.functions.query.QueryableAppendingStateOperator;
 import org.apache.flink.streaming.api.functions.query.QueryableValueStateOperator;
@@ -49,6 +50,7 @@ import org.apache.flink.streaming.api.graph.StreamGraphGenerator;
 import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
 import org.apache.flink.streaming.api.operators.LegacyKeyedProcessOperator;
 import org.apache.flink.streaming.api.operators.StreamOperatorFactory;
+import org.apache.flink.streaming.api.operators.async.KeyedAsyncStateOperatorFactory;
 import org.apache.flink.streaming.api.operators.co.IntervalJoinOperator;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
 import org.apache.flink.streaming.api.transformations.PartitionTransformation;
@@ -94,6 +96,9 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
 @Public
 public class KeyedStream<T, KEY> extends DataStream<T> {
 
+    /** The default capacity of {@link #processAsyncState}. */
+    private static final int DEFAULT_ASYNC_STATE_CAPACITY = 100;
+
     /**
      * The key selector that can get the key by which the stream if partitioned from the elements.
      */
@@ -422,6 +427,60 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
         return transform("KeyedProcess", outputType, operator);
     }
 
+    /**
+     * Applies the given {@link KeyedAsyncStateFunction} on the input stream, thereby creating a
+     * transformed output stream.
+     *
+     * <p>The function will be called for every element in the input stream and can read its value
+     * states asynchronously, so that the reads of different keys are executed concurrently by the
+     * given number of state I/O threads. The elements of a key are still processed in order.
+     *
+     * @param asyncStateFunction The {@link KeyedAsyncStateFunction} that is called for each element
+     *     in the stream.
+     * @param outputType {@link TypeInformation} for the result type of the function.
+     * @param stateIOThreads The number of threads that read state of a parallel instance.
+     * @param <R> The type of elements emitted by the {@code KeyedAsyncStateFunction}.
+     * @return The transformed {@link DataStream}.
+     */
+    @PublicEvolving
+    public <R> SingleOutputStreamOperator<R> processAsyncState(
+            KeyedAsyncStateFunction<KEY, T, R> asyncStateFunction,
+            TypeInformation<R> outputType,
+            int stateIOThreads) {
+        return processAsyncState(
+                asyncStateFunction, outputType, stateIOThreads, DEFAULT_ASYNC_STATE_CAPACITY);
+    }
+
+    /**
+     * Applies the given {@link KeyedAsyncStateFunction} on the input stream, thereby creating a
+     * transformed output stream.
+     *
+     * <p>The function will be called for every element in the input stream and can read its value
+     * states asynchronously, so that the reads of different keys are executed concurrently by the
+     * given number of state I/O threads. The elements of a key are still processed in order.
+     *
+     * @param asyncStateFunction The {@link KeyedAsyncStateFunction} that is called for each element
+     *     in the stream.
+     * @param outputType {@link TypeInformation} for the result type of the function.
+     * @param stateIOThreads The number of threads that read state of a parallel instance.
+     * @param capacity The max number of pending reads and held back elements of a parallel
+     *     instance. Once it is reached, the input is backpressured.
+     * @param <R> The type of elements emitted by the {@code KeyedAsyncStateFunction}.
+     * @return The transformed {@link DataStream}.
+     */
+    @PublicEvolving
+    public <R> SingleOutputStreamOperator<R> processAsyncState(
+            KeyedAsyncStateFunction<KEY, T, R> asyncStateFunction,
+            TypeInformation<R> outputType,
+            int stateIOThreads,
+            int capacity) {
+
+        KeyedAsyncStateOperatorFactory<KEY, T, R> operatorFactory =
+                new KeyedAsyncStateOperatorFactory<>(
+                        clean(asyncStateFunction), stateIOThreads, capacity);
+        return transform("KeyedAsyncState", outputType, operatorFactory);
+    }
+
     // ------------------------------------------------------------------------
     //  Joining
     // ------------------------------------------------------------------------
@@ -540,6 +599,8 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
         private boolean lowerBoundInclusive;
         private boolean upperBoundInclusive;
 
+        private long bucketSize;
+
         public IntervalJoined(
                 KeyedStream<IN1, KEY> left,
                 KeyedStream<IN2, KEY> right,
@@ -575,6 +636,25 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
             return this;
         }
 
+        /**
+         * Groups the buffered elements of both sides into buckets of timestamps of the given size.
+         * A lookup then only reads the buckets that overlap with the boundaries of the join, and
+         * all elements of a bucket are removed at once when they can't be joined anymore.
+         *
+         * <p>This speeds up joins with large boundaries. The bucket size should be a fraction of
+         * the length of the interval, smaller buckets make lookups read fewer irrelevant elements
+         * but more buckets. The bucket size can't be changed when restoring from a savepoint.
+         *
+         * @param bucketSize The size of the buckets.
+         */
+        @PublicEvolving
+        public IntervalJoined<IN1, IN2, KEY> bucketSize(Time bucketSize) {
+            final long bucketSizeMillis = bucketSize.toMilliseconds();
+            Preconditions.checkArgument(bucketSizeMillis > 0L, "The bucket size must be positive.");
+            this.bucketSize = bucketSizeMillis;
+            return this;
+        }
+
         /**
          * Completes the join operation with the given user function that is executed for each
          * joined pair of elements.
@@ -630,6 +710,7 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
                             upperBound,
                             lowerBoundInclusive,
                             upperBoundInclusive,
+                            bucketSize,
                             left.getType().createSerializer(left.getExecutionConfig()),
                             right.getType().createSerializer(right.getExecutionConfig()),
                             cleanedUdf);
@@ -82,6 +82,9 @@ public class CheckpointConfig implements java.io.Serializable {
     /** Minimal pause between checkpointing attempts. */
     private long minPauseBetweenCheckpoints = DEFAULT_MIN_PAUSE_BETWEEN_CHECKPOINTS;
 
+    /** Target end-to-end duration of the checkpoints, zero if the interval is not adapted. */
+    private Duration targetCheckpointDuration = Duration.ZERO;
+
     /** Maximum number of checkpoint attempts in progress at the same time. */
     private int maxConcurrentCheckpoints = DEFAULT_MAX_CONCURRENT_CHECKPOINTS;
 
@@ -94,6 +97,9 @@ public class CheckpointConfig implements java.io.Serializable {
     /** Flag to enable unaligned checkpoints. */
     private boolean unalignedCheckpointsEnabled;
 
+    /** Flag to complete expired checkpoints for the regions that acknowledged them. */
+    private boolean regionCheckpointsEnabled;
+
     /** Id of checkpoint for which in-flight data should be ignored on recovery. */
     private long checkpointIdOfIgnoredInFlightData =
             DEFAULT_CHECKPOINT_ID_OF_IGNORED_IN_FLIGHT_DATA;
@@ -147,6 +153,7 @@ public class CheckpointConfig implements java.io.Serializable {
         this.checkpointTimeout = checkpointConfig.checkpointTimeout;
         this.maxConcurrentCheckpoints = checkpointConfig.maxConcurrentCheckpoints;
         this.minPauseBetweenCheckpoints = checkpointConfig.minPauseBetweenCheckpoints;
+        this.targetCheckpointDuration = checkpointConfig.targetCheckpointDuration;
         this.preferCheckpointForRecovery = checkpointConfig.preferCheckpointForRecovery;
         this.tolerableCheckpointFailureNumber = checkpointConfig.tolerableCheckpointFailureNumber;
         this.unalignedCheckpointsEnabled = checkpointConfig.isUnalignedCheckpointsEnabled();
@@ -155,6 +162,7 @@ public class CheckpointConfig implements java.io.Serializable {
         this.externalizedCheckpointCleanup = checkpointConfig.externalizedCheckpointCleanup;
         this.forceCheckpointing = checkpointConfig.forceCheckpointing;
         this.forceUnalignedCheckpoints = checkpointConfig.forceUnalignedCheckpoints;
+        this.regionCheckpointsEnabled = checkpointConfig.regionCheckpointsEnabled;
         this.storage = checkpointConfig.getCheckpointStorage();
         this.checkpointIdOfIgnoredInFlightData =
                 checkpointConfig.getCheckpointIdOfIgnoredInFlightData();
@@ -282,6 +290,38 @@ public class CheckpointConfig implements java.io.Serializable {
         this.minPauseBetweenCheckpoints = minPauseBetweenCheckpoints;
     }
 
+    /**
+     * Gets the target end-to-end duration of the checkpoints.
+     *
+     * @return The target checkpoint duration, zero if the checkpoint interval is not adapted.
+     * @see #setTargetCheckpointDuration(Duration)
+     */
+    @PublicEvolving
+    public Duration getTargetCheckpointDuration() {
+        return targetCheckpointDuration;
+    }
+
+    /**
+     * Sets the target end-to-end duration of the checkpoints. If set, the checkpoint coordinator
+     * estimates the duration of the next checkpoint from the stats reported by the subtasks for the
+     * completed checkpoints. It shortens the checkpoint interval, down to the {@link
+     * #setMinPauseBetweenCheckpoints(long) minimal pause}, as long as the estimated duration
+     * exceeds the target. The {@link #setCheckpointInterval(long) checkpoint interval} is the
+     * longest interval. If unaligned checkpoints are enabled, the coordinator also chooses whether
+     * the next checkpoint is aligned or unaligned.
+     *
+     * @param targetCheckpointDuration The target checkpoint duration, zero to not adapt the
+     *     checkpoint interval.
+     */
+    @PublicEvolving
+    public void setTargetCheckpointDuration(Duration targetCheckpointDuration) {
+        if (targetCheckpointDuration.isNegative()) {
+            throw new IllegalArgumentException(
+                    "The target checkpoint duration must not be negative");
+        }
+        this.targetCheckpointDuration = targetCheckpointDuration;
+    }
+
     /**
      * Gets the maximum number of checkpoint attempts that may be in progress at the same time. If
      * this value is <i>n</i>, then no checkpoints will be triggered while <i>n</i> checkpoint
@@ -357,6 +397,31 @@ public class CheckpointConfig implements java.io.Serializable {
         this.forceUnalignedCheckpoints = forceUnalignedCheckpoints;
     }
 
+    /**
+     * Enables region checkpoints for jobs that consist of independent pipelines. When a checkpoint
+     * expires, it is completed for all regions of tasks that acknowledged it, while the tasks of
+     * the other regions keep their state of the latest completed checkpoint.
+     *
+     * <p>Region checkpoints only apply to jobs without operator coordinators and master hooks, and
+     * to state without shared files (i.e. not to incremental checkpoints).
+     *
+     * @param enabled Flag to indicate whether region checkpoints should be enabled.
+     */
+    @PublicEvolving
+    public void enableRegionCheckpoints(boolean enabled) {
+        this.regionCheckpointsEnabled = enabled;
+    }
+
+    /**
+     * Returns whether region checkpoints are enabled.
+     *
+     * @return <code>true</code> if region checkpoints are enabled.
+     */
+    @PublicEvolving
+    public boolean isRegionCheckpointsEnabled() {
+        return regionCheckpointsEnabled;
+    }
+
     /**
      * This determines the behaviour when meeting checkpoint errors. If this returns true, which is
      * equivalent to get tolerableCheckpointFailureNumber as zero, job manager would fail the whole
@@ -800,6 +865,9 @@ public class CheckpointConfig implements java.io.Serializable {
         configuration
                 .getOptional(ExecutionCheckpointingOptions.MIN_PAUSE_BETWEEN_CHECKPOINTS)
                 .ifPresent(m -> this.setMinPauseBetweenCheckpoints(m.toMillis()));
+        configuration
+                .getOptional(ExecutionCheckpointingOptions.TARGET_CHECKPOINT_DURATION)
+                .ifPresent(this::setTargetCheckpointDuration);
         configuration
                 .getOptional(ExecutionCheckpointingOptions.PREFER_CHECKPOINT_FOR_RECOVERY)
                 .ifPresent(this::setPreferCheckpointForRecovery);
@@ -821,5 +889,8 @@ public class CheckpointConfig implements java.io.Serializable {
         configuration
                 .getOptional(ExecutionCheckpointingOptions.FORCE_UNALIGNED)
                 .ifPresent(this::setForceUnalignedCheckpoints);
+        configuration
+                .getOptional(ExecutionCheckpointingOptions.ENABLE_REGION_CHECKPOINTS)
+                .ifPresent(this::enableRegionCheckpoints);
     }
 }
@@ -77,6 +77,32 @@ public class ExecutionCheckpointingOptions {
                                                     + "sure that a minimum amount of time passes where no checkpoint is in progress at all.")
                                     .build());
 
+    public static final ConfigOption<Duration> TARGET_CHECKPOINT_DURATION =
+            ConfigOptions.key("execution.checkpointing.target-duration")
+                    .durationType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The target end-to-end duration of the checkpoints. If set, the checkpoint "
+                                                    + "coordinator estimates the duration of the next checkpoint from the sizes and "
+                                                    + "durations reported by the subtasks for the completed checkpoints. It shortens "
+                                                    + "the checkpoint interval, down to %s, as long as the upload of the state growing "
+                                                    + "between two checkpoints makes the estimated duration exceed the target. The "
+                                                    + "checkpoint interval is the longest interval.",
+                                            TextElement.code(MIN_PAUSE_BETWEEN_CHECKPOINTS.key()))
+                                    .linebreak()
+                                    .linebreak()
+                                    .text(
+                                            "If %s is enabled, the coordinator also chooses whether the next checkpoint is "
+                                                    + "unaligned, if an aligned checkpoint is estimated to exceed the target, or "
+                                                    + "aligned. Aligned checkpoints still switch to unaligned after %s or, if it is 0, "
+                                                    + "after the target duration.",
+                                            TextElement.code("execution.checkpointing.unaligned"),
+                                            TextElement.code(
+                                                    "execution.checkpointing.aligned-checkpoint-timeout"))
+                                    .build());
+
     public static final ConfigOption<Boolean> PREFER_CHECKPOINT_FOR_RECOVERY =
             ConfigOptions.key("execution.checkpointing.prefer-checkpoint-for-recovery")
                     .booleanType()
@@ -222,6 +248,33 @@ public class ExecutionCheckpointingOptions {
                                             "Forces unaligned checkpoints, particularly allowing them for iterative jobs.")
                                     .build());
 
+    public static final ConfigOption<Boolean> ENABLE_REGION_CHECKPOINTS =
+            ConfigOptions.key("execution.checkpointing.region-checkpoints")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "Enables region checkpoints for jobs that consist of independent pipelines, "
+                                                    + "i.e. regions of tasks which do not exchange records with each other.")
+                                    .linebreak()
+                                    .linebreak()
+                                    .text(
+                                            "When a checkpoint expires, it is completed for all regions whose tasks "
+                                                    + "acknowledged it, while the tasks of the other regions keep their state "
+                                                    + "of the latest completed checkpoint and are not notified about the "
+                                                    + "completion. A single backpressured region thus does not hold back the "
+                                                    + "checkpoints of all other regions. Each region recovers a consistent "
+                                                    + "state, which is best combined with the region failover strategy.")
+                                    .linebreak()
+                                    .linebreak()
+                                    .text(
+                                            "Region checkpoints only apply to jobs without operator coordinators "
+                                                    + "(e.g. of the new source interface) and master hooks, and to state "
+                                                    + "without shared files, i.e. they do not apply to incremental checkpoints. "
+                                                    + "Otherwise expired checkpoints are aborted as usual.")
+                                    .build());
+
     public static final ConfigOption<Long> CHECKPOINT_ID_OF_IGNORED_IN_FLIGHT_DATA =
             ConfigOptions.key("execution.checkpointing.recover-without-channel-state.checkpoint-id")
                     .longType()
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.api.functions.async;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link AsyncFunction} that triggers one async I/O operation for a batch of stream inputs, for
+ * example a bulk lookup in an external system.
+ *
+ * <p>The operator collects up to a configured number of inputs, or the inputs that arrived within a
+ * configured time, and hands them to {@link #asyncInvokeBatch(List, List)} together with one {@link
+ * ResultFuture} per input. Each result future must be completed with the results of its input, so
+ * that the ordered and unordered output modes as well as timeouts and checkpointing behave exactly
+ * as for single inputs.
+ *
+ * <pre>{@code
+ * public class BulkLookupFunc implements AsyncBatchFunction<String, String> {
+ *
+ *   public void asyncInvokeBatch(List<String> keys, List<ResultFuture<String>> results) {
+ *     client.multiGet(keys).whenComplete((values, error) -> {
+ *       for (int i = 0; i < keys.size(); i++) {
+ *         if (error != null) {
+ *           results.get(i).completeExceptionally(error);
+ *         } else {
+ *           results.get(i).complete(Collections.singleton(values.get(i)));
+ *         }
+ *       }
+ *     });
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <IN> The type of the input elements.
+ * @param <OUT> The type of the returned elements.
+ */
+@PublicEvolving
+public interface AsyncBatchFunction<IN, OUT> extends AsyncFunction<IN, OUT> {
+
+    /**
+     * Trigger async operation for a batch of stream inputs.
+     *
+     * @param inputs elements coming from an upstream task
+     * @param resultFutures the result futures of the inputs, in the same order as the inputs
+     * @exception Exception in case of a user code error. An exception will make the task fail and
+     *     trigger fail-over process.
+     */
+    void asyncInvokeBatch(List<IN> inputs, List<ResultFuture<OUT>> resultFutures) throws Exception;
+
+    /** Triggers the async operation for a batch that only contains the given input. */
+    @Override
+    default void asyncInvoke(IN input, ResultFuture<OUT> resultFuture) throws Exception {
+        asyncInvokeBatch(Collections.singletonList(input), Collections.singletonList(resultFuture));
+    }
+}
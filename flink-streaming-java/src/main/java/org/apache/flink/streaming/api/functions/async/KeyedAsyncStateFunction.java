@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.async;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.functions.AbstractRichFunction;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.function.ThrowingConsumer;
+
+/**
+ * A keyed function that processes elements of a stream and reads its keyed {@link ValueState value
+ * state} asynchronously.
+ *
+ * <p>For every element in the input stream {@link #processElement(Object, Context, Collector)} is
+ * invoked. Instead of reading a value state directly, the function can issue a read with {@link
+ * Context#readAsync(ValueState, ThrowingConsumer)}. The read is executed by a state I/O thread
+ * while the task continues to process elements of other keys, and the given callback is invoked
+ * with the value in the task thread once the read has finished.
+ *
+ * <p>The elements of a key are processed in order: while a read of a key is pending, further
+ * elements of the same key are held back until all pending reads of the key and their callbacks
+ * have been completed. The callbacks run in the context of the key of the read, so they can update
+ * the keyed state and emit elements with the timestamp of the element that issued the read. All
+ * pending reads are completed before watermarks are forwarded and before checkpoints are taken.
+ *
+ * <p>Reads are only executed asynchronously if the state backend supports reading a key
+ * concurrently to the processing of other keys, which is the case for the RocksDB state backend.
+ * Otherwise, for example for heap state or state with a time-to-live, the callback is invoked
+ * directly.
+ *
+ * <p><b>NOTE:</b> A {@code KeyedAsyncStateFunction} is always a {@link
+ * org.apache.flink.api.common.functions.RichFunction}. The keyed state is obtained from the {@link
+ * org.apache.flink.api.common.functions.RuntimeContext} as usual.
+ *
+ * @param <K> Type of the key.
+ * @param <I> Type of the input elements.
+ * @param <O> Type of the output elements.
+ */
+@PublicEvolving
+public abstract class KeyedAsyncStateFunction<K, I, O> extends AbstractRichFunction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Process one element from the input stream.
+     *
+     * @param value The input value.
+     * @param ctx A {@link Context} that allows querying the timestamp and the key of the element
+     *     and reading state asynchronously. The context is only valid during the invocation of this
+     *     method and of the read callbacks, do not store it.
+     * @param out The collector for returning result values. It may also be used in the callbacks of
+     *     reads issued for this element.
+     * @throws Exception This method may throw exceptions. Throwing an exception will cause the
+     *     operation to fail and may trigger recovery.
+     */
+    public abstract void processElement(I value, Context ctx, Collector<O> out) throws Exception;
+
+    /**
+     * Information available in an invocation of {@link #processElement(Object, Context, Collector)}
+     * and of the callbacks of the reads issued by it.
+     */
+    public abstract class Context {
+
+        /**
+         * Timestamp of the element currently being processed or {@code null} if the element does
+         * not have a timestamp.
+         */
+        public abstract Long timestamp();
+
+        /** Get key of the element being processed. */
+        public abstract K getCurrentKey();
+
+        /**
+         * Reads the value of the given state for the current key and invokes the callback with the
+         * value in the task thread. The value is {@code null} if the state has no value for the
+         * current key.
+         *
+         * @param state The value state, obtained from the runtime context of this function.
+         * @param callback The callback that receives the value. It may read further state
+         *     asynchronously, update state and emit elements.
+         */
+        public abstract <T> void readAsync(
+                ValueState<T> state, ThrowingConsumer<T, Exception> callback) throws Exception;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.api.functions.async;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.functions.RuntimeContext;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rich variant of the {@link AsyncBatchFunction}. The {@link RuntimeContext} has the same
+ * restrictions as for a {@link RichAsyncFunction}.
+ *
+ * @param <IN> The type of the input elements.
+ * @param <OUT> The type of the returned elements.
+ */
+@PublicEvolving
+public abstract class RichAsyncBatchFunction<IN, OUT> extends RichAsyncFunction<IN, OUT>
+        implements AsyncBatchFunction<IN, OUT> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public abstract void asyncInvokeBatch(List<IN> inputs, List<ResultFuture<OUT>> resultFutures)
+            throws Exception;
+
+    @Override
+    public void asyncInvoke(IN input, ResultFuture<OUT> resultFuture) throws Exception {
+        asyncInvokeBatch(Collections.singletonList(input), Collections.singletonList(resultFuture));
+    }
+}
@@ -93,6 +93,7 @@ public class StreamConfig implements Serializable {
     private static final String OPERATOR_NAME = "operatorName";
     private static final String OPERATOR_ID = "operatorID";
     private static final String CHAIN_END = "chainEnd";
+    private static final String INPUT_READ_ONLY = "inputReadOnly";
     private static final String GRAPH_CONTAINING_LOOPS = "graphContainingLoops";
 
     private static final String CHECKPOINTING_ENABLED = "checkpointing";
@@ -700,6 +701,18 @@ public class StreamConfig implements Serializable {
         return config.getBoolean(CHAIN_END, false);
     }
 
+    /**
+     * Sets whether the operator neither modifies nor retains its input records, in which case the
+     * records don't need to be copied when the operator is chained to its predecessor.
+     */
+    public void setInputReadOnly(boolean inputReadOnly) {
+        config.setBoolean(INPUT_READ_ONLY, inputReadOnly);
+    }
+
+    public boolean isInputReadOnly() {
+        return config.getBoolean(INPUT_READ_ONLY, false);
+    }
+
     @Override
     public String toString() {
 
@@ -793,6 +793,16 @@ public class StreamGraph implements Pipeline {
         return streamNodes.get(vertexID);
     }
 
+    /**
+     * Removes the node with the given ID. The caller is responsible for removing the edges of the
+     * node from the nodes it is connected to.
+     */
+    void removeStreamNode(Integer vertexID) {
+        streamNodes.remove(vertexID);
+        sources.remove(vertexID);
+        sinks.remove(vertexID);
+    }
+
     protected Collection<? extends Integer> getVertexIDs() {
         return streamNodes.keySet();
     }
@@ -30,6 +30,7 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.ExecutionOptions;
 import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.configuration.PipelineOptions;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
@@ -322,6 +323,10 @@ public class StreamGraphGenerator {
 
         streamGraph.setSlotSharingGroupResource(slotSharingGroupResources);
 
+        if (chaining && configuration.get(PipelineOptions.OPERATOR_FUSION)) {
+            StreamGraphOperatorFusion.fuse(streamGraph);
+        }
+
         for (StreamNode node : streamGraph.getStreamNodes()) {
             if (node.getInEdges().stream().anyMatch(this::shouldDisableUnalignedCheckpointing)) {
                 for (StreamEdge edge : node.getInEdges()) {
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.graph;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.operators.ResourceSpec;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.operators.StreamFusedOperator;
+import org.apache.flink.streaming.api.operators.StreamOperator;
+import org.apache.flink.streaming.api.operators.StreamOperatorFactory;
+import org.apache.flink.util.StringUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fuses chains of {@link org.apache.flink.streaming.api.operators.StreamMap}, {@link
+ * org.apache.flink.streaming.api.operators.StreamFilter} and {@link
+ * org.apache.flink.streaming.api.operators.StreamFlatMap} nodes of a {@link StreamGraph} into
+ * single nodes that execute a {@link StreamFusedOperator}.
+ *
+ * <p>Two nodes are only fused if they would be chained anyway, if the upstream node has no other
+ * outputs, and if neither of them is keyed, since the keyed state of an operator is bound to its
+ * operator ID. The downstream node of a fused pair is removed from the graph, so it must not have a
+ * uid or resources of its own.
+ *
+ * <p>Removing nodes changes the generated hashes of all operators without a uid that follow them.
+ * To keep the state of these operators restorable from savepoints that were taken with fusion
+ * disabled (and vice versa), the hashes of the unfused graph are computed first and pinned as the
+ * user-provided hashes of all remaining operators without a uid or user-provided hash.
+ *
+ * <p>The fused operators report their metrics, such as the numbers of records in and out, only once
+ * for the fused operator. The metrics of the fused-away operators are not available.
+ */
+@Internal
+final class StreamGraphOperatorFusion {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamGraphOperatorFusion.class);
+
+    private StreamGraphOperatorFusion() {}
+
+    /** Fuses all fusible chains of the given graph in place. */
+    static void fuse(StreamGraph streamGraph) {
+        final Map<Integer, byte[]> unfusedHashes =
+                new StreamGraphHasherV2().traverseStreamGraphAndGenerateHashes(streamGraph);
+        final Map<Integer, List<String>> fusedNames = new HashMap<>();
+        final List<Integer> vertexIds = new ArrayList<>(streamGraph.getVertexIDs());
+        vertexIds.sort(Integer::compareTo);
+
+        for (Integer vertexId : vertexIds) {
+            final StreamNode upstreamNode = streamGraph.getStreamNode(vertexId);
+            if (upstreamNode == null) {
+                // the node was fused into one of its predecessors
+                continue;
+            }
+
+            while (upstreamNode.getOutEdges().size() == 1) {
+                final StreamEdge edge = upstreamNode.getOutEdges().get(0);
+                final StreamNode downstreamNode = streamGraph.getTargetVertex(edge);
+                if (!canFuse(edge, upstreamNode, downstreamNode, streamGraph)) {
+                    break;
+                }
+
+                final List<String> names =
+                        fusedNames.computeIfAbsent(
+                                upstreamNode.getId(),
+                                id -> {
+                                    final List<String> list = new ArrayList<>();
+                                    list.add(upstreamNode.getOperatorName());
+                                    return list;
+                                });
+                names.add(downstreamNode.getOperatorName());
+
+                fuse(upstreamNode, downstreamNode, streamGraph);
+                upstreamNode.setOperatorName("Fused(" + String.join(", ", names) + ")");
+                LOG.debug(
+                        "Fused operator {} into {}.",
+                        downstreamNode.getOperatorName(),
+                        upstreamNode.getOperatorName());
+            }
+        }
+
+        if (!fusedNames.isEmpty()) {
+            pinHashes(streamGraph, unfusedHashes);
+        }
+    }
+
+    /**
+     * Sets the hashes of the unfused graph as the user-provided hashes of all nodes without a uid,
+     * whose generated hashes would otherwise depend on whether fusion is enabled.
+     */
+    private static void pinHashes(StreamGraph streamGraph, Map<Integer, byte[]> unfusedHashes) {
+        for (StreamNode node : streamGraph.getStreamNodes()) {
+            if (node.getTransformationUID() == null && node.getUserHash() == null) {
+                node.setUserHash(StringUtils.byteToHexString(unfusedHashes.get(node.getId())));
+            }
+        }
+    }
+
+    private static boolean canFuse(
+            StreamEdge edge,
+            StreamNode upstreamNode,
+            StreamNode downstreamNode,
+            StreamGraph streamGraph) {
+        return StreamingJobGraphGenerator.isChainable(edge, streamGraph)
+                && edge.getOutputTag() == null
+                && isFusible(upstreamNode)
+                && isFusible(downstreamNode)
+                && downstreamNode.getTransformationUID() == null
+                && downstreamNode.getUserHash() == null
+                && ResourceSpec.DEFAULT.equals(downstreamNode.getMinResources())
+                && ResourceSpec.DEFAULT.equals(downstreamNode.getPreferredResources())
+                && Objects.equals(
+                        upstreamNode.getCoLocationGroup(), downstreamNode.getCoLocationGroup())
+                && downstreamNode.getOutEdges().stream().allMatch(e -> e.getOutputTag() == null);
+    }
+
+    private static boolean isFusible(StreamNode node) {
+        final StreamOperatorFactory<?> factory = node.getOperatorFactory();
+        return factory instanceof SimpleOperatorFactory
+                && node.getStatePartitioners().length == 0
+                && node.getManagedMemoryOperatorScopeUseCaseWeights().isEmpty()
+                && node.getManagedMemorySlotScopeUseCases().isEmpty()
+                && StreamFusedOperator.canFuse(((SimpleOperatorFactory<?>) factory).getOperator());
+    }
+
+    /** Replaces the operator of the upstream node by the fused operator of both nodes. */
+    private static void fuse(
+            StreamNode upstreamNode, StreamNode downstreamNode, StreamGraph streamGraph) {
+        final StreamOperator<?> upstreamOperator =
+                ((SimpleOperatorFactory<?>) upstreamNode.getOperatorFactory()).getOperator();
+        final StreamOperator<?> downstreamOperator =
+                ((SimpleOperatorFactory<?>) downstreamNode.getOperatorFactory()).getOperator();
+
+        final SimpleOperatorFactory<?> fusedFactory =
+                SimpleOperatorFactory.of(
+                        StreamFusedOperator.fuse(
+                                upstreamOperator,
+                                downstreamOperator,
+                                upstreamNode.getTypeSerializerOut()));
+        fusedFactory.setChainingStrategy(upstreamNode.getOperatorFactory().getChainingStrategy());
+        upstreamNode.setOperatorFactory(fusedFactory);
+        upstreamNode.setSerializerOut(downstreamNode.getTypeSerializerOut());
+
+        // the outputs of the downstream node become the outputs of the upstream node
+        upstreamNode.getOutEdges().clear();
+        for (StreamEdge outEdge : downstreamNode.getOutEdges()) {
+            final StreamNode targetNode = streamGraph.getTargetVertex(outEdge);
+            final StreamEdge fusedEdge =
+                    new StreamEdge(
+                            upstreamNode,
+                            targetNode,
+                            outEdge.getTypeNumber(),
+                            outEdge.getBufferTimeout(),
+                            outEdge.getPartitioner(),
+                            outEdge.getOutputTag(),
+                            outEdge.getShuffleMode());
+            fusedEdge.setSupportsUnalignedCheckpoints(outEdge.supportsUnalignedCheckpoints());
+            upstreamNode.addOutEdge(fusedEdge);
+
+            // keep the position of the edge, which determines the order of the inputs
+            final List<StreamEdge> targetInEdges = targetNode.getInEdges();
+            targetInEdges.set(targetInEdges.indexOf(outEdge), fusedEdge);
+        }
+
+        streamGraph.removeStreamNode(downstreamNode.getId());
+    }
+}
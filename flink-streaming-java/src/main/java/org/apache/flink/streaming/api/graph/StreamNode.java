@@ -64,7 +64,7 @@ public class StreamNode {
             new HashMap<>();
     private final Set<ManagedMemoryUseCase> managedMemorySlotScopeUseCases = new HashSet<>();
     private long bufferTimeout;
-    private final String operatorName;
+    private String operatorName;
     private @Nullable String slotSharingGroup;
     private @Nullable String coLocationGroup;
     private KeySelector<?, ?>[] statePartitioners = new KeySelector[0];
@@ -238,10 +238,18 @@ public class StreamNode {
         return operatorFactory;
     }
 
+    void setOperatorFactory(StreamOperatorFactory<?> operatorFactory) {
+        this.operatorFactory = operatorFactory;
+    }
+
     public String getOperatorName() {
         return operatorName;
     }
 
+    void setOperatorName(String operatorName) {
+        this.operatorName = operatorName;
+    }
+
     public void setSerializersIn(TypeSerializer<?>... typeSerializersIn) {
         checkArgument(typeSerializersIn.length > 0);
         this.typeSerializersIn = typeSerializersIn;
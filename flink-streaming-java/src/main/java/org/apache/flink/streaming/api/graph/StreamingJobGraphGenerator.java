@@ -22,6 +22,7 @@ import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.cache.DistributedCache;
 import org.apache.flink.api.common.functions.Function;
+import org.apache.flink.api.common.functions.ReadOnlyInput;
 import org.apache.flink.api.common.operators.ResourceSpec;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
@@ -56,10 +57,19 @@ import org.apache.flink.runtime.util.config.memory.ManagedMemoryUtils;
 import org.apache.flink.streaming.api.CheckpointingMode;
 import org.apache.flink.streaming.api.checkpoint.WithMasterCheckpointHook;
 import org.apache.flink.streaming.api.environment.CheckpointConfig;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
 import org.apache.flink.streaming.api.operators.ChainingStrategy;
 import org.apache.flink.streaming.api.operators.InputSelectable;
+import org.apache.flink.streaming.api.operators.ProcessOperator;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
 import org.apache.flink.streaming.api.operators.SourceOperatorFactory;
+import org.apache.flink.streaming.api.operators.StreamFilter;
+import org.apache.flink.streaming.api.operators.StreamFlatMap;
+import org.apache.flink.streaming.api.operators.StreamFusedOperator;
+import org.apache.flink.streaming.api.operators.StreamMap;
+import org.apache.flink.streaming.api.operators.StreamOperator;
 import org.apache.flink.streaming.api.operators.StreamOperatorFactory;
+import org.apache.flink.streaming.api.operators.StreamSink;
 import org.apache.flink.streaming.api.operators.UdfStreamOperatorFactory;
 import org.apache.flink.streaming.api.operators.YieldingOperatorFactory;
 import org.apache.flink.streaming.api.transformations.ShuffleMode;
@@ -484,6 +494,7 @@ public class StreamingJobGraphGenerator {
                 config.setChainIndex(chainIndex);
                 StreamNode node = streamGraph.getStreamNode(currentNodeId);
                 config.setOperatorName(node.getOperatorName());
+                config.setInputReadOnly(isInputReadOnly(node, streamGraph));
                 chainedConfigs.get(startNodeId).put(currentNodeId, config);
             }
 
@@ -895,6 +906,42 @@ public class StreamingJobGraphGenerator {
         return true;
     }
 
+    /**
+     * Checks whether the records that are passed to the given chained node don't need to be copied,
+     * because the node is the only consumer of its predecessor and the user functions of the node
+     * are annotated with {@link ReadOnlyInput}.
+     */
+    private static boolean isInputReadOnly(StreamNode node, StreamGraph streamGraph) {
+        if (node.getInEdges().size() != 1 || node.getStatePartitioners().length > 0) {
+            return false;
+        }
+
+        // other consumers of the predecessor would observe the record handed to this node
+        StreamNode upStreamVertex = streamGraph.getSourceVertex(node.getInEdges().get(0));
+        if (upStreamVertex.getOutEdges().size() != 1
+                || !(node.getOperatorFactory() instanceof SimpleOperatorFactory)) {
+            return false;
+        }
+
+        StreamOperator<?> operator = node.getOperator();
+        if (operator instanceof StreamFusedOperator) {
+            return ((StreamFusedOperator<?, ?>) operator)
+                    .getUserFunctions().stream()
+                            .allMatch(StreamingJobGraphGenerator::isReadOnlyInputFunction);
+        }
+        return (operator.getClass() == StreamMap.class
+                        || operator.getClass() == StreamFilter.class
+                        || operator.getClass() == StreamFlatMap.class
+                        || operator.getClass() == ProcessOperator.class
+                        || operator.getClass() == StreamSink.class)
+                && isReadOnlyInputFunction(
+                        ((AbstractUdfStreamOperator<?, ?>) operator).getUserFunction());
+    }
+
+    private static boolean isReadOnlyInputFunction(Function function) {
+        return function.getClass().isAnnotationPresent(ReadOnlyInput.class);
+    }
+
     @VisibleForTesting
     static boolean areOperatorsChainable(
             StreamNode upStreamVertex, StreamNode downStreamVertex, StreamGraph streamGraph) {
@@ -1305,6 +1352,9 @@ public class StreamingJobGraphGenerator {
                                 .setCheckpointInterval(interval)
                                 .setCheckpointTimeout(cfg.getCheckpointTimeout())
                                 .setMinPauseBetweenCheckpoints(cfg.getMinPauseBetweenCheckpoints())
+                                .setTargetCheckpointDuration(
+                                        cfg.getTargetCheckpointDuration().toMillis())
+                                .setRegionCheckpointsEnabled(cfg.isRegionCheckpointsEnabled())
                                 .setMaxConcurrentCheckpoints(cfg.getMaxConcurrentCheckpoints())
                                 .setCheckpointRetentionPolicy(retentionAfterTermination)
                                 .setExactlyOnce(
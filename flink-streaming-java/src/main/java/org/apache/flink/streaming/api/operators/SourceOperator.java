@@ -19,6 +19,7 @@ package org.apache.flink.streaming.api.operators;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.eventtime.WatermarkAlignmentParams;
 import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.common.state.ListState;
 import org.apache.flink.api.common.state.ListStateDescriptor;
@@ -38,13 +39,19 @@ import org.apache.flink.runtime.operators.coordination.OperatorEventHandler;
 import org.apache.flink.runtime.source.event.AddSplitEvent;
 import org.apache.flink.runtime.source.event.NoMoreSplitsEvent;
 import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
+import org.apache.flink.runtime.source.event.ReportedWatermarkEvent;
 import org.apache.flink.runtime.source.event.RequestSplitEvent;
 import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.runtime.source.event.WatermarkAlignmentEvent;
 import org.apache.flink.runtime.state.StateInitializationContext;
 import org.apache.flink.runtime.state.StateSnapshotContext;
 import org.apache.flink.streaming.api.operators.source.TimestampsAndWatermarks;
 import org.apache.flink.streaming.api.operators.util.SimpleVersionedListState;
+import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.runtime.io.PushingAsyncDataInput;
+import org.apache.flink.streaming.runtime.streamrecord.LatencyMarker;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.streamstatus.StreamStatus;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.util.CollectionUtil;
 import org.apache.flink.util.FlinkRuntimeException;
@@ -54,6 +61,7 @@ import org.apache.flink.util.function.FunctionWithException;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -108,6 +116,9 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
     /** Whether to emit intermediate watermarks or only one final watermark at the end of input. */
     private final boolean emitProgressiveWatermarks;
 
+    /** The parameters for aligning the watermark of this subtask with other source subtasks. */
+    private final WatermarkAlignmentParams alignmentParams;
+
     // ---- lazily initialized fields (these fields are the "hot" fields) ----
 
     /** The source reader that does most of the work. */
@@ -127,6 +138,23 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
      */
     private TimestampsAndWatermarks<OUT> eventTimeLogic;
 
+    // ---- fields for watermark alignment ----
+
+    /** The latest watermark emitted by this subtask. */
+    private long latestWatermark = Long.MIN_VALUE;
+
+    /** Whether this subtask is idle, in which case it does not hold back other subtasks. */
+    private boolean idle;
+
+    /** The maximal watermark this subtask may emit before it stops reading. */
+    private long maxAllowedWatermark = Long.MAX_VALUE;
+
+    /** Completed while the watermark of this subtask is within the maximal allowed watermark. */
+    private CompletableFuture<Void> waitingForAlignmentFuture =
+            CompletableFuture.completedFuture(null);
+
+    private ScheduledFuture<?> watermarkReportTimer;
+
     public SourceOperator(
             FunctionWithException<SourceReaderContext, SourceReader<OUT, SplitT>, Exception>
                     readerFactory,
@@ -146,6 +174,10 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
         this.configuration = checkNotNull(configuration);
         this.localHostname = checkNotNull(localHostname);
         this.emitProgressiveWatermarks = emitProgressiveWatermarks;
+        this.alignmentParams =
+                emitProgressiveWatermarks
+                        ? watermarkStrategy.getAlignmentParameters()
+                        : WatermarkAlignmentParams.WATERMARK_ALIGNMENT_DISABLED;
     }
 
     /**
@@ -257,6 +289,15 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
         sourceReader.start();
 
         eventTimeLogic.startPeriodicWatermarkEmits();
+
+        if (alignmentParams.isEnabled()) {
+            watermarkReportTimer =
+                    getProcessingTimeService()
+                            .scheduleWithFixedDelay(
+                                    time -> reportWatermark(),
+                                    alignmentParams.getUpdateInterval(),
+                                    alignmentParams.getUpdateInterval());
+        }
     }
 
     @Override
@@ -264,6 +305,12 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
         if (eventTimeLogic != null) {
             eventTimeLogic.stopPeriodicWatermarkEmits();
         }
+        if (watermarkReportTimer != null) {
+            watermarkReportTimer.cancel(false);
+            watermarkReportTimer = null;
+            // a finished subtask must not hold back the other subtasks of the group
+            operatorEventGateway.sendEventToCoordinator(new ReportedWatermarkEvent(Long.MAX_VALUE));
+        }
         super.finish();
     }
 
@@ -281,13 +328,22 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
         // assume a constant output
         assert lastInvokedOutput == output || lastInvokedOutput == null;
 
+        // do not read while the watermark is too far ahead of the other aligned subtasks
+        if (!waitingForAlignmentFuture.isDone()) {
+            return InputStatus.NOTHING_AVAILABLE;
+        }
+
         // short circuit the common case (every invocation except the first)
         if (currentMainOutput != null) {
             return sourceReader.pollNext(currentMainOutput);
         }
 
         // this creates a batch or streaming output based on the runtime mode
-        currentMainOutput = eventTimeLogic.createMainOutput(output);
+        currentMainOutput =
+                eventTimeLogic.createMainOutput(
+                        alignmentParams.isEnabled()
+                                ? new WatermarkTrackingDataOutput(output)
+                                : output);
         lastInvokedOutput = output;
         return sourceReader.pollNext(currentMainOutput);
     }
@@ -301,6 +357,9 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
 
     @Override
     public CompletableFuture<?> getAvailableFuture() {
+        if (!waitingForAlignmentFuture.isDone()) {
+            return waitingForAlignmentFuture;
+        }
         return sourceReader.isAvailable();
     }
 
@@ -336,6 +395,9 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
             sourceReader.handleSourceEvents(((SourceEventWrapper) event).getSourceEvent());
         } else if (event instanceof NoMoreSplitsEvent) {
             sourceReader.notifyNoMoreSplits();
+        } else if (event instanceof WatermarkAlignmentEvent) {
+            maxAllowedWatermark = ((WatermarkAlignmentEvent) event).getMaxWatermark();
+            checkWatermarkAlignment();
         } else {
             throw new IllegalStateException("Received unexpected operator event " + event);
         }
@@ -347,6 +409,55 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
                         getRuntimeContext().getIndexOfThisSubtask(), localHostname));
     }
 
+    private void reportWatermark() {
+        operatorEventGateway.sendEventToCoordinator(
+                new ReportedWatermarkEvent(idle ? Long.MAX_VALUE : latestWatermark));
+    }
+
+    /** Pauses or resumes reading depending on the latest and the maximal allowed watermark. */
+    private void checkWatermarkAlignment() {
+        if (latestWatermark > maxAllowedWatermark) {
+            if (waitingForAlignmentFuture.isDone()) {
+                waitingForAlignmentFuture = new CompletableFuture<>();
+            }
+        } else if (!waitingForAlignmentFuture.isDone()) {
+            waitingForAlignmentFuture.complete(null);
+        }
+    }
+
+    /** A {@link DataOutput} that keeps track of the emitted watermarks for watermark alignment. */
+    private final class WatermarkTrackingDataOutput implements DataOutput<OUT> {
+
+        private final DataOutput<OUT> output;
+
+        private WatermarkTrackingDataOutput(DataOutput<OUT> output) {
+            this.output = output;
+        }
+
+        @Override
+        public void emitRecord(StreamRecord<OUT> streamRecord) throws Exception {
+            output.emitRecord(streamRecord);
+        }
+
+        @Override
+        public void emitWatermark(Watermark watermark) throws Exception {
+            output.emitWatermark(watermark);
+            latestWatermark = watermark.getTimestamp();
+            checkWatermarkAlignment();
+        }
+
+        @Override
+        public void emitStreamStatus(StreamStatus streamStatus) throws Exception {
+            output.emitStreamStatus(streamStatus);
+            idle = streamStatus.isIdle();
+        }
+
+        @Override
+        public void emitLatencyMarker(LatencyMarker latencyMarker) throws Exception {
+            output.emitLatencyMarker(latencyMarker);
+        }
+    }
+
     // --------------- methods for unit tests ------------
 
     @VisibleForTesting
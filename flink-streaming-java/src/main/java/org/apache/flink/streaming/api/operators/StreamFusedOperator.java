@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.Function;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.functions.ReadOnlyInput;
+import org.apache.flink.api.common.functions.util.FunctionUtils;
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
+import org.apache.flink.streaming.api.checkpoint.ListCheckpointed;
+import org.apache.flink.streaming.api.graph.StreamConfig;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.ExceptionInChainedOperatorException;
+import org.apache.flink.streaming.runtime.tasks.StreamTask;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.ExceptionUtils;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A {@link StreamOperator} that executes a fused sequence of {@link MapFunction MapFunctions},
+ * {@link FilterFunction FilterFunctions} and {@link FlatMapFunction FlatMapFunctions}.
+ *
+ * <p>The functions of chained {@link StreamMap}, {@link StreamFilter} and {@link StreamFlatMap}
+ * operators without operator state can be fused into a single operator with {@link
+ * #fuse(StreamOperator, StreamOperator, TypeSerializer)}. The fused operator passes the values
+ * directly from one function to the next, instead of wrapping them into a {@link StreamRecord} and
+ * handing them over through the {@link Output} of every chained operator.
+ *
+ * <p>Like the chaining outputs of an operator chain, the fused operator copies the value between
+ * two functions if object reuse is disabled, unless the receiving function is annotated with {@link
+ * ReadOnlyInput}. All fused functions report their metrics under the single fused operator.
+ *
+ * @param <IN> The input type of the first fused function.
+ * @param <OUT> The output type of the last fused function.
+ */
+@Internal
+public class StreamFusedOperator<IN, OUT> extends AbstractStreamOperator<OUT>
+        implements OneInputStreamOperator<IN, OUT> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<FusedStep> steps;
+
+    private transient FusedStep head;
+
+    private transient TimestampedCollector<OUT> collector;
+
+    private StreamFusedOperator(List<FusedStep> steps) {
+        checkArgument(!steps.isEmpty(), "There must be at least one fused function.");
+        this.steps = steps;
+        this.chainingStrategy = ChainingStrategy.ALWAYS;
+    }
+
+    /** Checks whether the given operator can be fused with {@link #fuse}. */
+    public static boolean canFuse(StreamOperator<?> operator) {
+        if (operator instanceof StreamFusedOperator) {
+            return true;
+        }
+        if (operator.getClass() != StreamMap.class
+                && operator.getClass() != StreamFilter.class
+                && operator.getClass() != StreamFlatMap.class) {
+            return false;
+        }
+        final Function function = ((AbstractUdfStreamOperator<?, ?>) operator).getUserFunction();
+        return !(function instanceof CheckpointedFunction || function instanceof ListCheckpointed);
+    }
+
+    /**
+     * Fuses the given operators into a single operator that executes the functions of the first
+     * operator followed by the functions of the second operator.
+     *
+     * @param first The upstream operator.
+     * @param second The downstream operator.
+     * @param serializer The serializer of the records that the first operator emits to the second
+     *     operator, used to copy them if object reuse is disabled.
+     */
+    @SuppressWarnings("unchecked")
+    public static StreamFusedOperator<?, ?> fuse(
+            StreamOperator<?> first, StreamOperator<?> second, TypeSerializer<?> serializer) {
+        checkArgument(canFuse(first), "Operator %s cannot be fused.", first);
+        checkArgument(canFuse(second), "Operator %s cannot be fused.", second);
+
+        final List<FusedStep> steps = new ArrayList<>();
+        addSteps(first, null, steps);
+        addSteps(second, (TypeSerializer<Object>) serializer, steps);
+        return new StreamFusedOperator<>(steps);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addSteps(
+            StreamOperator<?> operator,
+            @Nullable TypeSerializer<Object> inputSerializer,
+            List<FusedStep> steps) {
+        if (operator instanceof StreamFusedOperator) {
+            final List<FusedStep> fusedSteps = ((StreamFusedOperator<?, ?>) operator).steps;
+            steps.add(fusedSteps.get(0).withInputSerializer(inputSerializer));
+            steps.addAll(fusedSteps.subList(1, fusedSteps.size()));
+        } else if (operator instanceof StreamMap) {
+            steps.add(
+                    new MapStep(
+                            ((StreamMap<Object, Object>) operator).getUserFunction(),
+                            inputSerializer));
+        } else if (operator instanceof StreamFilter) {
+            steps.add(
+                    new FilterStep(
+                            ((StreamFilter<Object>) operator).getUserFunction(), inputSerializer));
+        } else {
+            steps.add(
+                    new FlatMapStep(
+                            ((StreamFlatMap<Object, Object>) operator).getUserFunction(),
+                            inputSerializer));
+        }
+    }
+
+    /** Returns the fused functions in the order in which they are executed. */
+    public List<Function> getUserFunctions() {
+        final List<Function> functions = new ArrayList<>(steps.size());
+        for (FusedStep step : steps) {
+            functions.add(step.getFunction());
+        }
+        return Collections.unmodifiableList(functions);
+    }
+
+    // ------------------------------------------------------------------------
+    //  operator life cycle
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void setup(
+            StreamTask<?, ?> containingTask,
+            StreamConfig config,
+            Output<StreamRecord<OUT>> output) {
+        super.setup(containingTask, config, output);
+        for (FusedStep step : steps) {
+            FunctionUtils.setFunctionRuntimeContext(step.getFunction(), getRuntimeContext());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open() throws Exception {
+        super.open();
+        collector = new TimestampedCollector<>(output);
+
+        final boolean objectReuse = getExecutionConfig().isObjectReuseEnabled();
+        Collector<Object> next = (Collector<Object>) (Collector<?>) collector;
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            final FusedStep step = steps.get(i);
+            step.next = next;
+            // the first step receives its values from the operator chain, which copies if needed
+            step.copyInput =
+                    step.inputSerializer != null
+                            && !objectReuse
+                            && !step.getFunction()
+                                    .getClass()
+                                    .isAnnotationPresent(ReadOnlyInput.class);
+            next = step;
+        }
+        head = steps.get(0);
+
+        for (FusedStep step : steps) {
+            FunctionUtils.openFunction(step.getFunction(), new Configuration());
+        }
+    }
+
+    @Override
+    public void processElement(StreamRecord<IN> element) throws Exception {
+        collector.setTimestamp(element);
+        head.process(element.getValue());
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+
+        Exception exception = null;
+        for (FusedStep step : steps) {
+            try {
+                FunctionUtils.closeFunction(step.getFunction());
+            } catch (Exception e) {
+                exception = ExceptionUtils.firstOrSuppressed(e, exception);
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    //  checkpointing and recovery
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) throws Exception {
+        super.notifyCheckpointComplete(checkpointId);
+        for (FusedStep step : steps) {
+            if (step.getFunction() instanceof CheckpointListener) {
+                ((CheckpointListener) step.getFunction()).notifyCheckpointComplete(checkpointId);
+            }
+        }
+    }
+
+    @Override
+    public void notifyCheckpointAborted(long checkpointId) throws Exception {
+        super.notifyCheckpointAborted(checkpointId);
+        for (FusedStep step : steps) {
+            if (step.getFunction() instanceof CheckpointListener) {
+                ((CheckpointListener) step.getFunction()).notifyCheckpointAborted(checkpointId);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    //  fused steps
+    // ------------------------------------------------------------------------
+
+    /**
+     * A fused function that processes the values of the previous step and emits its results to the
+     * next step, or to the output of the operator if it is the last step.
+     */
+    private abstract static class FusedStep implements Collector<Object>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The serializer of the values of the previous step, or null for the first step. */
+        @Nullable protected final TypeSerializer<Object> inputSerializer;
+
+        private transient boolean copyInput;
+
+        protected transient Collector<Object> next;
+
+        FusedStep(@Nullable TypeSerializer<Object> inputSerializer) {
+            this.inputSerializer = inputSerializer;
+        }
+
+        abstract Function getFunction();
+
+        abstract void process(Object value) throws Exception;
+
+        /**
+         * Returns a step with the same function that receives the values of the given serializer.
+         */
+        abstract FusedStep withInputSerializer(@Nullable TypeSerializer<Object> inputSerializer);
+
+        @Override
+        public void collect(Object value) {
+            try {
+                process(copyInput ? inputSerializer.copy(value) : value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ExceptionInChainedOperatorException(
+                        "Could not forward element to next fused function.", e);
+            }
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private static final class MapStep extends FusedStep {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MapFunction<Object, Object> mapper;
+
+        private MapStep(
+                MapFunction<Object, Object> mapper,
+                @Nullable TypeSerializer<Object> inputSerializer) {
+            super(inputSerializer);
+            this.mapper = mapper;
+        }
+
+        @Override
+        Function getFunction() {
+            return mapper;
+        }
+
+        @Override
+        FusedStep withInputSerializer(@Nullable TypeSerializer<Object> inputSerializer) {
+            return new MapStep(mapper, inputSerializer);
+        }
+
+        @Override
+        void process(Object value) throws Exception {
+            next.collect(mapper.map(value));
+        }
+    }
+
+    private static final class FilterStep extends FusedStep {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FilterFunction<Object> filter;
+
+        private FilterStep(
+                FilterFunction<Object> filter, @Nullable TypeSerializer<Object> inputSerializer) {
+            super(inputSerializer);
+            this.filter = filter;
+        }
+
+        @Override
+        Function getFunction() {
+            return filter;
+        }
+
+        @Override
+        FusedStep withInputSerializer(@Nullable TypeSerializer<Object> inputSerializer) {
+            return new FilterStep(filter, inputSerializer);
+        }
+
+        @Override
+        void process(Object value) throws Exception {
+            if (filter.filter(value)) {
+                next.collect(value);
+            }
+        }
+    }
+
+    private static final class FlatMapStep extends FusedStep {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FlatMapFunction<Object, Object> flatMapper;
+
+        private FlatMapStep(
+                FlatMapFunction<Object, Object> flatMapper,
+                @Nullable TypeSerializer<Object> inputSerializer) {
+            super(inputSerializer);
+            this.flatMapper = flatMapper;
+        }
+
+        @Override
+        Function getFunction() {
+            return flatMapper;
+        }
+
+        @Override
+        FusedStep withInputSerializer(@Nullable TypeSerializer<Object> inputSerializer) {
+            return new FlatMapStep(flatMapper, inputSerializer);
+        }
+
+        @Override
+        void process(Object value) throws Exception {
+            flatMapper.flatMap(value, next);
+        }
+    }
+}
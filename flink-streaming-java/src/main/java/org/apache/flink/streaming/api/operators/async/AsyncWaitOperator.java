@@ -26,6 +26,7 @@ import org.apache.flink.runtime.state.StateInitializationContext;
 import org.apache.flink.runtime.state.StateSnapshotContext;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream.OutputMode;
+import org.apache.flink.streaming.api.functions.async.AsyncBatchFunction;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
 import org.apache.flink.streaming.api.functions.async.ResultFuture;
 import org.apache.flink.streaming.api.graph.StreamConfig;
@@ -49,8 +50,10 @@ import org.apache.flink.util.Preconditions;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +70,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * {@link StreamElement} in it's operator state. Upon recovery the recorded set of stream elements
  * is replayed.
  *
+ * <p>If the {@link AsyncFunction} is an {@link AsyncBatchFunction} and a batch size larger than one
+ * is configured, the operator collects the records in a batch until the batch is full, the batch
+ * timeout has elapsed, or a watermark or the end of input arrives, and then triggers one async
+ * operation for all records of the batch. The records are added to the stream element queue when
+ * they arrive, so the output modes, the timeouts and the checkpointed state are the same as without
+ * batching.
+ *
  * <p>In case of chaining of this operator, it has to be made sure that the operators in the chain
  * are opened tail to head. The reason for this is that an opened {@link AsyncWaitOperator} starts
  * already emitting recovered {@link StreamElement} to downstream operators.
@@ -91,6 +101,12 @@ public class AsyncWaitOperator<IN, OUT>
     /** Timeout for the async collectors. */
     private final long timeout;
 
+    /** The maximum number of records that are handed to an {@link AsyncBatchFunction} at once. */
+    private final int batchSize;
+
+    /** The maximum time a record waits for its batch to be triggered, or 0 for no limit. */
+    private final long batchTimeout;
+
     /** {@link TypeSerializer} for inputs while making snapshots. */
     private transient StreamElementSerializer<IN> inStreamElementSerializer;
 
@@ -108,6 +124,18 @@ public class AsyncWaitOperator<IN, OUT>
     /** Whether object reuse has been enabled or disabled. */
     private transient boolean isObjectReuseEnabled;
 
+    /** The batch function, or null if the records are not batched. */
+    private transient AsyncBatchFunction<IN, OUT> batchFunction;
+
+    /** The inputs of the current batch. */
+    private transient List<IN> batchInputs;
+
+    /** The result handlers of the inputs of the current batch. */
+    private transient List<ResultFuture<OUT>> batchResultHandlers;
+
+    /** The timer that triggers the current batch after the batch timeout. */
+    private transient ScheduledFuture<?> batchTimer;
+
     public AsyncWaitOperator(
             @Nonnull AsyncFunction<IN, OUT> asyncFunction,
             long timeout,
@@ -115,6 +143,26 @@ public class AsyncWaitOperator<IN, OUT>
             @Nonnull AsyncDataStream.OutputMode outputMode,
             @Nonnull ProcessingTimeService processingTimeService,
             @Nonnull MailboxExecutor mailboxExecutor) {
+        this(
+                asyncFunction,
+                timeout,
+                capacity,
+                outputMode,
+                1,
+                0L,
+                processingTimeService,
+                mailboxExecutor);
+    }
+
+    public AsyncWaitOperator(
+            @Nonnull AsyncFunction<IN, OUT> asyncFunction,
+            long timeout,
+            int capacity,
+            @Nonnull AsyncDataStream.OutputMode outputMode,
+            int batchSize,
+            long batchTimeout,
+            @Nonnull ProcessingTimeService processingTimeService,
+            @Nonnull MailboxExecutor mailboxExecutor) {
         super(asyncFunction);
 
         setChainingStrategy(ChainingStrategy.ALWAYS);
@@ -127,6 +175,13 @@ public class AsyncWaitOperator<IN, OUT>
 
         this.timeout = timeout;
 
+        Preconditions.checkArgument(batchSize > 0, "The batch size must be greater than 0.");
+        Preconditions.checkArgument(
+                batchSize <= capacity, "The batch size must not be greater than the capacity.");
+        Preconditions.checkArgument(batchTimeout >= 0L, "The batch timeout must not be negative.");
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+
         this.processingTimeService = Preconditions.checkNotNull(processingTimeService);
 
         this.mailboxExecutor = mailboxExecutor;
@@ -163,6 +218,12 @@ public class AsyncWaitOperator<IN, OUT>
 
         this.isObjectReuseEnabled = getExecutionConfig().isObjectReuseEnabled();
 
+        if (batchSize > 1 && userFunction instanceof AsyncBatchFunction) {
+            this.batchFunction = (AsyncBatchFunction<IN, OUT>) userFunction;
+            this.batchInputs = new ArrayList<>(batchSize);
+            this.batchResultHandlers = new ArrayList<>(batchSize);
+        }
+
         if (recoveredStreamElements != null) {
             for (StreamElement element : recoveredStreamElements.get()) {
                 if (element.isRecord()) {
@@ -203,11 +264,18 @@ public class AsyncWaitOperator<IN, OUT>
             resultHandler.registerTimeout(getProcessingTimeService(), timeout);
         }
 
-        userFunction.asyncInvoke(element.getValue(), resultHandler);
+        if (batchFunction != null) {
+            addToBatch(element.getValue(), resultHandler);
+        } else {
+            userFunction.asyncInvoke(element.getValue(), resultHandler);
+        }
     }
 
     @Override
     public void processWatermark(Watermark mark) throws Exception {
+        // the watermark is held back until all prior records are completed
+        triggerBatch();
+
         addToWorkQueue(mark);
 
         // watermarks are always completed
@@ -254,9 +322,45 @@ public class AsyncWaitOperator<IN, OUT>
         // we should wait here for the data in flight to be finished. the reason is that the
         // timer not in running will be forbidden to fire after this, so that when the async
         // operation is stuck, it results in deadlock due to what the timeout timer is not fired
+        triggerBatch();
         waitInFlightInputsFinished();
     }
 
+    private void addToBatch(IN input, ResultFuture<OUT> resultHandler) throws Exception {
+        batchInputs.add(input);
+        batchResultHandlers.add(resultHandler);
+
+        if (batchInputs.size() >= batchSize) {
+            triggerBatch();
+        } else if (batchInputs.size() == 1 && batchTimeout > 0L) {
+            batchTimer =
+                    getProcessingTimeService()
+                            .registerTimer(
+                                    getProcessingTimeService().getCurrentProcessingTime()
+                                            + batchTimeout,
+                                    timestamp -> triggerBatch());
+        }
+    }
+
+    /** Triggers the async operation for the records of the current batch, if there are any. */
+    private void triggerBatch() throws Exception {
+        if (batchFunction == null || batchInputs.isEmpty()) {
+            return;
+        }
+
+        if (batchTimer != null) {
+            batchTimer.cancel(false);
+            batchTimer = null;
+        }
+
+        final List<IN> inputs = new ArrayList<>(batchInputs);
+        final List<ResultFuture<OUT>> resultHandlers = new ArrayList<>(batchResultHandlers);
+        batchInputs.clear();
+        batchResultHandlers.clear();
+
+        batchFunction.asyncInvokeBatch(inputs, resultHandlers);
+    }
+
     /**
      * Add the given stream element to the operator's stream element queue. This operation blocks
      * until the element has been added.
@@ -265,16 +369,17 @@ public class AsyncWaitOperator<IN, OUT>
      * events as well as asynchronous results can be processed.
      *
      * @param streamElement to add to the operator's queue
-     * @throws InterruptedException if the current thread has been interrupted while yielding to
-     *     mailbox
+     * @throws Exception if the current thread has been interrupted while yielding to mailbox, or if
+     *     the async operation of the pending batch could not be triggered
      * @return a handle that allows to set the result of the async computation for the given
      *     element.
      */
-    private ResultFuture<OUT> addToWorkQueue(StreamElement streamElement)
-            throws InterruptedException {
+    private ResultFuture<OUT> addToWorkQueue(StreamElement streamElement) throws Exception {
 
         Optional<ResultFuture<OUT>> queueEntry;
         while (!(queueEntry = queue.tryPut(streamElement)).isPresent()) {
+            // the queue can only make progress once the pending batch has been triggered
+            triggerBatch();
             mailboxExecutor.yield();
         }
 
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.async;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.queryablestate.client.state.serialization.KvStateSerializer;
+import org.apache.flink.runtime.state.StateSnapshotContext;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.internal.InternalKvState;
+import org.apache.flink.streaming.api.functions.async.KeyedAsyncStateFunction;
+import org.apache.flink.streaming.api.graph.StreamConfig;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.ChainingStrategy;
+import org.apache.flink.streaming.api.operators.MailboxExecutor;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.Output;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTask;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.apache.flink.util.function.ThrowingConsumer;
+import org.apache.flink.util.function.ThrowingRunnable;
+
+import javax.annotation.Nonnull;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The {@link KeyedAsyncStateOperator} executes a {@link KeyedAsyncStateFunction} and reads its
+ * value states on a pool of state I/O threads.
+ *
+ * <p>A read serializes the current key in the task thread and reads the serialized value of the key
+ * with {@link InternalKvState#getSerializedValue} on a state I/O thread. The result is handed back
+ * to the task thread through the mailbox, where the value is deserialized and the callback of the
+ * read is invoked with the key context of the read.
+ *
+ * <p>While a key has pending reads, the elements of that key are held back in the operator, which
+ * guarantees that the state of a key is not modified while it is being read, and that the elements
+ * of a key are processed in order. The number of pending reads and held back elements is bounded by
+ * the capacity of the operator: once it is reached, the operator yields to the mailbox until reads
+ * complete, which backpressures the input. Watermarks, checkpoints and the end of input wait until
+ * all pending reads and held back elements have been processed, so neither needs to be part of a
+ * snapshot.
+ *
+ * @param <K> The type of the key.
+ * @param <IN> The type of the input elements.
+ * @param <OUT> The type of the output elements.
+ */
+@Internal
+public class KeyedAsyncStateOperator<K, IN, OUT>
+        extends AbstractUdfStreamOperator<OUT, KeyedAsyncStateFunction<K, IN, OUT>>
+        implements OneInputStreamOperator<IN, OUT> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The number of threads that read state. */
+    private final int stateIOThreads;
+
+    /** The maximum number of pending reads and held back elements. */
+    private final int capacity;
+
+    /** Mailbox executor used to complete reads and to yield while waiting for pending reads. */
+    private final transient MailboxExecutor mailboxExecutor;
+
+    private transient TypeSerializer<IN> inputSerializer;
+
+    private transient boolean isObjectReuseEnabled;
+
+    private transient TimestampedCollector<OUT> collector;
+
+    private transient ContextImpl context;
+
+    private transient ExecutorService stateIOExecutor;
+
+    /** The keys with pending reads. */
+    private transient Map<K, PendingKey> pendingKeys;
+
+    /** The number of reads whose callback has not been invoked yet. */
+    private transient int numPendingReads;
+
+    /** The number of elements which are held back until the pending reads of their key complete. */
+    private transient int numHeldBackElements;
+
+    public KeyedAsyncStateOperator(
+            KeyedAsyncStateFunction<K, IN, OUT> function,
+            int stateIOThreads,
+            int capacity,
+            @Nonnull MailboxExecutor mailboxExecutor) {
+        super(function);
+        checkArgument(stateIOThreads > 0, "The number of state I/O threads must be positive.");
+        checkArgument(capacity > 0, "The capacity must be positive.");
+        this.stateIOThreads = stateIOThreads;
+        this.capacity = capacity;
+        this.mailboxExecutor = mailboxExecutor;
+        this.chainingStrategy = ChainingStrategy.ALWAYS;
+    }
+
+    @Override
+    public void setup(
+            StreamTask<?, ?> containingTask,
+            StreamConfig config,
+            Output<StreamRecord<OUT>> output) {
+        super.setup(containingTask, config, output);
+        this.inputSerializer = getOperatorConfig().getTypeSerializerIn1(getUserCodeClassloader());
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        isObjectReuseEnabled = getExecutionConfig().isObjectReuseEnabled();
+        collector = new TimestampedCollector<>(output);
+        context = new ContextImpl(userFunction);
+        pendingKeys = new HashMap<>();
+        stateIOExecutor =
+                Executors.newFixedThreadPool(
+                        stateIOThreads,
+                        new ExecutorThreadFactory("AsyncStateIO-" + getOperatorName()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void processElement(StreamRecord<IN> element) throws Exception {
+        final K key = (K) getCurrentKey();
+        if (numPendingReads + numHeldBackElements >= capacity) {
+            while (numPendingReads + numHeldBackElements >= capacity) {
+                mailboxExecutor.yield();
+            }
+            // the completed reads changed the key context
+            setCurrentKey(key);
+        }
+
+        // the value may be used after this method returned, by a callback or a held back element
+        final IN value =
+                isObjectReuseEnabled
+                        ? inputSerializer.copy(element.getValue())
+                        : element.getValue();
+        final Long timestamp = element.hasTimestamp() ? element.getTimestamp() : null;
+
+        final PendingKey pendingKey = pendingKeys.get(key);
+        if (pendingKey != null) {
+            pendingKey.heldBackElements.add(() -> invokeUserFunction(value, timestamp));
+            numHeldBackElements++;
+        } else {
+            invokeUserFunction(value, timestamp);
+        }
+    }
+
+    @Override
+    public void processWatermark(Watermark mark) throws Exception {
+        waitForPendingReads();
+        super.processWatermark(mark);
+    }
+
+    @Override
+    public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+        waitForPendingReads();
+        super.prepareSnapshotPreBarrier(checkpointId);
+    }
+
+    @Override
+    public void snapshotState(StateSnapshotContext context) throws Exception {
+        checkState(
+                numPendingReads == 0,
+                "There must not be pending state reads when taking a snapshot.");
+        super.snapshotState(context);
+    }
+
+    @Override
+    public void finish() throws Exception {
+        waitForPendingReads();
+        super.finish();
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (stateIOExecutor != null) {
+                stateIOExecutor.shutdownNow();
+                // the state backend must not be disposed while it is still being read
+                stateIOExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            super.close();
+        }
+    }
+
+    @VisibleForTesting
+    int getNumPendingReads() {
+        return numPendingReads;
+    }
+
+    private void invokeUserFunction(IN value, Long timestamp) throws Exception {
+        setTimestamp(timestamp);
+        userFunction.processElement(value, context, collector);
+    }
+
+    private void setTimestamp(Long timestamp) {
+        context.timestamp = timestamp;
+        if (timestamp != null) {
+            collector.setAbsoluteTimestamp(timestamp);
+        } else {
+            collector.eraseTimestamp();
+        }
+    }
+
+    /** Yields to the mailbox until all pending reads and held back elements are processed. */
+    private void waitForPendingReads() throws InterruptedException {
+        while (numPendingReads > 0) {
+            mailboxExecutor.yield();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <N, T> void readAsync(ValueState<T> state, ThrowingConsumer<T, Exception> callback)
+            throws Exception {
+        final InternalKvState<K, N, T> kvState = (InternalKvState<K, N, T>) state;
+        if (!kvState.supportsConcurrentReads()) {
+            callback.accept(state.value());
+            return;
+        }
+
+        final K key = (K) getCurrentKey();
+        final Long timestamp = context.timestamp;
+        final byte[] serializedKeyAndNamespace =
+                KvStateSerializer.serializeKeyAndNamespace(
+                        key,
+                        kvState.getKeySerializer(),
+                        (N) VoidNamespace.INSTANCE,
+                        kvState.getNamespaceSerializer());
+        final TypeSerializer<K> safeKeySerializer = kvState.getKeySerializer().duplicate();
+        final TypeSerializer<N> safeNamespaceSerializer =
+                kvState.getNamespaceSerializer().duplicate();
+        final TypeSerializer<T> safeValueSerializer = kvState.getValueSerializer().duplicate();
+
+        pendingKeys.computeIfAbsent(key, k -> new PendingKey()).numPendingReads++;
+        numPendingReads++;
+
+        stateIOExecutor.execute(
+                () -> {
+                    ThrowingRunnable<Exception> completion;
+                    try {
+                        final byte[] serializedValue =
+                                kvState.getSerializedValue(
+                                        serializedKeyAndNamespace,
+                                        safeKeySerializer,
+                                        safeNamespaceSerializer,
+                                        safeValueSerializer);
+                        completion =
+                                () ->
+                                        completeRead(
+                                                key,
+                                                timestamp,
+                                                serializedValue == null
+                                                        ? null
+                                                        : KvStateSerializer.deserializeValue(
+                                                                serializedValue,
+                                                                safeValueSerializer),
+                                                callback);
+                    } catch (Throwable t) {
+                        completion =
+                                () -> {
+                                    throw new Exception(
+                                            "Could not read the state of key " + key + '.', t);
+                                };
+                    }
+
+                    try {
+                        mailboxExecutor.execute(completion, "KeyedAsyncStateOperator#completeRead");
+                    } catch (RejectedExecutionException e) {
+                        // the task is shutting down, the result is not needed anymore
+                    }
+                });
+    }
+
+    private <T> void completeRead(
+            K key, Long timestamp, T value, ThrowingConsumer<T, Exception> callback)
+            throws Exception {
+        setCurrentKey(key);
+        setTimestamp(timestamp);
+        callback.accept(value);
+
+        numPendingReads--;
+        final PendingKey pendingKey = pendingKeys.get(key);
+        pendingKey.numPendingReads--;
+
+        // process the held back elements until one of them reads the state of the key again
+        while (pendingKey.numPendingReads == 0 && !pendingKey.heldBackElements.isEmpty()) {
+            setCurrentKey(key);
+            numHeldBackElements--;
+            pendingKey.heldBackElements.poll().run();
+        }
+        if (pendingKey.numPendingReads == 0) {
+            pendingKeys.remove(key);
+        }
+    }
+
+    /** The pending reads and the held back elements of a key. */
+    private static final class PendingKey {
+
+        private int numPendingReads;
+
+        private final ArrayDeque<ThrowingRunnable<Exception>> heldBackElements = new ArrayDeque<>();
+    }
+
+    private class ContextImpl extends KeyedAsyncStateFunction<K, IN, OUT>.Context {
+
+        private Long timestamp;
+
+        ContextImpl(KeyedAsyncStateFunction<K, IN, OUT> function) {
+            function.super();
+        }
+
+        @Override
+        public Long timestamp() {
+            return timestamp;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getCurrentKey() {
+            return (K) KeyedAsyncStateOperator.this.getCurrentKey();
+        }
+
+        @Override
+        public <T> void readAsync(ValueState<T> state, ThrowingConsumer<T, Exception> callback)
+                throws Exception {
+            KeyedAsyncStateOperator.this.readAsync(state, callback);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.runtime.state.StateInitializationContext;
+import org.apache.flink.runtime.state.internal.InternalMapState;
 import org.apache.flink.streaming.api.functions.co.ProcessJoinFunction;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
 import org.apache.flink.streaming.api.operators.InternalTimer;
@@ -78,6 +79,14 @@ import java.util.Objects;
  * element. This timer indicates when an element is not considered for joining anymore and can be
  * removed from the state.
  *
+ * <p>If a bucket size is configured, the buffered elements are grouped into buckets of timestamps
+ * instead. Each bucket is a namespace of the buffer state which maps the timestamps of the bucket
+ * to their elements, so buffering an element is still a point write of its timestamp. A lookup only
+ * iterates over the buckets that overlap with the boundaries of the join instead of over all
+ * buffered timestamps, and a single cleanup timer per bucket clears the namespace of the bucket at
+ * once. The bucketed buffers are stored in different state than the unbucketed buffers, so the
+ * bucket size can't be changed when restoring from a savepoint.
+ *
  * @param <K> The type of the key based on which we join elements.
  * @param <T1> The type of the elements in the left stream.
  * @param <T2> The type of the elements in the right stream.
@@ -94,6 +103,8 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 
     private static final String LEFT_BUFFER = "LEFT_BUFFER";
     private static final String RIGHT_BUFFER = "RIGHT_BUFFER";
+    private static final String LEFT_BUCKETED_BUFFER = "LEFT_BUCKETED_BUFFER";
+    private static final String RIGHT_BUCKETED_BUFFER = "RIGHT_BUCKETED_BUFFER";
     private static final String CLEANUP_TIMER_NAME = "CLEANUP_TIMER";
     private static final String CLEANUP_NAMESPACE_LEFT = "CLEANUP_LEFT";
     private static final String CLEANUP_NAMESPACE_RIGHT = "CLEANUP_RIGHT";
@@ -101,12 +112,20 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
     private final long lowerBound;
     private final long upperBound;
 
+    /** The size of the buckets of timestamps, or 0 if the buffers are not bucketed. */
+    private final long bucketSize;
+
     private final TypeSerializer<T1> leftTypeSerializer;
     private final TypeSerializer<T2> rightTypeSerializer;
 
     private transient MapState<Long, List<BufferEntry<T1>>> leftBuffer;
     private transient MapState<Long, List<BufferEntry<T2>>> rightBuffer;
 
+    /** The bucketed buffers, namespaced by the first timestamp of the bucket. */
+    private transient InternalMapState<K, Long, Long, List<BufferEntry<T1>>> leftBucketedBuffer;
+
+    private transient InternalMapState<K, Long, Long, List<BufferEntry<T2>>> rightBucketedBuffer;
+
     private transient TimestampedCollector<OUT> collector;
     private transient ContextImpl context;
 
@@ -132,16 +151,53 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
             TypeSerializer<T1> leftTypeSerializer,
             TypeSerializer<T2> rightTypeSerializer,
             ProcessJoinFunction<T1, T2, OUT> udf) {
+        this(
+                lowerBound,
+                upperBound,
+                lowerBoundInclusive,
+                upperBoundInclusive,
+                0L,
+                leftTypeSerializer,
+                rightTypeSerializer,
+                udf);
+    }
+
+    /**
+     * Creates a new IntervalJoinOperator that groups the buffered elements into buckets of
+     * timestamps.
+     *
+     * @param lowerBound The lower bound for evaluating if elements should be joined
+     * @param upperBound The upper bound for evaluating if elements should be joined
+     * @param lowerBoundInclusive Whether or not to include elements where the timestamp matches the
+     *     lower bound
+     * @param upperBoundInclusive Whether or not to include elements where the timestamp matches the
+     *     upper bound
+     * @param bucketSize The size of the buckets of timestamps, or 0 to buffer the elements per
+     *     timestamp
+     * @param udf A user-defined {@link ProcessJoinFunction} that gets called whenever two elements
+     *     of T1 and T2 are joined
+     */
+    public IntervalJoinOperator(
+            long lowerBound,
+            long upperBound,
+            boolean lowerBoundInclusive,
+            boolean upperBoundInclusive,
+            long bucketSize,
+            TypeSerializer<T1> leftTypeSerializer,
+            TypeSerializer<T2> rightTypeSerializer,
+            ProcessJoinFunction<T1, T2, OUT> udf) {
 
         super(Preconditions.checkNotNull(udf));
 
         Preconditions.checkArgument(
                 lowerBound <= upperBound, "lowerBound <= upperBound must be fulfilled");
+        Preconditions.checkArgument(bucketSize >= 0L, "bucketSize must not be negative");
 
         // Move buffer by +1 / -1 depending on inclusiveness in order not needing
         // to check for inclusiveness later on
         this.lowerBound = (lowerBoundInclusive) ? lowerBound : lowerBound + 1L;
         this.upperBound = (upperBoundInclusive) ? upperBound : upperBound - 1L;
+        this.bucketSize = bucketSize;
 
         this.leftTypeSerializer = Preconditions.checkNotNull(leftTypeSerializer);
         this.rightTypeSerializer = Preconditions.checkNotNull(rightTypeSerializer);
@@ -158,9 +214,35 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void initializeState(StateInitializationContext context) throws Exception {
         super.initializeState(context);
 
+        if (bucketSize > 0L) {
+            this.leftBucketedBuffer =
+                    (InternalMapState<K, Long, Long, List<BufferEntry<T1>>>)
+                            getOrCreateKeyedState(
+                                    LongSerializer.INSTANCE,
+                                    new MapStateDescriptor<>(
+                                            LEFT_BUCKETED_BUFFER,
+                                            LongSerializer.INSTANCE,
+                                            new ListSerializer<>(
+                                                    new BufferEntrySerializer<>(
+                                                            leftTypeSerializer))));
+
+            this.rightBucketedBuffer =
+                    (InternalMapState<K, Long, Long, List<BufferEntry<T2>>>)
+                            getOrCreateKeyedState(
+                                    LongSerializer.INSTANCE,
+                                    new MapStateDescriptor<>(
+                                            RIGHT_BUCKETED_BUFFER,
+                                            LongSerializer.INSTANCE,
+                                            new ListSerializer<>(
+                                                    new BufferEntrySerializer<>(
+                                                            rightTypeSerializer))));
+            return;
+        }
+
         this.leftBuffer =
                 context.getKeyedStateStore()
                         .getMapState(
@@ -191,7 +273,12 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
      */
     @Override
     public void processElement1(StreamRecord<T1> record) throws Exception {
-        processElement(record, leftBuffer, rightBuffer, lowerBound, upperBound, true);
+        if (bucketSize > 0L) {
+            processElementBucketed(
+                    record, leftBucketedBuffer, rightBucketedBuffer, lowerBound, upperBound, true);
+        } else {
+            processElement(record, leftBuffer, rightBuffer, lowerBound, upperBound, true);
+        }
     }
 
     /**
@@ -205,7 +292,17 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
      */
     @Override
     public void processElement2(StreamRecord<T2> record) throws Exception {
-        processElement(record, rightBuffer, leftBuffer, -upperBound, -lowerBound, false);
+        if (bucketSize > 0L) {
+            processElementBucketed(
+                    record,
+                    rightBucketedBuffer,
+                    leftBucketedBuffer,
+                    -upperBound,
+                    -lowerBound,
+                    false);
+        } else {
+            processElement(record, rightBuffer, leftBuffer, -upperBound, -lowerBound, false);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -221,11 +318,7 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
         final THIS ourValue = record.getValue();
         final long ourTimestamp = record.getTimestamp();
 
-        if (ourTimestamp == Long.MIN_VALUE) {
-            throw new FlinkException(
-                    "Long.MIN_VALUE timestamp: Elements used in "
-                            + "interval stream joins need to have timestamps meaningful timestamps.");
-        }
+        checkTimestamp(ourTimestamp);
 
         if (isLate(ourTimestamp)) {
             return;
@@ -259,6 +352,84 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <THIS, OTHER> void processElementBucketed(
+            final StreamRecord<THIS> record,
+            final InternalMapState<K, Long, Long, List<BufferEntry<THIS>>> ourBuffer,
+            final InternalMapState<K, Long, Long, List<BufferEntry<OTHER>>> otherBuffer,
+            final long relativeLowerBound,
+            final long relativeUpperBound,
+            final boolean isLeft)
+            throws Exception {
+
+        final THIS ourValue = record.getValue();
+        final long ourTimestamp = record.getTimestamp();
+
+        checkTimestamp(ourTimestamp);
+
+        if (isLate(ourTimestamp)) {
+            return;
+        }
+
+        final long ourBucket = getBucket(ourTimestamp);
+        ourBuffer.setCurrentNamespace(ourBucket);
+        List<BufferEntry<THIS>> elemsInTimestamp = ourBuffer.get(ourTimestamp);
+        final boolean isNewTimestamp = elemsInTimestamp == null;
+        if (isNewTimestamp) {
+            elemsInTimestamp = new ArrayList<>();
+        }
+        elemsInTimestamp.add(new BufferEntry<>(ourValue, false));
+        ourBuffer.put(ourTimestamp, elemsInTimestamp);
+
+        // only the buckets that overlap with [lowerTimestamp, upperTimestamp] are read
+        final long lowerTimestamp = ourTimestamp + relativeLowerBound;
+        final long upperTimestamp = ourTimestamp + relativeUpperBound;
+        final long lastBucket = getBucket(upperTimestamp);
+        for (long bucket = getBucket(lowerTimestamp); bucket <= lastBucket; bucket += bucketSize) {
+            otherBuffer.setCurrentNamespace(bucket);
+            for (Map.Entry<Long, List<BufferEntry<OTHER>>> entries : otherBuffer.entries()) {
+                final long timestamp = entries.getKey();
+
+                if (timestamp < lowerTimestamp || timestamp > upperTimestamp) {
+                    continue;
+                }
+
+                for (BufferEntry<OTHER> entry : entries.getValue()) {
+                    if (isLeft) {
+                        collect((T1) ourValue, (T2) entry.element, ourTimestamp, timestamp);
+                    } else {
+                        collect((T1) entry.element, (T2) ourValue, timestamp, ourTimestamp);
+                    }
+                }
+            }
+        }
+
+        if (isNewTimestamp) {
+            // the bucket can be removed once its last timestamp can't be joined anymore, the
+            // timers of all the timestamps of the bucket are deduplicated into this single timer
+            final long lastTimestampInBucket = ourBucket + bucketSize - 1L;
+            final long cleanupTime =
+                    (relativeUpperBound > 0L)
+                            ? lastTimestampInBucket + relativeUpperBound
+                            : lastTimestampInBucket;
+            internalTimerService.registerEventTimeTimer(
+                    isLeft ? CLEANUP_NAMESPACE_LEFT : CLEANUP_NAMESPACE_RIGHT, cleanupTime);
+        }
+    }
+
+    /** Returns the first timestamp of the bucket of the given timestamp. */
+    private long getBucket(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, bucketSize);
+    }
+
+    private static void checkTimestamp(long timestamp) throws FlinkException {
+        if (timestamp == Long.MIN_VALUE) {
+            throw new FlinkException(
+                    "Long.MIN_VALUE timestamp: Elements used in "
+                            + "interval stream joins need to have timestamps meaningful timestamps.");
+        }
+    }
+
     private boolean isLate(long timestamp) {
         long currentWatermark = internalTimerService.currentWatermark();
         return currentWatermark != Long.MIN_VALUE && timestamp < currentWatermark;
@@ -295,6 +466,11 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
 
         logger.trace("onEventTime @ {}", timerTimestamp);
 
+        if (bucketSize > 0L) {
+            onBucketCleanupTime(timerTimestamp, namespace);
+            return;
+        }
+
         switch (namespace) {
             case CLEANUP_NAMESPACE_LEFT:
                 {
@@ -317,6 +493,33 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
         }
     }
 
+    private void onBucketCleanupTime(long timerTimestamp, String namespace) throws Exception {
+        switch (namespace) {
+            case CLEANUP_NAMESPACE_LEFT:
+                {
+                    long lastTimestampInBucket =
+                            (upperBound <= 0L) ? timerTimestamp : timerTimestamp - upperBound;
+                    long bucket = lastTimestampInBucket - bucketSize + 1L;
+                    logger.trace("Removing bucket from left buffer @ {}", bucket);
+                    leftBucketedBuffer.setCurrentNamespace(bucket);
+                    leftBucketedBuffer.clear();
+                    break;
+                }
+            case CLEANUP_NAMESPACE_RIGHT:
+                {
+                    long lastTimestampInBucket =
+                            (lowerBound <= 0L) ? timerTimestamp + lowerBound : timerTimestamp;
+                    long bucket = lastTimestampInBucket - bucketSize + 1L;
+                    logger.trace("Removing bucket from right buffer @ {}", bucket);
+                    rightBucketedBuffer.setCurrentNamespace(bucket);
+                    rightBucketedBuffer.clear();
+                    break;
+                }
+            default:
+                throw new RuntimeException("Invalid namespace " + namespace);
+        }
+    }
+
     @Override
     public void onProcessingTime(InternalTimer<K, String> timer) throws Exception {
         // do nothing.
@@ -567,4 +770,14 @@ public class IntervalJoinOperator<K, T1, T2, OUT>
     MapState<Long, List<BufferEntry<T2>>> getRightBuffer() {
         return rightBuffer;
     }
+
+    @VisibleForTesting
+    InternalMapState<K, Long, Long, List<BufferEntry<T1>>> getLeftBucketedBuffer() {
+        return leftBucketedBuffer;
+    }
+
+    @VisibleForTesting
+    InternalMapState<K, Long, Long, List<BufferEntry<T2>>> getRightBucketedBuffer() {
+        return rightBucketedBuffer;
+    }
 }
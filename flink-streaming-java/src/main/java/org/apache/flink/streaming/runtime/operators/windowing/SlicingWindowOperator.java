@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.state.AggregatingStateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.runtime.state.internal.InternalAppendingState;
+import org.apache.flink.streaming.api.operators.InternalTimer;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalWindowFunction;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.util.OutputTag;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A {@link WindowOperator} for aligned sliding windows that keeps one accumulator per slice instead
+ * of one accumulator per window.
+ *
+ * <p>The time is cut into slices of the greatest common divisor of the window size and slide, such
+ * that every window consists of a whole number of slices. An element is only added to the
+ * accumulator of its slice, instead of to the accumulators of all windows it belongs to. When a
+ * window fires, the accumulators of its slices are merged with {@link
+ * AggregateFunction#merge(Object, Object)}. Slices are dropped once the last window containing them
+ * has fired.
+ *
+ * <p>Only a single timer per key is pending for the windows of a key at a time. An element
+ * registers a timer for the first (not yet late) window containing its slice. When a window fires,
+ * a timer for the next window is registered if that window contains any slice with data that
+ * already belonged to the fired window. Later slices register timers for their first window
+ * themselves.
+ *
+ * <p>The operator behaves like a {@link WindowOperator} with the default trigger of the window
+ * assigner, no evictor and no allowed lateness. One exception are elements that are only late with
+ * respect to a watermark from before a restore: until the first watermark after the restore, such
+ * elements may re-fire a window that already fired, and that window then also contains the slices
+ * shared with the following windows.
+ *
+ * @param <K> The type of key returned by the {@code KeySelector}.
+ * @param <IN> The type of the incoming elements.
+ * @param <ACC> The type of the accumulator of the {@code AggregateFunction}.
+ * @param <V> The type of the aggregation result of the {@code AggregateFunction}.
+ * @param <OUT> The type of elements emitted by the {@code InternalWindowFunction}.
+ */
+@Internal
+public class SlicingWindowOperator<K, IN, ACC, V, OUT>
+        extends WindowOperator<K, IN, V, OUT, TimeWindow> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AggregatingStateDescriptor<IN, ACC, V> sliceStateDescriptor;
+
+    private final long size;
+
+    private final long slide;
+
+    private final long offset;
+
+    private final long sliceSize;
+
+    // ------------------------------------------------------------------------
+    // State that is not checkpointed
+    // ------------------------------------------------------------------------
+
+    private transient AggregateFunction<IN, ACC, V> aggregateFunction;
+
+    private transient TypeSerializer<ACC> accumulatorSerializer;
+
+    /** The state in which the slice accumulators are stored. Each slice is a namespace. */
+    private transient InternalAppendingState<K, TimeWindow, IN, ACC, V> sliceState;
+
+    public SlicingWindowOperator(
+            WindowAssigner<? super IN, TimeWindow> windowAssigner,
+            long size,
+            long slide,
+            long offset,
+            TypeSerializer<TimeWindow> windowSerializer,
+            KeySelector<IN, K> keySelector,
+            TypeSerializer<K> keySerializer,
+            AggregatingStateDescriptor<IN, ACC, V> sliceStateDescriptor,
+            InternalWindowFunction<V, OUT, K, TimeWindow> windowFunction,
+            Trigger<? super IN, ? super TimeWindow> trigger,
+            OutputTag<IN> lateDataOutputTag) {
+
+        super(
+                windowAssigner,
+                windowSerializer,
+                keySelector,
+                keySerializer,
+                sliceStateDescriptor,
+                windowFunction,
+                trigger,
+                0L,
+                lateDataOutputTag);
+
+        checkArgument(size > 0 && slide > 0, "Window size and slide must be positive.");
+
+        this.sliceStateDescriptor = sliceStateDescriptor;
+        this.size = size;
+        this.slide = slide;
+        this.offset = offset;
+        this.sliceSize = gcd(size, slide);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open() throws Exception {
+        super.open();
+
+        aggregateFunction = sliceStateDescriptor.getAggregateFunction();
+        accumulatorSerializer = sliceStateDescriptor.getSerializer().duplicate();
+        sliceState =
+                (InternalAppendingState<K, TimeWindow, IN, ACC, V>)
+                        getOrCreateKeyedState(windowSerializer, sliceStateDescriptor);
+    }
+
+    @Override
+    public void processElement(StreamRecord<IN> element) throws Exception {
+        final boolean isEventTime = windowAssigner.isEventTime();
+        final long timestamp;
+        if (isEventTime) {
+            if (!element.hasTimestamp()) {
+                throw new RuntimeException(
+                        "Record has no timestamp. Did you forget to call "
+                                + "'DataStream.assignTimestampsAndWatermarks(...)'?");
+            }
+            timestamp = element.getTimestamp();
+        } else {
+            timestamp = internalTimerService.currentProcessingTime();
+        }
+
+        // the windows containing the element start in (timestamp - size, lastWindowStart]
+        final long lastWindowStart = getStart(timestamp, offset, slide);
+        final long firstWindowStart =
+                lastWindowStart - ((lastWindowStart - timestamp + size - 1) / slide) * slide;
+        final long lastWindowEnd = lastWindowStart + size;
+        final long currentWatermark = internalTimerService.currentWatermark();
+
+        if (isEventTime && lastWindowEnd - 1 <= currentWatermark) {
+            // all windows of the element have fired already
+            if (lateDataOutputTag != null) {
+                sideOutput(element);
+            } else {
+                this.numLateRecordsDropped.inc();
+            }
+            return;
+        }
+
+        final long sliceStart = getStart(timestamp, offset, sliceSize);
+        addToWindowState(new TimeWindow(sliceStart, sliceStart + sliceSize), element.getValue());
+
+        long firstWindowEnd = firstWindowStart + size;
+        if (isEventTime && firstWindowEnd - 1 <= currentWatermark) {
+            // skip the windows that have fired already
+            firstWindowEnd += ((currentWatermark - firstWindowEnd + 1) / slide + 1) * slide;
+        }
+        registerWindowTimer(new TimeWindow(firstWindowEnd - size, firstWindowEnd));
+    }
+
+    @Override
+    public void onEventTime(InternalTimer<K, TimeWindow> timer) throws Exception {
+        if (windowAssigner.isEventTime()) {
+            fireWindow(timer.getKey(), timer.getNamespace());
+        }
+    }
+
+    @Override
+    public void onProcessingTime(InternalTimer<K, TimeWindow> timer) throws Exception {
+        if (!windowAssigner.isEventTime()) {
+            fireWindow(timer.getKey(), timer.getNamespace());
+        }
+    }
+
+    private void fireWindow(K key, TimeWindow window) throws Exception {
+        flushPreAggregationBuffer();
+
+        final long nextWindowStart = window.getStart() + slide;
+
+        ACC merged = null;
+        boolean hasDataForNextWindow = false;
+        for (long sliceStart = window.getStart();
+                sliceStart < window.getEnd();
+                sliceStart += sliceSize) {
+
+            sliceState.setCurrentNamespace(new TimeWindow(sliceStart, sliceStart + sliceSize));
+            ACC sliceAccumulator = sliceState.getInternal();
+            if (sliceAccumulator == null) {
+                continue;
+            }
+
+            if (sliceStart < nextWindowStart) {
+                // this was the last window of the slice, so the accumulator may be consumed
+                sliceState.clear();
+            } else {
+                // the merge may modify its arguments, protect the slices that are still needed
+                sliceAccumulator = accumulatorSerializer.copy(sliceAccumulator);
+                hasDataForNextWindow = true;
+            }
+
+            merged =
+                    merged == null
+                            ? sliceAccumulator
+                            : aggregateFunction.merge(merged, sliceAccumulator);
+        }
+
+        if (merged != null) {
+            timestampedCollector.setAbsoluteTimestamp(window.maxTimestamp());
+            processContext.window = window;
+            userFunction.process(
+                    key,
+                    window,
+                    processContext,
+                    aggregateFunction.getResult(merged),
+                    timestampedCollector);
+            // the window does not fire again and its slices are either purged or only kept for
+            // the following windows, so clean up the per-window state of the function like
+            // WindowOperator#clearAllState does when a window is purged
+            userFunction.clear(window, processContext);
+        }
+
+        if (hasDataForNextWindow) {
+            registerWindowTimer(new TimeWindow(nextWindowStart, window.getEnd() + slide));
+        }
+    }
+
+    private void registerWindowTimer(TimeWindow window) {
+        if (windowAssigner.isEventTime()) {
+            internalTimerService.registerEventTimeTimer(window, window.maxTimestamp());
+        } else {
+            internalTimerService.registerProcessingTimeTimer(window, window.maxTimestamp());
+        }
+    }
+
+    @VisibleForTesting
+    long getSliceSize() {
+        return sliceSize;
+    }
+
+    private static long getStart(long timestamp, long offset, long length) {
+        return timestamp - Math.floorMod(timestamp - offset, length);
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.flink.streaming.runtime.operators.windowing;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
 import org.apache.flink.api.common.state.AggregatingState;
 import org.apache.flink.api.common.state.AggregatingStateDescriptor;
 import org.apache.flink.api.common.state.AppendingState;
@@ -46,6 +48,7 @@ import org.apache.flink.metrics.Counter;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.state.DefaultKeyedStateStore;
 import org.apache.flink.runtime.state.KeyedStateBackend;
+import org.apache.flink.runtime.state.StateSnapshotContext;
 import org.apache.flink.runtime.state.VoidNamespace;
 import org.apache.flink.runtime.state.VoidNamespaceSerializer;
 import org.apache.flink.runtime.state.internal.InternalAppendingState;
@@ -157,6 +160,12 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
     /** The state that holds the merging window metadata (the sets that describe what is merged). */
     private transient InternalListState<K, VoidNamespace, Tuple2<W, W>> mergingSetsState;
 
+    /**
+     * Combines the elements of a key and window on the heap before they are added to the {@link
+     * #windowState}. Null if pre-aggregation is disabled or not supported by the window state.
+     */
+    private transient WindowPreAggregationBuffer<K, W, IN, Object> preAggregationBuffer;
+
     /**
      * This is given to the {@code InternalWindowFunction} for emitting elements with a given
      * timestamp.
@@ -276,6 +285,71 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
                                     VoidNamespaceSerializer.INSTANCE, mergingSetsStateDescriptor);
             mergingSetsState.setCurrentNamespace(VoidNamespace.INSTANCE);
         }
+
+        final int windowBufferSize = getExecutionConfig().getWindowBufferSize();
+        if (windowBufferSize > 0
+                && windowState != null
+                && !(windowAssigner instanceof MergingWindowAssigner)) {
+            preAggregationBuffer = createPreAggregationBuffer(windowBufferSize);
+        }
+    }
+
+    /**
+     * Creates the buffer that combines elements before they are added to the window state, or
+     * returns null if the window state is neither a reducing nor an aggregating state.
+     *
+     * <p>With object reuse, the input elements may be reused by chained operators after they have
+     * been processed. The buffered accumulators are copied, because a {@link ReduceFunction} may
+     * return one of its arguments and an {@link AggregateFunction} may keep a reference to the
+     * added element in its accumulator.
+     */
+    @SuppressWarnings("unchecked")
+    private WindowPreAggregationBuffer<K, W, IN, Object> createPreAggregationBuffer(int maxSize) {
+        final boolean isObjectReuseEnabled = getExecutionConfig().isObjectReuseEnabled();
+        final WindowPreAggregationBuffer.Combiner<IN, Object> combiner;
+        if (windowStateDescriptor instanceof AggregatingStateDescriptor) {
+            final AggregateFunction<IN, Object, ?> aggregateFunction =
+                    ((AggregatingStateDescriptor<IN, Object, ?>) windowStateDescriptor)
+                            .getAggregateFunction();
+            final TypeSerializer<Object> accumulatorSerializer =
+                    (TypeSerializer<Object>) windowStateDescriptor.getSerializer().duplicate();
+            combiner =
+                    (value, accumulator) -> {
+                        final Object newAccumulator =
+                                aggregateFunction.add(
+                                        value,
+                                        accumulator == null
+                                                ? aggregateFunction.createAccumulator()
+                                                : accumulator);
+                        return isObjectReuseEnabled
+                                ? accumulatorSerializer.copy(newAccumulator)
+                                : newAccumulator;
+                    };
+        } else if (windowStateDescriptor instanceof ReducingStateDescriptor) {
+            final ReduceFunction<IN> reduceFunction =
+                    ((ReducingStateDescriptor<IN>) windowStateDescriptor).getReduceFunction();
+            final TypeSerializer<IN> valueSerializer =
+                    ((ReducingStateDescriptor<IN>) windowStateDescriptor)
+                            .getSerializer()
+                            .duplicate();
+            combiner =
+                    (value, accumulator) -> {
+                        final IN copiedValue =
+                                isObjectReuseEnabled ? valueSerializer.copy(value) : value;
+                        return accumulator == null
+                                ? copiedValue
+                                : reduceFunction.reduce((IN) accumulator, copiedValue);
+                    };
+        } else {
+            return null;
+        }
+
+        return new WindowPreAggregationBuffer<>(
+                getKeyedStateBackend(),
+                (InternalAppendingState<K, W, IN, Object, ?>)
+                        (InternalAppendingState<?, ?, ?, ?, ?>) windowState,
+                combiner,
+                maxSize);
     }
 
     @Override
@@ -285,6 +359,13 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
         triggerContext = null;
         processContext = null;
         windowAssignerContext = null;
+        preAggregationBuffer = null;
+    }
+
+    @Override
+    public void snapshotState(StateSnapshotContext context) throws Exception {
+        flushPreAggregationBuffer();
+        super.snapshotState(context);
     }
 
     @Override
@@ -409,14 +490,19 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
                 }
                 isSkippedElement = false;
 
-                windowState.setCurrentNamespace(window);
-                windowState.add(element.getValue());
+                addToWindowState(window, element.getValue());
 
                 triggerContext.key = key;
                 triggerContext.window = window;
 
                 TriggerResult triggerResult = triggerContext.onElement(element);
 
+                if (preAggregationBuffer != null
+                        && (triggerResult.isFire() || triggerResult.isPurge())) {
+                    preAggregationBuffer.flush(window);
+                    windowState.setCurrentNamespace(window);
+                }
+
                 if (triggerResult.isFire()) {
                     ACC contents = windowState.get();
                     if (contents == null) {
@@ -448,6 +534,8 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 
     @Override
     public void onEventTime(InternalTimer<K, W> timer) throws Exception {
+        flushPreAggregationBuffer();
+
         triggerContext.key = timer.getKey();
         triggerContext.window = timer.getNamespace();
 
@@ -495,6 +583,8 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 
     @Override
     public void onProcessingTime(InternalTimer<K, W> timer) throws Exception {
+        flushPreAggregationBuffer();
+
         triggerContext.key = timer.getKey();
         triggerContext.window = timer.getNamespace();
 
@@ -540,6 +630,30 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
         }
     }
 
+    /**
+     * Adds the given element to the window state of the given window of the current key. The
+     * element may only be added to the pre-aggregation buffer, which must be flushed before the
+     * window state is accessed.
+     */
+    protected void addToWindowState(W window, IN value) throws Exception {
+        if (preAggregationBuffer != null) {
+            preAggregationBuffer.add(window, value);
+        } else {
+            windowState.setCurrentNamespace(window);
+            windowState.add(value);
+        }
+    }
+
+    /**
+     * Writes the elements in the pre-aggregation buffer to the window state. The current key
+     * remains unchanged.
+     */
+    protected void flushPreAggregationBuffer() throws Exception {
+        if (preAggregationBuffer != null) {
+            preAggregationBuffer.flush();
+        }
+    }
+
     /**
      * Drops all state for the given window and calls {@link Trigger#clear(Window,
      * Trigger.TriggerContext)}.
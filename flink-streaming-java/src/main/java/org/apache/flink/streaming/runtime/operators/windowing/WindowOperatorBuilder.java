@@ -39,10 +39,15 @@ import org.apache.flink.streaming.api.functions.windowing.ReduceApplyWindowFunct
 import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
 import org.apache.flink.streaming.api.windowing.assigners.BaseAlignedWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
 import org.apache.flink.streaming.api.windowing.evictors.Evictor;
 import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.streaming.api.windowing.windows.Window;
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalAggregateProcessWindowFunction;
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalIterableProcessWindowFunction;
@@ -52,6 +57,7 @@ import org.apache.flink.streaming.runtime.operators.windowing.functions.Internal
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalWindowFunction;
 import org.apache.flink.streaming.runtime.streamrecord.StreamElementSerializer;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.OutputTag;
 import org.apache.flink.util.Preconditions;
 
@@ -62,6 +68,9 @@ import java.lang.reflect.Type;
 /**
  * A builder for creating {@link WindowOperator WindowOperators}.
  *
+ * <p>If window slicing is enabled in the {@link ExecutionConfig}, aggregations of sliding time
+ * windows are computed by a {@link SlicingWindowOperator}.
+ *
  * @param <K> The type of key returned by the {@code KeySelector}.
  * @param <T> The type of the incoming elements.
  * @param <W> The type of {@code Window} that the {@code WindowAssigner} assigns.
@@ -161,6 +170,11 @@ public class WindowOperatorBuilder<T, K, W extends Window> {
             return buildEvictingWindowOperator(
                     new InternalIterableWindowFunction<>(
                             new ReduceApplyWindowFunction<>(reduceFunction, function)));
+        } else if (isSlicingApplicable()) {
+            return buildSlicingWindowOperator(
+                    new ReduceAggregateFunction<>(reduceFunction),
+                    inputType.createSerializer(config),
+                    new InternalSingleValueWindowFunction<>(function));
         } else {
             ReducingStateDescriptor<T> stateDesc =
                     new ReducingStateDescriptor<>(
@@ -185,6 +199,11 @@ public class WindowOperatorBuilder<T, K, W extends Window> {
             return buildEvictingWindowOperator(
                     new InternalIterableProcessWindowFunction<>(
                             new ReduceApplyProcessWindowFunction<>(reduceFunction, function)));
+        } else if (isSlicingApplicable()) {
+            return buildSlicingWindowOperator(
+                    new ReduceAggregateFunction<>(reduceFunction),
+                    inputType.createSerializer(config),
+                    new InternalSingleValueProcessWindowFunction<>(function));
         } else {
             ReducingStateDescriptor<T> stateDesc =
                     new ReducingStateDescriptor<>(
@@ -212,6 +231,11 @@ public class WindowOperatorBuilder<T, K, W extends Window> {
             return buildEvictingWindowOperator(
                     new InternalIterableWindowFunction<>(
                             new AggregateApplyWindowFunction<>(aggregateFunction, windowFunction)));
+        } else if (isSlicingApplicable()) {
+            return buildSlicingWindowOperator(
+                    aggregateFunction,
+                    accumulatorType.createSerializer(config),
+                    new InternalSingleValueWindowFunction<>(windowFunction));
         } else {
             AggregatingStateDescriptor<T, ACC, V> stateDesc =
                     new AggregatingStateDescriptor<>(
@@ -241,6 +265,11 @@ public class WindowOperatorBuilder<T, K, W extends Window> {
             return buildEvictingWindowOperator(
                     new InternalAggregateProcessWindowFunction<>(
                             aggregateFunction, windowFunction));
+        } else if (isSlicingApplicable()) {
+            return buildSlicingWindowOperator(
+                    aggregateFunction,
+                    accumulatorType.createSerializer(config),
+                    new InternalSingleValueProcessWindowFunction<>(windowFunction));
         } else {
             AggregatingStateDescriptor<T, ACC, V> stateDesc =
                     new AggregatingStateDescriptor<>(
@@ -292,6 +321,62 @@ public class WindowOperatorBuilder<T, K, W extends Window> {
                 lateDataOutputTag);
     }
 
+    /**
+     * Checks whether the windows can be computed by a {@link SlicingWindowOperator}. This is the
+     * case for sliding time windows with their default trigger, no evictor and no allowed lateness,
+     * if window slicing is enabled in the {@link ExecutionConfig}.
+     */
+    private boolean isSlicingApplicable() {
+        if (!config.isWindowSlicingEnabled() || evictor != null || allowedLateness > 0) {
+            return false;
+        }
+        return (windowAssigner instanceof SlidingEventTimeWindows
+                        && trigger instanceof EventTimeTrigger)
+                || (windowAssigner instanceof SlidingProcessingTimeWindows
+                        && trigger instanceof ProcessingTimeTrigger);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <ACC, V, R> WindowOperator<K, T, ?, R, W> buildSlicingWindowOperator(
+            AggregateFunction<T, ACC, V> aggregateFunction,
+            TypeSerializer<ACC> accumulatorSerializer,
+            InternalWindowFunction<V, R, K, W> function) {
+
+        final long size;
+        final long slide;
+        final long offset;
+        if (windowAssigner instanceof SlidingEventTimeWindows) {
+            SlidingEventTimeWindows assigner = (SlidingEventTimeWindows) windowAssigner;
+            size = assigner.getSize();
+            slide = assigner.getSlide();
+            offset = assigner.getOffset();
+        } else {
+            SlidingProcessingTimeWindows assigner = (SlidingProcessingTimeWindows) windowAssigner;
+            size = assigner.getSize();
+            slide = assigner.getSlide();
+            offset = assigner.getOffset();
+        }
+
+        AggregatingStateDescriptor<T, ACC, V> stateDesc =
+                new AggregatingStateDescriptor<>(
+                        WINDOW_STATE_NAME, aggregateFunction, accumulatorSerializer);
+
+        // the slicing is only applicable to time windows, so W is TimeWindow
+        return (WindowOperator)
+                new SlicingWindowOperator<>(
+                        (WindowAssigner<? super T, TimeWindow>) windowAssigner,
+                        size,
+                        slide,
+                        offset,
+                        (TypeSerializer<TimeWindow>) windowAssigner.getWindowSerializer(config),
+                        keySelector,
+                        keyType.createSerializer(config),
+                        stateDesc,
+                        (InternalWindowFunction) function,
+                        (Trigger<? super T, ? super TimeWindow>) trigger,
+                        lateDataOutputTag);
+    }
+
     private <R> WindowOperator<K, T, Iterable<T>, R, W> buildEvictingWindowOperator(
             InternalWindowFunction<Iterable<T>, R, K, W> function) {
         @SuppressWarnings({"unchecked", "rawtypes"})
@@ -356,4 +441,49 @@ public class WindowOperatorBuilder<T, K, W extends Window> {
     public long getAllowedLateness() {
         return allowedLateness;
     }
+
+    /**
+     * Adapts a {@link ReduceFunction} to an {@link AggregateFunction} for the {@link
+     * SlicingWindowOperator}. The accumulator is the reduced value, or null if nothing was reduced
+     * yet.
+     */
+    private static class ReduceAggregateFunction<T> implements AggregateFunction<T, T, T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ReduceFunction<T> reduceFunction;
+
+        ReduceAggregateFunction(ReduceFunction<T> reduceFunction) {
+            this.reduceFunction = reduceFunction;
+        }
+
+        @Override
+        public T createAccumulator() {
+            return null;
+        }
+
+        @Override
+        public T add(T value, T accumulator) {
+            return merge(accumulator, value);
+        }
+
+        @Override
+        public T getResult(T accumulator) {
+            return accumulator;
+        }
+
+        @Override
+        public T merge(T a, T b) {
+            if (a == null) {
+                return b;
+            } else if (b == null) {
+                return a;
+            }
+            try {
+                return reduceFunction.reduce(a, b);
+            } catch (Exception e) {
+                throw new FlinkRuntimeException("Could not reduce the window contents.", e);
+            }
+        }
+    }
 }
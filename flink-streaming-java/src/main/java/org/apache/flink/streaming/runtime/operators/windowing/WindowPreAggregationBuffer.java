@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.state.KeyedStateBackend;
+import org.apache.flink.runtime.state.internal.InternalAppendingState;
+import org.apache.flink.streaming.api.windowing.windows.Window;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A heap buffer that combines the elements of a key and window before they are written to the
+ * window state.
+ *
+ * <p>The first element of a key and window reads the accumulator from the window state, later
+ * elements of the same key and window are only added to the buffered accumulator. The buffered
+ * accumulators are written back to the window state when the buffer is {@link #flush() flushed},
+ * which costs one state read and one state write per key and window instead of per element.
+ *
+ * <p>The owner of the buffer must flush it before the window state is read or cleared, for example
+ * before firing timers and before taking a snapshot of the state.
+ *
+ * @param <K> The type of the keys.
+ * @param <W> The type of the windows.
+ * @param <IN> The type of the buffered elements.
+ * @param <SV> The type of the internal accumulator of the window state.
+ */
+@Internal
+final class WindowPreAggregationBuffer<K, W extends Window, IN, SV> {
+
+    /** Adds an element to an accumulator. */
+    @FunctionalInterface
+    interface Combiner<IN, SV> {
+
+        /**
+         * Adds the given element to the accumulator and returns the new accumulator. The given
+         * accumulator is null if the window state does not contain an accumulator yet.
+         */
+        SV add(IN value, @Nullable SV accumulator) throws Exception;
+    }
+
+    private final KeyedStateBackend<K> keyedStateBackend;
+
+    private final InternalAppendingState<K, W, IN, SV, ?> windowState;
+
+    private final Combiner<IN, SV> combiner;
+
+    private final int maxSize;
+
+    private final Map<K, Map<W, SV>> buffer = new HashMap<>();
+
+    private int size;
+
+    WindowPreAggregationBuffer(
+            KeyedStateBackend<K> keyedStateBackend,
+            InternalAppendingState<K, W, IN, SV, ?> windowState,
+            Combiner<IN, SV> combiner,
+            int maxSize) {
+        checkArgument(maxSize > 0, "The maximum buffer size must be positive.");
+        this.keyedStateBackend = checkNotNull(keyedStateBackend);
+        this.windowState = checkNotNull(windowState);
+        this.combiner = checkNotNull(combiner);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Adds an element to the given window of the current key of the keyed state backend. Flushes
+     * the buffer if it is full, the current key remains unchanged.
+     */
+    void add(W window, IN value) throws Exception {
+        final K key = keyedStateBackend.getCurrentKey();
+        final Map<W, SV> windows = buffer.computeIfAbsent(key, k -> new HashMap<>());
+
+        SV accumulator;
+        if (windows.containsKey(window)) {
+            accumulator = windows.get(window);
+        } else {
+            windowState.setCurrentNamespace(window);
+            accumulator = windowState.getInternal();
+            size++;
+        }
+        windows.put(window, combiner.add(value, accumulator));
+
+        if (size >= maxSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered accumulator of the given window of the current key to the window state.
+     */
+    void flush(W window) throws Exception {
+        final Map<W, SV> windows = buffer.get(keyedStateBackend.getCurrentKey());
+        if (windows != null && windows.containsKey(window)) {
+            windowState.setCurrentNamespace(window);
+            windowState.updateInternal(windows.remove(window));
+            size--;
+        }
+    }
+
+    /**
+     * Writes all buffered accumulators to the window state. The current key of the keyed state
+     * backend remains unchanged.
+     */
+    void flush() throws Exception {
+        if (size == 0) {
+            return;
+        }
+
+        final K currentKey = keyedStateBackend.getCurrentKey();
+        try {
+            for (Map.Entry<K, Map<W, SV>> keyEntry : buffer.entrySet()) {
+                keyedStateBackend.setCurrentKey(keyEntry.getKey());
+                for (Map.Entry<W, SV> windowEntry : keyEntry.getValue().entrySet()) {
+                    windowState.setCurrentNamespace(windowEntry.getKey());
+                    windowState.updateInternal(windowEntry.getValue());
+                }
+            }
+            buffer.clear();
+            size = 0;
+        } finally {
+            if (currentKey != null) {
+                keyedStateBackend.setCurrentKey(currentKey);
+            }
+        }
+    }
+
+    /** Returns the number of buffered key and window pairs. */
+    int size() {
+        return size;
+    }
+}
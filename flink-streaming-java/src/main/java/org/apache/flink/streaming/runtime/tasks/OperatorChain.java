@@ -659,7 +659,9 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>>
             OutputTag<IN> outputTag) {
 
         WatermarkGaugeExposingOutput<StreamRecord<IN>> currentOperatorOutput;
-        if (containingTask.getExecutionConfig().isObjectReuseEnabled()) {
+        if (containingTask.getExecutionConfig().isObjectReuseEnabled()
+                || operatorConfig.isInputReadOnly()) {
+            // the operator can't observe whether its input records are shared
             currentOperatorOutput = new ChainingOutput<>(operator, outputTag);
         } else {
             TypeSerializer<IN> inSerializer =
@@ -245,6 +245,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
 
     protected final MailboxProcessor mailboxProcessor;
 
+    /** The maximum number of records processed in one invocation of {@link #processInput}. */
+    private final int inputBatchSize;
+
     final MailboxExecutor mainMailboxExecutor;
 
     /** TODO it might be replaced by the global IO executor on TaskManager level future. */
@@ -332,6 +335,15 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
         this.recordWriter = createRecordWriterDelegate(configuration, environment);
         this.actionExecutor = Preconditions.checkNotNull(actionExecutor);
         this.mailboxProcessor = new MailboxProcessor(this::processInput, mailbox, actionExecutor);
+        this.inputBatchSize =
+                environment
+                        .getTaskManagerInfo()
+                        .getConfiguration()
+                        .getInteger(TaskManagerOptions.TASK_INPUT_BATCH_SIZE);
+        Preconditions.checkArgument(
+                inputBatchSize > 0,
+                "%s must be positive.",
+                TaskManagerOptions.TASK_INPUT_BATCH_SIZE.key());
         this.mainMailboxExecutor = mailboxProcessor.getMainMailboxExecutor();
         this.asyncExceptionHandler = new StreamTaskAsyncExceptionHandler(environment);
         this.asyncOperationsThreadPool =
@@ -426,6 +438,16 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
      */
     protected void processInput(MailboxDefaultAction.Controller controller) throws Exception {
         InputStatus status = inputProcessor.processInput();
+        // process a batch of records without going through the mailbox loop, as long as no mail
+        // is waiting and the record writer can take more records
+        for (int processedRecords = 1;
+                processedRecords < inputBatchSize
+                        && status == InputStatus.MORE_AVAILABLE
+                        && recordWriter.isAvailable()
+                        && !mailboxProcessor.hasMail();
+                processedRecords++) {
+            status = inputProcessor.processInput();
+        }
         if (status == InputStatus.MORE_AVAILABLE && recordWriter.isAvailable()) {
             return;
         }
@@ -18,6 +18,7 @@
 package org.apache.flink.streaming.runtime.tasks;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.runtime.checkpoint.CheckpointException;
 import org.apache.flink.runtime.checkpoint.CheckpointFailureReason;
@@ -199,7 +200,14 @@ class SubtaskCheckpointCoordinatorImpl implements SubtaskCheckpointCoordinator {
             String taskName, CheckpointStorageWorkerView checkpointStorage, Environment env) {
         ChannelStateWriterImpl writer =
                 new ChannelStateWriterImpl(
-                        taskName, env.getTaskInfo().getIndexOfThisSubtask(), checkpointStorage);
+                        taskName,
+                        env.getTaskInfo().getIndexOfThisSubtask(),
+                        checkpointStorage,
+                        env.getTaskManagerInfo()
+                                .getConfiguration()
+                                .getBoolean(
+                                        NettyShuffleEnvironmentOptions
+                                                .UNALIGNED_CHECKPOINT_COMPRESSION_ENABLED));
         writer.open();
         return writer;
     }
@@ -410,7 +410,10 @@ public class MailboxProcessor implements Closeable {
         return mailboxLoopRunning;
     }
 
-    @VisibleForTesting
+    /**
+     * Returns whether there are mails waiting to be processed. Must be called from the mailbox
+     * thread.
+     */
     public boolean hasMail() {
         return mailbox.hasMail();
     }
@@ -26,6 +26,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.function.BiConsumer;
@@ -69,6 +70,11 @@ public class CheckpointConfigFromConfigurationTest {
                         .viaSetter(CheckpointConfig::setMinPauseBetweenCheckpoints)
                         .getterVia(CheckpointConfig::getMinPauseBetweenCheckpoints)
                         .nonDefaultValue(100L),
+                TestSpec.testValue(Duration.ofSeconds(30))
+                        .whenSetFromFile("execution.checkpointing.target-duration", "30 s")
+                        .viaSetter(CheckpointConfig::setTargetCheckpointDuration)
+                        .getterVia(CheckpointConfig::getTargetCheckpointDuration)
+                        .nonDefaultValue(Duration.ofSeconds(10)),
                 TestSpec.testValue(true)
                         .whenSetFromFile(
                                 "execution.checkpointing.prefer-checkpoint-for-recovery", "true")
@@ -96,6 +102,11 @@ public class CheckpointConfigFromConfigurationTest {
                         .whenSetFromFile("execution.checkpointing.unaligned", "true")
                         .viaSetter(CheckpointConfig::enableUnalignedCheckpoints)
                         .getterVia(CheckpointConfig::isUnalignedCheckpointsEnabled)
+                        .nonDefaultValue(true),
+                TestSpec.testValue(true)
+                        .whenSetFromFile("execution.checkpointing.region-checkpoints", "true")
+                        .viaSetter(CheckpointConfig::enableRegionCheckpoints)
+                        .getterVia(CheckpointConfig::isRegionCheckpointsEnabled)
                         .nonDefaultValue(true));
     }
 
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.graph;
+
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.PipelineOptions;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.DiscardingSink;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.operators.StreamFusedOperator;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link StreamGraphOperatorFusion}. */
+public class StreamGraphOperatorFusionTest extends TestLogger {
+
+    @Test
+    public void testFusesChainOfStatelessOperators() {
+        final StreamExecutionEnvironment env = createEnvironment(true);
+        env.fromSequence(0, 10)
+                .map(value -> value + 1)
+                .filter(value -> value > 2)
+                .flatMap((Long value, Collector<Long> out) -> out.collect(value))
+                .returns(Types.LONG)
+                .addSink(new DiscardingSink<>());
+
+        final StreamGraph streamGraph = env.getStreamGraph();
+        assertThat(
+                getOperatorNames(streamGraph),
+                containsInAnyOrder(
+                        "Source: Sequence Source",
+                        "Fused(Map, Filter, Flat Map)",
+                        "Sink: Unnamed"));
+
+        final StreamNode fusedNode = getNode(streamGraph, "Fused(Map, Filter, Flat Map)");
+        final StreamFusedOperator<?, ?> fusedOperator =
+                (StreamFusedOperator<?, ?>)
+                        ((SimpleOperatorFactory<?>) fusedNode.getOperatorFactory()).getOperator();
+        assertEquals(3, fusedOperator.getUserFunctions().size());
+
+        final StreamNode sinkNode = getNode(streamGraph, "Sink: Unnamed");
+        assertEquals(1, sinkNode.getInEdges().size());
+        assertEquals(fusedNode.getId(), sinkNode.getInEdges().get(0).getSourceId());
+        assertEquals(sinkNode.getInEdges(), fusedNode.getOutEdges());
+
+        // all remaining operators are still chained into a single task
+        final JobGraph jobGraph = streamGraph.getJobGraph();
+        final List<JobVertex> vertices = jobGraph.getVerticesSortedTopologicallyFromSources();
+        assertEquals(1, vertices.size());
+        assertEquals(3, vertices.get(0).getOperatorIDs().size());
+    }
+
+    @Test
+    public void testKeepsOperatorIdsOfUnfusedGraph() {
+        final Set<OperatorID> unfusedIds = getOperatorIds(createKeyedPipeline(false));
+        final Set<OperatorID> fusedIds = getOperatorIds(createKeyedPipeline(true));
+
+        // the fused-away map is gone, the keyed operator and the sink keep their ids
+        assertEquals(unfusedIds.size() - 1, fusedIds.size());
+        assertThat(unfusedIds, hasItems(fusedIds.toArray(new OperatorID[0])));
+    }
+
+    @Test
+    public void testDoesNotFuseKeyedOperatorsOrOperatorsWithUid() {
+        final StreamExecutionEnvironment env = createEnvironment(true);
+        env.fromSequence(0, 10)
+                .keyBy(value -> value)
+                .map(value -> value + 1)
+                .filter(value -> value > 2)
+                .map(value -> value + 1)
+                .uid("map")
+                .addSink(new DiscardingSink<>());
+
+        assertThat(
+                getOperatorNames(env.getStreamGraph()),
+                containsInAnyOrder(
+                        "Source: Sequence Source", "Map", "Filter", "Map", "Sink: Unnamed"));
+    }
+
+    @Test
+    public void testFusionIsDisabledByDefault() {
+        final StreamExecutionEnvironment env = createEnvironment(false);
+        env.fromSequence(0, 10)
+                .map(value -> value + 1)
+                .filter(value -> value > 2)
+                .addSink(new DiscardingSink<>());
+
+        assertThat(
+                getOperatorNames(env.getStreamGraph()),
+                containsInAnyOrder("Source: Sequence Source", "Map", "Filter", "Sink: Unnamed"));
+    }
+
+    @Test
+    public void testDoesNotFuseBranches() {
+        final StreamExecutionEnvironment env = createEnvironment(true);
+        final DataStream<Long> mapped = env.fromSequence(0, 10).map(value -> value + 1);
+        mapped.filter(value -> value > 2).addSink(new DiscardingSink<>());
+        mapped.filter(value -> value > 3).addSink(new DiscardingSink<>());
+
+        final StreamGraph streamGraph = env.getStreamGraph();
+        assertThat(
+                getOperatorNames(streamGraph).stream()
+                        .filter(name -> name.startsWith("Fused"))
+                        .collect(Collectors.toList()),
+                empty());
+        assertTrue(getOperatorNames(streamGraph).contains("Map"));
+    }
+
+    private static StreamGraph createKeyedPipeline(boolean fusion) {
+        final StreamExecutionEnvironment env = createEnvironment(fusion);
+        env.fromSequence(0, 10)
+                .map(value -> value + 1)
+                .map(value -> value * 2)
+                .keyBy(value -> value % 3)
+                .reduce(Long::sum)
+                .addSink(new DiscardingSink<>());
+        return env.getStreamGraph();
+    }
+
+    /** Returns the ids under which the state of the operators is restored. */
+    private static Set<OperatorID> getOperatorIds(StreamGraph streamGraph) {
+        return streamGraph.getJobGraph().getVerticesSortedTopologicallyFromSources().stream()
+                .flatMap(vertex -> vertex.getOperatorIDs().stream())
+                .map(pair -> pair.getUserDefinedOperatorID().orElse(pair.getGeneratedOperatorID()))
+                .collect(Collectors.toSet());
+    }
+
+    private static StreamExecutionEnvironment createEnvironment(boolean fusion) {
+        final Configuration configuration = new Configuration();
+        if (fusion) {
+            configuration.set(PipelineOptions.OPERATOR_FUSION, true);
+        }
+        final StreamExecutionEnvironment env =
+                StreamExecutionEnvironment.getExecutionEnvironment(configuration);
+        env.setParallelism(4);
+        return env;
+    }
+
+    private static List<String> getOperatorNames(StreamGraph streamGraph) {
+        return streamGraph.getStreamNodes().stream()
+                .map(StreamNode::getOperatorName)
+                .collect(Collectors.toList());
+    }
+
+    private static StreamNode getNode(StreamGraph streamGraph, String operatorName) {
+        return streamGraph.getStreamNodes().stream()
+                .filter(node -> node.getOperatorName().equals(operatorName))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No node " + operatorName));
+    }
+}
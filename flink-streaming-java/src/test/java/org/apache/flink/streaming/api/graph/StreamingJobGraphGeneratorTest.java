@@ -23,6 +23,7 @@ import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.common.functions.FilterFunction;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.functions.ReadOnlyInput;
 import org.apache.flink.api.common.functions.ReduceFunction;
 import org.apache.flink.api.common.io.InputFormat;
 import org.apache.flink.api.common.io.OutputFormat;
@@ -310,6 +311,40 @@ public class StreamingJobGraphGeneratorTest extends TestLogger {
         assertTrue(printConfig.isChainEnd());
     }
 
+    /** Verifies that chained operators with read-only inputs are marked in their configs. */
+    @Test
+    public void testInputReadOnlySetting() {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(1);
+
+        // CHAIN(fromElements -> readOnlyMap -> copyingMap -> (readOnlyFilter1, readOnlyFilter2))
+        DataStream<Integer> copying =
+                env.fromElements(1, 2, 3)
+                        .map(new ReadOnlyInputMapper())
+                        .name("readOnlyMap")
+                        .map(value -> value)
+                        .name("copyingMap");
+        copying.filter(new ReadOnlyInputFilter()).name("readOnlyFilter1");
+        copying.filter(new ReadOnlyInputFilter()).name("readOnlyFilter2");
+
+        JobGraph jobGraph = StreamingJobGraphGenerator.createJobGraph(env.getStreamGraph());
+        assertEquals(1, jobGraph.getNumberOfVertices());
+
+        Map<String, StreamConfig> configsByName = new HashMap<>();
+        for (StreamConfig config :
+                new StreamConfig(jobGraph.getVertices().iterator().next().getConfiguration())
+                        .getTransitiveChainedTaskConfigs(getClass().getClassLoader())
+                        .values()) {
+            configsByName.put(config.getOperatorName(), config);
+        }
+
+        assertTrue(configsByName.get("readOnlyMap").isInputReadOnly());
+        assertFalse(configsByName.get("copyingMap").isInputReadOnly());
+        // the output of copyingMap is shared by both filters
+        assertFalse(configsByName.get("readOnlyFilter1").isInputReadOnly());
+        assertFalse(configsByName.get("readOnlyFilter2").isInputReadOnly());
+    }
+
     @Test
     public void testOperatorCoordinatorAddedToJobVertex() {
         StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
@@ -1349,6 +1384,22 @@ public class StreamingJobGraphGeneratorTest extends TestLogger {
         return StreamingJobGraphGenerator.createJobGraph(env.getStreamGraph());
     }
 
+    @ReadOnlyInput
+    private static class ReadOnlyInputMapper implements MapFunction<Integer, Integer> {
+        @Override
+        public Integer map(Integer value) {
+            return value;
+        }
+    }
+
+    @ReadOnlyInput
+    private static class ReadOnlyInputFilter implements FilterFunction<Integer> {
+        @Override
+        public boolean filter(Integer value) {
+            return value > 1;
+        }
+    }
+
     private static final class UnusedOperatorFactory extends AbstractStreamOperatorFactory<Long> {
 
         @Override
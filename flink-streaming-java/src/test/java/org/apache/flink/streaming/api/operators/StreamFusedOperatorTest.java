@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.functions.ReadOnlyInput;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.common.typeutils.base.array.IntPrimitiveArraySerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.FunctionInitializationContext;
+import org.apache.flink.runtime.state.FunctionSnapshotContext;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link StreamFusedOperator}. These test that:
+ *
+ * <ul>
+ *   <li>The fused functions are executed in order
+ *   <li>Timestamps of processed elements match the input timestamp
+ *   <li>Watermarks are correctly forwarded
+ *   <li>RichFunction methods of all fused functions are called
+ *   <li>Values are copied between the fused functions if object reuse is disabled
+ * </ul>
+ */
+public class StreamFusedOperatorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFusedFunctions() throws Exception {
+        StreamFusedOperator<Integer, Integer> operator =
+                (StreamFusedOperator<Integer, Integer>)
+                        StreamFusedOperator.fuse(
+                                StreamFusedOperator.fuse(
+                                        new StreamMap<Integer, Integer>(value -> value + 1),
+                                        new StreamFilter<Integer>(value -> value % 2 == 0),
+                                        IntSerializer.INSTANCE),
+                                new StreamFlatMap<Integer, Integer>(
+                                        (value, out) -> {
+                                            out.collect(value);
+                                            out.collect(value * value);
+                                        }),
+                                IntSerializer.INSTANCE);
+        assertEquals(3, operator.getUserFunctions().size());
+
+        OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+                new OneInputStreamOperatorTestHarness<>(operator);
+        testHarness.open();
+
+        testHarness.processElement(new StreamRecord<>(1, 1L));
+        testHarness.processElement(new StreamRecord<>(2, 2L));
+        testHarness.processWatermark(new Watermark(2L));
+        testHarness.processElement(new StreamRecord<>(3, 3L));
+
+        ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+        expectedOutput.add(new StreamRecord<>(2, 1L));
+        expectedOutput.add(new StreamRecord<>(4, 1L));
+        expectedOutput.add(new Watermark(2L));
+        expectedOutput.add(new StreamRecord<>(4, 3L));
+        expectedOutput.add(new StreamRecord<>(16, 3L));
+
+        TestHarnessUtil.assertOutputEquals(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testOpenCloseAllFunctions() throws Exception {
+        TestOpenCloseMapFunction first = new TestOpenCloseMapFunction();
+        TestOpenCloseMapFunction second = new TestOpenCloseMapFunction();
+
+        @SuppressWarnings("unchecked")
+        StreamFusedOperator<String, String> operator =
+                (StreamFusedOperator<String, String>)
+                        StreamFusedOperator.fuse(
+                                new StreamMap<>(first),
+                                new StreamMap<>(second),
+                                StringSerializer.INSTANCE);
+
+        OneInputStreamOperatorTestHarness<String, String> testHarness =
+                new OneInputStreamOperatorTestHarness<>(operator);
+        testHarness.open();
+
+        testHarness.processElement(new StreamRecord<>("Hello", 0L));
+
+        testHarness.close();
+
+        assertTrue("RichFunction methods where not called.", first.closeCalled);
+        assertTrue("RichFunction methods where not called.", second.closeCalled);
+        assertEquals(1, testHarness.getOutput().size());
+    }
+
+    @Test
+    public void testCopiesValuesWithoutObjectReuse() throws Exception {
+        final EmittingMapFunction first = new EmittingMapFunction();
+        final IncrementingMapFunction second = new IncrementingMapFunction();
+        processFused(first, second, false);
+
+        // the second function modified its own copy of the value
+        assertNotSame(first.lastOutput, second.lastInput);
+        assertArrayEquals(new int[] {1}, first.lastOutput);
+        assertArrayEquals(new int[] {2}, second.lastInput);
+    }
+
+    @Test
+    public void testDoesNotCopyValuesWithObjectReuse() throws Exception {
+        final EmittingMapFunction first = new EmittingMapFunction();
+        final IncrementingMapFunction second = new IncrementingMapFunction();
+        processFused(first, second, true);
+
+        assertSame(first.lastOutput, second.lastInput);
+    }
+
+    @Test
+    public void testDoesNotCopyValuesForReadOnlyInputFunctions() throws Exception {
+        final EmittingMapFunction first = new EmittingMapFunction();
+        final ReadOnlyMapFunction second = new ReadOnlyMapFunction();
+        processFused(first, second, false);
+
+        assertSame(first.lastOutput, second.lastInput);
+    }
+
+    @Test
+    public void testCannotFuseStatefulOperators() {
+        assertTrue(StreamFusedOperator.canFuse(new StreamMap<Integer, Integer>(value -> value)));
+        assertFalse(StreamFusedOperator.canFuse(new StreamMap<>(new StatefulMapFunction())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void processFused(
+            MapFunction<int[], int[]> first, MapFunction<int[], int[]> second, boolean objectReuse)
+            throws Exception {
+        StreamFusedOperator<int[], int[]> operator =
+                (StreamFusedOperator<int[], int[]>)
+                        StreamFusedOperator.fuse(
+                                new StreamMap<>(first),
+                                new StreamMap<>(second),
+                                IntPrimitiveArraySerializer.INSTANCE);
+
+        OneInputStreamOperatorTestHarness<int[], int[]> testHarness =
+                new OneInputStreamOperatorTestHarness<>(operator);
+        if (objectReuse) {
+            testHarness.getExecutionConfig().enableObjectReuse();
+        }
+        testHarness.open();
+        testHarness.processElement(new StreamRecord<>(new int[] {0}, 0L));
+        testHarness.close();
+
+        assertEquals(1, testHarness.getOutput().size());
+    }
+
+    private static class EmittingMapFunction implements MapFunction<int[], int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private int[] lastOutput;
+
+        @Override
+        public int[] map(int[] value) {
+            lastOutput = new int[] {value[0] + 1};
+            return lastOutput;
+        }
+    }
+
+    private static class IncrementingMapFunction implements MapFunction<int[], int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private int[] lastInput;
+
+        @Override
+        public int[] map(int[] value) {
+            value[0]++;
+            lastInput = value;
+            return value;
+        }
+    }
+
+    @ReadOnlyInput
+    private static class ReadOnlyMapFunction implements MapFunction<int[], int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private int[] lastInput;
+
+        @Override
+        public int[] map(int[] value) {
+            lastInput = value;
+            return value;
+        }
+    }
+
+    private static class TestOpenCloseMapFunction extends RichMapFunction<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        private boolean openCalled;
+        private boolean closeCalled;
+
+        @Override
+        public void open(Configuration parameters) throws Exception {
+            super.open(parameters);
+            openCalled = true;
+        }
+
+        @Override
+        public void close() throws Exception {
+            super.close();
+            assertTrue("Open was not called before close.", openCalled);
+            closeCalled = true;
+        }
+
+        @Override
+        public String map(String value) {
+            assertTrue("Open was not called before map.", openCalled);
+            return value;
+        }
+    }
+
+    private static class StatefulMapFunction
+            implements MapFunction<Integer, Integer>, CheckpointedFunction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer map(Integer value) {
+            return value;
+        }
+
+        @Override
+        public void snapshotState(FunctionSnapshotContext context) {}
+
+        @Override
+        public void initializeState(FunctionInitializationContext context) {}
+    }
+}
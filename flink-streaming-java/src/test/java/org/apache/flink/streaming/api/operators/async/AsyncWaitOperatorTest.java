@@ -44,6 +44,7 @@ import org.apache.flink.streaming.api.datastream.AsyncDataStream;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.async.AsyncBatchFunction;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
 import org.apache.flink.streaming.api.functions.async.ResultFuture;
 import org.apache.flink.streaming.api.functions.async.RichAsyncFunction;
@@ -1024,6 +1025,127 @@ public class AsyncWaitOperatorTest extends TestLogger {
         assertThat(outputElements, Matchers.equalTo(expectedOutput));
     }
 
+    /** Test that the records are handed to an {@link AsyncBatchFunction} in batches. */
+    @Test
+    public void testBatchOrdered() throws Exception {
+        testBatch(AsyncDataStream.OutputMode.ORDERED);
+    }
+
+    /** Test that the records are handed to an {@link AsyncBatchFunction} in batches. */
+    @Test
+    public void testBatchUnordered() throws Exception {
+        testBatch(AsyncDataStream.OutputMode.UNORDERED);
+    }
+
+    private void testBatch(AsyncDataStream.OutputMode mode) throws Exception {
+        final ReversingBatchFunction function = new ReversingBatchFunction();
+        final OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new AsyncWaitOperatorFactory<>(function, TIMEOUT, 4, mode, 2, 0L),
+                        IntSerializer.INSTANCE);
+
+        testHarness.open();
+
+        synchronized (testHarness.getCheckpointLock()) {
+            testHarness.processElement(new StreamRecord<>(1, 1L));
+            testHarness.processElement(new StreamRecord<>(2, 2L));
+            testHarness.processElement(new StreamRecord<>(3, 3L));
+            testHarness.processElement(new StreamRecord<>(4, 4L));
+            testHarness.processElement(new StreamRecord<>(5, 5L));
+            // the watermark triggers the incomplete batch
+            testHarness.processWatermark(new Watermark(5L));
+            testHarness.processElement(new StreamRecord<>(6, 6L));
+        }
+
+        synchronized (testHarness.getCheckpointLock()) {
+            testHarness.endInput();
+            testHarness.close();
+        }
+
+        assertEquals(Arrays.asList(2, 2, 1, 1), function.batchSizes);
+
+        final ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+        for (int i = 1; i <= 5; i++) {
+            expectedOutput.add(new StreamRecord<>(2 * i, i));
+        }
+        expectedOutput.add(new Watermark(5L));
+        expectedOutput.add(new StreamRecord<>(12, 6L));
+
+        if (AsyncDataStream.OutputMode.ORDERED == mode) {
+            TestHarnessUtil.assertOutputEquals(
+                    "Output was not correct.", expectedOutput, testHarness.getOutput());
+        } else {
+            Object[] jobOutputQueue = testHarness.getOutput().toArray();
+            Assert.assertEquals(
+                    "Watermark should be at index 5", new Watermark(5L), jobOutputQueue[5]);
+
+            TestHarnessUtil.assertOutputEqualsSorted(
+                    "Output for StreamRecords does not match",
+                    expectedOutput,
+                    testHarness.getOutput(),
+                    new StreamRecordComparator());
+        }
+    }
+
+    /** Test that an incomplete batch is triggered after the batch timeout. */
+    @Test
+    public void testBatchTimeout() throws Exception {
+        final ReversingBatchFunction function = new ReversingBatchFunction();
+        final OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new AsyncWaitOperatorFactory<>(
+                                function,
+                                TIMEOUT,
+                                10,
+                                AsyncDataStream.OutputMode.ORDERED,
+                                10,
+                                100L),
+                        IntSerializer.INSTANCE);
+
+        testHarness.open();
+        testHarness.setProcessingTime(0L);
+
+        synchronized (testHarness.getCheckpointLock()) {
+            testHarness.processElement(new StreamRecord<>(1, 1L));
+            testHarness.processElement(new StreamRecord<>(2, 2L));
+        }
+        assertTrue(function.batchSizes.isEmpty());
+
+        testHarness.setProcessingTime(100L);
+        assertEquals(Collections.singletonList(2), function.batchSizes);
+
+        synchronized (testHarness.getCheckpointLock()) {
+            testHarness.endInput();
+            testHarness.close();
+        }
+
+        final ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+        expectedOutput.add(new StreamRecord<>(2, 1L));
+        expectedOutput.add(new StreamRecord<>(4, 2L));
+        TestHarnessUtil.assertOutputEquals(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+    }
+
+    /**
+     * Batch function that doubles its inputs, completes the result futures of a batch in reverse
+     * order and records the sizes of the batches.
+     */
+    private static class ReversingBatchFunction implements AsyncBatchFunction<Integer, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public void asyncInvokeBatch(
+                List<Integer> inputs, List<ResultFuture<Integer>> resultFutures) {
+            batchSizes.add(inputs.size());
+            for (int i = inputs.size() - 1; i >= 0; i--) {
+                resultFutures.get(i).complete(Collections.singleton(inputs.get(i) * 2));
+            }
+        }
+    }
+
     private static class ControllableAsyncFunction<IN> implements AsyncFunction<IN, IN> {
 
         private static final long serialVersionUID = -4214078239267288636L;
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.api.operators.async;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.functions.async.KeyedAsyncStateFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tests for {@link KeyedAsyncStateOperator} with a state backend that does not support concurrent
+ * reads, for which the reads are executed synchronously.
+ */
+public class KeyedAsyncStateOperatorTest extends TestLogger {
+
+    @Test
+    public void testReadAndUpdateState() throws Exception {
+        try (KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                createTestHarness()) {
+            testHarness.open();
+
+            testHarness.processElement(new StreamRecord<>("a", 1L));
+            testHarness.processElement(new StreamRecord<>("b", 2L));
+            testHarness.processElement(new StreamRecord<>("a", 3L));
+            testHarness.processWatermark(new Watermark(3L));
+
+            ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+            expectedOutput.add(new StreamRecord<>("a:1", 1L));
+            expectedOutput.add(new StreamRecord<>("b:1", 2L));
+            expectedOutput.add(new StreamRecord<>("a:2", 3L));
+            expectedOutput.add(new Watermark(3L));
+
+            TestHarnessUtil.assertOutputEquals(
+                    "Output was not correct.", expectedOutput, testHarness.getOutput());
+        }
+    }
+
+    @Test
+    public void testSnapshotAndRestore() throws Exception {
+        OperatorSubtaskState snapshot;
+        try (KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                createTestHarness()) {
+            testHarness.open();
+            testHarness.processElement(new StreamRecord<>("a", 1L));
+            testHarness.processElement(new StreamRecord<>("a", 2L));
+            snapshot = testHarness.snapshot(0L, 0L);
+        }
+
+        try (KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                createTestHarness()) {
+            testHarness.initializeState(snapshot);
+            testHarness.open();
+            testHarness.processElement(new StreamRecord<>("a", 3L));
+            testHarness.processElement(new StreamRecord<>("b", 4L));
+            testHarness.endInput();
+
+            ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+            expectedOutput.add(new StreamRecord<>("a:3", 3L));
+            expectedOutput.add(new StreamRecord<>("b:1", 4L));
+
+            TestHarnessUtil.assertOutputEquals(
+                    "Output was not correct.", expectedOutput, testHarness.getOutput());
+        }
+    }
+
+    private static KeyedOneInputStreamOperatorTestHarness<String, String, String>
+            createTestHarness() throws Exception {
+        KeyedOneInputStreamOperatorTestHarness<String, String, String> testHarness =
+                new KeyedOneInputStreamOperatorTestHarness<>(
+                        new KeyedAsyncStateOperatorFactory<>(new CountingFunction(), 2, 10),
+                        (KeySelector<String, String>) value -> value,
+                        BasicTypeInfo.STRING_TYPE_INFO);
+        testHarness.getStreamConfig().setupNetworkInputs(StringSerializer.INSTANCE);
+        return testHarness;
+    }
+
+    /** Counts the elements of each key and emits the key with its count. */
+    static class CountingFunction extends KeyedAsyncStateFunction<String, String, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient ValueState<Integer> count;
+
+        @Override
+        public void open(Configuration parameters) {
+            count =
+                    getRuntimeContext()
+                            .getState(new ValueStateDescriptor<>("count", Integer.class));
+        }
+
+        @Override
+        public void processElement(String value, Context ctx, Collector<String> out)
+                throws Exception {
+            ctx.readAsync(
+                    count,
+                    current -> {
+                        int newCount = current == null ? 1 : current + 1;
+                        count.update(newCount);
+                        out.collect(ctx.getCurrentKey() + ":" + newCount);
+                    });
+        }
+    }
+}
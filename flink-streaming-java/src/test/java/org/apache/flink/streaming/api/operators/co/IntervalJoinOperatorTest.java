@@ -26,6 +26,7 @@ import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.state.internal.InternalMapState;
 import org.apache.flink.streaming.api.functions.co.ProcessJoinFunction;
 import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
 import org.apache.flink.streaming.api.watermark.Watermark;
@@ -44,6 +45,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -552,6 +554,102 @@ public class IntervalJoinOperatorTest {
                 .close();
     }
 
+    @Test
+    public void testBucketedJoinMatchesUnbucketedJoin() throws Exception {
+        long[][] bounds = {{-3, -1}, {-2, 2}, {-1, 1}, {0, 0}, {1, 2}, {2, 5}};
+
+        for (long[] bound : bounds) {
+            for (boolean inclusive : new boolean[] {true, false}) {
+                if (!inclusive && bound[1] - bound[0] < 2) {
+                    continue;
+                }
+
+                JoinTestBuilder unbucketed =
+                        setupHarness(bound[0], inclusive, bound[1], inclusive)
+                                .processElementsAndWatermarks(1, 12);
+                List<Object> expectedOutput = getRecords(unbucketed.get().getOutput());
+                unbucketed.close();
+
+                for (long bucketSize : new long[] {1, 2, 3, 5, 100}) {
+                    JoinTestBuilder bucketed =
+                            setupHarness(bound[0], inclusive, bound[1], inclusive, bucketSize)
+                                    .processElementsAndWatermarks(1, 12)
+                                    .noLateRecords();
+
+                    List<Object> actualOutput = getRecords(bucketed.get().getOutput());
+                    bucketed.close();
+
+                    String message =
+                            String.format(
+                                    "Bounds %s, inclusive %s, bucket size %s",
+                                    Arrays.toString(bound), inclusive, bucketSize);
+                    Assert.assertEquals(message, expectedOutput.size(), actualOutput.size());
+                    Assert.assertTrue(message, actualOutput.containsAll(expectedOutput));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBucketedBufferIsCleanedUpPerBucket() throws Exception {
+        JoinTestBuilder builder =
+                setupHarness(-1, true, 1, true, 2)
+                        .processElement1(0)
+                        .processElement1(1)
+                        .processElement1(2)
+                        .processElement1(3)
+                        .processElement2(2)
+                        .processElement2(3)
+                        .processElement2(4);
+
+        IntervalJoinOperator<String, TestElem, TestElem, Tuple2<TestElem, TestElem>> operator =
+                builder.operator;
+        assertBuckets(operator.getLeftBucketedBuffer(), 0, 2);
+        assertBuckets(operator.getRightBucketedBuffer(), 2, 4);
+        // every bucket maps its timestamps to their elements
+        operator.getLeftBucketedBuffer().setCurrentNamespace(2L);
+        assertContainsOnly(operator.getLeftBucketedBuffer(), 2, 3);
+
+        // the left bucket [0, 1] can't be joined anymore at 1 + 1, the right bucket [2, 3] at 3 + 1
+        builder.processWatermark1(2).processWatermark2(2);
+        assertBuckets(operator.getLeftBucketedBuffer(), 2);
+        assertBuckets(operator.getRightBucketedBuffer(), 2, 4);
+
+        builder.processWatermark1(4).processWatermark2(4);
+        assertBuckets(operator.getLeftBucketedBuffer());
+        assertBuckets(operator.getRightBucketedBuffer(), 4);
+
+        builder.andExpect(
+                        streamRecordOf(1, 2),
+                        streamRecordOf(2, 2),
+                        streamRecordOf(2, 3),
+                        streamRecordOf(3, 2),
+                        streamRecordOf(3, 3),
+                        streamRecordOf(3, 4))
+                .noLateRecords()
+                .close();
+    }
+
+    private static List<Object> getRecords(Queue<Object> output) {
+        return output.stream()
+                .filter(elem -> elem instanceof StreamRecord)
+                .collect(Collectors.toList());
+    }
+
+    /** Asserts that exactly the given buckets of the bucketed buffer contain elements. */
+    private void assertBuckets(InternalMapState<String, Long, Long, ?> state, long... buckets)
+            throws Exception {
+        List<Long> actualBuckets = new ArrayList<>();
+        for (long bucket = -10; bucket <= 10; bucket++) {
+            state.setCurrentNamespace(bucket);
+            if (!state.isEmpty()) {
+                actualBuckets.add(bucket);
+            }
+        }
+        Assert.assertEquals(
+                Arrays.stream(buckets).boxed().collect(Collectors.toList()), actualBuckets);
+    }
+
     private void assertEmpty(MapState<Long, ?> state) throws Exception {
         boolean stateIsEmpty = Iterables.size(state.keys()) == 0;
         Assert.assertTrue("state not empty", stateIsEmpty);
@@ -625,6 +723,16 @@ public class IntervalJoinOperatorTest {
             long upperBound,
             boolean upperBoundInclusive)
             throws Exception {
+        return setupHarness(lowerBound, lowerBoundInclusive, upperBound, upperBoundInclusive, 0L);
+    }
+
+    private JoinTestBuilder setupHarness(
+            long lowerBound,
+            boolean lowerBoundInclusive,
+            long upperBound,
+            boolean upperBoundInclusive,
+            long bucketSize)
+            throws Exception {
 
         IntervalJoinOperator<String, TestElem, TestElem, Tuple2<TestElem, TestElem>> operator =
                 new IntervalJoinOperator<>(
@@ -632,6 +740,7 @@ public class IntervalJoinOperatorTest {
                         upperBound,
                         lowerBoundInclusive,
                         upperBoundInclusive,
+                        bucketSize,
                         TestElem.serializer(),
                         TestElem.serializer(),
                         new PassthroughFunction());
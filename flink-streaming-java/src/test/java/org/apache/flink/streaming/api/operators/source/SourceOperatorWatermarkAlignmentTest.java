@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.source;
+
+import org.apache.flink.api.common.eventtime.WatermarkStrategy;
+import org.apache.flink.api.common.state.OperatorStateStore;
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceReader;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.runtime.operators.coordination.MockOperatorEventGateway;
+import org.apache.flink.runtime.operators.testutils.MockEnvironmentBuilder;
+import org.apache.flink.runtime.source.event.ReportedWatermarkEvent;
+import org.apache.flink.runtime.source.event.WatermarkAlignmentEvent;
+import org.apache.flink.runtime.state.StateInitializationContextImpl;
+import org.apache.flink.runtime.state.memory.MemoryStateBackend;
+import org.apache.flink.streaming.api.operators.SourceOperator;
+import org.apache.flink.streaming.runtime.tasks.TestProcessingTimeService;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests the watermark alignment of the {@link SourceOperator}. */
+public class SourceOperatorWatermarkAlignmentTest {
+
+    private static final long UPDATE_INTERVAL = 100L;
+
+    private TimestampQueueSourceReader reader;
+    private MockOperatorEventGateway gateway;
+    private TestProcessingTimeService timeService;
+    private SourceOperator<Integer, MockSourceSplit> operator;
+    private CollectingDataOutput<Integer> output;
+
+    @Before
+    public void setup() throws Exception {
+        reader = new TimestampQueueSourceReader();
+        gateway = new MockOperatorEventGateway();
+        timeService = new TestProcessingTimeService();
+        timeService.setCurrentTime(0L);
+        output = new CollectingDataOutput<>();
+
+        final WatermarkStrategy<Integer> watermarkStrategy =
+                WatermarkStrategy.<Integer>forGenerator(
+                                (ctx) -> new OnEventTestWatermarkGenerator<>())
+                        .withWatermarkAlignment(
+                                "group", Duration.ofMillis(10), Duration.ofMillis(UPDATE_INTERVAL));
+
+        operator =
+                new TestingSourceOperator<>(
+                        reader, watermarkStrategy, timeService, gateway, 1, 5, true);
+
+        final OperatorStateStore operatorStateStore =
+                new MemoryStateBackend()
+                        .createOperatorStateBackend(
+                                new MockEnvironmentBuilder().build(),
+                                "test-operator",
+                                Collections.emptyList(),
+                                new CloseableRegistry());
+        operator.initializeState(
+                new StateInitializationContextImpl(false, operatorStateStore, null, null, null));
+        operator.open();
+    }
+
+    @Test
+    public void testPausesAndResumesReading() throws Exception {
+        reader.timestamps.add(100L);
+        reader.timestamps.add(200L);
+
+        assertEquals(InputStatus.MORE_AVAILABLE, operator.emitNext(output));
+
+        // the watermark 100 is ahead of the maximal allowed watermark
+        operator.handleOperatorEvent(new WatermarkAlignmentEvent(50L));
+        final CompletableFuture<?> availableFuture = operator.getAvailableFuture();
+        assertFalse(availableFuture.isDone());
+        assertEquals(InputStatus.NOTHING_AVAILABLE, operator.emitNext(output));
+        assertEquals(1, reader.timestamps.size());
+
+        operator.handleOperatorEvent(new WatermarkAlignmentEvent(150L));
+        assertTrue(availableFuture.isDone());
+        assertEquals(InputStatus.NOTHING_AVAILABLE, operator.emitNext(output));
+        assertTrue(reader.timestamps.isEmpty());
+
+        // the watermark 200 is ahead again
+        assertFalse(operator.getAvailableFuture().isDone());
+    }
+
+    @Test
+    public void testReportsWatermarks() throws Exception {
+        reader.timestamps.add(100L);
+        operator.emitNext(output);
+
+        timeService.setCurrentTime(UPDATE_INTERVAL);
+        reader.timestamps.add(120L);
+        operator.emitNext(output);
+        timeService.setCurrentTime(2 * UPDATE_INTERVAL);
+
+        operator.finish();
+
+        assertEquals(Arrays.asList(100L, 120L, Long.MAX_VALUE), getReportedWatermarks());
+    }
+
+    private List<Long> getReportedWatermarks() {
+        return gateway.getEventsSent().stream()
+                .filter(event -> event instanceof ReportedWatermarkEvent)
+                .map(event -> ((ReportedWatermarkEvent) event).getWatermark())
+                .collect(Collectors.toList());
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** A reader that emits one record with the next timestamp of a queue per invocation. */
+    private static final class TimestampQueueSourceReader
+            implements SourceReader<Integer, MockSourceSplit> {
+
+        private final Queue<Long> timestamps = new ArrayDeque<>();
+
+        @Override
+        public void start() {}
+
+        @Override
+        public InputStatus pollNext(ReaderOutput<Integer> output) {
+            final Long timestamp = timestamps.poll();
+            if (timestamp != null) {
+                output.collect(0, timestamp);
+            }
+            return timestamps.isEmpty()
+                    ? InputStatus.NOTHING_AVAILABLE
+                    : InputStatus.MORE_AVAILABLE;
+        }
+
+        @Override
+        public List<MockSourceSplit> snapshotState(long checkpointId) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public CompletableFuture<Void> isAvailable() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void addSplits(List<MockSourceSplit> splits) {}
+
+        @Override
+        public void notifyNoMoreSplits() {}
+
+        @Override
+        public void close() {}
+    }
+}
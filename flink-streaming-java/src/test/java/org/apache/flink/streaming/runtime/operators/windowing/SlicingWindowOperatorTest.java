@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/** Tests for the {@link SlicingWindowOperator}. */
+public class SlicingWindowOperatorTest {
+
+    private static final TypeInformation<Tuple2<String, Integer>> INPUT_TYPE =
+            TypeInformation.of(new TypeHint<Tuple2<String, Integer>>() {});
+
+    private static final OutputTag<Tuple2<String, Integer>> LATE_DATA_TAG =
+            new OutputTag<Tuple2<String, Integer>>("late") {};
+
+    /** Fixed seed of the random test data, so that failures can be reproduced. */
+    private static final long SEED = 0x5eed_5110L;
+
+    @Test
+    public void testSlicingOnlyWhenEnabled() {
+        assertThat(
+                sumReduce(SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), true),
+                instanceOf(SlicingWindowOperator.class));
+        assertThat(
+                sumReduce(SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), false),
+                not(instanceOf(SlicingWindowOperator.class)));
+    }
+
+    @Test
+    public void testSliceSize() {
+        SlicingWindowOperator<?, ?, ?, ?, ?> operator =
+                (SlicingWindowOperator<?, ?, ?, ?, ?>)
+                        sumReduce(
+                                SlidingEventTimeWindows.of(
+                                        Time.milliseconds(2500), Time.milliseconds(1000)),
+                                true);
+        assertEquals(500, operator.getSliceSize());
+    }
+
+    @Test
+    public void testReduceMatchesWindowOperator() throws Exception {
+        for (long[] sizeSlideOffset :
+                new long[][] {
+                    {3000, 1000, 0}, {2500, 1000, 0}, {3000, 1000, 300}, {1000, 1000, 0}
+                }) {
+            WindowAssigner<Object, TimeWindow> assigner =
+                    SlidingEventTimeWindows.of(
+                            Time.milliseconds(sizeSlideOffset[0]),
+                            Time.milliseconds(sizeSlideOffset[1]),
+                            Time.milliseconds(sizeSlideOffset[2]));
+            long seed = SEED + sizeSlideOffset[0] + sizeSlideOffset[1] + sizeSlideOffset[2];
+            assertEquals(
+                    "seed " + seed,
+                    runEventTime(() -> sumReduce(assigner, false), seed),
+                    runEventTime(() -> sumReduce(assigner, true), seed));
+        }
+    }
+
+    @Test
+    public void testAggregateMatchesWindowOperator() throws Exception {
+        WindowAssigner<Object, TimeWindow> assigner =
+                SlidingEventTimeWindows.of(Time.milliseconds(3000), Time.milliseconds(500));
+        long seed = SEED;
+        assertEquals(
+                "seed " + seed,
+                runEventTime(() -> countAggregate(assigner, false), seed),
+                runEventTime(() -> countAggregate(assigner, true), seed));
+    }
+
+    @Test
+    public void testProcessingTime() throws Exception {
+        WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, TimeWindow>
+                operator =
+                        sumReduce(
+                                SlidingProcessingTimeWindows.of(
+                                        Time.milliseconds(3000), Time.milliseconds(1000)),
+                                true);
+
+        try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness = createTestHarness(operator)) {
+            testHarness.open();
+
+            testHarness.setProcessingTime(10);
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key", 1)));
+            testHarness.setProcessingTime(1500);
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key", 2)));
+            testHarness.setProcessingTime(6000);
+
+            List<String> output =
+                    testHarness.extractOutputStreamRecords().stream()
+                            .map(r -> r.getValue().f1 + "@" + r.getTimestamp())
+                            .collect(Collectors.toList());
+
+            // windows ending at 1000, 2000, 3000, 4000
+            List<String> expected = new ArrayList<>();
+            expected.add("1@999");
+            expected.add("3@1999");
+            expected.add("3@2999");
+            expected.add("2@3999");
+            assertEquals(expected, output);
+        }
+    }
+
+    @Test
+    public void testClearPerWindowStateOfProcessWindowFunction() throws Exception {
+        WindowAssigner<Object, TimeWindow> assigner =
+                SlidingEventTimeWindows.of(Time.milliseconds(3000), Time.milliseconds(1000));
+        WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, TimeWindow>
+                operator =
+                        builder(assigner, true)
+                                .aggregate(
+                                        new CountAggregate(),
+                                        new WindowStateCountFunction(),
+                                        BasicTypeInfo.INT_TYPE_INFO);
+
+        try (KeyedOneInputStreamOperatorTestHarness<
+                        String, Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness = createTestHarness(operator)) {
+            testHarness.open();
+
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key1", 1), 10));
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key1", 1), 1500));
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key2", 1), 2500));
+            testHarness.processWatermark(new Watermark(2999));
+            assertThat(testHarness.numKeyedStateEntries(), greaterThan(0));
+
+            testHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+
+            // windows ending at 1000, 2000, 3000, 4000 for key1 and 3000, 4000, 5000 for key2
+            assertEquals(7, testHarness.extractOutputStreamRecords().size());
+            // the slices and the per-window state of the function have been cleaned up
+            assertEquals(0, testHarness.numKeyedStateEntries());
+        }
+    }
+
+    /**
+     * Runs random elements with out-of-order and late timestamps through the supplied operator,
+     * restoring it from a snapshot halfway, and returns the emitted records and late elements as
+     * strings.
+     */
+    private static List<String> runEventTime(
+            Supplier<
+                            WindowOperator<
+                                    String,
+                                    Tuple2<String, Integer>,
+                                    ?,
+                                    Tuple2<String, Integer>,
+                                    TimeWindow>>
+                    operatorFactory,
+            long seed)
+            throws Exception {
+
+        final Random random = new Random(seed);
+        final List<String> result = new ArrayList<>();
+
+        OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness = createTestHarness(operatorFactory.get());
+        testHarness.open();
+
+        long watermark = 0;
+        for (int i = 0; i < 2000; i++) {
+            final long timestamp = Math.max(0, watermark + random.nextInt(4000) - 1000);
+            testHarness.processElement(
+                    new StreamRecord<>(
+                            Tuple2.of("key" + random.nextInt(3), random.nextInt(10)), timestamp));
+
+            if (random.nextInt(20) == 0) {
+                watermark += random.nextInt(3000);
+                testHarness.processWatermark(new Watermark(watermark));
+            }
+
+            if (i == 1000) {
+                collect(testHarness, result);
+                OperatorSubtaskState snapshot = testHarness.snapshot(0L, 0L);
+                testHarness.close();
+
+                testHarness = createTestHarness(operatorFactory.get());
+                testHarness.setup();
+                testHarness.initializeState(snapshot);
+                testHarness.open();
+                // the watermark is not part of the snapshot, replay it like a source would
+                testHarness.processWatermark(new Watermark(watermark));
+            }
+        }
+        testHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+        collect(testHarness, result);
+        testHarness.close();
+
+        result.sort(String::compareTo);
+        return result;
+    }
+
+    private static void collect(
+            OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                    testHarness,
+            List<String> result) {
+        for (StreamRecord<? extends Tuple2<String, Integer>> record :
+                testHarness.extractOutputStreamRecords()) {
+            result.add(record.getValue() + "@" + record.getTimestamp());
+        }
+        if (testHarness.getSideOutput(LATE_DATA_TAG) != null) {
+            for (StreamRecord<Tuple2<String, Integer>> record :
+                    testHarness.getSideOutput(LATE_DATA_TAG)) {
+                result.add("late " + record.getValue() + "@" + record.getTimestamp());
+            }
+        }
+    }
+
+    private static KeyedOneInputStreamOperatorTestHarness<
+                    String, Tuple2<String, Integer>, Tuple2<String, Integer>>
+            createTestHarness(
+                    WindowOperator<
+                                    String,
+                                    Tuple2<String, Integer>,
+                                    ?,
+                                    Tuple2<String, Integer>,
+                                    TimeWindow>
+                            operator)
+                    throws Exception {
+        return new KeyedOneInputStreamOperatorTestHarness<>(
+                operator, new TupleKeySelector(), BasicTypeInfo.STRING_TYPE_INFO);
+    }
+
+    private static WindowOperatorBuilder<Tuple2<String, Integer>, String, TimeWindow> builder(
+            WindowAssigner<Object, TimeWindow> assigner, boolean windowSlicing) {
+        ExecutionConfig config = new ExecutionConfig();
+        if (windowSlicing) {
+            config.enableWindowSlicing();
+        }
+        Trigger<Object, TimeWindow> trigger =
+                assigner.isEventTime() ? EventTimeTrigger.create() : ProcessingTimeTrigger.create();
+        WindowOperatorBuilder<Tuple2<String, Integer>, String, TimeWindow> builder =
+                new WindowOperatorBuilder<>(
+                        assigner,
+                        trigger,
+                        config,
+                        INPUT_TYPE,
+                        new TupleKeySelector(),
+                        BasicTypeInfo.STRING_TYPE_INFO);
+        builder.sideOutputLateData(LATE_DATA_TAG);
+        return builder;
+    }
+
+    private static WindowOperator<
+                    String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, TimeWindow>
+            sumReduce(WindowAssigner<Object, TimeWindow> assigner, boolean windowSlicing) {
+        return builder(assigner, windowSlicing)
+                .reduce(new SumReducer(), new PassThroughWindowFunction<>());
+    }
+
+    private static WindowOperator<
+                    String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, TimeWindow>
+            countAggregate(WindowAssigner<Object, TimeWindow> assigner, boolean windowSlicing) {
+        return builder(assigner, windowSlicing)
+                .aggregate(
+                        new CountAggregate(),
+                        new KeyedCountFunction(),
+                        BasicTypeInfo.INT_TYPE_INFO);
+    }
+
+    private static class TupleKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String getKey(Tuple2<String, Integer> value) {
+            return value.f0;
+        }
+    }
+
+    private static class SumReducer implements ReduceFunction<Tuple2<String, Integer>> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Tuple2<String, Integer> reduce(
+                Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+            return new Tuple2<>(value2.f0, value1.f1 + value2.f1);
+        }
+    }
+
+    private static class CountAggregate
+            implements AggregateFunction<Tuple2<String, Integer>, Integer, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer createAccumulator() {
+            return 0;
+        }
+
+        @Override
+        public Integer add(Tuple2<String, Integer> value, Integer accumulator) {
+            return accumulator + 1;
+        }
+
+        @Override
+        public Integer getResult(Integer accumulator) {
+            return accumulator;
+        }
+
+        @Override
+        public Integer merge(Integer a, Integer b) {
+            return a + b;
+        }
+    }
+
+    /**
+     * Counts the firings of a window in its per-window state, and cleans the state up in {@link
+     * #clear(Context)}.
+     */
+    private static class WindowStateCountFunction
+            extends ProcessWindowFunction<Integer, Tuple2<String, Integer>, String, TimeWindow> {
+        private static final long serialVersionUID = 1L;
+
+        private final ValueStateDescriptor<Integer> firingsDescriptor =
+                new ValueStateDescriptor<>("firings", BasicTypeInfo.INT_TYPE_INFO);
+
+        @Override
+        public void process(
+                String key,
+                Context context,
+                Iterable<Integer> elements,
+                Collector<Tuple2<String, Integer>> out)
+                throws Exception {
+            ValueState<Integer> firings = context.windowState().getState(firingsDescriptor);
+            int numFirings = firings.value() == null ? 1 : firings.value() + 1;
+            firings.update(numFirings);
+            out.collect(Tuple2.of(key, numFirings));
+        }
+
+        @Override
+        public void clear(Context context) {
+            context.windowState().getState(firingsDescriptor).clear();
+        }
+    }
+
+    private static class KeyedCountFunction
+            extends ProcessWindowFunction<Integer, Tuple2<String, Integer>, String, TimeWindow> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void process(
+                String key,
+                Context context,
+                Iterable<Integer> elements,
+                Collector<Tuple2<String, Integer>> out) {
+            for (Integer count : elements) {
+                out.collect(Tuple2.of(key, count));
+            }
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.GlobalWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingProcessingTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.CountTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.PurgingTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.GlobalWindow;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.api.windowing.windows.Window;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests for the {@link WindowPreAggregationBuffer} of the {@link WindowOperator}. */
+public class WindowPreAggregationBufferTest {
+
+    private static final TypeInformation<Tuple2<String, Integer>> INPUT_TYPE =
+            TypeInformation.of(new TypeHint<Tuple2<String, Integer>>() {});
+
+    private static final OutputTag<Tuple2<String, Integer>> LATE_DATA_TAG =
+            new OutputTag<Tuple2<String, Integer>>("late") {};
+
+    @Test
+    public void testTumblingReduce() throws Exception {
+        WindowAssigner<Object, TimeWindow> assigner =
+                TumblingEventTimeWindows.of(Time.milliseconds(1000));
+        assertSameResults(() -> sumReduce(assigner, assigner.getDefaultTrigger(null), false));
+    }
+
+    @Test
+    public void testSlidingAggregate() throws Exception {
+        WindowAssigner<Object, TimeWindow> assigner =
+                SlidingEventTimeWindows.of(Time.milliseconds(3000), Time.milliseconds(1000));
+        assertSameResults(() -> countAggregate(assigner, false));
+    }
+
+    @Test
+    public void testSlicedSlidingAggregate() throws Exception {
+        WindowAssigner<Object, TimeWindow> assigner =
+                SlidingEventTimeWindows.of(Time.milliseconds(3000), Time.milliseconds(1000));
+        assertSameResults(() -> countAggregate(assigner, true));
+    }
+
+    @Test
+    public void testTriggerFiringOnElement() throws Exception {
+        WindowAssigner<Object, GlobalWindow> assigner = GlobalWindows.create();
+        assertSameResults(() -> sumReduce(assigner, PurgingTrigger.of(CountTrigger.of(3)), false));
+        assertSameResults(() -> sumReduce(assigner, CountTrigger.of(5), false));
+    }
+
+    @Test
+    public void testProcessingTime() throws Exception {
+        WindowAssigner<Object, TimeWindow> assigner =
+                TumblingProcessingTimeWindows.of(Time.milliseconds(1000));
+
+        try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness =
+                        createTestHarness(
+                                sumReduce(assigner, assigner.getDefaultTrigger(null), false),
+                                100)) {
+            testHarness.open();
+
+            testHarness.setProcessingTime(10);
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key1", 1)));
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key2", 2)));
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key1", 3)));
+            testHarness.setProcessingTime(1500);
+            testHarness.processElement(new StreamRecord<>(Tuple2.of("key1", 4)));
+            testHarness.setProcessingTime(2500);
+
+            List<String> output = new ArrayList<>();
+            for (StreamRecord<? extends Tuple2<String, Integer>> record :
+                    testHarness.extractOutputStreamRecords()) {
+                output.add(record.getValue() + "@" + record.getTimestamp());
+            }
+            output.sort(String::compareTo);
+
+            assertEquals(Arrays.asList("(key1,4)@1999", "(key1,4)@999", "(key2,2)@999"), output);
+        }
+    }
+
+    @Test
+    public void testObjectReuse() throws Exception {
+        WindowAssigner<Object, TimeWindow> tumbling =
+                TumblingEventTimeWindows.of(Time.milliseconds(1000));
+        assertEquals(
+                Arrays.asList("(key1,5)@999"),
+                runWithReusedInput(
+                        builder(tumbling, tumbling.getDefaultTrigger(null), false)
+                                .reduce(new MaxReducer(), new PassThroughWindowFunction<>())));
+        assertEquals(
+                Arrays.asList("(key1,5)@999"),
+                runWithReusedInput(
+                        builder(tumbling, tumbling.getDefaultTrigger(null), false)
+                                .aggregate(
+                                        new MaxAggregate(),
+                                        new PassThroughWindowFunction<>(),
+                                        INPUT_TYPE)));
+
+        WindowAssigner<Object, TimeWindow> sliding =
+                SlidingEventTimeWindows.of(Time.milliseconds(3000), Time.milliseconds(1000));
+        assertEquals(
+                Arrays.asList("(key1,5)@1999", "(key1,5)@2999", "(key1,5)@999"),
+                runWithReusedInput(
+                        builder(sliding, sliding.getDefaultTrigger(null), true)
+                                .aggregate(
+                                        new MaxAggregate(),
+                                        new PassThroughWindowFunction<>(),
+                                        INPUT_TYPE)));
+    }
+
+    /**
+     * Runs elements of one key through the given operator with object reuse, reusing the same input
+     * object for all elements, and returns the emitted records as strings.
+     */
+    private static List<String> runWithReusedInput(
+            WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, ?> operator)
+            throws Exception {
+        final List<String> result = new ArrayList<>();
+        try (OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness = createTestHarness(operator, 100)) {
+            testHarness.getExecutionConfig().enableObjectReuse();
+            testHarness.open();
+
+            final Tuple2<String, Integer> input = Tuple2.of("key1", 0);
+            for (int value : new int[] {5, 1, 3}) {
+                input.f1 = value;
+                testHarness.processElement(new StreamRecord<>(input, 10L * value));
+            }
+            testHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+
+            collect(testHarness, result);
+        }
+        result.sort(String::compareTo);
+        return result;
+    }
+
+    private static <W extends Window> void assertSameResults(
+            Supplier<WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, W>>
+                    operatorFactory)
+            throws Exception {
+        long seed = new Random().nextLong();
+        List<String> expected = run(operatorFactory, 0, seed);
+        assertEquals("seed " + seed, expected, run(operatorFactory, 3, seed));
+        assertEquals("seed " + seed, expected, run(operatorFactory, 10_000, seed));
+    }
+
+    /**
+     * Runs random elements with out-of-order and late timestamps through the supplied operator,
+     * restoring it from a snapshot halfway, and returns the emitted records and late elements as
+     * strings.
+     */
+    private static <W extends Window> List<String> run(
+            Supplier<WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, W>>
+                    operatorFactory,
+            int windowBufferSize,
+            long seed)
+            throws Exception {
+
+        final Random random = new Random(seed);
+        final List<String> result = new ArrayList<>();
+
+        OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness = createTestHarness(operatorFactory.get(), windowBufferSize);
+        testHarness.open();
+
+        long watermark = 0;
+        for (int i = 0; i < 2000; i++) {
+            final long timestamp = Math.max(0, watermark + random.nextInt(4000) - 1000);
+            testHarness.processElement(
+                    new StreamRecord<>(
+                            Tuple2.of("key" + random.nextInt(3), random.nextInt(10)), timestamp));
+
+            if (random.nextInt(20) == 0) {
+                watermark += random.nextInt(3000);
+                testHarness.processWatermark(new Watermark(watermark));
+            }
+
+            if (i == 1000) {
+                collect(testHarness, result);
+                OperatorSubtaskState snapshot = testHarness.snapshot(0L, 0L);
+                testHarness.close();
+
+                testHarness = createTestHarness(operatorFactory.get(), windowBufferSize);
+                testHarness.setup();
+                testHarness.initializeState(snapshot);
+                testHarness.open();
+                testHarness.processWatermark(new Watermark(watermark));
+            }
+        }
+        testHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+        collect(testHarness, result);
+        testHarness.close();
+
+        result.sort(String::compareTo);
+        return result;
+    }
+
+    private static void collect(
+            OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>>
+                    testHarness,
+            List<String> result) {
+        for (StreamRecord<? extends Tuple2<String, Integer>> record :
+                testHarness.extractOutputStreamRecords()) {
+            result.add(record.getValue() + "@" + record.getTimestamp());
+        }
+        if (testHarness.getSideOutput(LATE_DATA_TAG) != null) {
+            for (StreamRecord<Tuple2<String, Integer>> record :
+                    testHarness.getSideOutput(LATE_DATA_TAG)) {
+                result.add("late " + record.getValue() + "@" + record.getTimestamp());
+            }
+        }
+    }
+
+    private static OneInputStreamOperatorTestHarness<
+                    Tuple2<String, Integer>, Tuple2<String, Integer>>
+            createTestHarness(
+                    WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, ?>
+                            operator,
+                    int windowBufferSize)
+                    throws Exception {
+        KeyedOneInputStreamOperatorTestHarness<
+                        String, Tuple2<String, Integer>, Tuple2<String, Integer>>
+                testHarness =
+                        new KeyedOneInputStreamOperatorTestHarness<>(
+                                operator, new TupleKeySelector(), BasicTypeInfo.STRING_TYPE_INFO);
+        testHarness.getExecutionConfig().setWindowBufferSize(windowBufferSize);
+        return testHarness;
+    }
+
+    private static <W extends Window>
+            WindowOperatorBuilder<Tuple2<String, Integer>, String, W> builder(
+                    WindowAssigner<Object, W> assigner,
+                    Trigger<Object, W> trigger,
+                    boolean windowSlicing) {
+        ExecutionConfig config = new ExecutionConfig();
+        if (windowSlicing) {
+            config.enableWindowSlicing();
+        }
+        WindowOperatorBuilder<Tuple2<String, Integer>, String, W> builder =
+                new WindowOperatorBuilder<>(
+                        assigner,
+                        trigger,
+                        config,
+                        INPUT_TYPE,
+                        new TupleKeySelector(),
+                        BasicTypeInfo.STRING_TYPE_INFO);
+        builder.sideOutputLateData(LATE_DATA_TAG);
+        return builder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <W extends Window>
+            WindowOperator<String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, W>
+                    sumReduce(
+                            WindowAssigner<Object, W> assigner,
+                            Trigger<?, ? super W> trigger,
+                            boolean windowSlicing) {
+        return builder(assigner, (Trigger<Object, W>) trigger, windowSlicing)
+                .reduce(new SumReducer(), new PassThroughWindowFunction<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WindowOperator<
+                    String, Tuple2<String, Integer>, ?, Tuple2<String, Integer>, TimeWindow>
+            countAggregate(WindowAssigner<Object, TimeWindow> assigner, boolean windowSlicing) {
+        return builder(
+                        assigner,
+                        (Trigger<Object, TimeWindow>) assigner.getDefaultTrigger(null),
+                        windowSlicing)
+                .aggregate(
+                        new CountAggregate(),
+                        new KeyedCountFunction(),
+                        BasicTypeInfo.INT_TYPE_INFO);
+    }
+
+    private static class TupleKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String getKey(Tuple2<String, Integer> value) {
+            return value.f0;
+        }
+    }
+
+    private static class SumReducer implements ReduceFunction<Tuple2<String, Integer>> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Tuple2<String, Integer> reduce(
+                Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+            return new Tuple2<>(value2.f0, value1.f1 + value2.f1);
+        }
+    }
+
+    /** Returns the element with the larger value, which is one of its arguments. */
+    private static class MaxReducer implements ReduceFunction<Tuple2<String, Integer>> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Tuple2<String, Integer> reduce(
+                Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+            return value1.f1 >= value2.f1 ? value1 : value2;
+        }
+    }
+
+    /** Keeps the element with the largest value as its accumulator. */
+    private static class MaxAggregate
+            implements AggregateFunction<
+                    Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Tuple2<String, Integer> createAccumulator() {
+            return Tuple2.of("", Integer.MIN_VALUE);
+        }
+
+        @Override
+        public Tuple2<String, Integer> add(
+                Tuple2<String, Integer> value, Tuple2<String, Integer> accumulator) {
+            return value.f1 > accumulator.f1 ? value : accumulator;
+        }
+
+        @Override
+        public Tuple2<String, Integer> getResult(Tuple2<String, Integer> accumulator) {
+            return accumulator;
+        }
+
+        @Override
+        public Tuple2<String, Integer> merge(Tuple2<String, Integer> a, Tuple2<String, Integer> b) {
+            return a.f1 >= b.f1 ? a : b;
+        }
+    }
+
+    private static class CountAggregate
+            implements AggregateFunction<Tuple2<String, Integer>, Integer, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer createAccumulator() {
+            return 0;
+        }
+
+        @Override
+        public Integer add(Tuple2<String, Integer> value, Integer accumulator) {
+            return accumulator + 1;
+        }
+
+        @Override
+        public Integer getResult(Integer accumulator) {
+            return accumulator;
+        }
+
+        @Override
+        public Integer merge(Integer a, Integer b) {
+            return a + b;
+        }
+    }
+
+    private static class KeyedCountFunction
+            extends ProcessWindowFunction<Integer, Tuple2<String, Integer>, String, TimeWindow> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void process(
+                String key,
+                Context context,
+                Iterable<Integer> elements,
+                Collector<Tuple2<String, Integer>> out) {
+            for (Integer count : elements) {
+                out.collect(Tuple2.of(key, count));
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.streamstatus;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.io.PushingAsyncDataInput.DataOutput;
+import org.apache.flink.streaming.runtime.streamrecord.LatencyMarker;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * The benchmark of feeding watermarks and stream statuses into a {@link StatusWatermarkValve} with
+ * a high number of input channels, as for example after a keyBy with a high parallelism. The
+ * benchmark methods are invoked by the JMH benchmarks in the flink-benchmarks project.
+ */
+public class StatusWatermarkValveBenchmark {
+
+    private StatusWatermarkValve valve;
+
+    private int numInputChannels;
+
+    private long currentWatermark;
+
+    private final CountingDataOutput output = new CountingDataOutput();
+
+    public void setup(int numInputChannels) {
+        checkArgument(numInputChannels > 1, "The benchmark requires at least two channels.");
+        this.numInputChannels = numInputChannels;
+        this.valve = new StatusWatermarkValve(numInputChannels);
+        this.currentWatermark = 0L;
+    }
+
+    public void teardown() {
+        valve = null;
+    }
+
+    /**
+     * Advances the watermarks of all channels by one, in channel order. Every round emits one new
+     * watermark from the valve, when the watermark of the last channel has been advanced.
+     */
+    public void inputWatermarks() throws Exception {
+        currentWatermark++;
+        for (int i = 0; i < numInputChannels; i++) {
+            valve.inputWatermark(new Watermark(currentWatermark), i, output);
+        }
+    }
+
+    /**
+     * Advances the watermarks of all channels while every other channel toggles between idle and
+     * active, which removes and re-adds the channels to the watermark-aligned channels.
+     */
+    public void inputWatermarksWithIdleness() throws Exception {
+        currentWatermark++;
+        for (int i = 0; i < numInputChannels; i++) {
+            if (i % 2 == 1) {
+                valve.inputStreamStatus(StreamStatus.IDLE, i, output);
+            }
+            valve.inputWatermark(new Watermark(currentWatermark), i, output);
+        }
+        for (int i = 1; i < numInputChannels; i += 2) {
+            valve.inputStreamStatus(StreamStatus.ACTIVE, i, output);
+            valve.inputWatermark(new Watermark(currentWatermark), i, output);
+        }
+    }
+
+    public long getNumEmittedWatermarks() {
+        return output.numWatermarks;
+    }
+
+    /** A {@link DataOutput} that only counts the emitted watermarks. */
+    private static final class CountingDataOutput implements DataOutput<Object> {
+
+        private long numWatermarks;
+
+        @Override
+        public void emitRecord(StreamRecord<Object> streamRecord) {}
+
+        @Override
+        public void emitWatermark(Watermark watermark) {
+            numWatermarks++;
+        }
+
+        @Override
+        public void emitStreamStatus(StreamStatus streamStatus) {}
+
+        @Override
+        public void emitLatencyMarker(LatencyMarker latencyMarker) {}
+    }
+}
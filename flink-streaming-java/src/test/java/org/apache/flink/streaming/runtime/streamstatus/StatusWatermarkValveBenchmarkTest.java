@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.streamstatus;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The benchmark of feeding watermarks and stream statuses into a {@link StatusWatermarkValve} with
+ * a high number of input channels.
+ */
+public class StatusWatermarkValveBenchmarkTest extends TestLogger {
+
+    @Test
+    public void inputWatermarks() throws Exception {
+        for (int numInputChannels : new int[] {1_000, 10_000}) {
+            StatusWatermarkValveBenchmark benchmark = new StatusWatermarkValveBenchmark();
+            benchmark.setup(numInputChannels);
+            benchmark.inputWatermarks();
+            benchmark.inputWatermarks();
+            assertEquals(2, benchmark.getNumEmittedWatermarks());
+            benchmark.teardown();
+        }
+    }
+
+    @Test
+    public void inputWatermarksWithIdleness() throws Exception {
+        for (int numInputChannels : new int[] {1_000, 10_000}) {
+            StatusWatermarkValveBenchmark benchmark = new StatusWatermarkValveBenchmark();
+            benchmark.setup(numInputChannels);
+            benchmark.inputWatermarksWithIdleness();
+            benchmark.inputWatermarksWithIdleness();
+            assertEquals(2, benchmark.getNumEmittedWatermarks());
+            benchmark.teardown();
+        }
+    }
+}
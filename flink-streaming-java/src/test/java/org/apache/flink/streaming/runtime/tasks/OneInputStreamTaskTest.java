@@ -26,7 +26,9 @@ import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.common.typeutils.base.StringValueSerializer;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.typeutils.ValueTypeInfo;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.testutils.OneShotLatch;
 import org.apache.flink.metrics.Counter;
@@ -61,6 +63,7 @@ import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.streamstatus.StreamStatus;
 import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.apache.flink.types.StringValue;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.TestLogger;
 
@@ -724,6 +727,85 @@ public class OneInputStreamTaskTest extends TestLogger {
         assertArrayEquals("Output was not correct.", expected.toArray(), output);
     }
 
+    /**
+     * Tests that records are passed to a chained operator with a read-only input without copying
+     * them, even if object reuse is disabled.
+     */
+    @Test
+    public void testChainedOperatorWithReadOnlyInputIsNotPassedCopies() throws Exception {
+        assertEquals(Collections.singletonList("copy"), runIdentityCheckingChain(false));
+        assertEquals(Collections.singletonList("same"), runIdentityCheckingChain(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> runIdentityCheckingChain(boolean inputReadOnly) throws Exception {
+        final OneInputStreamTaskTestHarness<StringValue, StringValue> testHarness =
+                new OneInputStreamTaskTestHarness<>(
+                        OneInputStreamTask::new,
+                        ValueTypeInfo.STRING_VALUE_TYPE_INFO,
+                        ValueTypeInfo.STRING_VALUE_TYPE_INFO);
+
+        StreamConfigChainer<StreamTaskTestHarness<StringValue>> chainer =
+                testHarness
+                        .setupOperatorChain(new OperatorID(), new RecordingOperator())
+                        .chain(
+                                new OperatorID(),
+                                new IdentityCheckingOperator(),
+                                StringValueSerializer.INSTANCE);
+        if (inputReadOnly) {
+            chainer.inputReadOnly();
+        }
+        chainer.finish();
+
+        testHarness.invoke();
+        testHarness.waitForTaskRunning();
+
+        testHarness.processElement(new StreamRecord<>(new StringValue("Hello")));
+        testHarness.endInput();
+        testHarness.waitForTaskCompletion();
+
+        List<String> output = new ArrayList<>();
+        for (Object record : testHarness.getOutput()) {
+            output.add(((StreamRecord<StringValue>) record).getValue().getValue());
+        }
+        return output;
+    }
+
+    /**
+     * Forwards its input and remembers the last forwarded value. This must only be used in one
+     * test, otherwise the static field will be changed by several tests concurrently.
+     */
+    private static class RecordingOperator extends AbstractStreamOperator<StringValue>
+            implements OneInputStreamOperator<StringValue, StringValue> {
+
+        private static final long serialVersionUID = 1L;
+
+        static volatile StringValue lastForwardedValue;
+
+        @Override
+        public void processElement(StreamRecord<StringValue> element) throws Exception {
+            lastForwardedValue = element.getValue();
+            output.collect(element);
+        }
+    }
+
+    /** Emits whether its input is the value forwarded by the {@link RecordingOperator}. */
+    private static class IdentityCheckingOperator extends AbstractStreamOperator<StringValue>
+            implements OneInputStreamOperator<StringValue, StringValue> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void processElement(StreamRecord<StringValue> element) throws Exception {
+            output.collect(
+                    element.replace(
+                            new StringValue(
+                                    element.getValue() == RecordingOperator.lastForwardedValue
+                                            ? "same"
+                                            : "copy")));
+        }
+    }
+
     private static class TestOperator extends AbstractStreamOperator<String>
             implements OneInputStreamOperator<String, String> {
 
@@ -246,6 +246,12 @@ public class StreamConfigChainer<OWNER> {
         return owner;
     }
 
+    /** Marks the input of the last chained operator as read-only, see {@link StreamConfig}. */
+    public StreamConfigChainer<OWNER> inputReadOnly() {
+        tailConfig.setInputReadOnly(true);
+        return this;
+    }
+
     public StreamConfigChainer<OWNER> name(String name) {
         tailConfig.setOperatorName(name);
         return this;
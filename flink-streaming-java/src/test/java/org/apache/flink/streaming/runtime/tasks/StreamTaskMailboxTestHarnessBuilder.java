@@ -35,7 +35,9 @@ import org.apache.flink.runtime.state.LocalRecoveryConfig;
 import org.apache.flink.runtime.state.TestLocalRecoveryConfig;
 import org.apache.flink.runtime.state.TestTaskStateManager;
 import org.apache.flink.runtime.taskmanager.CheckpointResponder;
+import org.apache.flink.runtime.taskmanager.TaskManagerRuntimeInfo;
 import org.apache.flink.runtime.taskmanager.TestCheckpointResponder;
+import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
 import org.apache.flink.streaming.api.TimeCharacteristic;
 import org.apache.flink.streaming.api.graph.StreamConfig;
 import org.apache.flink.streaming.api.graph.StreamConfig.InputConfig;
@@ -84,6 +86,7 @@ public class StreamTaskMailboxTestHarnessBuilder<OUT> {
             UnregisteredMetricGroups.createUnregisteredTaskMetricGroup();
     protected Map<Long, TaskStateSnapshot> taskStateSnapshots;
     protected CheckpointResponder checkpointResponder = new TestCheckpointResponder();
+    protected TaskManagerRuntimeInfo taskManagerRuntimeInfo = new TestingTaskManagerRuntimeInfo();
 
     protected final ArrayList<InputConfig> inputs = new ArrayList<>();
     protected final ArrayList<Integer> inputChannelsPerGate = new ArrayList<>();
@@ -112,6 +115,12 @@ public class StreamTaskMailboxTestHarnessBuilder<OUT> {
         return this;
     }
 
+    public StreamTaskMailboxTestHarnessBuilder<OUT> setTaskManagerRuntimeInfo(
+            TaskManagerRuntimeInfo taskManagerRuntimeInfo) {
+        this.taskManagerRuntimeInfo = taskManagerRuntimeInfo;
+        return this;
+    }
+
     public <T> StreamTaskMailboxTestHarnessBuilder<OUT> setCheckpointResponder(
             CheckpointResponder checkpointResponder) {
         this.checkpointResponder = checkpointResponder;
@@ -171,6 +180,7 @@ public class StreamTaskMailboxTestHarnessBuilder<OUT> {
                         taskStateManager);
 
         streamMockEnvironment.setCheckpointResponder(taskStateManager.getCheckpointResponder());
+        streamMockEnvironment.setTaskManagerInfo(taskManagerRuntimeInfo);
         initializeInputs(streamMockEnvironment);
 
         checkState(inputGates != null, "InputGates hasn't been initialised");
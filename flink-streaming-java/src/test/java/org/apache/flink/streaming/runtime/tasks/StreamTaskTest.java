@@ -26,6 +26,7 @@ import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.io.InputStatus;
 import org.apache.flink.core.testutils.OneShotLatch;
@@ -98,6 +99,7 @@ import org.apache.flink.runtime.taskmanager.TaskManagerActions;
 import org.apache.flink.runtime.taskmanager.TestCheckpointResponder;
 import org.apache.flink.runtime.taskmanager.TestTaskBuilder;
 import org.apache.flink.runtime.util.NettyShuffleDescriptorBuilder;
+import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
 import org.apache.flink.streaming.api.TimeCharacteristic;
 import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
 import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
@@ -176,6 +178,7 @@ import static org.apache.flink.runtime.checkpoint.CheckpointFailureReason.UNKNOW
 import static org.apache.flink.runtime.checkpoint.StateObjectCollection.singleton;
 import static org.apache.flink.runtime.state.CheckpointStorageLocationReference.getDefault;
 import static org.apache.flink.streaming.runtime.tasks.mailbox.TaskMailbox.MAX_PRIORITY;
+import static org.apache.flink.streaming.runtime.tasks.mailbox.TaskMailbox.MIN_PRIORITY;
 import static org.apache.flink.streaming.util.StreamTaskUtil.waitTaskIsRunning;
 import static org.apache.flink.util.Preconditions.checkState;
 import static org.hamcrest.Matchers.instanceOf;
@@ -1569,6 +1572,39 @@ public class StreamTaskTest extends TestLogger {
         }
     }
 
+    @Test
+    public void testProcessInputInBatches() throws Exception {
+        Configuration taskManagerConfig = new Configuration();
+        taskManagerConfig.set(TaskManagerOptions.TASK_INPUT_BATCH_SIZE, 3);
+
+        try (StreamTaskMailboxTestHarness<String> harness =
+                new StreamTaskMailboxTestHarnessBuilder<>(OneInputStreamTask::new, STRING_TYPE_INFO)
+                        .setTaskManagerRuntimeInfo(
+                                new TestingTaskManagerRuntimeInfo(taskManagerConfig))
+                        .addInput(STRING_TYPE_INFO)
+                        .setupOutputForSingletonOperatorChain(new MailSubmittingOperator())
+                        .build()) {
+            harness.setAutoProcess(false);
+            for (String value : asList("a", "b", "c", "d", "mail", "e", "f")) {
+                harness.processElement(new StreamRecord<>(value));
+            }
+
+            // the first step that processes input processes a full batch of records
+            while (harness.getOutput().isEmpty()) {
+                assertTrue(harness.processSingleStep());
+            }
+            assertEquals(3, harness.getOutput().size());
+
+            // the mail that is enqueued while processing a record ends the batch
+            assertTrue(harness.processSingleStep());
+            assertEquals(5, harness.getOutput().size());
+            assertTrue(harness.getStreamTask().mailboxProcessor.hasMail());
+
+            harness.processAll();
+            assertEquals(7, harness.getOutput().size());
+        }
+    }
+
     @Test
     public void testRestorePerformedOnlyOnce() throws Exception {
         // given: the operator with empty snapshot result (all state handles are null)
@@ -2953,6 +2989,22 @@ public class StreamTaskTest extends TestLogger {
         }
     }
 
+    /** Forwards all records and enqueues a mail when receiving the record "mail". */
+    private static class MailSubmittingOperator extends AbstractStreamOperator<String>
+            implements OneInputStreamOperator<String, String> {
+
+        @Override
+        public void processElement(StreamRecord<String> element) throws Exception {
+            output.collect(element);
+            if ("mail".equals(element.getValue())) {
+                getContainingTask()
+                        .getMailboxExecutorFactory()
+                        .createExecutor(MIN_PRIORITY)
+                        .execute(() -> {}, "mail enqueued while processing records");
+            }
+        }
+    }
+
     private static class EmptyOperator extends AbstractStreamOperator<String>
             implements OneInputStreamOperator<String, String> {
 
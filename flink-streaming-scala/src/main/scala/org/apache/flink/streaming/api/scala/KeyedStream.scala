@@ -172,6 +172,7 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
 
     private var lowerBoundInclusive = true
     private var upperBoundInclusive = true
+    private var bucketSizeOption: Option[Time] = None
 
     /**
       * Set the lower bound to be exclusive
@@ -191,6 +192,16 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
       this
     }
 
+    /**
+      * Groups the buffered elements of both sides into buckets of timestamps of the given size,
+      * so that a lookup only reads the buckets that overlap with the boundaries of the join.
+      */
+    @PublicEvolving
+    def bucketSize(bucketSize: Time): IntervalJoined[IN1, IN2, KEY] = {
+      this.bucketSizeOption = Some(bucketSize)
+      this
+    }
+
     /**
       * Completes the join operation with the user function that is executed for each joined pair
       * of elements.
@@ -213,6 +224,7 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
         upperBound,
         lowerBoundInclusive,
         upperBoundInclusive)
+      bucketSizeOption.foreach(javaJoined.bucketSize)
       asScalaStream(javaJoined.process(processJoinFunction, outType))
     }
   }
@@ -283,6 +283,59 @@ public class ExecutionConfigOptions {
                     .withDescription(
                             "The async timeout for the asynchronous operation to complete.");
 
+    // ------------------------------------------------------------------------
+    //  Lookup Options
+    // ------------------------------------------------------------------------
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Long> TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS =
+            key("table.exec.lookup.cache.max-rows")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            "The max number of lookup keys whose rows are cached by each lookup join "
+                                    + "in a TaskManager, in front of the lookup function of any lookup "
+                                    + "source. The cache is shared by the subtasks of the lookup join in "
+                                    + "the TaskManager. The least recently used keys are evicted first. "
+                                    + "Default is 0, which means the cache is disabled.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Duration> TABLE_EXEC_LOOKUP_CACHE_TTL =
+            key("table.exec.lookup.cache.ttl")
+                    .durationType()
+                    .defaultValue(Duration.ZERO)
+                    .withDescription(
+                            "The time after which the cached rows of a lookup key expire and are "
+                                    + "looked up again. Default is 0, which means the rows never expire.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Boolean> TABLE_EXEC_LOOKUP_CACHE_CACHING_MISSING_KEY =
+            key("table.exec.lookup.cache.caching-missing-key")
+                    .booleanType()
+                    .defaultValue(true)
+                    .withDescription(
+                            "Whether the lookup keys without rows in the dimension table are cached "
+                                    + "as well.");
+
+    // ------------------------------------------------------------------------
+    //  Join Options
+    // ------------------------------------------------------------------------
+    @Documentation.TableOption(execMode = Documentation.ExecMode.STREAMING)
+    public static final ConfigOption<Integer> TABLE_EXEC_JOIN_HOT_KEY_CACHE_MAX_ROWS =
+            key("table.exec.join.hot-key-cache.max-rows")
+                    .intType()
+                    .defaultValue(0)
+                    .withDescription(
+                            "The max number of records which are cached in memory per input side by the "
+                                    + "regular streaming join, for input sides which have a unique key "
+                                    + "that is not contained in the join key. All the records of the most "
+                                    + "recently accessed join keys are kept in front of the state, which "
+                                    + "avoids a full state scan for every probe of a hot join key. The "
+                                    + "least recently accessed join keys are evicted when the cached "
+                                    + "records exceed this number, and join keys with more records are "
+                                    + "not cached at all. "
+                                    + "The cache is not used when 'table.exec.state.ttl' is set. "
+                                    + "Default is 0, which means the cache is disabled.");
+
     // ------------------------------------------------------------------------
     //  MiniBatch Options
     // ------------------------------------------------------------------------
@@ -322,6 +375,20 @@ public class ExecutionConfigOptions {
                                     + TABLE_EXEC_MINIBATCH_ENABLED.key()
                                     + " is set true, its value must be positive.");
 
+    @Documentation.TableOption(execMode = Documentation.ExecMode.STREAMING)
+    public static final ConfigOption<MemorySize> TABLE_EXEC_MINIBATCH_LOCAL_AGG_MEMORY =
+            key("table.exec.mini-batch.local-agg.memory")
+                    .memoryType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "Sets the managed memory used to buffer the accumulators of the local "
+                                    + "aggregate of a two-phase group aggregate in MiniBatch mode. When it is set "
+                                    + "and all accumulators are of fixed length, the accumulators are buffered "
+                                    + "in binary form in managed memory instead of on the heap, and MiniBatch is "
+                                    + "also triggered when the memory is full. Note: memory size is only a weight "
+                                    + "hint, the actual memory used depends on the running environment. "
+                                    + "By default the accumulators are buffered on the heap.");
+
     // ------------------------------------------------------------------------
     //  Other Exec Options
     // ------------------------------------------------------------------------
@@ -114,4 +114,72 @@ public class OptimizerConfigOptions {
                     .withDescription(
                             "When it is true, the optimizer will merge the operators with pipelined shuffling "
                                     + "into a multiple input operator to reduce shuffling and improve performance. Default value is true.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED =
+            key("table.optimizer.runtime-filter.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer will build a bloom filter of the join keys of the "
+                                    + "build side of a shuffled hash join at runtime and use it to filter the "
+                                    + "probe side before it is shuffled. This is only done for joins that drop "
+                                    + "the probe side rows without join partner, like inner and semi joins. "
+                                    + "Default value is false.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Integer> TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT =
+            key("table.optimizer.runtime-filter.max-build-row-count")
+                    .defaultValue(1_000_000)
+                    .withDescription(
+                            "The maximum number of build side rows of a runtime filter, which determines "
+                                    + "the size of its bloom filter. A runtime filter is only planned if "
+                                    + "the estimated number of build side rows does not exceed this value, "
+                                    + "and it forwards all rows if the actual number of build side rows does.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_SKEW_JOIN_ENABLED =
+            key("table.optimizer.skew-join.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer will detect hot join keys of shuffled hash "
+                                    + "and sort merge joins at runtime. The rows of one join input with a "
+                                    + "hot key are spread over all join subtasks instead of being sent to a "
+                                    + "single subtask, and the rows of the other join input with a hot key "
+                                    + "are broadcast to all join subtasks. This is only done for joins that "
+                                    + "don't need to know whether a row of the broadcast input found a join "
+                                    + "partner, like inner, semi and anti joins and outer joins that preserve "
+                                    + "the spread input. Default value is false.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Double> TABLE_OPTIMIZER_SKEW_JOIN_HOT_KEY_RATIO =
+            key("table.optimizer.skew-join.hot-key-ratio")
+                    .defaultValue(0.05)
+                    .withDescription(
+                            "A join key is hot if at least this ratio of the rows of the spread join "
+                                    + "input has the key. The rows of each key are estimated with a bounded "
+                                    + "number of counters, so keys slightly above the ratio may not be "
+                                    + "detected.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.STREAMING)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_MULTI_JOIN_ENABLED =
+            key("table.optimizer.multi-join.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer will merge a chain of regular inner joins "
+                                    + "on the same join key into a single multi-way join operator. The "
+                                    + "operator only keeps the records of the chain inputs in state instead "
+                                    + "of also materializing the intermediate join results, and a change of "
+                                    + "any input is joined with the records of all the other inputs. "
+                                    + "Default value is false.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.STREAMING)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_LOOKUP_JOIN_SHUFFLE_BY_KEY_ENABLED =
+            key("table.optimizer.lookup-join.shuffle-by-key.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer will hash partition the insert-only input "
+                                    + "of a lookup join by its lookup keys, so that every lookup join task "
+                                    + "only looks up a disjoint subset of the keys. This improves the hit "
+                                    + "rate of the lookup caches at the cost of an additional shuffle. "
+                                    + "Default value is false.");
 }
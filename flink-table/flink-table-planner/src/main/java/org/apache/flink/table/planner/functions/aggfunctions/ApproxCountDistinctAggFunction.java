@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.functions.aggfunctions;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.runtime.functions.aggregate.BuiltInAggregateFunction;
+import org.apache.flink.table.runtime.util.MurmurHashUtil;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.table.types.utils.DataTypeUtils.toInternalDataType;
+
+/**
+ * Built-in APPROX_COUNT_DISTINCT aggregate function.
+ *
+ * <p>The distinct values are estimated with a HyperLogLog sketch of {@code 2^12} one-byte
+ * registers, which gives a relative standard error of about 1.6%. Unlike the exact distinct
+ * aggregation, which keeps every distinct value in a map view, the sketch is a single fixed-size
+ * value per group and sketches of different partitions can be merged, so the function supports the
+ * local-global aggregation without splitting the distinct aggregation.
+ *
+ * <p>A sketch can not forget values, so retraction is not supported.
+ */
+@Internal
+public final class ApproxCountDistinctAggFunction
+        extends BuiltInAggregateFunction<
+                Long, ApproxCountDistinctAggFunction.ApproxCountDistinctAccumulator> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Number of hash bits used to select the register. */
+    private static final int PRECISION = 12;
+
+    private static final int NUM_REGISTERS = 1 << PRECISION;
+
+    /** Bias correction constant of HyperLogLog for {@code m >= 128} registers. */
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / NUM_REGISTERS);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final LogicalTypeRoot valueTypeRoot;
+
+    private transient DataType valueDataType;
+
+    public ApproxCountDistinctAggFunction(LogicalType valueType) {
+        this.valueTypeRoot = valueType.getTypeRoot();
+        this.valueDataType = toInternalDataType(valueType);
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // Planning
+    // --------------------------------------------------------------------------------------------
+
+    @Override
+    public List<DataType> getArgumentDataTypes() {
+        return Collections.singletonList(valueDataType);
+    }
+
+    @Override
+    public DataType getAccumulatorDataType() {
+        return DataTypes.STRUCTURED(
+                ApproxCountDistinctAccumulator.class,
+                DataTypes.FIELD("registers", DataTypes.BYTES().notNull()));
+    }
+
+    @Override
+    public DataType getOutputDataType() {
+        return DataTypes.BIGINT().notNull();
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // Runtime
+    // --------------------------------------------------------------------------------------------
+
+    /** Accumulator for APPROX_COUNT_DISTINCT, i.e. the registers of a HyperLogLog sketch. */
+    public static class ApproxCountDistinctAccumulator {
+        public byte[] registers;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ApproxCountDistinctAccumulator that = (ApproxCountDistinctAccumulator) o;
+            return Arrays.equals(registers, that.registers);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(registers);
+        }
+    }
+
+    @Override
+    public ApproxCountDistinctAccumulator createAccumulator() {
+        final ApproxCountDistinctAccumulator acc = new ApproxCountDistinctAccumulator();
+        acc.registers = new byte[NUM_REGISTERS];
+        return acc;
+    }
+
+    public void accumulate(ApproxCountDistinctAccumulator acc, Object value) {
+        if (value != null) {
+            long hash = hash(value);
+            int index = (int) (hash >>> (Long.SIZE - PRECISION));
+            // position of the leftmost 1-bit in the remaining bits, which is bounded by the
+            // number of remaining bits plus one
+            long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+            byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+            if (acc.registers[index] < rank) {
+                acc.registers[index] = rank;
+            }
+        }
+    }
+
+    public void merge(
+            ApproxCountDistinctAccumulator acc, Iterable<ApproxCountDistinctAccumulator> its) {
+        for (ApproxCountDistinctAccumulator otherAcc : its) {
+            for (int i = 0; i < NUM_REGISTERS; i++) {
+                if (acc.registers[i] < otherAcc.registers[i]) {
+                    acc.registers[i] = otherAcc.registers[i];
+                }
+            }
+        }
+    }
+
+    @Override
+    public Long getValue(ApproxCountDistinctAccumulator acc) {
+        double sum = 0.0;
+        int zeros = 0;
+        for (byte register : acc.registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * NUM_REGISTERS * NUM_REGISTERS / sum;
+        if (estimate <= 2.5 * NUM_REGISTERS && zeros > 0) {
+            // small range correction: linear counting on the empty registers
+            estimate = NUM_REGISTERS * Math.log((double) NUM_REGISTERS / zeros);
+        }
+        // the hash has 64 bits, so the large range correction of 32-bit HyperLogLog is not needed
+        return Math.round(estimate);
+    }
+
+    public void resetAccumulator(ApproxCountDistinctAccumulator acc) {
+        Arrays.fill(acc.registers, (byte) 0);
+    }
+
+    /** Computes a 64-bit hash of the given internal data structure. */
+    private long hash(Object value) {
+        switch (valueTypeRoot) {
+            case BOOLEAN:
+                return MurmurHashUtil.fmix((Boolean) value ? 1L : 0L);
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case DATE:
+            case TIME_WITHOUT_TIME_ZONE:
+            case INTERVAL_YEAR_MONTH:
+            case INTERVAL_DAY_TIME:
+                return MurmurHashUtil.fmix(((Number) value).longValue());
+            case FLOAT:
+                return MurmurHashUtil.fmix((long) Float.floatToIntBits((Float) value));
+            case DOUBLE:
+                return MurmurHashUtil.fmix(Double.doubleToLongBits((Double) value));
+            case DECIMAL:
+                DecimalData decimal = (DecimalData) value;
+                return decimal.isCompact()
+                        ? MurmurHashUtil.fmix(decimal.toUnscaledLong())
+                        : hashBytes(decimal.toUnscaledBytes());
+            case TIMESTAMP_WITHOUT_TIME_ZONE:
+            case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+                TimestampData timestamp = (TimestampData) value;
+                return MurmurHashUtil.fmix(
+                        timestamp.getMillisecond() * 1_000_000L + timestamp.getNanoOfMillisecond());
+            case CHAR:
+            case VARCHAR:
+                return hashBytes(((StringData) value).toBytes());
+            case BINARY:
+            case VARBINARY:
+                return hashBytes((byte[]) value);
+            default:
+                throw new TableException(
+                        "APPROX_COUNT_DISTINCT aggregate function does not support type: '"
+                                + valueTypeRoot
+                                + "'.\nPlease re-check the data type.");
+        }
+    }
+
+    private static long hashBytes(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash = (hash ^ b) * FNV_PRIME;
+        }
+        return MurmurHashUtil.fmix(hash);
+    }
+}
@@ -60,6 +60,13 @@ public class InputProperty {
     public static final RequiredDistribution SINGLETON_DISTRIBUTION =
             new RequiredDistribution(DistributionType.SINGLETON) {};
 
+    /**
+     * The input will read the records that are distributed round-robin to each parallelism of the
+     * target node. A given record appears on exactly one parallelism.
+     */
+    public static final RequiredDistribution REBALANCE_DISTRIBUTION =
+            new RequiredDistribution(DistributionType.REBALANCE) {};
+
     /**
      * Returns a place-holder required distribution.
      *
@@ -303,6 +310,12 @@ public class InputProperty {
         /** The input will read all records, and the parallelism of the target node must be 1. */
         SINGLETON,
 
+        /**
+         * The input will read the records that are distributed round-robin to each parallelism of
+         * the target node. A given record appears on exactly one parallelism.
+         */
+        REBALANCE,
+
         /** Unknown distribution type, will be filled out in the future. */
         UNKNOWN
     }
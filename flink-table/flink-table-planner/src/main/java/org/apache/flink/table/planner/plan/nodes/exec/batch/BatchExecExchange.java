@@ -27,6 +27,7 @@ import org.apache.flink.streaming.api.transformations.PartitionTransformation;
 import org.apache.flink.streaming.api.transformations.ShuffleMode;
 import org.apache.flink.streaming.runtime.partitioner.BroadcastPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.GlobalPartitioner;
+import org.apache.flink.streaming.runtime.partitioner.RebalancePartitioner;
 import org.apache.flink.streaming.runtime.partitioner.StreamPartitioner;
 import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.api.config.ExecutionConfigOptions;
@@ -120,6 +121,10 @@ public class BatchExecExchange extends CommonExecExchange implements BatchExecNo
                 partitioner = new GlobalPartitioner<>();
                 parallelism = 1;
                 break;
+            case REBALANCE:
+                partitioner = new RebalancePartitioner<>();
+                parallelism = ExecutionConfig.PARALLELISM_DEFAULT;
+                break;
             case HASH:
                 int[] keys = ((HashDistribution) inputProperty.getRequiredDistribution()).getKeys();
                 RowType inputType = (RowType) inputEdge.getOutputType();
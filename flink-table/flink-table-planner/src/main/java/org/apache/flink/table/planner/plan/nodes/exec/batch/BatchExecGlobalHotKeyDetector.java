@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.batch;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.transformations.OneInputTransformation;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.runtime.operators.join.skew.GlobalHotKeyDetectorOperator;
+import org.apache.flink.table.runtime.operators.join.skew.HotKeyUtils;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+
+import java.util.Collections;
+
+/**
+ * Batch {@link ExecNode} that merges the hot key candidates of all {@link
+ * BatchExecLocalHotKeyDetector} subtasks into the hot keys of a join input.
+ */
+public class BatchExecGlobalHotKeyDetector extends ExecNodeBase<RowData>
+        implements BatchExecNode<RowData> {
+
+    private final double hotKeyRatio;
+
+    public BatchExecGlobalHotKeyDetector(
+            double hotKeyRatio, InputProperty inputProperty, String description) {
+        super(Collections.singletonList(inputProperty), HotKeyUtils.OUTPUT_TYPE, description);
+        this.hotKeyRatio = hotKeyRatio;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        Transformation<RowData> inputTransform =
+                (Transformation<RowData>) getInputEdges().get(0).translateToPlan(planner);
+        OneInputTransformation<RowData, RowData> transform =
+                new OneInputTransformation<>(
+                        inputTransform,
+                        getDescription(),
+                        SimpleOperatorFactory.of(new GlobalHotKeyDetectorOperator(hotKeyRatio)),
+                        InternalTypeInfo.of(getOutputType()),
+                        1);
+        transform.setMaxParallelism(1);
+        return transform;
+    }
+}
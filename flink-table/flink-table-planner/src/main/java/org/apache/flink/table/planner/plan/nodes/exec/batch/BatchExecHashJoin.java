@@ -81,6 +81,18 @@ public class BatchExecHashJoin extends ExecNodeBase<RowData>
         this.tryDistinctBuildRow = tryDistinctBuildRow;
     }
 
+    public JoinSpec getJoinSpec() {
+        return joinSpec;
+    }
+
+    public boolean isLeftBuild() {
+        return leftIsBuild;
+    }
+
+    public long getEstimatedBuildRowCount() {
+        return leftIsBuild ? estimatedLeftRowCount : estimatedRightRowCount;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.batch;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.transformations.TwoInputTransformation;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.codegen.CodeGeneratorContext;
+import org.apache.flink.table.planner.codegen.ProjectionCodeGenerator;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.operators.join.skew.HotKeyFilterOperator;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.Arrays;
+
+/**
+ * Batch {@link ExecNode} that forwards either the rows with hot join keys or the other rows of a
+ * join input. The first input is the hot keys of {@link BatchExecGlobalHotKeyDetector}, the second
+ * input is the join input.
+ */
+public class BatchExecHotKeyFilter extends ExecNodeBase<RowData> implements BatchExecNode<RowData> {
+
+    private final int[] keys;
+    private final RowType keyType;
+    private final boolean forwardHotKeys;
+
+    public BatchExecHotKeyFilter(
+            int[] keys,
+            RowType keyType,
+            boolean forwardHotKeys,
+            InputProperty hotKeysInputProperty,
+            InputProperty inputProperty,
+            RowType outputType,
+            String description) {
+        super(Arrays.asList(hotKeysInputProperty, inputProperty), outputType, description);
+        this.keys = keys;
+        this.keyType = keyType;
+        this.forwardHotKeys = forwardHotKeys;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        Transformation<RowData> hotKeysTransform =
+                (Transformation<RowData>) getInputEdges().get(0).translateToPlan(planner);
+        ExecEdge inputEdge = getInputEdges().get(1);
+        Transformation<RowData> inputTransform =
+                (Transformation<RowData>) inputEdge.translateToPlan(planner);
+        GeneratedProjection keyProjection =
+                ProjectionCodeGenerator.generateProjection(
+                        new CodeGeneratorContext(planner.getTableConfig()),
+                        "HotKeyFilterProjection",
+                        (RowType) inputEdge.getOutputType(),
+                        keyType,
+                        keys);
+        return new TwoInputTransformation<>(
+                hotKeysTransform,
+                inputTransform,
+                getDescription(),
+                SimpleOperatorFactory.of(new HotKeyFilterOperator(keyProjection, forwardHotKeys)),
+                InternalTypeInfo.of(getOutputType()),
+                inputTransform.getParallelism());
+    }
+}
@@ -86,6 +86,22 @@ public class BatchExecSortMergeJoin extends ExecNodeBase<RowData>
         this.leftIsSmaller = leftIsSmaller;
     }
 
+    public FlinkJoinType getJoinType() {
+        return joinType;
+    }
+
+    public int[] getLeftKeys() {
+        return leftKeys;
+    }
+
+    public int[] getRightKeys() {
+        return rightKeys;
+    }
+
+    public boolean isLeftSmaller() {
+        return leftIsSmaller;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
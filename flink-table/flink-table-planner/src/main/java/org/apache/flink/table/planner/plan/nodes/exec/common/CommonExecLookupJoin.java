@@ -65,12 +65,14 @@ import org.apache.flink.table.runtime.generated.GeneratedResultFuture;
 import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
 import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinWithCalcRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinCache;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
 import org.apache.flink.table.runtime.types.PlannerTypeUtils;
 import org.apache.flink.table.runtime.types.TypeInfoDataTypeConverter;
 import org.apache.flink.table.runtime.typeutils.InternalSerializers;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 import org.apache.flink.table.sources.LookupableTableSource;
 import org.apache.flink.table.sources.TableSource;
 import org.apache.flink.table.types.logical.LogicalType;
@@ -89,6 +91,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nullable;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -355,6 +358,9 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
 
         DataStructureConverter<?, ?> fetcherConverter =
                 DataStructureConverters.getConverter(generatedFuncWithType.dataType());
+        LookupJoinCache lookupJoinCache =
+                createLookupJoinCache(
+                        config, temporalTable, allLookupKeys, inputRowType, tableSourceRowType);
         AsyncFunction<RowData, RowData> asyncFunc;
         if (existCalcOnTemporalTable) {
             // a projection or filter after table source scan
@@ -373,7 +379,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedResultFuture,
                             InternalSerializers.create(rightRowType),
                             isLeftOuterJoin,
-                            asyncBufferCapacity);
+                            asyncBufferCapacity,
+                            lookupJoinCache);
         } else {
             // right type is the same as table source row type, because no calc after temporal table
             asyncFunc =
@@ -383,7 +390,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedResultFuture,
                             InternalSerializers.create(rightRowType),
                             isLeftOuterJoin,
-                            asyncBufferCapacity);
+                            asyncBufferCapacity,
+                            lookupJoinCache);
         }
 
         // force ORDERED output mode currently, optimize it to UNORDERED
@@ -436,6 +444,9 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                         JavaScalaConversionUtil.toScala(Optional.ofNullable(joinCondition)),
                         JavaScalaConversionUtil.toScala(Optional.empty()),
                         true);
+        LookupJoinCache lookupJoinCache =
+                createLookupJoinCache(
+                        config, temporalTable, allLookupKeys, inputRowType, tableSourceRowType);
         ProcessFunction<RowData, RowData> processFunc;
         if (existCalcOnTemporalTable) {
             // a projection or filter after table source scan
@@ -453,7 +464,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedCalc,
                             generatedCollector,
                             isLeftOuterJoin,
-                            rightRowType.getFieldCount());
+                            rightRowType.getFieldCount(),
+                            lookupJoinCache);
         } else {
             // right type is the same as table source row type, because no calc after temporal table
             processFunc =
@@ -461,11 +473,58 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedFetcher,
                             generatedCollector,
                             isLeftOuterJoin,
-                            rightRowType.getFieldCount());
+                            rightRowType.getFieldCount(),
+                            lookupJoinCache);
         }
         return SimpleOperatorFactory.of(new ProcessOperator<>(processFunc));
     }
 
+    /**
+     * Creates the cache of the rows returned by the lookup function, or returns null if the cache
+     * is disabled. The cache is shared by the subtasks of this lookup join in a TaskManager.
+     */
+    @Nullable
+    private LookupJoinCache createLookupJoinCache(
+            TableConfig config,
+            RelOptTable temporalTable,
+            Map<Integer, LookupJoinUtil.LookupKey> allLookupKeys,
+            RowType inputRowType,
+            RowType tableSourceRowType) {
+        long maxRows =
+                config.getConfiguration()
+                        .getLong(ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS);
+        if (maxRows <= 0) {
+            return null;
+        }
+        // the constant lookup keys are the same for all input rows
+        int[] keyFields =
+                allLookupKeys.values().stream()
+                        .filter(key -> key instanceof LookupJoinUtil.FieldRefLookupKey)
+                        .mapToInt(key -> ((LookupJoinUtil.FieldRefLookupKey) key).index)
+                        .toArray();
+        LogicalType[] keyTypes =
+                Arrays.stream(keyFields)
+                        .mapToObj(inputRowType::getTypeAt)
+                        .toArray(LogicalType[]::new);
+        // the lookup joins of the same table may differ in their pushed down projections and
+        // filters, options and constant lookup keys, so only the subtasks of this node share rows
+        String cacheIdentifier =
+                StringUtils.join(temporalTable.getQualifiedName(), ".") + "#" + getId();
+        return new LookupJoinCache(
+                cacheIdentifier,
+                keyFields,
+                keyTypes,
+                new RowDataSerializer(tableSourceRowType),
+                maxRows,
+                config.getConfiguration()
+                        .get(ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_TTL)
+                        .toMillis(),
+                config.getConfiguration()
+                        .getBoolean(
+                                ExecutionConfigOptions
+                                        .TABLE_EXEC_LOOKUP_CACHE_CACHING_MISSING_KEY));
+    }
+
     // ----------------------------------------------------------------------------------------
     //                                       Validation
     // ----------------------------------------------------------------------------------------
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.processor;
+
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.stream.StreamExecExchange;
+import org.apache.flink.table.planner.plan.nodes.exec.stream.StreamExecJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.stream.StreamExecMultiJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.stream.StreamExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.visitor.AbstractExecNodeExactlyOnceVisitor;
+import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link ExecNodeGraphProcessor} that merges chains of regular inner joins on the same join key
+ * into {@link StreamExecMultiJoin}s.
+ *
+ * <p>A chain of {@code N} regular joins is translated into {@code N} binary join operators, each of
+ * them keeps the records of both its inputs in state. So the result of each join of the chain but
+ * the last is materialized in the state of its consuming join. If all joins are inner joins and the
+ * chain is partitioned by the same key, the joins can be evaluated by a single operator which only
+ * keeps the records of the leaves of the chain in state:
+ *
+ * <pre>
+ *              Join(a = c)                      MultiJoin
+ *              /         \                     /    |    \
+ *   Exchange(hash[a])  Exchange(hash[c])    Exch.  Exch.  Exch.
+ *           |               |                 |     |      |
+ *       Join(a = b)         C       =>        A     B      C
+ *        /       \
+ *   Exch.(hash)  Exch.(hash)
+ *       |          |
+ *       A          B
+ * </pre>
+ *
+ * <p>Only left-deep chains are merged, i.e. the left input of a join is the result of the joins
+ * below it, and the left keys of each join must be the join keys of one of the inputs below it in
+ * the same order. The intermediate joins must not have other consumers.
+ *
+ * <p>NOTE: This processor can be only applied on {@link StreamExecNode} DAG.
+ */
+public class MultiJoinProcessor implements ExecNodeGraphProcessor {
+
+    @Override
+    public ExecNodeGraph process(ExecNodeGraph execGraph, ProcessorContext context) {
+        if (!execGraph.getRootNodes().stream().allMatch(r -> r instanceof StreamExecNode)) {
+            throw new TableException("Only StreamExecNode DAG are supported now.");
+        }
+
+        // collect the joins bottom-up and the consumers of all nodes
+        Map<ExecNode<?>, List<ExecNode<?>>> consumers = new IdentityHashMap<>();
+        List<StreamExecJoin> joins = new ArrayList<>();
+        AbstractExecNodeExactlyOnceVisitor visitor =
+                new AbstractExecNodeExactlyOnceVisitor() {
+                    @Override
+                    protected void visitNode(ExecNode<?> node) {
+                        visitInputs(node);
+                        for (ExecEdge edge : node.getInputEdges()) {
+                            consumers
+                                    .computeIfAbsent(edge.getSource(), k -> new ArrayList<>())
+                                    .add(node);
+                        }
+                        if (node instanceof StreamExecJoin) {
+                            joins.add((StreamExecJoin) node);
+                        }
+                    }
+                };
+        execGraph.getRootNodes().forEach(r -> r.accept(visitor));
+
+        List<ExecNode<?>> rootNodes = new ArrayList<>(execGraph.getRootNodes());
+        Map<ExecNode<?>, JoinChain> chains = new IdentityHashMap<>();
+        for (StreamExecJoin join : joins) {
+            JoinChain chain = mergeIntoChain(join, consumers, chains);
+            if (chain == null) {
+                continue;
+            }
+            StreamExecMultiJoin multiJoin = chain.createNode((RowType) join.getOutputType());
+            chains.put(multiJoin, chain);
+
+            // replace the join by the multi-way join in its consumers
+            List<ExecNode<?>> joinConsumers = consumers.getOrDefault(join, new ArrayList<>());
+            for (ExecNode<?> consumer : joinConsumers) {
+                List<ExecEdge> edges = consumer.getInputEdges();
+                for (int i = 0; i < edges.size(); i++) {
+                    ExecEdge edge = edges.get(i);
+                    if (edge.getSource() == join) {
+                        consumer.replaceInputEdge(i, copyEdge(edge, multiJoin, consumer));
+                    }
+                }
+            }
+            consumers.put(multiJoin, joinConsumers);
+            rootNodes.replaceAll(r -> r == join ? multiJoin : r);
+        }
+        return chains.isEmpty()
+                ? execGraph
+                : new ExecNodeGraph(execGraph.getFlinkVersion(), rootNodes);
+    }
+
+    /**
+     * Returns the chain of the given join and the joins below it, or null if the left input of the
+     * join is not a join chain that the given join can be added to.
+     */
+    private static JoinChain mergeIntoChain(
+            StreamExecJoin join,
+            Map<ExecNode<?>, List<ExecNode<?>>> consumers,
+            Map<ExecNode<?>, JoinChain> chains) {
+        JoinSpec joinSpec = join.getJoinSpec();
+        if (joinSpec.getJoinType() != FlinkJoinType.INNER || joinSpec.getJoinKeySize() == 0) {
+            return null;
+        }
+        ExecNode<?> exchange = join.getInputEdges().get(0).getSource();
+        if (!(exchange instanceof StreamExecExchange) || !hasSingleConsumer(exchange, consumers)) {
+            return null;
+        }
+        ExecNode<?> child = exchange.getInputEdges().get(0).getSource();
+        if (!hasSingleConsumer(child, consumers)) {
+            return null;
+        }
+
+        JoinChain childChain;
+        if (chains.containsKey(child)) {
+            childChain = chains.get(child);
+        } else if (child instanceof StreamExecJoin
+                && ((StreamExecJoin) child).getJoinSpec().getJoinType() == FlinkJoinType.INNER
+                && ((StreamExecJoin) child).getJoinSpec().getJoinKeySize() > 0) {
+            childChain = JoinChain.of((StreamExecJoin) child);
+        } else {
+            return null;
+        }
+
+        // the left input of the join must be partitioned by the key of the chain
+        if (!childChain.isJoinKey(joinSpec.getLeftKeys())) {
+            return null;
+        }
+        return childChain.add(join);
+    }
+
+    private static boolean hasSingleConsumer(
+            ExecNode<?> node, Map<ExecNode<?>, List<ExecNode<?>>> consumers) {
+        return consumers.getOrDefault(node, new ArrayList<>()).size() == 1;
+    }
+
+    private static ExecEdge copyEdge(ExecEdge edge, ExecNode<?> source, ExecNode<?> target) {
+        return ExecEdge.builder()
+                .source(source)
+                .target(target)
+                .shuffle(edge.getShuffle())
+                .shuffleMode(edge.getShuffleMode())
+                .build();
+    }
+
+    /** The inputs and join specs of a left-deep chain of inner joins on the same key. */
+    private static class JoinChain {
+
+        private final List<ExecEdge> inputEdges;
+        private final List<InputProperty> inputProperties;
+        private final List<List<int[]>> inputUniqueKeys;
+        private final List<JoinSpec> joinSpecs;
+        private final List<String> descriptions;
+        /** The join keys of the inputs, as field indices of the joined records of all inputs. */
+        private final List<int[]> joinKeys;
+
+        private int arity;
+
+        private JoinChain() {
+            this.inputEdges = new ArrayList<>();
+            this.inputProperties = new ArrayList<>();
+            this.inputUniqueKeys = new ArrayList<>();
+            this.joinSpecs = new ArrayList<>();
+            this.descriptions = new ArrayList<>();
+            this.joinKeys = new ArrayList<>();
+            this.arity = 0;
+        }
+
+        private static JoinChain of(StreamExecJoin join) {
+            JoinChain chain = new JoinChain();
+            chain.addInput(join, 0, join.getJoinSpec().getLeftKeys(), join.getLeftUniqueKeys());
+            return chain.add(join);
+        }
+
+        private JoinChain add(StreamExecJoin join) {
+            JoinChain chain = new JoinChain();
+            chain.inputEdges.addAll(inputEdges);
+            chain.inputProperties.addAll(inputProperties);
+            chain.inputUniqueKeys.addAll(inputUniqueKeys);
+            chain.joinSpecs.addAll(joinSpecs);
+            chain.descriptions.addAll(descriptions);
+            chain.joinKeys.addAll(joinKeys);
+            chain.arity = arity;
+
+            chain.joinSpecs.add(join.getJoinSpec());
+            chain.descriptions.add(join.getDescription());
+            chain.addInput(join, 1, join.getJoinSpec().getRightKeys(), join.getRightUniqueKeys());
+            return chain;
+        }
+
+        private void addInput(StreamExecJoin join, int index, int[] keys, List<int[]> uniqueKeys) {
+            ExecEdge inputEdge = join.getInputEdges().get(index);
+            inputEdges.add(inputEdge);
+            inputProperties.add(join.getInputProperties().get(index));
+            inputUniqueKeys.add(uniqueKeys);
+            int offset = arity;
+            joinKeys.add(IntStream.of(keys).map(k -> k + offset).toArray());
+            arity += ((RowType) inputEdge.getOutputType()).getFieldCount();
+        }
+
+        private boolean isJoinKey(int[] keys) {
+            return joinKeys.stream().anyMatch(k -> Arrays.equals(k, keys));
+        }
+
+        private StreamExecMultiJoin createNode(RowType outputType) {
+            StreamExecMultiJoin multiJoin =
+                    new StreamExecMultiJoin(
+                            joinSpecs,
+                            inputUniqueKeys,
+                            inputProperties,
+                            outputType,
+                            String.format("MultiJoin(%s)", String.join(", ", descriptions)));
+            multiJoin.setInputEdges(
+                    inputEdges.stream()
+                            .map(edge -> copyEdge(edge, edge.getSource(), multiJoin))
+                            .collect(Collectors.toList()));
+            return multiJoin;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.processor;
+
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecExchange;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecGlobalRuntimeFilterBuilder;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecHashJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecLocalRuntimeFilterBuilder;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecRuntimeFilter;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.visitor.AbstractExecNodeExactlyOnceVisitor;
+import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+import org.apache.flink.table.runtime.operators.join.HashJoinType;
+import org.apache.flink.table.runtime.operators.runtimefilter.RuntimeFilterUtils;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link ExecNodeGraphProcessor} that adds runtime filters to shuffled hash joins.
+ *
+ * <p>A runtime filter is a bloom filter of the join keys of the build side of a hash join, which is
+ * built at runtime and applied to the probe side before it is shuffled to the join. The following
+ * nodes are added for a join whose probe side is hash partitioned:
+ *
+ * <pre>
+ *    build input                                probe input
+ *         |                                          |
+ *   LocalRuntimeFilterBuilder                        |
+ *         |                                          |
+ *   Exchange (singleton)                             |
+ *         |                                          |
+ *   GlobalRuntimeFilterBuilder                       |
+ *         |                                          |
+ *   Exchange (broadcast) --------------------> RuntimeFilter
+ *                                                    |
+ *   build side                              Exchange (hash)
+ *         |                                          |
+ *         +----------------> HashJoin <--------------+
+ * </pre>
+ *
+ * <p>Runtime filters are only added to joins that drop the probe side rows without join partner,
+ * and only if the estimated number of build side rows does not exceed {@link
+ * OptimizerConfigOptions#TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT}.
+ *
+ * <p>NOTE: This processor can be only applied on {@link BatchExecNode} DAG and must be applied
+ * before the {@link DeadlockBreakupProcessor}, which resolves the input priority conflicts of the
+ * added nodes.
+ */
+public class RuntimeFilterProcessor implements ExecNodeGraphProcessor {
+
+    @Override
+    public ExecNodeGraph process(ExecNodeGraph execGraph, ProcessorContext context) {
+        if (!execGraph.getRootNodes().stream().allMatch(r -> r instanceof BatchExecNode)) {
+            throw new TableException("Only BatchExecNode DAG are supported now.");
+        }
+        int maxRowCount =
+                context.getPlanner()
+                        .getTableConfig()
+                        .getConfiguration()
+                        .getInteger(
+                                OptimizerConfigOptions
+                                        .TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT);
+
+        List<BatchExecHashJoin> joins = new ArrayList<>();
+        AbstractExecNodeExactlyOnceVisitor visitor =
+                new AbstractExecNodeExactlyOnceVisitor() {
+                    @Override
+                    protected void visitNode(ExecNode<?> node) {
+                        if (node instanceof BatchExecHashJoin
+                                && canAddRuntimeFilter((BatchExecHashJoin) node, maxRowCount)) {
+                            joins.add((BatchExecHashJoin) node);
+                        }
+                        visitInputs(node);
+                    }
+                };
+        execGraph.getRootNodes().forEach(r -> r.accept(visitor));
+
+        joins.forEach(join -> addRuntimeFilter(join, maxRowCount));
+        return execGraph;
+    }
+
+    private static boolean canAddRuntimeFilter(BatchExecHashJoin join, int maxRowCount) {
+        if (join.getEstimatedBuildRowCount() > maxRowCount) {
+            return false;
+        }
+
+        FlinkJoinType joinType = join.getJoinSpec().getJoinType();
+        HashJoinType hashJoinType =
+                HashJoinType.of(
+                        join.isLeftBuild(),
+                        joinType.isLeftOuter(),
+                        joinType.isRightOuter(),
+                        joinType == FlinkJoinType.SEMI,
+                        joinType == FlinkJoinType.ANTI);
+        switch (hashJoinType) {
+            case INNER:
+            case BUILD_OUTER:
+            case SEMI:
+            case BUILD_LEFT_SEMI:
+                break;
+            default:
+                // the probe side rows without join partner are part of the result
+                return false;
+        }
+
+        ExecNode<?> probeInput = join.getInputEdges().get(probeIndex(join)).getSource();
+        return probeInput instanceof BatchExecExchange
+                && probeInput.getInputProperties().get(0).getRequiredDistribution().getType()
+                        == InputProperty.DistributionType.HASH;
+    }
+
+    private static void addRuntimeFilter(BatchExecHashJoin join, int maxRowCount) {
+        JoinSpec joinSpec = join.getJoinSpec();
+        int buildIndex = join.isLeftBuild() ? 0 : 1;
+        int probeIndex = probeIndex(join);
+        int[] buildKeys = buildIndex == 0 ? joinSpec.getLeftKeys() : joinSpec.getRightKeys();
+        int[] probeKeys = probeIndex == 0 ? joinSpec.getLeftKeys() : joinSpec.getRightKeys();
+
+        // the join keys are projected to the same type as in the hash join
+        RowType leftType = (RowType) join.getInputEdges().get(0).getOutputType();
+        RowType keyType =
+                RowType.of(
+                        IntStream.of(joinSpec.getLeftKeys())
+                                .mapToObj(leftType::getTypeAt)
+                                .toArray(LogicalType[]::new));
+
+        // build the filter from the build side before it is shuffled to the join
+        ExecNode<?> buildInput = join.getInputEdges().get(buildIndex).getSource();
+        if (buildInput instanceof BatchExecExchange) {
+            buildInput = buildInput.getInputEdges().get(0).getSource();
+        }
+        BatchExecLocalRuntimeFilterBuilder localBuilder =
+                new BatchExecLocalRuntimeFilterBuilder(
+                        buildKeys,
+                        keyType,
+                        maxRowCount,
+                        InputProperty.builder()
+                                .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                                .build(),
+                        String.format(
+                                "LocalRuntimeFilterBuilder(buildKeys=[%s], maxRowCount=%s)",
+                                fieldNames(buildInput.getOutputType(), buildKeys), maxRowCount));
+        connect(buildInput, localBuilder);
+
+        BatchExecExchange singletonExchange =
+                createExchange(localBuilder, InputProperty.SINGLETON_DISTRIBUTION);
+        BatchExecGlobalRuntimeFilterBuilder globalBuilder =
+                new BatchExecGlobalRuntimeFilterBuilder(
+                        maxRowCount,
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.SINGLETON_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                                .build(),
+                        String.format("GlobalRuntimeFilterBuilder(maxRowCount=%s)", maxRowCount));
+        connect(singletonExchange, globalBuilder);
+        BatchExecExchange broadcastExchange =
+                createExchange(globalBuilder, InputProperty.BROADCAST_DISTRIBUTION);
+
+        // filter the probe side before it is shuffled to the join, the exchange is copied
+        // because it may be shared with other nodes that must not be filtered
+        BatchExecExchange probeExchange =
+                (BatchExecExchange) join.getInputEdges().get(probeIndex).getSource();
+        ExecNode<?> probeInput = probeExchange.getInputEdges().get(0).getSource();
+        RowType probeType = (RowType) probeInput.getOutputType();
+        BatchExecRuntimeFilter runtimeFilter =
+                new BatchExecRuntimeFilter(
+                        probeKeys,
+                        keyType,
+                        maxRowCount,
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                                .priority(0)
+                                .build(),
+                        InputProperty.builder()
+                                .damBehavior(InputProperty.DamBehavior.PIPELINED)
+                                .priority(1)
+                                .build(),
+                        probeType,
+                        String.format(
+                                "RuntimeFilter(probeKeys=[%s])", fieldNames(probeType, probeKeys)));
+        runtimeFilter.setInputEdges(
+                Arrays.asList(
+                        ExecEdge.builder().source(broadcastExchange).target(runtimeFilter).build(),
+                        ExecEdge.builder().source(probeInput).target(runtimeFilter).build()));
+
+        BatchExecExchange newProbeExchange =
+                new BatchExecExchange(
+                        probeExchange.getInputProperties().get(0), probeType, "Exchange");
+        probeExchange.getRequiredShuffleMode().ifPresent(newProbeExchange::setRequiredShuffleMode);
+        connect(runtimeFilter, newProbeExchange);
+        join.replaceInputEdge(
+                probeIndex, ExecEdge.builder().source(newProbeExchange).target(join).build());
+    }
+
+    private static int probeIndex(BatchExecHashJoin join) {
+        return join.isLeftBuild() ? 1 : 0;
+    }
+
+    private static BatchExecExchange createExchange(
+            ExecNode<?> input, InputProperty.RequiredDistribution distribution) {
+        BatchExecExchange exchange =
+                new BatchExecExchange(
+                        InputProperty.builder().requiredDistribution(distribution).build(),
+                        RuntimeFilterUtils.OUTPUT_TYPE,
+                        "Exchange");
+        connect(input, exchange);
+        return exchange;
+    }
+
+    private static void connect(ExecNode<?> source, ExecNode<?> target) {
+        target.setInputEdges(
+                Collections.singletonList(
+                        ExecEdge.builder().source(source).target(target).build()));
+    }
+
+    private static String fieldNames(LogicalType rowType, int[] fields) {
+        List<String> names = ((RowType) rowType).getFieldNames();
+        return IntStream.of(fields).mapToObj(names::get).collect(Collectors.joining(", "));
+    }
+}
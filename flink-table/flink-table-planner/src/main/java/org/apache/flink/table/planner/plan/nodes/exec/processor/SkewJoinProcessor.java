@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.processor;
+
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecExchange;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecGlobalHotKeyDetector;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecHashJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecHotKeyFilter;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecLocalHotKeyDetector;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecSortMergeJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecUnion;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.visitor.AbstractExecNodeExactlyOnceVisitor;
+import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+import org.apache.flink.table.runtime.operators.join.HashJoinType;
+import org.apache.flink.table.runtime.operators.join.skew.HotKeyUtils;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link ExecNodeGraphProcessor} that handles hot join keys of shuffled hash joins and sort merge
+ * joins.
+ *
+ * <p>A hash partitioned join sends all rows of a join key to the same subtask, so a subtask that
+ * receives the rows of a hot key takes much longer than the others. This processor detects the hot
+ * keys of one join input, the spread input, at runtime. The rows of the spread input with a hot key
+ * are distributed round-robin to all join subtasks, and the rows of the other input, the replicated
+ * input, with a hot key are broadcast to all join subtasks. The rows without hot key are hash
+ * partitioned as before:
+ *
+ * <pre>
+ *    spread input
+ *         |
+ *   LocalHotKeyDetector
+ *         |
+ *   Exchange (singleton)
+ *         |
+ *   GlobalHotKeyDetector
+ *         |
+ *   Exchange (broadcast) ----------+---------------------------+
+ *                                  |                           |
+ *           spread input -> HotKeyFilter (hot)   HotKeyFilter (hot) <- replicated input
+ *                                  |                           |
+ *                         Exchange (rebalance)        Exchange (broadcast)
+ *                                  |                           |
+ *   HotKeyFilter (other) -> Exchange (hash) -> Union   Union <- Exchange (hash) <- HotKeyFilter
+ *                                               |         |
+ *                                               +-> Join <+
+ * </pre>
+ *
+ * <p>Each row of the replicated input with a hot key finds all join partners in the subtask of
+ * every spread row with this key, but it is joined in all subtasks. So only joins are handled that
+ * don't emit the rows of the replicated input without join partner: inner joins, semi and anti
+ * joins whose left input is spread, and outer joins that preserve the spread input.
+ *
+ * <p>NOTE: This processor can be only applied on {@link BatchExecNode} DAG and must be applied
+ * before the {@link DeadlockBreakupProcessor}, which resolves the input priority conflicts of the
+ * added nodes.
+ */
+public class SkewJoinProcessor implements ExecNodeGraphProcessor {
+
+    @Override
+    public ExecNodeGraph process(ExecNodeGraph execGraph, ProcessorContext context) {
+        if (!execGraph.getRootNodes().stream().allMatch(r -> r instanceof BatchExecNode)) {
+            throw new TableException("Only BatchExecNode DAG are supported now.");
+        }
+        double hotKeyRatio =
+                context.getPlanner()
+                        .getTableConfig()
+                        .getConfiguration()
+                        .getDouble(OptimizerConfigOptions.TABLE_OPTIMIZER_SKEW_JOIN_HOT_KEY_RATIO);
+
+        List<SkewJoin> joins = new ArrayList<>();
+        AbstractExecNodeExactlyOnceVisitor visitor =
+                new AbstractExecNodeExactlyOnceVisitor() {
+                    @Override
+                    protected void visitNode(ExecNode<?> node) {
+                        SkewJoin join = SkewJoin.of(node);
+                        if (join != null && isHashPartitioned(node)) {
+                            joins.add(join);
+                        }
+                        visitInputs(node);
+                    }
+                };
+        execGraph.getRootNodes().forEach(r -> r.accept(visitor));
+
+        joins.forEach(join -> handleHotKeys(join, hotKeyRatio));
+        return execGraph;
+    }
+
+    private static boolean isHashPartitioned(ExecNode<?> join) {
+        return join.getInputEdges().stream()
+                .map(ExecEdge::getSource)
+                .allMatch(
+                        input ->
+                                input instanceof BatchExecExchange
+                                        && input.getInputProperties()
+                                                        .get(0)
+                                                        .getRequiredDistribution()
+                                                        .getType()
+                                                == InputProperty.DistributionType.HASH);
+    }
+
+    private static void handleHotKeys(SkewJoin join, double hotKeyRatio) {
+        ExecNode<?> node = join.node;
+        int[][] keys = {join.leftKeys, join.rightKeys};
+
+        // the join keys are projected to the same type on both sides, as in the joins
+        RowType leftType = (RowType) node.getInputEdges().get(0).getOutputType();
+        RowType keyType =
+                RowType.of(
+                        IntStream.of(join.leftKeys)
+                                .mapToObj(leftType::getTypeAt)
+                                .toArray(LogicalType[]::new));
+
+        // detect the hot keys of the spread input before it is shuffled to the join
+        ExecNode<?> spreadInput = exchangeInput(node, join.spreadIndex);
+        int[] spreadKeys = keys[join.spreadIndex];
+        BatchExecLocalHotKeyDetector localDetector =
+                new BatchExecLocalHotKeyDetector(
+                        spreadKeys,
+                        keyType,
+                        hotKeyRatio,
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.ANY_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                                .build(),
+                        String.format(
+                                "LocalHotKeyDetector(keys=[%s])",
+                                fieldNames(spreadInput.getOutputType(), spreadKeys)));
+        connect(spreadInput, localDetector);
+
+        BatchExecExchange singletonExchange =
+                createExchange(
+                        localDetector,
+                        InputProperty.SINGLETON_DISTRIBUTION,
+                        HotKeyUtils.OUTPUT_TYPE);
+        BatchExecGlobalHotKeyDetector globalDetector =
+                new BatchExecGlobalHotKeyDetector(
+                        hotKeyRatio,
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.SINGLETON_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                                .build(),
+                        String.format("GlobalHotKeyDetector(hotKeyRatio=%s)", hotKeyRatio));
+        connect(singletonExchange, globalDetector);
+        BatchExecExchange hotKeysExchange =
+                createExchange(
+                        globalDetector,
+                        InputProperty.BROADCAST_DISTRIBUTION,
+                        HotKeyUtils.OUTPUT_TYPE);
+
+        // split both inputs into the rows with and without hot keys, the exchanges are copied
+        // because they may be shared with other nodes
+        for (int i = 0; i < 2; i++) {
+            BatchExecExchange exchange =
+                    (BatchExecExchange) node.getInputEdges().get(i).getSource();
+            ExecNode<?> input = exchangeInput(node, i);
+            RowType inputType = (RowType) input.getOutputType();
+
+            BatchExecHotKeyFilter otherKeysFilter =
+                    createFilter(hotKeysExchange, input, keys[i], keyType, false);
+            BatchExecExchange otherKeysExchange =
+                    new BatchExecExchange(
+                            exchange.getInputProperties().get(0), inputType, "Exchange");
+            exchange.getRequiredShuffleMode().ifPresent(otherKeysExchange::setRequiredShuffleMode);
+            connect(otherKeysFilter, otherKeysExchange);
+
+            BatchExecHotKeyFilter hotKeysFilter =
+                    createFilter(hotKeysExchange, input, keys[i], keyType, true);
+            BatchExecExchange hotKeysRowsExchange =
+                    createExchange(
+                            hotKeysFilter,
+                            i == join.spreadIndex
+                                    ? InputProperty.REBALANCE_DISTRIBUTION
+                                    : InputProperty.BROADCAST_DISTRIBUTION,
+                            inputType);
+
+            BatchExecUnion union =
+                    new BatchExecUnion(
+                            Arrays.asList(InputProperty.DEFAULT, InputProperty.DEFAULT),
+                            inputType,
+                            String.format(
+                                    "Union(all=[true], union=[%s])",
+                                    String.join(", ", inputType.getFieldNames())));
+            union.setInputEdges(
+                    Arrays.asList(
+                            ExecEdge.builder().source(otherKeysExchange).target(union).build(),
+                            ExecEdge.builder().source(hotKeysRowsExchange).target(union).build()));
+            node.replaceInputEdge(i, ExecEdge.builder().source(union).target(node).build());
+        }
+    }
+
+    private static BatchExecHotKeyFilter createFilter(
+            ExecNode<?> hotKeys,
+            ExecNode<?> input,
+            int[] keys,
+            RowType keyType,
+            boolean forwardHotKeys) {
+        RowType inputType = (RowType) input.getOutputType();
+        BatchExecHotKeyFilter filter =
+                new BatchExecHotKeyFilter(
+                        keys,
+                        keyType,
+                        forwardHotKeys,
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                                .priority(0)
+                                .build(),
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.ANY_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.PIPELINED)
+                                .priority(1)
+                                .build(),
+                        inputType,
+                        String.format(
+                                "HotKeyFilter(keys=[%s], hotKeys=[%s])",
+                                fieldNames(inputType, keys), forwardHotKeys));
+        filter.setInputEdges(
+                Arrays.asList(
+                        ExecEdge.builder().source(hotKeys).target(filter).build(),
+                        ExecEdge.builder().source(input).target(filter).build()));
+        return filter;
+    }
+
+    private static ExecNode<?> exchangeInput(ExecNode<?> join, int index) {
+        return join.getInputEdges().get(index).getSource().getInputEdges().get(0).getSource();
+    }
+
+    private static BatchExecExchange createExchange(
+            ExecNode<?> input, InputProperty.RequiredDistribution distribution, RowType type) {
+        BatchExecExchange exchange =
+                new BatchExecExchange(
+                        InputProperty.builder().requiredDistribution(distribution).build(),
+                        type,
+                        "Exchange");
+        connect(input, exchange);
+        return exchange;
+    }
+
+    private static void connect(ExecNode<?> source, ExecNode<?> target) {
+        target.setInputEdges(
+                Collections.singletonList(
+                        ExecEdge.builder().source(source).target(target).build()));
+    }
+
+    private static String fieldNames(LogicalType rowType, int[] fields) {
+        List<String> names = ((RowType) rowType).getFieldNames();
+        return IntStream.of(fields).mapToObj(names::get).collect(Collectors.joining(", "));
+    }
+
+    /** A join whose hot keys can be handled, with the index of its spread input. */
+    private static class SkewJoin {
+
+        private final ExecNode<?> node;
+        private final int[] leftKeys;
+        private final int[] rightKeys;
+        private final int spreadIndex;
+
+        private SkewJoin(ExecNode<?> node, int[] leftKeys, int[] rightKeys, int spreadIndex) {
+            this.node = node;
+            this.leftKeys = leftKeys;
+            this.rightKeys = rightKeys;
+            this.spreadIndex = spreadIndex;
+        }
+
+        /** Returns the given node as {@link SkewJoin}, or null if it can't be handled. */
+        private static SkewJoin of(ExecNode<?> node) {
+            if (node instanceof BatchExecHashJoin) {
+                BatchExecHashJoin join = (BatchExecHashJoin) node;
+                JoinSpec joinSpec = join.getJoinSpec();
+                FlinkJoinType joinType = joinSpec.getJoinType();
+                HashJoinType hashJoinType =
+                        HashJoinType.of(
+                                join.isLeftBuild(),
+                                joinType.isLeftOuter(),
+                                joinType.isRightOuter(),
+                                joinType == FlinkJoinType.SEMI,
+                                joinType == FlinkJoinType.ANTI);
+                switch (hashJoinType) {
+                    case INNER:
+                    case PROBE_OUTER:
+                    case SEMI:
+                    case ANTI:
+                        // the probe side is spread and the build side is replicated
+                        return new SkewJoin(
+                                join,
+                                joinSpec.getLeftKeys(),
+                                joinSpec.getRightKeys(),
+                                join.isLeftBuild() ? 1 : 0);
+                    default:
+                        return null;
+                }
+            } else if (node instanceof BatchExecSortMergeJoin) {
+                BatchExecSortMergeJoin join = (BatchExecSortMergeJoin) node;
+                final int spreadIndex;
+                switch (join.getJoinType()) {
+                    case INNER:
+                        // the larger input is spread and the smaller input is replicated
+                        spreadIndex = join.isLeftSmaller() ? 1 : 0;
+                        break;
+                    case LEFT:
+                    case SEMI:
+                    case ANTI:
+                        spreadIndex = 0;
+                        break;
+                    case RIGHT:
+                        spreadIndex = 1;
+                        break;
+                    default:
+                        return null;
+                }
+                return new SkewJoin(join, join.getLeftKeys(), join.getRightKeys(), spreadIndex);
+            } else {
+                return null;
+            }
+        }
+    }
+}
@@ -52,6 +52,8 @@ public class RequiredDistributionJsonDeserializer extends StdDeserializer<Requir
                 return InputProperty.SINGLETON_DISTRIBUTION;
             case BROADCAST:
                 return InputProperty.BROADCAST_DISTRIBUTION;
+            case REBALANCE:
+                return InputProperty.REBALANCE_DISTRIBUTION;
             case UNKNOWN:
                 return InputProperty.UNKNOWN_DISTRIBUTION;
             case HASH:
@@ -50,6 +50,7 @@ public class RequiredDistributionJsonSerializer extends StdSerializer<RequiredDi
             case ANY:
             case SINGLETON:
             case BROADCAST:
+            case REBALANCE:
             case UNKNOWN:
                 // do nothing, type name is enough
                 break;
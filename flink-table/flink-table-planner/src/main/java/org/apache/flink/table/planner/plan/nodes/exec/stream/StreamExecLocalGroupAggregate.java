@@ -19,14 +19,19 @@
 package org.apache.flink.table.planner.plan.nodes.exec.stream;
 
 import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
 import org.apache.flink.table.planner.codegen.CodeGeneratorContext;
 import org.apache.flink.table.planner.codegen.agg.AggsHandlerCodeGenerator;
 import org.apache.flink.table.planner.delegation.PlannerBase;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.utils.ExecNodeUtil;
 import org.apache.flink.table.planner.plan.utils.AggregateInfoList;
 import org.apache.flink.table.planner.plan.utils.AggregateUtil;
 import org.apache.flink.table.planner.plan.utils.KeySelectorUtil;
@@ -34,8 +39,11 @@ import org.apache.flink.table.planner.utils.JavaScalaConversionUtil;
 import org.apache.flink.table.runtime.generated.GeneratedAggsHandleFunction;
 import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
 import org.apache.flink.table.runtime.operators.aggregate.MiniBatchLocalGroupAggFunction;
+import org.apache.flink.table.runtime.operators.aggregate.MiniBatchLocalGroupAggOperator;
 import org.apache.flink.table.runtime.operators.bundle.MapBundleOperator;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.LogicalType;
 import org.apache.flink.table.types.logical.RowType;
 
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonCreator;
@@ -134,13 +142,39 @@ public class StreamExecLocalGroupAggregate extends StreamExecAggregateBase {
                         true); // needDistinctInfo
         final GeneratedAggsHandleFunction aggsHandler =
                 generator.generateAggsHandler("GroupAggsHandler", aggInfoList);
-        final MiniBatchLocalGroupAggFunction aggFunction =
-                new MiniBatchLocalGroupAggFunction(aggsHandler);
-
         final RowDataKeySelector selector =
                 KeySelectorUtil.getRowDataSelector(
                         grouping, (InternalTypeInfo<RowData>) inputTransform.getOutputType());
 
+        final LogicalType[] accTypes =
+                Arrays.stream(aggInfoList.getAccTypes())
+                        .map(DataType::getLogicalType)
+                        .toArray(LogicalType[]::new);
+        final MemorySize bufferMemory =
+                planner.getTableConfig()
+                        .getConfiguration()
+                        .get(ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_LOCAL_AGG_MEMORY);
+        if (bufferMemory != null
+                && grouping.length > 0
+                && Arrays.stream(accTypes).allMatch(BinaryRowData::isInFixedLengthPart)) {
+            // buffer the accumulators in binary form in managed memory
+            final MiniBatchLocalGroupAggOperator operator =
+                    new MiniBatchLocalGroupAggOperator(
+                            aggsHandler,
+                            selector,
+                            accTypes,
+                            AggregateUtil.createMiniBatchTrigger(planner.getTableConfig()));
+            return ExecNodeUtil.createOneInputTransformation(
+                    inputTransform,
+                    getDescription(),
+                    SimpleOperatorFactory.of(operator),
+                    InternalTypeInfo.of(getOutputType()),
+                    inputTransform.getParallelism(),
+                    bufferMemory.getBytes());
+        }
+
+        final MiniBatchLocalGroupAggFunction aggFunction =
+                new MiniBatchLocalGroupAggFunction(aggsHandler);
         final MapBundleOperator<RowData, RowData, RowData, RowData> operator =
                 new MapBundleOperator<>(
                         aggFunction,
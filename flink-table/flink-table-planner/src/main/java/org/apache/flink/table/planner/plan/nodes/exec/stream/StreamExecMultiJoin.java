@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.stream;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.transformations.KeyedMultipleInputTransformation;
+import org.apache.flink.table.api.TableConfig;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.SingleTransformationTranslator;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.utils.JoinUtil;
+import org.apache.flink.table.planner.plan.utils.KeySelectorUtil;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+import org.apache.flink.table.runtime.operators.join.stream.StreamingMultiJoinOperatorFactory;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonCreator;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link StreamExecNode} for a chain of regular inner Joins on the same join key.
+ *
+ * <p>The join spec {@code i} joins the result of the first {@code i + 1} inputs with the input
+ * {@code i + 1}, so the inputs are the leaves of a left-deep join tree. All inputs are partitioned
+ * by the same join key: the keys of the first input are the left keys of the first join spec, the
+ * keys of the other inputs are the right keys of their join spec.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StreamExecMultiJoin extends ExecNodeBase<RowData>
+        implements StreamExecNode<RowData>, SingleTransformationTranslator<RowData> {
+    public static final String FIELD_NAME_JOIN_SPECS = "joinSpecs";
+    public static final String FIELD_NAME_INPUT_UNIQUE_KEYS = "inputUniqueKeys";
+
+    @JsonProperty(FIELD_NAME_JOIN_SPECS)
+    private final List<JoinSpec> joinSpecs;
+
+    @JsonProperty(FIELD_NAME_INPUT_UNIQUE_KEYS)
+    private final List<List<int[]>> inputUniqueKeys;
+
+    public StreamExecMultiJoin(
+            List<JoinSpec> joinSpecs,
+            List<List<int[]>> inputUniqueKeys,
+            List<InputProperty> inputProperties,
+            RowType outputType,
+            String description) {
+        this(joinSpecs, inputUniqueKeys, getNewNodeId(), inputProperties, outputType, description);
+    }
+
+    @JsonCreator
+    public StreamExecMultiJoin(
+            @JsonProperty(FIELD_NAME_JOIN_SPECS) List<JoinSpec> joinSpecs,
+            @JsonProperty(FIELD_NAME_INPUT_UNIQUE_KEYS) List<List<int[]>> inputUniqueKeys,
+            @JsonProperty(FIELD_NAME_ID) int id,
+            @JsonProperty(FIELD_NAME_INPUT_PROPERTIES) List<InputProperty> inputProperties,
+            @JsonProperty(FIELD_NAME_OUTPUT_TYPE) RowType outputType,
+            @JsonProperty(FIELD_NAME_DESCRIPTION) String description) {
+        super(id, inputProperties, outputType, description);
+        checkArgument(inputProperties.size() > 2);
+        checkArgument(joinSpecs.size() == inputProperties.size() - 1);
+        checkArgument(inputUniqueKeys.size() == inputProperties.size());
+        checkArgument(
+                joinSpecs.stream().allMatch(s -> s.getJoinType() == FlinkJoinType.INNER),
+                "Only inner joins can be merged into a multi-way join.");
+        this.joinSpecs = checkNotNull(joinSpecs);
+        this.inputUniqueKeys = inputUniqueKeys;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        final TableConfig tableConfig = planner.getTableConfig();
+        final int numOfInputs = getInputEdges().size();
+
+        final List<Transformation<RowData>> inputTransforms = new ArrayList<>(numOfInputs);
+        final List<InternalTypeInfo<RowData>> inputTypeInfos = new ArrayList<>(numOfInputs);
+        final List<RowDataKeySelector> keySelectors = new ArrayList<>(numOfInputs);
+        final List<JoinInputSideSpec> inputSideSpecs = new ArrayList<>(numOfInputs);
+        final List<GeneratedJoinCondition> generatedConditions = new ArrayList<>();
+        final List<boolean[]> filterNullKeys = new ArrayList<>();
+
+        // the type of the joined records of the inputs before the current one
+        final List<LogicalType> joinedFieldTypes = new ArrayList<>();
+        for (int i = 0; i < numOfInputs; i++) {
+            final ExecEdge inputEdge = getInputEdges().get(i);
+            inputTransforms.add((Transformation<RowData>) inputEdge.translateToPlan(planner));
+
+            final RowType inputType = (RowType) inputEdge.getOutputType();
+            final InternalTypeInfo<RowData> inputTypeInfo = InternalTypeInfo.of(inputType);
+            final int[] joinKey =
+                    i == 0 ? joinSpecs.get(0).getLeftKeys() : joinSpecs.get(i - 1).getRightKeys();
+            inputTypeInfos.add(inputTypeInfo);
+            keySelectors.add(KeySelectorUtil.getRowDataSelector(joinKey, inputTypeInfo));
+            inputSideSpecs.add(
+                    JoinUtil.analyzeJoinInput(inputTypeInfo, joinKey, inputUniqueKeys.get(i)));
+
+            if (i > 0) {
+                final JoinSpec joinSpec = joinSpecs.get(i - 1);
+                final RowType joinedType = RowType.of(joinedFieldTypes.toArray(new LogicalType[0]));
+                JoinUtil.validateJoinSpec(joinSpec, joinedType, inputType, true);
+                generatedConditions.add(
+                        JoinUtil.generateConditionFunction(
+                                tableConfig, joinSpec, joinedType, inputType));
+                filterNullKeys.add(joinSpec.getFilterNulls());
+            }
+            joinedFieldTypes.addAll(inputType.getChildren());
+        }
+
+        final int hotKeyCacheMaxRows =
+                tableConfig
+                        .getConfiguration()
+                        .getInteger(ExecutionConfigOptions.TABLE_EXEC_JOIN_HOT_KEY_CACHE_MAX_ROWS);
+        final StreamingMultiJoinOperatorFactory operatorFactory =
+                new StreamingMultiJoinOperatorFactory(
+                        inputTypeInfos,
+                        inputSideSpecs,
+                        generatedConditions,
+                        filterNullKeys,
+                        tableConfig.getMinIdleStateRetentionTime(),
+                        hotKeyCacheMaxRows);
+
+        final KeyedMultipleInputTransformation<RowData> transform =
+                new KeyedMultipleInputTransformation<>(
+                        getDescription(),
+                        operatorFactory,
+                        InternalTypeInfo.of((RowType) getOutputType()),
+                        inputTransforms.get(0).getParallelism(),
+                        keySelectors.get(0).getProducedType());
+        for (int i = 0; i < numOfInputs; i++) {
+            transform.addInput(inputTransforms.get(i), keySelectors.get(i));
+        }
+        return transform;
+    }
+}
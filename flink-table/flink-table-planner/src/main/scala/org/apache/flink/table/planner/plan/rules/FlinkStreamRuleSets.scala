@@ -493,6 +493,8 @@ object FlinkStreamRuleSets {
     SimplifyWindowTableFunctionRules.WITH_LEFT_RIGHT_CALC_WINDOW_JOIN,
     SimplifyWindowTableFunctionRules.WITH_LEFT_CALC_WINDOW_JOIN,
     SimplifyWindowTableFunctionRules.WITH_RIGHT_CALC_WINDOW_JOIN,
-    SimplifyWindowTableFunctionRules.WITH_WINDOW_JOIN)
+    SimplifyWindowTableFunctionRules.WITH_WINDOW_JOIN,
+    // shuffle lookup join input by lookup keys
+    KeyPartitionedLookupJoinRule.INSTANCE)
 
 }
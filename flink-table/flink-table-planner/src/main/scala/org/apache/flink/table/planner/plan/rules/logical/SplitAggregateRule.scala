@@ -141,7 +141,8 @@ class SplitAggregateRule extends RelOptRule(
     // TableAggregate is not supported. see also FLINK-21923.
     val isTableAgg = AggregateUtil.isTableAggregate(agg.getAggCallList)
 
-    agg.partialFinalType == PartialFinalType.NONE && agg.containsDistinctCall() &&
+    agg.partialFinalType == PartialFinalType.NONE &&
+      AggregateUtil.containsAccurateDistinctCall(agg.getAggCallList) &&
       splitDistinctAggEnabled && isAllAggSplittable && !isProctimeWindowAgg && !isTableAgg
   }
 
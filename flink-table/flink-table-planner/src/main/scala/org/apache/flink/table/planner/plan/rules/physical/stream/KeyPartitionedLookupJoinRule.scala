@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.table.planner.plan.rules.physical.stream
+
+import org.apache.flink.table.api.config.OptimizerConfigOptions
+import org.apache.flink.table.planner.calcite.FlinkContext
+import org.apache.flink.table.planner.plan.`trait`.{FlinkRelDistribution, FlinkRelDistributionTraitDef}
+import org.apache.flink.table.planner.plan.nodes.FlinkConventions
+import org.apache.flink.table.planner.plan.nodes.physical.stream.{StreamPhysicalLookupJoin, StreamPhysicalRel}
+import org.apache.flink.table.planner.plan.rules.physical.FlinkExpandConversionRule._
+import org.apache.flink.table.planner.plan.utils.ChangelogPlanUtils
+import org.apache.flink.table.planner.plan.utils.LookupJoinUtil.FieldRefLookupKey
+
+import org.apache.calcite.plan.RelOptRule.{any, operand}
+import org.apache.calcite.plan.{RelOptRule, RelOptRuleCall}
+import org.apache.calcite.rel.RelNode
+
+import java.util
+import java.util.Collections
+
+/**
+  * Rule that matches [[StreamPhysicalLookupJoin]] with the following condition:
+  * 1. shuffling lookup joins by key is enabled in given TableConfig,
+  * 2. the input of the lookup join is insert-only,
+  * 3. the lookup join has lookup keys which refer to input fields,
+  * 4. the input does not satisfy the hash distribution on these fields,
+  *
+  * and converts them to
+  * {{{
+  *   StreamPhysicalLookupJoin
+  *   +- StreamPhysicalExchange (hash on lookup keys)
+  *      +- input of lookup join
+  * }}}
+  *
+  * so that every lookup join task only looks up a disjoint subset of the keys, which improves the
+  * hit rate of the lookup caches. An updating input is not shuffled, because the changes of a row
+  * could be sent to different tasks if its lookup keys change and could be reordered.
+  */
+class KeyPartitionedLookupJoinRule extends RelOptRule(
+  operand(classOf[StreamPhysicalLookupJoin],
+    operand(classOf[RelNode], any)),
+  "KeyPartitionedLookupJoinRule") {
+
+  override def matches(call: RelOptRuleCall): Boolean = {
+    val tableConfig = call.getPlanner.getContext.unwrap(classOf[FlinkContext]).getTableConfig
+    val lookupJoin: StreamPhysicalLookupJoin = call.rel(0)
+    val input: RelNode = call.rel(1)
+
+    val isShuffleByKeyEnabled = tableConfig.getConfiguration.getBoolean(
+      OptimizerConfigOptions.TABLE_OPTIMIZER_LOOKUP_JOIN_SHUFFLE_BY_KEY_ENABLED)
+    val lookupKeys = getInputLookupKeys(lookupJoin)
+
+    isShuffleByKeyEnabled &&
+      ChangelogPlanUtils.isInsertOnly(input.asInstanceOf[StreamPhysicalRel]) &&
+      lookupKeys.nonEmpty &&
+      !input.getTraitSet.getTrait(FlinkRelDistributionTraitDef.INSTANCE)
+        .satisfies(createDistribution(lookupKeys))
+  }
+
+  override def onMatch(call: RelOptRuleCall): Unit = {
+    val lookupJoin: StreamPhysicalLookupJoin = call.rel(0)
+    val input: RelNode = call.rel(1)
+
+    val distribution = createDistribution(getInputLookupKeys(lookupJoin))
+    val newInput = satisfyDistribution(FlinkConventions.STREAM_PHYSICAL, input, distribution)
+    call.transformTo(
+      lookupJoin.copy(lookupJoin.getTraitSet, Collections.singletonList(newInput)))
+  }
+
+  /** Returns the input fields which are used as lookup keys, constant lookup keys excluded. */
+  private def getInputLookupKeys(lookupJoin: StreamPhysicalLookupJoin): Array[Int] = {
+    lookupJoin.allLookupKeys.values
+      .collect { case key: FieldRefLookupKey => key.index }
+      .toArray
+      .distinct
+      .sorted
+  }
+
+  private def createDistribution(keys: Array[Int]): FlinkRelDistribution = {
+    val fields = new util.ArrayList[Integer]()
+    keys.foreach(fields.add(_))
+    FlinkRelDistribution.hash(fields)
+  }
+}
+
+object KeyPartitionedLookupJoinRule {
+  val INSTANCE: RelOptRule = new KeyPartitionedLookupJoinRule
+}
@@ -81,7 +81,8 @@ class AggFunctionFactory(
       case _: SqlCountAggFunction if call.getArgList.size() > 1 =>
         throw new TableException("We now only support the count of one field.")
 
-      // TODO supports ApproximateCountDistinctAggFunction and CountDistinctAggFunction
+      case _: SqlCountAggFunction if call.isApproximate && call.isDistinct =>
+        createApproxCountDistinctAggFunction(argTypes, index)
 
       case _: SqlCountAggFunction if call.getArgList.isEmpty => createCount1AggFunction(argTypes)
 
@@ -437,6 +438,25 @@ class AggFunctionFactory(
     }
   }
 
+  private def createApproxCountDistinctAggFunction(
+      argTypes: Array[LogicalType],
+      index: Int): UserDefinedFunction = {
+    if (aggCallNeedRetractions(index)) {
+      throw new TableException("APPROX_COUNT_DISTINCT aggregate function does not support " +
+        "retraction, please use COUNT(DISTINCT) instead.")
+    }
+    argTypes(0).getTypeRoot match {
+      case BOOLEAN | TINYINT | SMALLINT | INTEGER | BIGINT | FLOAT | DOUBLE | DECIMAL |
+           DATE | TIME_WITHOUT_TIME_ZONE | TIMESTAMP_WITHOUT_TIME_ZONE |
+           TIMESTAMP_WITH_LOCAL_TIME_ZONE | INTERVAL_YEAR_MONTH | INTERVAL_DAY_TIME |
+           CHAR | VARCHAR | BINARY | VARBINARY =>
+        new ApproxCountDistinctAggFunction(argTypes(0))
+      case t =>
+        throw new TableException(s"APPROX_COUNT_DISTINCT aggregate function does not support " +
+          s"type: ''$t''.\nPlease re-check the data type.")
+    }
+  }
+
   private def createCount1AggFunction(argTypes: Array[LogicalType]): UserDefinedFunction = {
     new Count1AggFunction
   }
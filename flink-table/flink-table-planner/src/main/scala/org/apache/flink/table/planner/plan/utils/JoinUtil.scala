@@ -18,11 +18,13 @@
 
 package org.apache.flink.table.planner.plan.utils
 
+import org.apache.flink.table.api.config.ExecutionConfigOptions
 import org.apache.flink.table.api.{TableConfig, TableException}
 import org.apache.flink.table.data.RowData
 import org.apache.flink.table.planner.codegen.{CodeGeneratorContext, ExprCodeGenerator, FunctionCodeGenerator}
 import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec
 import org.apache.flink.table.runtime.generated.GeneratedJoinCondition
+import org.apache.flink.table.runtime.operators.bundle.trigger.CountCoBundleTrigger
 import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo
 import org.apache.flink.table.runtime.types.PlannerTypeUtils
@@ -183,6 +185,20 @@ object JoinUtil {
     }
   }
 
+  /**
+    * Creates the trigger of the mini-batch streaming join, which fires once the count of buffered
+    * records of both inputs reaches [[ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_SIZE]].
+    */
+  def createMiniBatchCoTrigger(tableConfig: TableConfig): CountCoBundleTrigger[RowData, RowData] = {
+    val size = tableConfig.getConfiguration.getLong(
+      ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_SIZE)
+    if (size <= 0) {
+      throw new IllegalArgumentException(
+        ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_SIZE + " must be > 0.")
+    }
+    new CountCoBundleTrigger[RowData, RowData](size)
+  }
+
   private def getSmallestKey(keys: util.List[Array[Int]]) = {
     keys.reduce((k1, k2) => if (k1.length <= k2.length) k1 else k2)
   }
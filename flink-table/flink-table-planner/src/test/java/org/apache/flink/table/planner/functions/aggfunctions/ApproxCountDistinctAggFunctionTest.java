@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.functions.aggfunctions;
+
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.functions.AggregateFunction;
+import org.apache.flink.table.planner.functions.aggfunctions.ApproxCountDistinctAggFunction.ApproxCountDistinctAccumulator;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/** Test for {@link ApproxCountDistinctAggFunction}. */
+public class ApproxCountDistinctAggFunctionTest
+        extends AggFunctionTestBase<Long, ApproxCountDistinctAccumulator> {
+
+    @Override
+    protected List<List<Long>> getInputValueSets() {
+        return Arrays.asList(
+                Arrays.asList(1L, 2L, 3L, 2L, 1L),
+                Arrays.asList(null, 10L, null, 10L),
+                Arrays.asList(null, null),
+                Collections.emptyList(),
+                Arrays.asList(-1L, 0L, Long.MAX_VALUE, Long.MIN_VALUE, 0L));
+    }
+
+    @Override
+    protected List<Long> getExpectedResults() {
+        return Arrays.asList(3L, 1L, 0L, 0L, 4L);
+    }
+
+    @Override
+    protected AggregateFunction<Long, ApproxCountDistinctAccumulator> getAggregator() {
+        return new ApproxCountDistinctAggFunction(new BigIntType());
+    }
+
+    @Override
+    protected Class<?> getAccClass() {
+        return ApproxCountDistinctAccumulator.class;
+    }
+
+    @Test
+    public void testEstimateLargeCardinality() {
+        ApproxCountDistinctAggFunction aggregator =
+                new ApproxCountDistinctAggFunction(new BigIntType());
+        ApproxCountDistinctAccumulator acc = aggregator.createAccumulator();
+        int numDistinct = 1_000_000;
+        for (int round = 0; round < 2; round++) {
+            for (long i = 0; i < numDistinct; i++) {
+                aggregator.accumulate(acc, i);
+            }
+        }
+        assertEstimate(numDistinct, aggregator.getValue(acc));
+    }
+
+    @Test
+    public void testMergeOverlappingSketches() {
+        ApproxCountDistinctAggFunction aggregator =
+                new ApproxCountDistinctAggFunction(new VarCharType(VarCharType.MAX_LENGTH));
+        ApproxCountDistinctAccumulator acc1 = aggregator.createAccumulator();
+        ApproxCountDistinctAccumulator acc2 = aggregator.createAccumulator();
+        for (int i = 0; i < 60_000; i++) {
+            aggregator.accumulate(acc1, StringData.fromString("key-" + i));
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            aggregator.accumulate(acc2, StringData.fromString("key-" + i));
+        }
+        aggregator.merge(acc1, Collections.singletonList(acc2));
+        assertEstimate(100_000, aggregator.getValue(acc1));
+    }
+
+    private static void assertEstimate(long expected, long estimate) {
+        // allow four times the relative standard error of the sketch
+        double error = Math.abs(estimate - expected) / (double) expected;
+        assertTrue("Estimate " + estimate + " is too far from " + expected, error < 0.065);
+    }
+}
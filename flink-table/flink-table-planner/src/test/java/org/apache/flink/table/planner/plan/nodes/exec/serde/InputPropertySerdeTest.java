@@ -70,6 +70,11 @@ public class InputPropertySerdeTest {
                         .damBehavior(InputProperty.DamBehavior.END_INPUT)
                         .priority(1)
                         .build(),
+                InputProperty.builder()
+                        .requiredDistribution(InputProperty.REBALANCE_DISTRIBUTION)
+                        .damBehavior(InputProperty.DamBehavior.PIPELINED)
+                        .priority(1)
+                        .build(),
                 InputProperty.builder()
                         .requiredDistribution(InputProperty.ANY_DISTRIBUTION)
                         .damBehavior(InputProperty.DamBehavior.PIPELINED)
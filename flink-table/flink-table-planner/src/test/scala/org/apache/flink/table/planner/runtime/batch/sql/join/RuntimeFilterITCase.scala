@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.runtime.batch.sql.join
+
+import org.apache.flink.table.api.config.OptimizerConfigOptions
+import org.apache.flink.table.plan.stats.TableStats
+import org.apache.flink.table.planner.plan.stats.FlinkStatistic
+import org.apache.flink.table.planner.runtime.batch.sql.join.JoinType.HashJoin
+import org.apache.flink.table.planner.runtime.utils.BatchTestBase
+import org.apache.flink.table.planner.runtime.utils.BatchTestBase.row
+import org.apache.flink.table.planner.runtime.utils.TestData._
+
+import org.junit.Assert.assertTrue
+import org.junit.{Before, Test}
+
+import scala.collection.Seq
+
+class RuntimeFilterITCase extends BatchTestBase {
+
+  @Before
+  override def before(): Unit = {
+    super.before()
+    tEnv.getConfig.getConfiguration.setBoolean(
+      OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED, true)
+    JoinITCaseHelper.disableOtherJoinOpForJoin(tEnv, HashJoin)
+
+    registerCollection("facts", (0 until 100).map(i => row(i, s"v$i")), INT_STRING, "k, v")
+    registerCollection(
+      "dims",
+      Seq(row(1, "a"), row(5, "b"), row(10, "c"), row(50, "d"), row(300, "e")),
+      INT_STRING,
+      "id, name",
+      Array(true, true),
+      FlinkStatistic.builder().tableStats(new TableStats(5)).build())
+  }
+
+  @Test
+  def testInnerJoin(): Unit = {
+    val query = "SELECT k, v, name FROM facts, dims WHERE k = id"
+    assertTrue(tEnv.explainSql(query).contains("RuntimeFilter("))
+    checkResult(
+      query,
+      Seq(row(1, "v1", "a"), row(5, "v5", "b"), row(10, "v10", "c"), row(50, "v50", "d")))
+  }
+
+  @Test
+  def testSemiJoin(): Unit = {
+    checkResult(
+      "SELECT * FROM facts WHERE k IN (SELECT id FROM dims)",
+      Seq(row(1, "v1"), row(5, "v5"), row(10, "v10"), row(50, "v50")))
+  }
+
+  @Test
+  def testBuildOuterJoin(): Unit = {
+    checkResult(
+      "SELECT id, v FROM dims LEFT JOIN facts ON id = k",
+      Seq(row(1, "v1"), row(5, "v5"), row(10, "v10"), row(50, "v50"), row(300, null)))
+  }
+
+  @Test
+  def testProbeOuterJoinIsNotFiltered(): Unit = {
+    val query = "SELECT k, name FROM facts LEFT JOIN dims ON k = id WHERE k < 6"
+    assertTrue(!tEnv.explainSql(query).contains("RuntimeFilter("))
+    checkResult(
+      query,
+      Seq(row(0, null), row(1, "a"), row(2, null), row(3, null), row(4, null), row(5, "b")))
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.runtime.batch.sql.join
+
+import org.apache.flink.table.api.config.OptimizerConfigOptions
+import org.apache.flink.table.plan.stats.TableStats
+import org.apache.flink.table.planner.plan.stats.FlinkStatistic
+import org.apache.flink.table.planner.runtime.batch.sql.join.JoinType.{HashJoin, JoinType, SortMergeJoin}
+import org.apache.flink.table.planner.runtime.utils.BatchTestBase
+import org.apache.flink.table.planner.runtime.utils.BatchTestBase.row
+import org.apache.flink.table.planner.runtime.utils.TestData._
+
+import org.junit.Assert.assertTrue
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import org.junit.{Before, Test}
+
+import java.util
+
+import scala.collection.Seq
+
+@RunWith(classOf[Parameterized])
+class SkewJoinITCase(expectedJoinType: JoinType) extends BatchTestBase {
+
+  // key 1 is hot, it has 200 of the 300 rows
+  private val facts =
+    (0 until 200).map(i => row(1, s"v$i")) ++ (2 to 101).map(k => row(k, s"v$k"))
+
+  private val dims = Map(1 -> "a", 2 -> "b", 3 -> "c", 500 -> "d")
+
+  @Before
+  override def before(): Unit = {
+    super.before()
+    tEnv.getConfig.getConfiguration.setBoolean(
+      OptimizerConfigOptions.TABLE_OPTIMIZER_SKEW_JOIN_ENABLED, true)
+    JoinITCaseHelper.disableOtherJoinOpForJoin(tEnv, expectedJoinType)
+
+    registerCollection("facts", facts, INT_STRING, "k, v")
+    registerCollection(
+      "dims",
+      dims.toSeq.map(d => row(d._1, d._2)),
+      INT_STRING,
+      "id, name",
+      Array(true, true),
+      FlinkStatistic.builder().tableStats(new TableStats(dims.size)).build())
+  }
+
+  @Test
+  def testInnerJoin(): Unit = {
+    val query = "SELECT k, v, name FROM facts, dims WHERE k = id"
+    assertTrue(tEnv.explainSql(query).contains("HotKeyFilter("))
+    checkResult(
+      query,
+      facts
+        .filter(f => dims.contains(f.getFieldAs[Int](0)))
+        .map(f => row(f.getField(0), f.getField(1), dims(f.getFieldAs[Int](0)))))
+  }
+
+  @Test
+  def testLeftOuterJoin(): Unit = {
+    checkResult(
+      "SELECT k, v, name FROM facts LEFT JOIN dims ON k = id",
+      facts.map(f => row(f.getField(0), f.getField(1), dims.getOrElse(f.getFieldAs[Int](0), null))))
+  }
+
+  @Test
+  def testSemiJoin(): Unit = {
+    checkResult(
+      "SELECT * FROM facts WHERE k IN (SELECT id FROM dims)",
+      facts.filter(f => dims.contains(f.getFieldAs[Int](0))))
+  }
+
+  @Test
+  def testAntiJoin(): Unit = {
+    checkResult(
+      "SELECT * FROM facts WHERE NOT EXISTS (SELECT * FROM dims WHERE id = k)",
+      facts.filter(f => !dims.contains(f.getFieldAs[Int](0))))
+  }
+}
+
+object SkewJoinITCase {
+  @Parameterized.Parameters(name = "{0}")
+  def parameters(): util.Collection[Any] = {
+    util.Arrays.asList(HashJoin, SortMergeJoin)
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.flink.table.planner.runtime.stream.sql
 import org.apache.flink.api.scala._
 import org.apache.flink.table.api.{TableSchema, Types}
 import org.apache.flink.table.api.bridge.scala._
+import org.apache.flink.table.api.config.ExecutionConfigOptions
 import org.apache.flink.table.planner.factories.TestValuesTableFactory
 import org.apache.flink.table.planner.runtime.utils.StreamingWithStateTestBase.{HEAP_BACKEND, ROCKSDB_BACKEND, StateBackendMode}
 import org.apache.flink.table.planner.runtime.utils.UserDefinedFunctionTestUtils._
@@ -294,6 +295,27 @@ class AsyncLookupJoinITCase(legacyTableSource: Boolean, backend: StateBackendMod
     assertEquals(expected.sorted, sink.getAppendResults.sorted)
   }
 
+  @Test
+  def testAsyncLeftJoinTemporalTableWithLookupCache(): Unit = {
+    tEnv.getConfig.getConfiguration.setLong(
+      ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS, 100L)
+    val sql = "SELECT T.id, T.len, D.name, D.age FROM " +
+      "(SELECT * FROM src UNION ALL SELECT * FROM src) AS T LEFT JOIN user_table " +
+      "for system_time as of T.proctime AS D ON T.id = D.id AND D.age > 20"
+
+    val sink = new TestingAppendSink
+    tEnv.sqlQuery(sql).toAppendStream[Row].addSink(sink)
+    env.execute()
+
+    val expected = Seq(
+      "1,12,null,null",
+      "2,15,Jark,22",
+      "3,15,Fabian,33",
+      "8,11,null,null",
+      "9,12,null,null")
+    assertEquals((expected ++ expected).sorted, sink.getAppendResults.sorted)
+  }
+
   @Test
   def testExceptionThrownFromAsyncJoinTemporalTable(): Unit = {
     tEnv.registerFunction("errorFunc", TestExceptionThrown)
@@ -262,6 +262,27 @@ class ChangelogSourceITCase(
     assertEquals(expected.sorted, sink.getRetractResults.sorted)
   }
 
+  @Test
+  def testRegularLeftJoin(): Unit = {
+    val sql =
+      s"""
+        |SELECT o.currency, o.amount, r.rate
+        |FROM orders AS o LEFT JOIN rates AS r
+        |ON o.currency = r.currency
+        |""".stripMargin
+
+    val sink = new TestingRetractSink
+    val result = tEnv.sqlQuery(sql).toRetractStream[Row]
+    result.addSink(sink).setParallelism(result.parallelism)
+    env.execute()
+
+    val expected = Seq(
+      "Euro,2,119", "Euro,3,119",
+      "US Dollar,1,102", "US Dollar,5,102",
+      "Yen,50,null")
+    assertEquals(expected.sorted, sink.getRetractResults.sorted)
+  }
+
   // ------------------------------------------------------------------------------------------
 
   private def registerChangelogSource(): Unit = {
@@ -19,6 +19,7 @@ package org.apache.flink.table.planner.runtime.stream.sql
 
 import org.apache.flink.api.scala._
 import org.apache.flink.table.api._
+import org.apache.flink.table.api.config.{ExecutionConfigOptions, OptimizerConfigOptions}
 import org.apache.flink.table.api.bridge.scala._
 import org.apache.flink.table.planner.factories.TestValuesTableFactory
 import org.apache.flink.table.planner.runtime.utils.UserDefinedFunctionTestUtils.TestAddWithOpen
@@ -367,6 +368,48 @@ class LookupJoinITCase(legacyTableSource: Boolean) extends StreamingTestBase {
     assertEquals(expected.sorted, sink.getAppendResults.sorted)
   }
 
+  @Test
+  def testLeftJoinTemporalTableWithLookupCache(): Unit = {
+    tEnv.getConfig.getConfiguration.setLong(
+      ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS, 100L)
+    val sql = "SELECT T.id, T.len, D.name, D.age FROM " +
+      "(SELECT * FROM src UNION ALL SELECT * FROM src) AS T LEFT JOIN user_table " +
+      "for system_time as of T.proctime AS D ON T.id = D.id AND D.age > 20"
+
+    val sink = new TestingAppendSink
+    tEnv.sqlQuery(sql).toAppendStream[Row].addSink(sink)
+    env.execute()
+
+    val expected = Seq(
+      "1,12,null,null",
+      "2,15,Jark,22",
+      "3,15,Fabian,33",
+      "8,11,null,null",
+      "9,12,null,null")
+    assertEquals((expected ++ expected).sorted, sink.getAppendResults.sorted)
+  }
+
+  @Test
+  def testJoinTemporalTableShuffledByLookupKey(): Unit = {
+    tEnv.getConfig.getConfiguration.setBoolean(
+      OptimizerConfigOptions.TABLE_OPTIMIZER_LOOKUP_JOIN_SHUFFLE_BY_KEY_ENABLED, true)
+    tEnv.getConfig.getConfiguration.setLong(
+      ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS, 100L)
+    val sql = "SELECT T.id, T.len, T.content, D.name FROM " +
+      "(SELECT * FROM src UNION ALL SELECT * FROM src) AS T JOIN user_table " +
+      "for system_time as of T.proctime AS D ON T.id = D.id"
+
+    val sink = new TestingAppendSink
+    tEnv.sqlQuery(sql).toAppendStream[Row].addSink(sink)
+    env.execute()
+
+    val expected = Seq(
+      "1,12,Julian,Julian",
+      "2,15,Hello,Jark",
+      "3,15,Fabian,Fabian")
+    assertEquals((expected ++ expected).sorted, sink.getAppendResults.sorted)
+  }
+
   @Test
   def testLeftJoinTemporalTableOnNullableKey(): Unit = {
     val sql = "SELECT T.id, T.len, D.name FROM nullable_src AS T LEFT OUTER JOIN user_table " +
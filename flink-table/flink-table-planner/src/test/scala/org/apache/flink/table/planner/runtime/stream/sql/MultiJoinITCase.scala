@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.table.planner.runtime.stream.sql
+
+import org.apache.flink.api.scala._
+import org.apache.flink.table.api._
+import org.apache.flink.table.api.bridge.scala._
+import org.apache.flink.table.api.config.OptimizerConfigOptions
+import org.apache.flink.table.planner.runtime.utils.StreamingWithStateTestBase.StateBackendMode
+import org.apache.flink.table.planner.runtime.utils._
+import org.apache.flink.types.Row
+
+import org.junit.Assert._
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import org.junit.{Before, Test}
+
+@RunWith(classOf[Parameterized])
+class MultiJoinITCase(state: StateBackendMode) extends StreamingWithStateTestBase(state) {
+
+  @Before
+  override def before(): Unit = {
+    super.before()
+    tEnv.getConfig.getConfiguration.setBoolean(
+      OptimizerConfigOptions.TABLE_OPTIMIZER_MULTI_JOIN_ENABLED, true)
+
+    val dataA = List((1, "a1"), (2, "a2"), (3, "a3"))
+    val dataB = List((1, 10L), (1, 11L), (2, 20L), (4, 40L))
+    val dataC = List((1, 5L), (1, 12L), (2, 30L), (2, 15L), (3, 1L))
+    tEnv.createTemporaryView("A", failingDataSource(dataA).toTable(tEnv, 'a, 'a_s))
+    tEnv.createTemporaryView("B", failingDataSource(dataB).toTable(tEnv, 'b, 'b_v))
+    tEnv.createTemporaryView("C", failingDataSource(dataC).toTable(tEnv, 'c, 'c_v))
+  }
+
+  @Test
+  def testInnerJoinChain(): Unit = {
+    val sqlQuery =
+      """
+        |SELECT a, a_s, b_v, c_v
+        |FROM A JOIN B ON a = b JOIN C ON b = c AND c_v > b_v
+        |""".stripMargin
+    assertTrue(
+      tEnv.explainSql(sqlQuery, ExplainDetail.JSON_EXECUTION_PLAN).contains("MultiJoin("))
+
+    val sink = new TestingAppendSink
+    tEnv.sqlQuery(sqlQuery).toAppendStream[Row].addSink(sink)
+    env.execute()
+
+    val expected = List("1,a1,10,12", "1,a1,11,12", "2,a2,20,30")
+    assertEquals(expected.sorted, sink.getAppendResults.sorted)
+  }
+
+  @Test
+  def testInnerJoinChainWithUpdates(): Unit = {
+    val sqlQuery =
+      """
+        |SELECT *
+        |FROM A
+        |JOIN (SELECT b, MAX(b_v) AS b_v FROM B GROUP BY b) ON a = b
+        |JOIN C ON a = c AND c_v > b_v
+        |""".stripMargin
+    assertTrue(
+      tEnv.explainSql(sqlQuery, ExplainDetail.JSON_EXECUTION_PLAN).contains("MultiJoin("))
+
+    val sink = new TestingRetractSink
+    tEnv.sqlQuery(sqlQuery).toRetractStream[Row].addSink(sink).setParallelism(1)
+    env.execute()
+
+    val expected = List("1,a1,1,11,1,12", "2,a2,2,20,2,30")
+    assertEquals(expected.sorted, sink.getRetractResults.sorted)
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.filesystem;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+
+import java.io.Serializable;
+
+/**
+ * A filter that is evaluated directly on the column vectors of a {@link VectorizedColumnBatch},
+ * before the rows of the batch are materialized.
+ *
+ * <p>The rows that pass the filter are tracked in a selection vector, an array with the ids of the
+ * selected rows in ascending order. Filters refine the selection vector in place, so that a chain
+ * of filters only looks at the rows that passed the previous filters.
+ *
+ * @see ColumnBatchFilters
+ */
+@Internal
+@FunctionalInterface
+public interface ColumnBatchFilter extends Serializable {
+
+    /**
+     * Removes the rows that don't pass this filter from the selection vector.
+     *
+     * @param batch The batch to filter.
+     * @param selection The ids of the selected rows of the batch in ascending order. The ids of the
+     *     rows that pass the filter are moved to the beginning of the array, keeping their order.
+     * @param numSelected The number of selected rows.
+     * @return The number of selected rows that pass the filter.
+     */
+    int filter(VectorizedColumnBatch batch, int[] selection, int numSelected);
+}
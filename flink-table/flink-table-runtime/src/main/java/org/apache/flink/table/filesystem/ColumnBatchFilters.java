@@ -0,0 +1,620 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.filesystem;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.table.data.vector.BooleanColumnVector;
+import org.apache.flink.table.data.vector.ByteColumnVector;
+import org.apache.flink.table.data.vector.ColumnVector;
+import org.apache.flink.table.data.vector.DoubleColumnVector;
+import org.apache.flink.table.data.vector.FloatColumnVector;
+import org.apache.flink.table.data.vector.IntColumnVector;
+import org.apache.flink.table.data.vector.LongColumnVector;
+import org.apache.flink.table.data.vector.ShortColumnVector;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.Expression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Utility class to create {@link ColumnBatchFilter}s and to convert filter expressions that are
+ * pushed into a table source to {@link ColumnBatchFilter}s.
+ *
+ * <p>Comparisons of a column with a literal and null checks are supported for columns of the types
+ * BOOLEAN, TINYINT, SMALLINT, INTEGER, BIGINT, FLOAT, DOUBLE and DATE. They can be combined with
+ * AND and OR.
+ */
+@Internal
+public final class ColumnBatchFilters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ColumnBatchFilters.class);
+
+    /** The comparison of a column with a literal. */
+    public enum Comparison {
+        EQUALS,
+        NOT_EQUALS,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL;
+
+        /** Returns the comparison with swapped operands. */
+        Comparison swap() {
+            switch (this) {
+                case LESS_THAN:
+                    return GREATER_THAN;
+                case LESS_THAN_OR_EQUAL:
+                    return GREATER_THAN_OR_EQUAL;
+                case GREATER_THAN:
+                    return LESS_THAN;
+                case GREATER_THAN_OR_EQUAL:
+                    return LESS_THAN_OR_EQUAL;
+                default:
+                    return this;
+            }
+        }
+    }
+
+    private ColumnBatchFilters() {}
+
+    /**
+     * Converts the given conjunctive filters to a {@link ColumnBatchFilter}. Filters that can't be
+     * converted are ignored, so the returned filter may select more rows than the given filters and
+     * must not replace them.
+     *
+     * @param filters The filters, combined with AND.
+     * @param rowType The type of the rows of the filtered batches.
+     * @return The filter, or empty if none of the filters could be converted.
+     */
+    public static Optional<ColumnBatchFilter> fromExpressions(
+            List<ResolvedExpression> filters, RowType rowType) {
+        List<ColumnBatchFilter> converted = new ArrayList<>();
+        for (ResolvedExpression filter : filters) {
+            ColumnBatchFilter columnBatchFilter = convert(filter, rowType);
+            if (columnBatchFilter == null) {
+                LOG.debug("Unsupported filter [{}] cannot be evaluated on column vectors.", filter);
+            } else {
+                converted.add(columnBatchFilter);
+            }
+        }
+
+        if (converted.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(and(converted.toArray(new ColumnBatchFilter[0])));
+    }
+
+    /** Returns a filter that selects the rows that pass all of the given filters. */
+    public static ColumnBatchFilter and(ColumnBatchFilter... filters) {
+        return filters.length == 1 ? filters[0] : new AndFilter(filters);
+    }
+
+    /** Returns a filter that selects the rows that pass any of the given filters. */
+    public static ColumnBatchFilter or(ColumnBatchFilter left, ColumnBatchFilter right) {
+        return new OrFilter(left, right);
+    }
+
+    /** Returns a filter that selects the rows where the given field is null. */
+    public static ColumnBatchFilter isNull(int field) {
+        return new NullFilter(field, true);
+    }
+
+    /** Returns a filter that selects the rows where the given field is not null. */
+    public static ColumnBatchFilter isNotNull(int field) {
+        return new NullFilter(field, false);
+    }
+
+    /**
+     * Returns a filter that compares the given field with a literal. Rows where the field is null
+     * don't pass the filter.
+     *
+     * @param field The index of the field.
+     * @param type The type of the field.
+     * @param comparison The comparison of the field (the left operand) with the literal.
+     * @param literal The literal, a {@link Boolean}, {@link Number} or {@link LocalDate}.
+     * @return The filter, or null if the type of the field or the literal is not supported.
+     */
+    @Nullable
+    public static ColumnBatchFilter compare(
+            int field, LogicalType type, Comparison comparison, Object literal) {
+        switch (type.getTypeRoot()) {
+            case BOOLEAN:
+                if (!(literal instanceof Boolean)
+                        || (comparison != Comparison.EQUALS
+                                && comparison != Comparison.NOT_EQUALS)) {
+                    return null;
+                }
+                return LongRangeFilter.of(field, comparison, (Boolean) literal ? 1L : 0L);
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                Long longLiteral = toLong(literal);
+                return longLiteral == null
+                        ? null
+                        : LongRangeFilter.of(field, comparison, longLiteral);
+            case DATE:
+                return literal instanceof LocalDate
+                        ? LongRangeFilter.of(field, comparison, ((LocalDate) literal).toEpochDay())
+                        : null;
+            case FLOAT:
+            case DOUBLE:
+                return literal instanceof Number && !(literal instanceof BigDecimal)
+                        ? DoubleRangeFilter.of(field, comparison, ((Number) literal).doubleValue())
+                        : null;
+            default:
+                return null;
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------
+    //  Conversion of expressions
+    // --------------------------------------------------------------------------------------------
+
+    @Nullable
+    private static ColumnBatchFilter convert(Expression expression, RowType rowType) {
+        if (!(expression instanceof CallExpression)) {
+            return null;
+        }
+        CallExpression call = (CallExpression) expression;
+        FunctionDefinition function = call.getFunctionDefinition();
+        List<Expression> children = call.getChildren();
+
+        if (function == BuiltInFunctionDefinitions.AND
+                || function == BuiltInFunctionDefinitions.OR) {
+            if (children.size() != 2) {
+                return null;
+            }
+            ColumnBatchFilter left = convert(children.get(0), rowType);
+            ColumnBatchFilter right = convert(children.get(1), rowType);
+            if (function == BuiltInFunctionDefinitions.AND) {
+                // a conjunction can be evaluated partially, the skipped part is evaluated later
+                if (left == null || right == null) {
+                    return left == null ? right : left;
+                }
+                return and(left, right);
+            }
+            return left == null || right == null ? null : or(left, right);
+        } else if (function == BuiltInFunctionDefinitions.IS_NULL
+                || function == BuiltInFunctionDefinitions.IS_NOT_NULL) {
+            if (children.size() != 1 || fieldIndex(children.get(0), rowType) < 0) {
+                return null;
+            }
+            int field = fieldIndex(children.get(0), rowType);
+            return function == BuiltInFunctionDefinitions.IS_NULL
+                    ? isNull(field)
+                    : isNotNull(field);
+        }
+
+        Comparison comparison = toComparison(function);
+        if (comparison == null || children.size() != 2) {
+            return null;
+        }
+        Expression fieldExpression = children.get(0);
+        Expression literalExpression = children.get(1);
+        if (fieldExpression instanceof ValueLiteralExpression) {
+            fieldExpression = children.get(1);
+            literalExpression = children.get(0);
+            comparison = comparison.swap();
+        }
+
+        int field = fieldIndex(fieldExpression, rowType);
+        if (field < 0 || !(literalExpression instanceof ValueLiteralExpression)) {
+            return null;
+        }
+        Object literal = toLiteral((ValueLiteralExpression) literalExpression);
+        if (literal == null) {
+            return null;
+        }
+        return compare(field, rowType.getTypeAt(field), comparison, literal);
+    }
+
+    @Nullable
+    private static Comparison toComparison(FunctionDefinition function) {
+        if (function == BuiltInFunctionDefinitions.EQUALS) {
+            return Comparison.EQUALS;
+        } else if (function == BuiltInFunctionDefinitions.NOT_EQUALS) {
+            return Comparison.NOT_EQUALS;
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN) {
+            return Comparison.LESS_THAN;
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+            return Comparison.LESS_THAN_OR_EQUAL;
+        } else if (function == BuiltInFunctionDefinitions.GREATER_THAN) {
+            return Comparison.GREATER_THAN;
+        } else if (function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+            return Comparison.GREATER_THAN_OR_EQUAL;
+        }
+        return null;
+    }
+
+    /** Returns the index of the referenced field, or -1 if the expression is not a reference. */
+    private static int fieldIndex(Expression expression, RowType rowType) {
+        if (!(expression instanceof FieldReferenceExpression)) {
+            return -1;
+        }
+        return rowType.getFieldIndex(((FieldReferenceExpression) expression).getName());
+    }
+
+    @Nullable
+    private static Object toLiteral(ValueLiteralExpression literal) {
+        switch (literal.getOutputDataType().getLogicalType().getTypeRoot()) {
+            case BOOLEAN:
+                return literal.getValueAs(Boolean.class).orElse(null);
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+            case DECIMAL:
+                return literal.getValueAs(Number.class).orElse(null);
+            case DATE:
+                return literal.getValueAs(LocalDate.class).orElse(null);
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static Long toLong(Object literal) {
+        if (literal instanceof Byte
+                || literal instanceof Short
+                || literal instanceof Integer
+                || literal instanceof Long) {
+            return ((Number) literal).longValue();
+        } else if (literal instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) literal).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // --------------------------------------------------------------------------------------------
+    //  Filters
+    // --------------------------------------------------------------------------------------------
+
+    private static final class AndFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnBatchFilter[] filters;
+
+        private AndFilter(ColumnBatchFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selection, int numSelected) {
+            for (int i = 0; i < filters.length && numSelected > 0; i++) {
+                numSelected = filters[i].filter(batch, selection, numSelected);
+            }
+            return numSelected;
+        }
+    }
+
+    private static final class OrFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnBatchFilter left;
+        private final ColumnBatchFilter right;
+
+        private OrFilter(ColumnBatchFilter left, ColumnBatchFilter right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selection, int numSelected) {
+            int[] leftSelection = new int[numSelected];
+            System.arraycopy(selection, 0, leftSelection, 0, numSelected);
+            int numLeft = left.filter(batch, leftSelection, numSelected);
+            if (numLeft == numSelected) {
+                return numSelected;
+            }
+
+            int[] rightSelection = new int[numSelected];
+            System.arraycopy(selection, 0, rightSelection, 0, numSelected);
+            int numRight = right.filter(batch, rightSelection, numSelected);
+
+            // merge the two ascending selections, without duplicates
+            int numMatched = 0;
+            int l = 0;
+            int r = 0;
+            while (l < numLeft || r < numRight) {
+                int row;
+                if (r == numRight || (l < numLeft && leftSelection[l] < rightSelection[r])) {
+                    row = leftSelection[l++];
+                } else if (l == numLeft || rightSelection[r] < leftSelection[l]) {
+                    row = rightSelection[r++];
+                } else {
+                    row = leftSelection[l++];
+                    r++;
+                }
+                selection[numMatched++] = row;
+            }
+            return numMatched;
+        }
+    }
+
+    private static final class NullFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int field;
+        private final boolean selectNulls;
+
+        private NullFilter(int field, boolean selectNulls) {
+            this.field = field;
+            this.selectNulls = selectNulls;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selection, int numSelected) {
+            ColumnVector vector = batch.columns[field];
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (vector.isNullAt(row) == selectNulls) {
+                    selection[numMatched++] = row;
+                }
+            }
+            return numMatched;
+        }
+    }
+
+    /**
+     * Selects the rows where an integral field lies in (or outside of, if negated) the closed range
+     * {@code [lower, upper]}. Booleans are compared as 0 and 1, dates as days since epoch.
+     */
+    @VisibleForTesting
+    static final class LongRangeFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int field;
+        private final long lower;
+        private final long upper;
+        private final boolean negated;
+
+        private LongRangeFilter(int field, long lower, long upper, boolean negated) {
+            this.field = field;
+            this.lower = lower;
+            this.upper = upper;
+            this.negated = negated;
+        }
+
+        private static LongRangeFilter of(int field, Comparison comparison, long literal) {
+            switch (comparison) {
+                case EQUALS:
+                    return new LongRangeFilter(field, literal, literal, false);
+                case NOT_EQUALS:
+                    return new LongRangeFilter(field, literal, literal, true);
+                case LESS_THAN:
+                    // the range is empty if the literal is the minimum value
+                    return literal == Long.MIN_VALUE
+                            ? new LongRangeFilter(field, 1L, 0L, false)
+                            : new LongRangeFilter(field, Long.MIN_VALUE, literal - 1L, false);
+                case LESS_THAN_OR_EQUAL:
+                    return new LongRangeFilter(field, Long.MIN_VALUE, literal, false);
+                case GREATER_THAN:
+                    return literal == Long.MAX_VALUE
+                            ? new LongRangeFilter(field, 1L, 0L, false)
+                            : new LongRangeFilter(field, literal + 1L, Long.MAX_VALUE, false);
+                case GREATER_THAN_OR_EQUAL:
+                    return new LongRangeFilter(field, literal, Long.MAX_VALUE, false);
+                default:
+                    throw new IllegalArgumentException("Unknown comparison " + comparison);
+            }
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selection, int numSelected) {
+            ColumnVector vector = batch.columns[field];
+            if (vector instanceof LongColumnVector) {
+                return filterLongs((LongColumnVector) vector, selection, numSelected);
+            } else if (vector instanceof IntColumnVector) {
+                return filterInts((IntColumnVector) vector, selection, numSelected);
+            } else if (vector instanceof ShortColumnVector) {
+                return filterShorts((ShortColumnVector) vector, selection, numSelected);
+            } else if (vector instanceof ByteColumnVector) {
+                return filterBytes((ByteColumnVector) vector, selection, numSelected);
+            } else if (vector instanceof BooleanColumnVector) {
+                return filterBooleans((BooleanColumnVector) vector, selection, numSelected);
+            }
+            throw new IllegalStateException(
+                    "Unsupported column vector " + vector.getClass().getName());
+        }
+
+        private int filterLongs(LongColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    long value = vector.getLong(row);
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+
+        private int filterInts(IntColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    long value = vector.getInt(row);
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+
+        private int filterShorts(ShortColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    long value = vector.getShort(row);
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+
+        private int filterBytes(ByteColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    long value = vector.getByte(row);
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+
+        private int filterBooleans(BooleanColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    long value = vector.getBoolean(row) ? 1L : 0L;
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+    }
+
+    /**
+     * Selects the rows where a floating point field lies in (or outside of, if negated) the closed
+     * range {@code [lower, upper]}. Exclusive bounds are turned into inclusive bounds with {@link
+     * Math#nextUp} and {@link Math#nextDown}, NaN never lies in the range.
+     */
+    @VisibleForTesting
+    static final class DoubleRangeFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int field;
+        private final double lower;
+        private final double upper;
+        private final boolean negated;
+
+        private DoubleRangeFilter(int field, double lower, double upper, boolean negated) {
+            this.field = field;
+            this.lower = lower;
+            this.upper = upper;
+            this.negated = negated;
+        }
+
+        private static DoubleRangeFilter of(int field, Comparison comparison, double literal) {
+            switch (comparison) {
+                case EQUALS:
+                    return new DoubleRangeFilter(field, literal, literal, false);
+                case NOT_EQUALS:
+                    return new DoubleRangeFilter(field, literal, literal, true);
+                case LESS_THAN:
+                    return new DoubleRangeFilter(
+                            field, Double.NEGATIVE_INFINITY, Math.nextDown(literal), false);
+                case LESS_THAN_OR_EQUAL:
+                    return new DoubleRangeFilter(field, Double.NEGATIVE_INFINITY, literal, false);
+                case GREATER_THAN:
+                    return new DoubleRangeFilter(
+                            field, Math.nextUp(literal), Double.POSITIVE_INFINITY, false);
+                case GREATER_THAN_OR_EQUAL:
+                    return new DoubleRangeFilter(field, literal, Double.POSITIVE_INFINITY, false);
+                default:
+                    throw new IllegalArgumentException("Unknown comparison " + comparison);
+            }
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selection, int numSelected) {
+            ColumnVector vector = batch.columns[field];
+            if (vector instanceof DoubleColumnVector) {
+                return filterDoubles((DoubleColumnVector) vector, selection, numSelected);
+            } else if (vector instanceof FloatColumnVector) {
+                return filterFloats((FloatColumnVector) vector, selection, numSelected);
+            }
+            throw new IllegalStateException(
+                    "Unsupported column vector " + vector.getClass().getName());
+        }
+
+        private int filterDoubles(DoubleColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    double value = vector.getDouble(row);
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+
+        private int filterFloats(FloatColumnVector vector, int[] selection, int numSelected) {
+            int numMatched = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!vector.isNullAt(row)) {
+                    double value = vector.getFloat(row);
+                    if ((value >= lower && value <= upper) != negated) {
+                        selection[numMatched++] = row;
+                    }
+                }
+            }
+            return numMatched;
+        }
+    }
+}
@@ -40,6 +40,12 @@ public class ColumnarRowIterator extends RecyclableIterator<RowData> {
     private int num;
     private int pos;
 
+    /** The ids of the selected rows, or null if all rows of the batch are selected. */
+    @Nullable private int[] selection;
+
+    private long offset;
+    private long recordSkipCount;
+
     public ColumnarRowIterator(ColumnarRowData rowData, @Nullable Runnable recycler) {
         super(recycler);
         this.rowData = rowData;
@@ -58,13 +64,40 @@ public class ColumnarRowIterator extends RecyclableIterator<RowData> {
     public void set(final int num, final long offset, final long recordSkipCount) {
         this.num = num;
         this.pos = 0;
+        this.selection = null;
         this.recordAndPosition.set(null, offset, recordSkipCount);
     }
 
+    /**
+     * Set the selected rows of this batch and updates the position. Only the selected rows are
+     * returned, the position of a returned row still accounts for the rows that were not selected.
+     *
+     * @param selection The ids of the selected rows, in ascending order.
+     * @param numSelected The number of selected rows.
+     * @param offset The offset of the batch.
+     * @param recordSkipCount The number of rows that have been read before this batch.
+     */
+    public void set(
+            final int[] selection,
+            final int numSelected,
+            final long offset,
+            final long recordSkipCount) {
+        this.num = numSelected;
+        this.pos = 0;
+        this.selection = selection;
+        this.offset = offset;
+        this.recordSkipCount = recordSkipCount;
+    }
+
     @Nullable
     @Override
     public RecordAndPosition<RowData> next() {
-        if (pos < num) {
+        if (pos < num && selection != null) {
+            final int rowId = selection[pos++];
+            rowData.setRowId(rowId);
+            recordAndPosition.set(rowData, offset, recordSkipCount + rowId + 1);
+            return recordAndPosition;
+        } else if (pos < num) {
             rowData.setRowId(pos++);
             recordAndPosition.setNext(rowData);
             return recordAndPosition;
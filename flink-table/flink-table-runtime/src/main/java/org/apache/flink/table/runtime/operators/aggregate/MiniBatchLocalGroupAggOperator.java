@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.table.runtime.operators.aggregate;
+
+import org.apache.flink.core.memory.ManagedMemoryUseCase;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
+import org.apache.flink.streaming.api.operators.ChainingStrategy;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.utils.JoinedRowData;
+import org.apache.flink.table.runtime.dataview.PerKeyStateDataViewStore;
+import org.apache.flink.table.runtime.generated.AggsHandleFunction;
+import org.apache.flink.table.runtime.generated.GeneratedAggsHandleFunction;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.bundle.MapBundleOperator;
+import org.apache.flink.table.runtime.operators.bundle.trigger.BundleTrigger;
+import org.apache.flink.table.runtime.operators.bundle.trigger.BundleTriggerCallback;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.runtime.util.KeyValueIterator;
+import org.apache.flink.table.runtime.util.StreamRecordCollector;
+import org.apache.flink.table.runtime.util.collections.binary.BytesHashMap;
+import org.apache.flink.table.runtime.util.collections.binary.BytesMap.LookupInfo;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.util.Collector;
+
+import java.io.EOFException;
+
+import static org.apache.flink.table.data.util.RowDataUtil.isAccumulateMsg;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The operator used for the local groupby (without window) aggregate in miniBatch mode, which
+ * buffers the accumulators of a bundle in a {@link BytesHashMap} of managed memory instead of the
+ * heap map of a {@link MapBundleOperator} with {@link MiniBatchLocalGroupAggFunction}.
+ *
+ * <p>The keys and accumulators of a bundle are kept in binary form, so the bundle doesn't hold any
+ * objects per key and its memory is bounded. The bundle is finished when the {@link BundleTrigger}
+ * fires, and also as soon as the map is out of memory.
+ *
+ * <p>NOTES: the accumulators are updated in place, so all accumulator fields must be of fixed
+ * length (see {@link BinaryRowData#isInFixedLengthPart(LogicalType)}), and the grouping keys must
+ * not be empty.
+ */
+public class MiniBatchLocalGroupAggOperator extends AbstractStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BundleTriggerCallback {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The code generated function used to handle aggregates. */
+    private final GeneratedAggsHandleFunction genAggsHandler;
+
+    /** KeySelector is used to extract the grouping key of the bundle. */
+    private final RowDataKeySelector keySelector;
+
+    /** The types of the accumulators. */
+    private final LogicalType[] accTypes;
+
+    /** The trigger that determines how many elements should be put into a bundle. */
+    private final BundleTrigger<RowData> bundleTrigger;
+
+    // function used to handle all aggregates
+    private transient AggsHandleFunction function;
+
+    /** Used to serialize the accumulators into binary form. */
+    private transient RowDataSerializer accSerializer;
+
+    /** The binary map in managed memory to store the accumulators of the bundle. */
+    private transient BytesHashMap bundle;
+
+    /** Reused output row. */
+    private transient JoinedRowData resultRow;
+
+    /** Output for stream records. */
+    private transient Collector<RowData> collector;
+
+    private transient int numOfElements;
+
+    public MiniBatchLocalGroupAggOperator(
+            GeneratedAggsHandleFunction genAggsHandler,
+            RowDataKeySelector keySelector,
+            LogicalType[] accTypes,
+            BundleTrigger<RowData> bundleTrigger) {
+        checkArgument(
+                keySelector.getProducedType().toRowSize() > 0,
+                "The grouping keys must not be empty.");
+        for (LogicalType accType : accTypes) {
+            checkArgument(
+                    BinaryRowData.isInFixedLengthPart(accType),
+                    "The accumulator type %s is not of fixed length.",
+                    accType);
+        }
+        chainingStrategy = ChainingStrategy.ALWAYS;
+        this.genAggsHandler = checkNotNull(genAggsHandler);
+        this.keySelector = checkNotNull(keySelector);
+        this.accTypes = accTypes;
+        this.bundleTrigger = checkNotNull(bundleTrigger, "bundleTrigger is null");
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        function = genAggsHandler.newInstance(getRuntimeContext().getUserCodeClassLoader());
+        function.open(new PerKeyStateDataViewStore(getRuntimeContext()));
+
+        this.accSerializer = new RowDataSerializer(accTypes);
+        this.bundle =
+                new BytesHashMap(
+                        getContainingTask(),
+                        getContainingTask().getEnvironment().getMemoryManager(),
+                        computeMemorySize(),
+                        keySelector.getProducedType().toRowFieldTypes(),
+                        accTypes);
+        this.resultRow = new JoinedRowData();
+        this.collector = new StreamRecordCollector<>(output);
+        this.numOfElements = 0;
+
+        bundleTrigger.registerCallback(this);
+        // reset trigger
+        bundleTrigger.reset();
+        LOG.info("BundleOperator's trigger info: " + bundleTrigger.explain());
+
+        // counter metric to get the size of bundle
+        getRuntimeContext()
+                .getMetricGroup()
+                .gauge("bundleSize", (Gauge<Integer>) () -> numOfElements);
+        getRuntimeContext()
+                .getMetricGroup()
+                .gauge(
+                        "bundleRatio",
+                        (Gauge<Double>)
+                                () -> {
+                                    long numOfKeys = bundle.getNumKeys();
+                                    if (numOfKeys == 0) {
+                                        return 0.0;
+                                    } else {
+                                        return 1.0 * numOfElements / numOfKeys;
+                                    }
+                                });
+        getRuntimeContext()
+                .getMetricGroup()
+                .gauge("bundleMemoryInBytes", (Gauge<Long>) bundle::getUsedMemoryInBytes);
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        final RowData input = element.getValue();
+        final BinaryRowData key = (BinaryRowData) keySelector.getKey(input);
+        LookupInfo<BinaryRowData, BinaryRowData> lookupInfo = bundle.lookup(key);
+        if (lookupInfo.isFound()) {
+            final BinaryRowData acc = lookupInfo.getValue();
+            final BinaryRowData newAcc = accumulate(acc, input);
+            // the accumulators are of fixed length, so they can be overwritten in place
+            newAcc.getSegments()[0].copyTo(
+                    newAcc.getOffset(),
+                    acc.getSegments()[0],
+                    acc.getOffset(),
+                    newAcc.getSizeInBytes());
+        } else {
+            final BinaryRowData newAcc = accumulate(function.createAccumulators(), input);
+            try {
+                bundle.append(lookupInfo, newAcc);
+            } catch (EOFException e) {
+                // the bundle is out of memory, finish it and add the accumulators again
+                finishBundle();
+                lookupInfo = bundle.lookup(key);
+                bundle.append(lookupInfo, newAcc);
+            }
+        }
+
+        numOfElements++;
+        bundleTrigger.onElement(input);
+    }
+
+    private BinaryRowData accumulate(RowData acc, RowData input) throws Exception {
+        function.setAccumulators(acc);
+        if (isAccumulateMsg(input)) {
+            function.accumulate(input);
+        } else {
+            function.retract(input);
+        }
+        return accSerializer.toBinaryRow(function.getAccumulators());
+    }
+
+    @Override
+    public void finishBundle() throws Exception {
+        if (bundle != null && bundle.getNumKeys() > 0) {
+            numOfElements = 0;
+            KeyValueIterator<BinaryRowData, BinaryRowData> iterator =
+                    bundle.getEntryIterator(false);
+            while (iterator.advanceNext()) {
+                resultRow.replace(iterator.getKey(), iterator.getValue());
+                collector.collect(resultRow);
+            }
+            bundle.reset();
+        }
+        bundleTrigger.reset();
+    }
+
+    @Override
+    public void processWatermark(Watermark mark) throws Exception {
+        finishBundle();
+        super.processWatermark(mark);
+    }
+
+    @Override
+    public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+        finishBundle();
+    }
+
+    @Override
+    public void finish() throws Exception {
+        finishBundle();
+        super.finish();
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        if (function != null) {
+            function.close();
+        }
+        if (bundle != null) {
+            bundle.free();
+        }
+    }
+
+    /** Compute memory size from memory faction. */
+    private long computeMemorySize() {
+        final Environment environment = getContainingTask().getEnvironment();
+        return environment
+                .getMemoryManager()
+                .computeMemorySize(
+                        getOperatorConfig()
+                                .getManagedMemoryFractionOperatorUseCaseOfSlot(
+                                        ManagedMemoryUseCase.OPERATOR,
+                                        environment.getTaskManagerInfo().getConfiguration(),
+                                        environment.getUserCodeClassLoader().asClassLoader()));
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import org.apache.flink.shaded.guava18.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava18.com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A cache of the rows fetched by a lookup join, keyed by the lookup keys of the input rows. It is
+ * used by the {@link LookupJoinRunner} and the {@link AsyncLookupJoinRunner} in front of the lookup
+ * function of the dimension table, so it works for all lookup sources.
+ *
+ * <p>The cache holds at most {@code maxRows} lookup keys, evicts the least recently used keys
+ * first, and expires the rows of a key {@code ttl} milliseconds after they were loaded. Lookup keys
+ * without rows in the dimension table are cached as well if {@code cachingMissingKey} is set.
+ *
+ * <p>The cached rows are the rows returned by the lookup function, before any calc on the dimension
+ * table and before the join condition are applied.
+ *
+ * <p>The rows are shared by all the subtasks of the same lookup join in a TaskManager, i.e. by all
+ * the opened caches with the same job, cache identifier and cache config. The shared rows are
+ * released when the last of these caches is closed. The metrics are reported per subtask, except
+ * the cache size, which is the size of the shared rows.
+ */
+public class LookupJoinCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String LOOKUP_CACHE_HITS_METRIC_NAME = "numLookupCacheHits";
+    public static final String LOOKUP_CACHE_MISSES_METRIC_NAME = "numLookupCacheMisses";
+    public static final String LOOKUP_CACHE_SIZE_METRIC_NAME = "lookupCacheSize";
+    public static final String LOOKUP_CACHE_LOAD_TIME_METRIC_NAME = "lookupCacheLatestLoadTime";
+
+    /** The shared rows of the opened caches in this TaskManager. */
+    private static final Map<SharedCacheKey, SharedCache> SHARED_CACHES = new HashMap<>();
+
+    /**
+     * Identifies the lookup join within its job, the caches of different lookup joins are never
+     * shared.
+     */
+    private final String cacheIdentifier;
+
+    /** The input fields of the lookup keys which are not constants. */
+    private final int[] keyFields;
+
+    private final LogicalType[] keyTypes;
+    private final RowDataSerializer rowSerializer;
+    private final long maxRows;
+    private final long ttl;
+    private final boolean cachingMissingKey;
+
+    private transient RowData.FieldGetter[] keyFieldGetters;
+    private transient RowDataSerializer keySerializer;
+    private transient SharedCacheKey sharedCacheKey;
+    private transient Cache<RowData, List<RowData>> cache;
+    private transient Counter hitCounter;
+    private transient Counter missCounter;
+    private transient volatile long latestLoadTime;
+
+    /**
+     * Creates a cache of lookup join rows.
+     *
+     * @param cacheIdentifier the identifier of the lookup join within its job
+     * @param keyFields the input fields of the lookup keys which are not constants
+     * @param keyTypes the types of the input fields of the lookup keys
+     * @param rowSerializer the serializer of the rows returned by the lookup function
+     * @param maxRows the max number of lookup keys whose rows are cached
+     * @param ttl the time in milliseconds after which the rows of a key expire, 0 means never
+     * @param cachingMissingKey whether the lookup keys without rows are cached as well
+     */
+    public LookupJoinCache(
+            String cacheIdentifier,
+            int[] keyFields,
+            LogicalType[] keyTypes,
+            RowDataSerializer rowSerializer,
+            long maxRows,
+            long ttl,
+            boolean cachingMissingKey) {
+        checkArgument(keyFields.length == keyTypes.length);
+        checkArgument(maxRows > 0, "The lookup cache must hold at least one key.");
+        checkArgument(ttl >= 0, "The lookup cache ttl must not be negative.");
+        this.cacheIdentifier = checkNotNull(cacheIdentifier);
+        this.keyFields = keyFields;
+        this.keyTypes = keyTypes;
+        this.rowSerializer = rowSerializer;
+        this.maxRows = maxRows;
+        this.ttl = ttl;
+        this.cachingMissingKey = cachingMissingKey;
+    }
+
+    /**
+     * Opens the cache of a subtask, which shares its rows with the other opened caches of the same
+     * lookup join in this TaskManager.
+     */
+    public void open(RuntimeContext runtimeContext) {
+        checkState(cache == null, "The lookup cache is already open.");
+        this.keyFieldGetters = new RowData.FieldGetter[keyFields.length];
+        for (int i = 0; i < keyFields.length; i++) {
+            keyFieldGetters[i] = RowData.createFieldGetter(keyTypes[i], keyFields[i]);
+        }
+        this.keySerializer = new RowDataSerializer(keyTypes);
+
+        this.sharedCacheKey =
+                new SharedCacheKey(
+                        runtimeContext.getJobId(),
+                        cacheIdentifier,
+                        maxRows,
+                        ttl,
+                        cachingMissingKey);
+        this.cache = acquireSharedCache(sharedCacheKey);
+
+        MetricGroup metricGroup = runtimeContext.getMetricGroup();
+        this.hitCounter = metricGroup.counter(LOOKUP_CACHE_HITS_METRIC_NAME);
+        this.missCounter = metricGroup.counter(LOOKUP_CACHE_MISSES_METRIC_NAME);
+        Cache<RowData, List<RowData>> sharedCache = cache;
+        metricGroup.gauge(LOOKUP_CACHE_SIZE_METRIC_NAME, (Gauge<Long>) sharedCache::size);
+        metricGroup.gauge(LOOKUP_CACHE_LOAD_TIME_METRIC_NAME, (Gauge<Long>) () -> latestLoadTime);
+    }
+
+    /** Returns the lookup key of the given input row. */
+    public RowData getKey(RowData input) {
+        GenericRowData key = new GenericRowData(keyFields.length);
+        for (int i = 0; i < keyFields.length; i++) {
+            key.setField(i, keyFieldGetters[i].getFieldOrNull(input));
+        }
+        // the copy doesn't share memory with the input row, which may be reused
+        return keySerializer.toBinaryRow(key).copy();
+    }
+
+    /** Returns the cached rows of the given lookup key, or null if the key isn't cached. */
+    @Nullable
+    public List<RowData> getIfPresent(RowData key) {
+        List<RowData> rows = cache.getIfPresent(key);
+        if (rows == null) {
+            missCounter.inc();
+        } else {
+            hitCounter.inc();
+        }
+        return rows;
+    }
+
+    /**
+     * Copies a row returned by the lookup function, so that it can be cached. The lookup function
+     * may reuse the row objects.
+     */
+    public synchronized RowData copyRow(RowData row) {
+        return rowSerializer.copy(row);
+    }
+
+    /**
+     * Caches the rows of the given lookup key, which were loaded by the lookup function in the
+     * given time.
+     *
+     * @param key the lookup key created by {@link #getKey(RowData)}
+     * @param rows the copied rows of the lookup key, see {@link #copyRow(RowData)}
+     * @param loadTime the time in nanoseconds the lookup function took to return the rows
+     */
+    public void put(RowData key, List<RowData> rows, long loadTime) {
+        this.latestLoadTime = TimeUnit.NANOSECONDS.toMillis(loadTime);
+        if (!rows.isEmpty() || cachingMissingKey) {
+            cache.put(key, rows);
+        }
+    }
+
+    /**
+     * Closes the cache of a subtask. The shared rows are released if no other subtask of the lookup
+     * join in this TaskManager uses them.
+     */
+    public void close() {
+        if (cache != null) {
+            releaseSharedCache(sharedCacheKey);
+            cache = null;
+            sharedCacheKey = null;
+        }
+    }
+
+    // ------------------------------------------------------------------------------------
+
+    private static Cache<RowData, List<RowData>> acquireSharedCache(SharedCacheKey key) {
+        synchronized (SHARED_CACHES) {
+            SharedCache sharedCache =
+                    SHARED_CACHES.computeIfAbsent(key, k -> new SharedCache(createCache(k)));
+            sharedCache.refCount++;
+            return sharedCache.cache;
+        }
+    }
+
+    private static void releaseSharedCache(SharedCacheKey key) {
+        synchronized (SHARED_CACHES) {
+            SharedCache sharedCache = SHARED_CACHES.get(key);
+            if (sharedCache != null && --sharedCache.refCount == 0) {
+                SHARED_CACHES.remove(key);
+                sharedCache.cache.invalidateAll();
+            }
+        }
+    }
+
+    private static Cache<RowData, List<RowData>> createCache(SharedCacheKey key) {
+        CacheBuilder<Object, Object> cacheBuilder =
+                CacheBuilder.newBuilder().maximumSize(key.maxRows);
+        if (key.ttl > 0) {
+            cacheBuilder.expireAfterWrite(key.ttl, TimeUnit.MILLISECONDS);
+        }
+        return cacheBuilder.build();
+    }
+
+    /** The rows shared by the opened caches of a lookup join, with the number of opened caches. */
+    private static final class SharedCache {
+
+        private final Cache<RowData, List<RowData>> cache;
+        private int refCount;
+
+        private SharedCache(Cache<RowData, List<RowData>> cache) {
+            this.cache = cache;
+        }
+    }
+
+    /** The caches which share their rows have the same job, cache identifier and cache config. */
+    private static final class SharedCacheKey {
+
+        private final JobID jobId;
+        private final String cacheIdentifier;
+        private final long maxRows;
+        private final long ttl;
+        private final boolean cachingMissingKey;
+
+        private SharedCacheKey(
+                JobID jobId,
+                String cacheIdentifier,
+                long maxRows,
+                long ttl,
+                boolean cachingMissingKey) {
+            this.jobId = checkNotNull(jobId);
+            this.cacheIdentifier = cacheIdentifier;
+            this.maxRows = maxRows;
+            this.ttl = ttl;
+            this.cachingMissingKey = cachingMissingKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SharedCacheKey that = (SharedCacheKey) o;
+            return maxRows == that.maxRows
+                    && ttl == that.ttl
+                    && cachingMissingKey == that.cachingMissingKey
+                    && jobId.equals(that.jobId)
+                    && cacheIdentifier.equals(that.cacheIdentifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobId, cacheIdentifier, maxRows, ttl, cachingMissingKey);
+        }
+    }
+}
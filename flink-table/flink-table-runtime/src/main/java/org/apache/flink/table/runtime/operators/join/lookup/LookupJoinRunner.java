@@ -30,6 +30,11 @@ import org.apache.flink.table.runtime.generated.GeneratedCollector;
 import org.apache.flink.table.runtime.generated.GeneratedFunction;
 import org.apache.flink.util.Collector;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /** The join runner to lookup the dimension table. */
 public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
     private static final long serialVersionUID = -4521543015709964733L;
@@ -38,6 +43,7 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
     private final GeneratedCollector<TableFunctionCollector<RowData>> generatedCollector;
     private final boolean isLeftOuterJoin;
     private final int tableFieldsCount;
+    @Nullable private final LookupJoinCache cache;
 
     private transient FlatMapFunction<RowData, RowData> fetcher;
     protected transient TableFunctionCollector<RowData> collector;
@@ -49,10 +55,20 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
             GeneratedCollector<TableFunctionCollector<RowData>> generatedCollector,
             boolean isLeftOuterJoin,
             int tableFieldsCount) {
+        this(generatedFetcher, generatedCollector, isLeftOuterJoin, tableFieldsCount, null);
+    }
+
+    public LookupJoinRunner(
+            GeneratedFunction<FlatMapFunction<RowData, RowData>> generatedFetcher,
+            GeneratedCollector<TableFunctionCollector<RowData>> generatedCollector,
+            boolean isLeftOuterJoin,
+            int tableFieldsCount,
+            @Nullable LookupJoinCache cache) {
         this.generatedFetcher = generatedFetcher;
         this.generatedCollector = generatedCollector;
         this.isLeftOuterJoin = isLeftOuterJoin;
         this.tableFieldsCount = tableFieldsCount;
+        this.cache = cache;
     }
 
     @Override
@@ -69,6 +85,9 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
 
         this.nullRow = new GenericRowData(tableFieldsCount);
         this.outRow = new JoinedRowData();
+        if (cache != null) {
+            cache.open(getRuntimeContext());
+        }
     }
 
     @Override
@@ -77,8 +96,12 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
         collector.setInput(in);
         collector.reset();
 
-        // fetcher has copied the input field when object reuse is enabled
-        fetcher.flatMap(in, getFetcherCollector());
+        if (cache == null) {
+            // fetcher has copied the input field when object reuse is enabled
+            fetcher.flatMap(in, getFetcherCollector());
+        } else {
+            lookupWithCache(in);
+        }
 
         if (isLeftOuterJoin && !collector.isCollected()) {
             outRow.replace(in, nullRow);
@@ -87,6 +110,35 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
         }
     }
 
+    private void lookupWithCache(RowData in) throws Exception {
+        RowData key = cache.getKey(in);
+        List<RowData> cachedRows = cache.getIfPresent(key);
+        if (cachedRows == null) {
+            List<RowData> fetchedRows = new ArrayList<>();
+            Collector<RowData> fetcherCollector = getFetcherCollector();
+            long startTime = System.nanoTime();
+            fetcher.flatMap(
+                    in,
+                    new Collector<RowData>() {
+                        @Override
+                        public void collect(RowData record) {
+                            // the lookup function may reuse the row
+                            fetchedRows.add(cache.copyRow(record));
+                            fetcherCollector.collect(record);
+                        }
+
+                        @Override
+                        public void close() {}
+                    });
+            cache.put(key, fetchedRows, System.nanoTime() - startTime);
+        } else {
+            Collector<RowData> fetcherCollector = getFetcherCollector();
+            for (RowData row : cachedRows) {
+                fetcherCollector.collect(row);
+            }
+        }
+    }
+
     public Collector<RowData> getFetcherCollector() {
         return collector;
     }
@@ -100,5 +152,8 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
         if (collector != null) {
             FunctionUtils.closeFunction(collector);
         }
+        if (cache != null) {
+            cache.close();
+        }
     }
 }
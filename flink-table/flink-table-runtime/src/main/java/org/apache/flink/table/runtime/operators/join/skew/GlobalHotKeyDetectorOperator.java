@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.skew;
+
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Operator that merges the hot key candidates of all {@link LocalHotKeyDetectorOperator}s of a join
+ * input and emits the keys whose share of all rows is at least the hot key ratio as a single row at
+ * the end of the input. This operator must run with a parallelism of one.
+ */
+public class GlobalHotKeyDetectorOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(GlobalHotKeyDetectorOperator.class);
+
+    private final double hotKeyRatio;
+
+    private transient Map<Integer, Long> keyCounts;
+
+    private transient long rowCount;
+
+    public GlobalHotKeyDetectorOperator(double hotKeyRatio) {
+        checkArgument(hotKeyRatio > 0 && hotKeyRatio <= 1, "The hot key ratio must be in (0, 1].");
+        this.hotKeyRatio = hotKeyRatio;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.keyCounts = new HashMap<>();
+        this.rowCount = 0;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        RowData candidates = element.getValue();
+        rowCount += HotKeyUtils.getRowCount(candidates);
+        int[] keyHashes = HotKeyUtils.getKeyHashes(candidates);
+        long[] counts = HotKeyUtils.getKeyCounts(candidates);
+        for (int i = 0; i < keyHashes.length; i++) {
+            keyCounts.merge(keyHashes[i], counts[i], Long::sum);
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        keyCounts.values().removeIf(count -> count < hotKeyRatio * rowCount);
+        LOG.info("Found {} hot join keys in {} rows.", keyCounts.size(), rowCount);
+        output.collect(new StreamRecord<>(HotKeyUtils.toRow(rowCount, keyCounts)));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.skew;
+
+import org.apache.flink.streaming.api.operators.BoundedMultiInput;
+import org.apache.flink.streaming.api.operators.InputSelectable;
+import org.apache.flink.streaming.api.operators.InputSelection;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import java.util.Arrays;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Operator that splits a join input into the rows with hot join keys and the other rows. Each
+ * operator forwards one of both parts, so the parts can be distributed differently to the join.
+ *
+ * <p>The first input receives the hot keys from the {@link GlobalHotKeyDetectorOperator} and is
+ * read completely before the rows of the join input are read from the second input. If no hot keys
+ * are received, there are no rows with hot keys.
+ */
+public class HotKeyFilterOperator extends TableStreamOperator<RowData>
+        implements TwoInputStreamOperator<RowData, RowData, RowData>,
+                BoundedMultiInput,
+                InputSelectable {
+
+    private static final long serialVersionUID = 1L;
+
+    private GeneratedProjection keyProjectionCode;
+
+    /** Whether the rows with hot keys or the rows without hot keys are forwarded. */
+    private final boolean forwardHotKeys;
+
+    private transient Projection<RowData, BinaryRowData> keyProjection;
+
+    /** The sorted hash codes of the hot keys. */
+    private transient int[] hotKeyHashes;
+
+    private transient boolean hotKeysReceived;
+
+    public HotKeyFilterOperator(GeneratedProjection keyProjectionCode, boolean forwardHotKeys) {
+        this.keyProjectionCode = checkNotNull(keyProjectionCode);
+        this.forwardHotKeys = forwardHotKeys;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.keyProjection = keyProjectionCode.newInstance(getUserCodeClassloader());
+        this.hotKeyHashes = new int[0];
+        this.hotKeysReceived = false;
+        keyProjectionCode = null;
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        checkState(!hotKeysReceived, "The hot keys must be received only once.");
+        hotKeysReceived = true;
+        hotKeyHashes = HotKeyUtils.getKeyHashes(element.getValue());
+        Arrays.sort(hotKeyHashes);
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        if (isHotKey(element.getValue()) == forwardHotKeys) {
+            output.collect(element);
+        }
+    }
+
+    private boolean isHotKey(RowData row) {
+        return hotKeyHashes.length > 0
+                && Arrays.binarySearch(hotKeyHashes, keyProjection.apply(row).hashCode()) >= 0;
+    }
+
+    @Override
+    public InputSelection nextSelection() {
+        // the end of the first input may arrive after the hot keys, so it must remain selected
+        return hotKeysReceived ? InputSelection.ALL : InputSelection.FIRST;
+    }
+
+    @Override
+    public void endInput(int inputId) throws Exception {
+        if (inputId == 1) {
+            hotKeysReceived = true;
+        }
+    }
+}
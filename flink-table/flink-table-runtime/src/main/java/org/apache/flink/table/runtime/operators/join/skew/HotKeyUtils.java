@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.skew;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.ArrayType;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Utilities for the hot keys of a skewed join.
+ *
+ * <p>A join key is hot if at least a given ratio of the rows of one join input has the key. The
+ * keys are identified by the hash code of their binary representation, two keys with the same hash
+ * code are both hot or both not hot. Hot keys are sent as a row with three fields: the number of
+ * rows the keys were counted on, the hash codes of the keys and the (estimated) number of rows of
+ * each key.
+ */
+@Internal
+public final class HotKeyUtils {
+
+    /** The type of the rows that carry hot keys. */
+    public static final RowType OUTPUT_TYPE =
+            RowType.of(
+                    new LogicalType[] {
+                        new BigIntType(false),
+                        new ArrayType(false, new IntType(false)),
+                        new ArrayType(false, new BigIntType(false))
+                    },
+                    new String[] {"rowCount", "keyHashes", "keyCounts"});
+
+    private HotKeyUtils() {}
+
+    /**
+     * Returns the number of counters that are needed to find all keys whose share of the rows is at
+     * least the given ratio.
+     */
+    static int numCounters(double hotKeyRatio) {
+        checkArgument(hotKeyRatio > 0 && hotKeyRatio <= 1, "The hot key ratio must be in (0, 1].");
+        // a key with a share of more than 1 / (k + 1) survives in a summary of k counters, the
+        // count of a key is underestimated by at most 1 / (k + 1) of the rows
+        return 2 * (int) Math.ceil(1 / hotKeyRatio);
+    }
+
+    /** Creates the row that carries the given row count and key counts. */
+    static RowData toRow(long rowCount, Map<Integer, Long> keyCounts) {
+        int[] keyHashes = new int[keyCounts.size()];
+        long[] counts = new long[keyCounts.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Long> entry : keyCounts.entrySet()) {
+            keyHashes[i] = entry.getKey();
+            counts[i] = entry.getValue();
+            i++;
+        }
+        return GenericRowData.of(
+                rowCount, new GenericArrayData(keyHashes), new GenericArrayData(counts));
+    }
+
+    static long getRowCount(RowData row) {
+        return row.getLong(0);
+    }
+
+    static int[] getKeyHashes(RowData row) {
+        return row.getArray(1).toIntArray();
+    }
+
+    static long[] getKeyCounts(RowData row) {
+        return row.getArray(2).toLongArray();
+    }
+}
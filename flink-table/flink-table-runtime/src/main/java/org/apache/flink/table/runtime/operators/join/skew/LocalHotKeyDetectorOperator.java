@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.skew;
+
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Operator that finds the candidates for hot join keys in the rows of one subtask of a join input.
+ * The candidates are emitted as a single row at the end of the input, see {@link HotKeyUtils}.
+ *
+ * <p>The keys are counted with the Misra-Gries summary, which keeps a bounded number of counters.
+ * If a key without counter arrives while all counters are in use, all counters are decremented and
+ * counters that reach zero are dropped.
+ */
+public class LocalHotKeyDetectorOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private GeneratedProjection keyProjectionCode;
+
+    private final int numCounters;
+
+    private transient Projection<RowData, BinaryRowData> keyProjection;
+
+    private transient Map<Integer, Long> keyCounts;
+
+    private transient long rowCount;
+
+    public LocalHotKeyDetectorOperator(GeneratedProjection keyProjectionCode, double hotKeyRatio) {
+        this.keyProjectionCode = checkNotNull(keyProjectionCode);
+        this.numCounters = HotKeyUtils.numCounters(hotKeyRatio);
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.keyProjection = keyProjectionCode.newInstance(getUserCodeClassloader());
+        this.keyCounts = new HashMap<>();
+        this.rowCount = 0;
+        keyProjectionCode = null;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        rowCount++;
+        int keyHash = keyProjection.apply(element.getValue()).hashCode();
+        Long count = keyCounts.get(keyHash);
+        if (count != null) {
+            keyCounts.put(keyHash, count + 1);
+        } else if (keyCounts.size() < numCounters) {
+            keyCounts.put(keyHash, 1L);
+        } else {
+            Iterator<Map.Entry<Integer, Long>> iterator = keyCounts.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, Long> entry = iterator.next();
+                if (entry.getValue() == 1) {
+                    iterator.remove();
+                } else {
+                    entry.setValue(entry.getValue() - 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        output.collect(new StreamRecord<>(HotKeyUtils.toRow(rowCount, keyCounts)));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.util.RowDataUtil;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.operators.bundle.trigger.BundleTriggerCallback;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CoBundleTrigger;
+import org.apache.flink.table.runtime.operators.join.stream.state.BufferedJoinRecordStateView;
+import org.apache.flink.table.runtime.operators.join.stream.state.BufferedJoinRecordStateViews;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.types.RowKind;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Mini-batch variant of the {@link StreamingJoinOperator}. The input records of both sides are
+ * buffered per join key in a bundle, and a bundle is joined against the state once the {@link
+ * CoBundleTrigger} fires, a watermark (i.e. the mini-batch interval) arrives or a checkpoint is
+ * taken.
+ *
+ * <p>An accumulate message which is retracted within the same bundle, e.g. an intermediate version
+ * of an updated row, is folded with its retraction before the state is touched. So neither of them
+ * reaches the state nor produces any output.
+ *
+ * <p>The state of each side is accessed once per join key and bundle: the records of both sides of
+ * a join key are loaded into a {@link BufferedJoinRecordStateView}, the remaining records of the
+ * bundle are joined against them in memory in their original order per side, and the net changes of
+ * each side are written back to the state afterwards.
+ *
+ * <p>NOTES: The changelog emitted for a bundle is equivalent to the one of the {@link
+ * StreamingJoinOperator}, but the intermediate results of the folded records are not emitted.
+ */
+public class MiniBatchStreamingJoinOperator extends StreamingJoinOperator
+        implements BundleTriggerCallback {
+
+    private static final long serialVersionUID = 4265187621587316476L;
+
+    /** The trigger that determines how many elements should be put into a bundle. */
+    private final CoBundleTrigger<RowData, RowData> coBundleTrigger;
+
+    private transient RowDataSerializer leftSerializer;
+    private transient RowDataSerializer rightSerializer;
+
+    // the records of the current join key of both sides, buffered in front of the state
+    private transient BufferedJoinRecordStateView leftBufferedStateView;
+    private transient BufferedJoinRecordStateView rightBufferedStateView;
+
+    // the buffered records in the mapping <join key, records> of both sides
+    private transient Map<RowData, List<RowData>> leftBundle;
+    private transient Map<RowData, List<RowData>> rightBundle;
+
+    public MiniBatchStreamingJoinOperator(
+            InternalTypeInfo<RowData> leftType,
+            InternalTypeInfo<RowData> rightType,
+            GeneratedJoinCondition generatedJoinCondition,
+            JoinInputSideSpec leftInputSideSpec,
+            JoinInputSideSpec rightInputSideSpec,
+            boolean leftIsOuter,
+            boolean rightIsOuter,
+            boolean[] filterNullKeys,
+            long stateRetentionTime,
+            int hotKeyCacheMaxRows,
+            CoBundleTrigger<RowData, RowData> coBundleTrigger) {
+        super(
+                leftType,
+                rightType,
+                generatedJoinCondition,
+                leftInputSideSpec,
+                rightInputSideSpec,
+                leftIsOuter,
+                rightIsOuter,
+                filterNullKeys,
+                stateRetentionTime,
+                hotKeyCacheMaxRows);
+        this.coBundleTrigger = checkNotNull(coBundleTrigger, "coBundleTrigger is null");
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.leftSerializer = leftType.toRowSerializer();
+        this.rightSerializer = rightType.toRowSerializer();
+        this.leftBundle = new LinkedHashMap<>();
+        this.rightBundle = new LinkedHashMap<>();
+        this.leftBufferedStateView =
+                BufferedJoinRecordStateViews.create(
+                        leftRecordStateView, leftInputSideSpec, leftType);
+        this.rightBufferedStateView =
+                BufferedJoinRecordStateViews.create(
+                        rightRecordStateView, rightInputSideSpec, rightType);
+
+        coBundleTrigger.registerCallback(this);
+        // reset trigger
+        coBundleTrigger.reset();
+        LOG.info("MiniBatchStreamingJoinOperator's trigger info: " + coBundleTrigger.explain());
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        // input row maybe reused, we need deep copy here
+        addToBundle(leftBundle, leftSerializer.copy(element.getValue()));
+        coBundleTrigger.onElement1(element.getValue());
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        addToBundle(rightBundle, rightSerializer.copy(element.getValue()));
+        coBundleTrigger.onElement2(element.getValue());
+    }
+
+    private void addToBundle(Map<RowData, List<RowData>> bundle, RowData input) {
+        RowData joinKey = (RowData) getCurrentKey();
+        List<RowData> records = bundle.computeIfAbsent(joinKey, k -> new ArrayList<>());
+        if (!RowDataUtil.isAccumulateMsg(input)) {
+            // fold the retraction with the latest buffered accumulation of the same row
+            RowKind inputRowKind = input.getRowKind();
+            for (int i = records.size() - 1; i >= 0; i--) {
+                RowData record = records.get(i);
+                if (RowDataUtil.isAccumulateMsg(record)) {
+                    input.setRowKind(record.getRowKind());
+                    boolean equals = input.equals(record);
+                    input.setRowKind(inputRowKind);
+                    if (equals) {
+                        records.remove(i);
+                        return;
+                    }
+                }
+            }
+        }
+        records.add(input);
+    }
+
+    @Override
+    public void finishBundle() throws Exception {
+        if (!leftBundle.isEmpty() || !rightBundle.isEmpty()) {
+            for (Map.Entry<RowData, List<RowData>> entry : leftBundle.entrySet()) {
+                joinBundle(entry.getKey(), entry.getValue(), rightBundle.remove(entry.getKey()));
+            }
+            for (Map.Entry<RowData, List<RowData>> entry : rightBundle.entrySet()) {
+                joinBundle(entry.getKey(), null, entry.getValue());
+            }
+            leftBundle.clear();
+            rightBundle.clear();
+        }
+        coBundleTrigger.reset();
+    }
+
+    /** Joins the records of a join key in the bundle with a single state access per side. */
+    private void joinBundle(
+            RowData joinKey,
+            @Nullable List<RowData> leftRecords,
+            @Nullable List<RowData> rightRecords)
+            throws Exception {
+        setCurrentKey(joinKey);
+        leftBufferedStateView.load();
+        rightBufferedStateView.load();
+        if (leftRecords != null) {
+            for (RowData record : leftRecords) {
+                processElement(record, leftBufferedStateView, rightBufferedStateView, true);
+            }
+        }
+        if (rightRecords != null) {
+            for (RowData record : rightRecords) {
+                processElement(record, rightBufferedStateView, leftBufferedStateView, false);
+            }
+        }
+        leftBufferedStateView.flush();
+        rightBufferedStateView.flush();
+    }
+
+    @Override
+    public void processWatermark(Watermark mark) throws Exception {
+        finishBundle();
+        super.processWatermark(mark);
+    }
+
+    @Override
+    public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+        super.prepareSnapshotPreBarrier(checkpointId);
+        finishBundle();
+    }
+
+    @Override
+    public void finish() throws Exception {
+        finishBundle();
+        super.finish();
+    }
+}
@@ -41,15 +41,17 @@ public class StreamingJoinOperator extends AbstractStreamingJoinOperator {
     private final boolean leftIsOuter;
     // whether right side is outer side, e.g. right is outer but left is not when RIGHT OUTER JOIN
     private final boolean rightIsOuter;
+    // the max number of records which are cached in front of the state per input side
+    private final int hotKeyCacheMaxRows;
 
     private transient JoinedRowData outRow;
     private transient RowData leftNullRow;
     private transient RowData rightNullRow;
 
     // left join state
-    private transient JoinRecordStateView leftRecordStateView;
+    protected transient JoinRecordStateView leftRecordStateView;
     // right join state
-    private transient JoinRecordStateView rightRecordStateView;
+    protected transient JoinRecordStateView rightRecordStateView;
 
     public StreamingJoinOperator(
             InternalTypeInfo<RowData> leftType,
@@ -61,6 +63,30 @@ public class StreamingJoinOperator extends AbstractStreamingJoinOperator {
             boolean rightIsOuter,
             boolean[] filterNullKeys,
             long stateRetentionTime) {
+        this(
+                leftType,
+                rightType,
+                generatedJoinCondition,
+                leftInputSideSpec,
+                rightInputSideSpec,
+                leftIsOuter,
+                rightIsOuter,
+                filterNullKeys,
+                stateRetentionTime,
+                0);
+    }
+
+    public StreamingJoinOperator(
+            InternalTypeInfo<RowData> leftType,
+            InternalTypeInfo<RowData> rightType,
+            GeneratedJoinCondition generatedJoinCondition,
+            JoinInputSideSpec leftInputSideSpec,
+            JoinInputSideSpec rightInputSideSpec,
+            boolean leftIsOuter,
+            boolean rightIsOuter,
+            boolean[] filterNullKeys,
+            long stateRetentionTime,
+            int hotKeyCacheMaxRows) {
         super(
                 leftType,
                 rightType,
@@ -71,6 +97,7 @@ public class StreamingJoinOperator extends AbstractStreamingJoinOperator {
                 stateRetentionTime);
         this.leftIsOuter = leftIsOuter;
         this.rightIsOuter = rightIsOuter;
+        this.hotKeyCacheMaxRows = hotKeyCacheMaxRows;
     }
 
     @Override
@@ -86,36 +113,44 @@ public class StreamingJoinOperator extends AbstractStreamingJoinOperator {
             this.leftRecordStateView =
                     OuterJoinRecordStateViews.create(
                             getRuntimeContext(),
+                            this,
                             "left-records",
                             leftInputSideSpec,
                             leftType,
-                            stateRetentionTime);
+                            stateRetentionTime,
+                            hotKeyCacheMaxRows);
         } else {
             this.leftRecordStateView =
                     JoinRecordStateViews.create(
                             getRuntimeContext(),
+                            this,
                             "left-records",
                             leftInputSideSpec,
                             leftType,
-                            stateRetentionTime);
+                            stateRetentionTime,
+                            hotKeyCacheMaxRows);
         }
 
         if (rightIsOuter) {
             this.rightRecordStateView =
                     OuterJoinRecordStateViews.create(
                             getRuntimeContext(),
+                            this,
                             "right-records",
                             rightInputSideSpec,
                             rightType,
-                            stateRetentionTime);
+                            stateRetentionTime,
+                            hotKeyCacheMaxRows);
         } else {
             this.rightRecordStateView =
                     JoinRecordStateViews.create(
                             getRuntimeContext(),
+                            this,
                             "right-records",
                             rightInputSideSpec,
                             rightType,
-                            stateRetentionTime);
+                            stateRetentionTime,
+                            hotKeyCacheMaxRows);
         }
     }
 
@@ -195,7 +230,7 @@ public class StreamingJoinOperator extends AbstractStreamingJoinOperator {
      * @param otherSideStateView state of other side
      * @param inputIsLeft whether input side is left side
      */
-    private void processElement(
+    protected void processElement(
             RowData input,
             JoinRecordStateView inputSideStateView,
             JoinRecordStateView otherSideStateView,
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.StateInitializationContext;
+import org.apache.flink.streaming.api.operators.AbstractInput;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperatorV2;
+import org.apache.flink.streaming.api.operators.Input;
+import org.apache.flink.streaming.api.operators.MultipleInputStreamOperator;
+import org.apache.flink.streaming.api.operators.StreamOperatorParameters;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.util.RowDataUtil;
+import org.apache.flink.table.data.utils.JoinedRowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.generated.JoinCondition;
+import org.apache.flink.table.runtime.operators.join.JoinConditionWithNullFilters;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinRecordStateView;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinRecordStateViews;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.types.RowKind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Streaming unbounded multi-way Join operator which supports a left-deep chain of INNER JOINs whose
+ * inputs are all partitioned by the same join key.
+ *
+ * <p>Only the records of the inputs are stored in state. A change of any input is joined with the
+ * records of all the other inputs under the current join key in the order of the chain, i.e. the
+ * join condition {@code i} joins the result of the first {@code i + 1} inputs with the input {@code
+ * i + 1}. So the intermediate results of the chain are neither materialized in state nor emitted.
+ * The {@link RowKind} of the input record is forwarded to the results, the same as the {@link
+ * StreamingJoinOperator} does for inner joins.
+ */
+public class StreamingMultiJoinOperator extends AbstractStreamOperatorV2<RowData>
+        implements MultipleInputStreamOperator<RowData> {
+
+    private static final long serialVersionUID = -6542818326461397032L;
+
+    private final List<InternalTypeInfo<RowData>> inputTypes;
+    private final List<JoinInputSideSpec> inputSideSpecs;
+    private final List<GeneratedJoinCondition> generatedJoinConditions;
+    private final List<boolean[]> filterNullKeys;
+    private final long stateRetentionTime;
+    private final int hotKeyCacheMaxRows;
+
+    @SuppressWarnings("rawtypes")
+    private final List<Input> inputs;
+
+    private transient JoinCondition[] joinConditions;
+    private transient JoinRecordStateView[] recordStateViews;
+    private transient TimestampedCollector<RowData> collector;
+
+    public StreamingMultiJoinOperator(
+            StreamOperatorParameters<RowData> parameters,
+            List<InternalTypeInfo<RowData>> inputTypes,
+            List<JoinInputSideSpec> inputSideSpecs,
+            List<GeneratedJoinCondition> generatedJoinConditions,
+            List<boolean[]> filterNullKeys,
+            long stateRetentionTime,
+            int hotKeyCacheMaxRows) {
+        super(parameters, inputTypes.size());
+        checkArgument(inputTypes.size() > 2, "A multi-way join needs more than two inputs.");
+        checkArgument(inputSideSpecs.size() == inputTypes.size());
+        checkArgument(generatedJoinConditions.size() == inputTypes.size() - 1);
+        checkArgument(filterNullKeys.size() == inputTypes.size() - 1);
+        this.inputTypes = inputTypes;
+        this.inputSideSpecs = inputSideSpecs;
+        this.generatedJoinConditions = generatedJoinConditions;
+        this.filterNullKeys = filterNullKeys;
+        this.stateRetentionTime = stateRetentionTime;
+        this.hotKeyCacheMaxRows = hotKeyCacheMaxRows;
+        this.inputs = new ArrayList<>(inputTypes.size());
+        for (int i = 0; i < inputTypes.size(); i++) {
+            final int inputIndex = i;
+            inputs.add(
+                    new AbstractInput<RowData, RowData>(this, inputIndex + 1) {
+                        @Override
+                        public void processElement(StreamRecord<RowData> element) throws Exception {
+                            StreamingMultiJoinOperator.this.processElement(
+                                    element.getValue(), inputIndex);
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public void initializeState(StateInitializationContext context) throws Exception {
+        super.initializeState(context);
+        // the runtime context of AbstractStreamOperatorV2 doesn't provide keyed state by itself
+        getRuntimeContext().setKeyedStateStore(context.getKeyedStateStore());
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        int numOfInputs = inputTypes.size();
+
+        this.joinConditions = new JoinCondition[numOfInputs - 1];
+        for (int i = 0; i < numOfInputs - 1; i++) {
+            JoinCondition condition =
+                    generatedJoinConditions.get(i).newInstance(getUserCodeClassloader());
+            JoinConditionWithNullFilters joinCondition =
+                    new JoinConditionWithNullFilters(condition, filterNullKeys.get(i), this);
+            joinCondition.setRuntimeContext(getRuntimeContext());
+            joinCondition.open(new Configuration());
+            joinConditions[i] = joinCondition;
+        }
+
+        // initialize states
+        this.recordStateViews = new JoinRecordStateView[numOfInputs];
+        for (int i = 0; i < numOfInputs; i++) {
+            recordStateViews[i] =
+                    JoinRecordStateViews.create(
+                            getRuntimeContext(),
+                            this,
+                            "input" + (i + 1) + "-records",
+                            inputSideSpecs.get(i),
+                            inputTypes.get(i),
+                            stateRetentionTime,
+                            hotKeyCacheMaxRows);
+        }
+
+        this.collector = new TimestampedCollector<>(output);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List<Input> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Process an input element and output incremental joined records of the whole chain.
+     *
+     * @param input the input element
+     * @param inputIndex the index of the input that the element comes from
+     */
+    private void processElement(RowData input, int inputIndex) throws Exception {
+        boolean isAccumulateMsg = RowDataUtil.isAccumulateMsg(input);
+        RowKind inputRowKind = input.getRowKind();
+        input.setRowKind(RowKind.INSERT); // erase RowKind for later state updating
+
+        if (isAccumulateMsg) {
+            recordStateViews[inputIndex].addRecord(input);
+        } else {
+            recordStateViews[inputIndex].retractRecord(input);
+        }
+
+        List<RowData> joinedRecords = Collections.singletonList(input);
+        if (inputIndex > 0) {
+            joinedRecords = getRecords(0);
+        }
+        for (int i = 1; i < inputTypes.size() && !joinedRecords.isEmpty(); i++) {
+            List<RowData> records =
+                    i == inputIndex ? Collections.singletonList(input) : getRecords(i);
+            List<RowData> newJoinedRecords = new ArrayList<>();
+            for (RowData left : joinedRecords) {
+                for (RowData right : records) {
+                    if (joinConditions[i - 1].apply(left, right)) {
+                        newJoinedRecords.add(new JoinedRowData(left, right));
+                    }
+                }
+            }
+            joinedRecords = newJoinedRecords;
+        }
+
+        for (RowData joinedRecord : joinedRecords) {
+            // send +I/+U/-U/-D[joined records] (using input RowKind)
+            joinedRecord.setRowKind(inputRowKind);
+            collector.collect(joinedRecord);
+        }
+    }
+
+    /** Gets all the records of the input under the current join key. */
+    private List<RowData> getRecords(int inputIndex) throws Exception {
+        List<RowData> records = new ArrayList<>();
+        for (RowData record : recordStateViews[inputIndex].getRecords()) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        if (joinConditions != null) {
+            for (JoinCondition joinCondition : joinConditions) {
+                if (joinCondition != null) {
+                    ((JoinConditionWithNullFilters) joinCondition).close();
+                }
+            }
+        }
+    }
+}
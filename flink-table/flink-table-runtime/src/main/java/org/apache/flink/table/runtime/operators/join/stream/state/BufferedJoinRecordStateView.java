@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream.state;
+
+/**
+ * A {@link BufferedJoinRecordStateView} is a {@link JoinRecordStateView} which buffers the records
+ * of the current join key in memory in front of another {@link JoinRecordStateView}.
+ *
+ * <p>The records of a join key are read from the underlying state view once by {@link #load()}.
+ * Afterwards, all records are added, retracted and read in memory, until {@link #flush()} writes
+ * the net changes back to the underlying state view. This turns the per record state accesses of a
+ * mini-batch of records of the same join key into a single read and a single write of the state of
+ * the join key.
+ *
+ * <p>The buffered records are only valid for the join key for which they have been loaded, so the
+ * current join key must not change between {@link #load()} and {@link #flush()}.
+ */
+public interface BufferedJoinRecordStateView extends JoinRecordStateView {
+
+    /** Loads all the records of the current join key from the underlying state view. */
+    void load() throws Exception;
+
+    /**
+     * Writes the changes of the buffered records since {@link #load()} to the underlying state view
+     * and clears the buffer.
+     */
+    void flush() throws Exception;
+}
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream.state;
+
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Utility to create a {@link BufferedJoinRecordStateView} in front of a {@link
+ * JoinRecordStateView}.
+ */
+public final class BufferedJoinRecordStateViews {
+
+    /**
+     * Creates a {@link BufferedJoinRecordStateView} in front of the given state view, which has
+     * been created for the given {@link JoinInputSideSpec} and record type. The created view is an
+     * {@link OuterJoinRecordStateView} if the given state view is one.
+     */
+    public static BufferedJoinRecordStateView create(
+            JoinRecordStateView stateView,
+            JoinInputSideSpec inputSideSpec,
+            InternalTypeInfo<RowData> recordType) {
+        if (stateView instanceof OuterJoinRecordStateView) {
+            return new OuterInputSideBuffer(
+                    (OuterJoinRecordStateView) stateView, inputSideSpec, recordType);
+        } else {
+            return new InputSideBuffer(stateView, inputSideSpec, recordType);
+        }
+    }
+
+    // ------------------------------------------------------------------------------------
+
+    /**
+     * Buffers the records of an input side in the same mapping as the underlying state view stores
+     * them, i.e. by unique key if the input side has one, and by the record itself otherwise.
+     *
+     * <p>The buffered entries are immutable, so the entries which are still the loaded ones are
+     * unchanged and are not written back on flush.
+     */
+    private static class InputSideBuffer implements BufferedJoinRecordStateView {
+
+        private final JoinRecordStateView stateView;
+        // the unique key selector, null if the input side has no unique key
+        @Nullable private final KeySelector<RowData, RowData> uniqueKeySelector;
+        // serializer to normalize the keys of the buffer to binary rows
+        private final RowDataSerializer keySerializer;
+
+        // the loaded records of the current join key
+        private final Map<RowData, BufferedRecord> loadedRecords = new HashMap<>();
+        // the buffered records of the current join key
+        private final Map<RowData, BufferedRecord> records = new LinkedHashMap<>();
+
+        private InputSideBuffer(
+                JoinRecordStateView stateView,
+                JoinInputSideSpec inputSideSpec,
+                InternalTypeInfo<RowData> recordType) {
+            this.stateView = checkNotNull(stateView);
+            if (inputSideSpec.hasUniqueKey()) {
+                this.uniqueKeySelector = checkNotNull(inputSideSpec.getUniqueKeySelector());
+                this.keySerializer = inputSideSpec.getUniqueKeyType().toRowSerializer();
+            } else {
+                this.uniqueKeySelector = null;
+                this.keySerializer = recordType.toRowSerializer();
+            }
+        }
+
+        @Override
+        public final void load() throws Exception {
+            loadedRecords.clear();
+            records.clear();
+            loadRecords();
+            loadedRecords.putAll(records);
+        }
+
+        /** Adds all the records of the current join key in the state view to the buffer. */
+        void loadRecords() throws Exception {
+            for (RowData record : stateView.getRecords()) {
+                add(record, -1);
+            }
+        }
+
+        @Override
+        public final void flush() throws Exception {
+            // write the retractions first, so that they do not remove re-added unique keys
+            for (Map.Entry<RowData, BufferedRecord> entry : loadedRecords.entrySet()) {
+                BufferedRecord loadedRecord = entry.getValue();
+                BufferedRecord record = records.get(entry.getKey());
+                if (record == loadedRecord) {
+                    continue;
+                }
+                int numOfRetractions =
+                        record == null
+                                ? loadedRecord.count
+                                : isCounted() ? loadedRecord.count - record.count : 0;
+                for (int i = 0; i < numOfRetractions; i++) {
+                    stateView.retractRecord(loadedRecord.record);
+                }
+            }
+            for (Map.Entry<RowData, BufferedRecord> entry : records.entrySet()) {
+                BufferedRecord loadedRecord = loadedRecords.get(entry.getKey());
+                if (entry.getValue() != loadedRecord) {
+                    writeChange(loadedRecord, entry.getValue());
+                }
+            }
+            loadedRecords.clear();
+            records.clear();
+        }
+
+        /**
+         * Writes a changed or new record to the state view. The retractions have already been
+         * written.
+         */
+        void writeChange(@Nullable BufferedRecord loadedRecord, BufferedRecord record)
+                throws Exception {
+            int numOfAdditions = getNumOfAdditions(loadedRecord, record);
+            for (int i = 0; i < numOfAdditions; i++) {
+                stateView.addRecord(record.record);
+            }
+        }
+
+        /** Returns the number of times the record must be added to the state view. */
+        final int getNumOfAdditions(@Nullable BufferedRecord loadedRecord, BufferedRecord record) {
+            if (loadedRecord == null) {
+                return record.count;
+            } else if (isCounted()) {
+                return Math.max(0, record.count - loadedRecord.count);
+            } else {
+                // the record of the unique key is replaced
+                return 1;
+            }
+        }
+
+        @Override
+        public void addRecord(RowData record) throws Exception {
+            add(record, -1);
+        }
+
+        @Override
+        public void retractRecord(RowData record) throws Exception {
+            RowData key = getKey(record);
+            BufferedRecord bufferedRecord = records.get(key);
+            if (bufferedRecord == null) {
+                // ignore the record which is not in the state, e.g. because the state expired
+                return;
+            }
+            if (isCounted() && bufferedRecord.count > 1) {
+                records.put(
+                        key,
+                        new BufferedRecord(
+                                bufferedRecord.record,
+                                bufferedRecord.count - 1,
+                                bufferedRecord.numOfAssociations));
+            } else {
+                records.remove(key);
+            }
+        }
+
+        @Override
+        public Iterable<RowData> getRecords() {
+            List<RowData> result = new ArrayList<>(records.size());
+            for (BufferedRecord bufferedRecord : records.values()) {
+                for (int i = 0; i < bufferedRecord.count; i++) {
+                    result.add(bufferedRecord.record);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Adds a record with the given number of associations. A record without unique key is
+         * counted, and its number of associations is replaced, like in {@link
+         * OuterJoinRecordStateViews}.
+         */
+        final void add(RowData record, int numOfAssociations) throws Exception {
+            RowData key = getKey(record);
+            BufferedRecord bufferedRecord = records.get(key);
+            int count = isCounted() && bufferedRecord != null ? bufferedRecord.count + 1 : 1;
+            records.put(key, new BufferedRecord(record, count, numOfAssociations));
+        }
+
+        /**
+         * Returns whether equal records are counted, i.e. the input side has no unique key.
+         * Otherwise, a record replaces the record of the same unique key.
+         */
+        final boolean isCounted() {
+            return uniqueKeySelector == null;
+        }
+
+        final Map<RowData, BufferedRecord> getBufferedRecords() {
+            return records;
+        }
+
+        final RowData getKey(RowData record) throws Exception {
+            RowData key = uniqueKeySelector == null ? record : uniqueKeySelector.getKey(record);
+            // the keys of the buffer must be comparable, regardless of the row implementation
+            BinaryRowData binaryKey = keySerializer.toBinaryRow(key);
+            return binaryKey == key ? binaryKey : binaryKey.copy();
+        }
+    }
+
+    private static final class OuterInputSideBuffer extends InputSideBuffer
+            implements OuterJoinRecordStateView {
+
+        private final OuterJoinRecordStateView stateView;
+
+        private OuterInputSideBuffer(
+                OuterJoinRecordStateView stateView,
+                JoinInputSideSpec inputSideSpec,
+                InternalTypeInfo<RowData> recordType) {
+            super(stateView, inputSideSpec, recordType);
+            this.stateView = stateView;
+        }
+
+        @Override
+        void loadRecords() throws Exception {
+            for (Tuple2<RowData, Integer> tuple : stateView.getRecordsAndNumOfAssociations()) {
+                add(tuple.f0, tuple.f1);
+            }
+        }
+
+        @Override
+        void writeChange(@Nullable BufferedRecord loadedRecord, BufferedRecord record)
+                throws Exception {
+            int numOfAdditions = getNumOfAdditions(loadedRecord, record);
+            for (int i = 0; i < numOfAdditions; i++) {
+                stateView.addRecord(record.record, record.numOfAssociations);
+            }
+            if (numOfAdditions == 0 && loadedRecord.numOfAssociations != record.numOfAssociations) {
+                stateView.updateNumOfAssociations(record.record, record.numOfAssociations);
+            }
+        }
+
+        @Override
+        public void addRecord(RowData record, int numOfAssociations) throws Exception {
+            add(record, numOfAssociations);
+        }
+
+        @Override
+        public void updateNumOfAssociations(RowData record, int numOfAssociations)
+                throws Exception {
+            Map<RowData, BufferedRecord> records = getBufferedRecords();
+            RowData key = getKey(record);
+            BufferedRecord bufferedRecord = records.get(key);
+            if (isCounted() && bufferedRecord != null) {
+                // only the number of associations of the counted record is updated
+                records.put(
+                        key,
+                        new BufferedRecord(
+                                bufferedRecord.record, bufferedRecord.count, numOfAssociations));
+            } else {
+                // compatible for state ttl, the record is added if it is missing
+                records.put(key, new BufferedRecord(record, 1, numOfAssociations));
+            }
+        }
+
+        @Override
+        public Iterable<Tuple2<RowData, Integer>> getRecordsAndNumOfAssociations() {
+            Map<RowData, BufferedRecord> records = getBufferedRecords();
+            List<Tuple2<RowData, Integer>> result = new ArrayList<>(records.size());
+            for (BufferedRecord bufferedRecord : records.values()) {
+                for (int i = 0; i < bufferedRecord.count; i++) {
+                    result.add(Tuple2.of(bufferedRecord.record, bufferedRecord.numOfAssociations));
+                }
+            }
+            return result;
+        }
+    }
+
+    /** An immutable buffered record with its count and its number of associations. */
+    private static final class BufferedRecord {
+
+        private final RowData record;
+        // the number of times the record was added, always 1 if the input side has a unique key
+        private final int count;
+        // the number of associations of the record, -1 if the input side is not outer
+        private final int numOfAssociations;
+
+        private BufferedRecord(RowData record, int count, int numOfAssociations) {
+            this.record = record;
+            this.count = count;
+            this.numOfAssociations = numOfAssociations;
+        }
+    }
+}
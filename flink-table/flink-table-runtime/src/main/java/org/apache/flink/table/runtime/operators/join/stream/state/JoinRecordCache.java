@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream.state;
+
+import org.apache.flink.streaming.api.operators.KeyContext;
+import org.apache.flink.table.data.RowData;
+
+import javax.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A LRU cache of the records of the recently accessed join keys, which is used in front of the join
+ * state of an input side which has a unique key. The records of a join key are cached in the same
+ * mapping {@code <UK, V>} as they are stored in the state, so that a hot join key does not need a
+ * full scan of its state on every probe.
+ *
+ * <p>The cache is bounded by the total number of cached records rather than by the number of join
+ * keys, because a single hot join key may have arbitrarily many records. The least recently
+ * accessed join keys are evicted until the cached records fit into the bound again, and the records
+ * of a join key which alone exceed the bound are not cached at all.
+ *
+ * <p>The cache is written through, i.e. the state is always the source of truth and the cache is
+ * simply lost on failover. The current join key is taken from the given {@link KeyContext}.
+ */
+final class JoinRecordCache<V> {
+
+    private final KeyContext keyContext;
+    private final long maxNumOfRecords;
+    private final LinkedHashMap<Object, Map<RowData, V>> cache;
+
+    /** The total number of records of all cached join keys. */
+    private long numOfRecords;
+
+    JoinRecordCache(KeyContext keyContext, long maxNumOfRecords) {
+        checkArgument(
+                maxNumOfRecords > 0, "The max number of cached join records must be positive.");
+        this.keyContext = keyContext;
+        this.maxNumOfRecords = maxNumOfRecords;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /** Returns the cached records of the current join key, or null if they are not cached. */
+    @Nullable
+    Map<RowData, V> get() {
+        return cache.get(keyContext.getCurrentKey());
+    }
+
+    /**
+     * Caches all the records of the current join key. The records are not cached if they exceed the
+     * max number of cached records on their own.
+     */
+    void put(Map<RowData, V> records) {
+        if (records.size() > maxNumOfRecords) {
+            return;
+        }
+        Map<RowData, V> previous = cache.put(keyContext.getCurrentKey(), records);
+        if (previous != null) {
+            numOfRecords -= previous.size();
+        }
+        numOfRecords += records.size();
+        evict();
+    }
+
+    /** Adds or updates a record of the current join key if its records are cached. */
+    void putRecord(RowData uniqueKey, V record) {
+        Map<RowData, V> records = get();
+        if (records != null && records.put(uniqueKey, record) == null) {
+            numOfRecords++;
+            evict();
+        }
+    }
+
+    /** Removes a record of the current join key if its records are cached. */
+    void removeRecord(RowData uniqueKey) {
+        Map<RowData, V> records = get();
+        if (records != null && records.remove(uniqueKey) != null) {
+            numOfRecords--;
+        }
+    }
+
+    /** Returns the total number of records of all cached join keys. */
+    long getNumOfRecords() {
+        return numOfRecords;
+    }
+
+    private void evict() {
+        Iterator<Map<RowData, V>> iterator = cache.values().iterator();
+        while (numOfRecords > maxNumOfRecords && iterator.hasNext()) {
+            numOfRecords -= iterator.next().size();
+            iterator.remove();
+        }
+    }
+}
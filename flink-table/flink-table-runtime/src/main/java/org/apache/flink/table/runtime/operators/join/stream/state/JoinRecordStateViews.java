@@ -26,11 +26,15 @@ import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeinfo.Types;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.operators.KeyContext;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.util.IterableIterator;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -48,18 +52,41 @@ public final class JoinRecordStateViews {
             JoinInputSideSpec inputSideSpec,
             InternalTypeInfo<RowData> recordType,
             long retentionTime) {
+        return create(ctx, null, stateName, inputSideSpec, recordType, retentionTime, 0);
+    }
+
+    /**
+     * Creates a {@link JoinRecordStateView} depends on {@link JoinInputSideSpec}. The records of
+     * the recently accessed join keys, at most {@code hotKeyCacheMaxRows} records in total, are
+     * additionally cached in memory if the input side has a unique key which is not contained in
+     * the join key and the state retention is disabled.
+     */
+    public static JoinRecordStateView create(
+            RuntimeContext ctx,
+            @Nullable KeyContext keyContext,
+            String stateName,
+            JoinInputSideSpec inputSideSpec,
+            InternalTypeInfo<RowData> recordType,
+            long retentionTime,
+            int hotKeyCacheMaxRows) {
         StateTtlConfig ttlConfig = createTtlConfig(retentionTime);
         if (inputSideSpec.hasUniqueKey()) {
             if (inputSideSpec.joinKeyContainsUniqueKey()) {
                 return new JoinKeyContainsUniqueKey(ctx, stateName, recordType, ttlConfig);
             } else {
+                // cached records would outlive the expired state
+                JoinRecordCache<RowData> recordCache =
+                        keyContext != null && hotKeyCacheMaxRows > 0 && !ttlConfig.isEnabled()
+                                ? new JoinRecordCache<>(keyContext, hotKeyCacheMaxRows)
+                                : null;
                 return new InputSideHasUniqueKey(
                         ctx,
                         stateName,
                         recordType,
                         inputSideSpec.getUniqueKeyType(),
                         inputSideSpec.getUniqueKeySelector(),
-                        ttlConfig);
+                        ttlConfig,
+                        recordCache);
             }
         } else {
             return new InputSideHasNoUniqueKey(ctx, stateName, recordType, ttlConfig);
@@ -114,6 +141,8 @@ public final class JoinRecordStateViews {
         // stores record in the mapping <UK, Record>
         private final MapState<RowData, RowData> recordState;
         private final KeySelector<RowData, RowData> uniqueKeySelector;
+        // caches the mapping <UK, Record> of hot join keys, null if disabled
+        @Nullable private final JoinRecordCache<RowData> recordCache;
 
         private InputSideHasUniqueKey(
                 RuntimeContext ctx,
@@ -121,7 +150,8 @@ public final class JoinRecordStateViews {
                 InternalTypeInfo<RowData> recordType,
                 InternalTypeInfo<RowData> uniqueKeyType,
                 KeySelector<RowData, RowData> uniqueKeySelector,
-                StateTtlConfig ttlConfig) {
+                StateTtlConfig ttlConfig,
+                @Nullable JoinRecordCache<RowData> recordCache) {
             checkNotNull(uniqueKeyType);
             checkNotNull(uniqueKeySelector);
             MapStateDescriptor<RowData, RowData> recordStateDesc =
@@ -131,23 +161,41 @@ public final class JoinRecordStateViews {
             }
             this.recordState = ctx.getMapState(recordStateDesc);
             this.uniqueKeySelector = uniqueKeySelector;
+            this.recordCache = recordCache;
         }
 
         @Override
         public void addRecord(RowData record) throws Exception {
             RowData uniqueKey = uniqueKeySelector.getKey(record);
             recordState.put(uniqueKey, record);
+            if (recordCache != null) {
+                recordCache.putRecord(uniqueKey, record);
+            }
         }
 
         @Override
         public void retractRecord(RowData record) throws Exception {
             RowData uniqueKey = uniqueKeySelector.getKey(record);
             recordState.remove(uniqueKey);
+            if (recordCache != null) {
+                recordCache.removeRecord(uniqueKey);
+            }
         }
 
         @Override
         public Iterable<RowData> getRecords() throws Exception {
-            return recordState.values();
+            if (recordCache == null) {
+                return recordState.values();
+            }
+            Map<RowData, RowData> cachedRecords = recordCache.get();
+            if (cachedRecords == null) {
+                cachedRecords = new HashMap<>();
+                for (Map.Entry<RowData, RowData> entry : recordState.entries()) {
+                    cachedRecords.put(entry.getKey(), entry.getValue());
+                }
+                recordCache.put(cachedRecords);
+            }
+            return cachedRecords.values();
         }
     }
 
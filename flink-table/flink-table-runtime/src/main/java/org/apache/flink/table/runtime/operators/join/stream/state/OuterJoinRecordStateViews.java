@@ -28,11 +28,15 @@ import org.apache.flink.api.common.typeinfo.Types;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.streaming.api.operators.KeyContext;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.util.IterableIterator;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -50,19 +54,42 @@ public final class OuterJoinRecordStateViews {
             JoinInputSideSpec inputSideSpec,
             InternalTypeInfo<RowData> recordType,
             long retentionTime) {
+        return create(ctx, null, stateName, inputSideSpec, recordType, retentionTime, 0);
+    }
+
+    /**
+     * Creates a {@link OuterJoinRecordStateView} depends on {@link JoinInputSideSpec}. The records
+     * of the recently accessed join keys, at most {@code hotKeyCacheMaxRows} records in total, are
+     * additionally cached in memory if the input side has a unique key which is not contained in
+     * the join key and the state retention is disabled.
+     */
+    public static OuterJoinRecordStateView create(
+            RuntimeContext ctx,
+            @Nullable KeyContext keyContext,
+            String stateName,
+            JoinInputSideSpec inputSideSpec,
+            InternalTypeInfo<RowData> recordType,
+            long retentionTime,
+            int hotKeyCacheMaxRows) {
         StateTtlConfig ttlConfig = createTtlConfig(retentionTime);
         if (inputSideSpec.hasUniqueKey()) {
             if (inputSideSpec.joinKeyContainsUniqueKey()) {
                 return new OuterJoinRecordStateViews.JoinKeyContainsUniqueKey(
                         ctx, stateName, recordType, ttlConfig);
             } else {
+                // cached records would outlive the expired state
+                JoinRecordCache<Tuple2<RowData, Integer>> recordCache =
+                        keyContext != null && hotKeyCacheMaxRows > 0 && !ttlConfig.isEnabled()
+                                ? new JoinRecordCache<>(keyContext, hotKeyCacheMaxRows)
+                                : null;
                 return new OuterJoinRecordStateViews.InputSideHasUniqueKey(
                         ctx,
                         stateName,
                         recordType,
                         inputSideSpec.getUniqueKeyType(),
                         inputSideSpec.getUniqueKeySelector(),
-                        ttlConfig);
+                        ttlConfig,
+                        recordCache);
             }
         } else {
             return new OuterJoinRecordStateViews.InputSideHasNoUniqueKey(
@@ -145,6 +172,8 @@ public final class OuterJoinRecordStateViews {
         // stores record in the mapping <UK, <Record, associated-num>>
         private final MapState<RowData, Tuple2<RowData, Integer>> recordState;
         private final KeySelector<RowData, RowData> uniqueKeySelector;
+        // caches the mapping <UK, <Record, associated-num>> of hot join keys, null if disabled
+        @Nullable private final JoinRecordCache<Tuple2<RowData, Integer>> recordCache;
 
         private InputSideHasUniqueKey(
                 RuntimeContext ctx,
@@ -152,7 +181,8 @@ public final class OuterJoinRecordStateViews {
                 InternalTypeInfo<RowData> recordType,
                 InternalTypeInfo<RowData> uniqueKeyType,
                 KeySelector<RowData, RowData> uniqueKeySelector,
-                StateTtlConfig ttlConfig) {
+                StateTtlConfig ttlConfig,
+                @Nullable JoinRecordCache<Tuple2<RowData, Integer>> recordCache) {
             checkNotNull(uniqueKeyType);
             checkNotNull(uniqueKeySelector);
             TupleTypeInfo<Tuple2<RowData, Integer>> valueTypeInfo =
@@ -164,6 +194,7 @@ public final class OuterJoinRecordStateViews {
             }
             this.recordState = ctx.getMapState(recordStateDesc);
             this.uniqueKeySelector = uniqueKeySelector;
+            this.recordCache = recordCache;
         }
 
         @Override
@@ -174,20 +205,23 @@ public final class OuterJoinRecordStateViews {
         @Override
         public void addRecord(RowData record, int numOfAssociations) throws Exception {
             RowData uniqueKey = uniqueKeySelector.getKey(record);
-            recordState.put(uniqueKey, Tuple2.of(record, numOfAssociations));
+            put(uniqueKey, Tuple2.of(record, numOfAssociations));
         }
 
         @Override
         public void updateNumOfAssociations(RowData record, int numOfAssociations)
                 throws Exception {
             RowData uniqueKey = uniqueKeySelector.getKey(record);
-            recordState.put(uniqueKey, Tuple2.of(record, numOfAssociations));
+            put(uniqueKey, Tuple2.of(record, numOfAssociations));
         }
 
         @Override
         public void retractRecord(RowData record) throws Exception {
             RowData uniqueKey = uniqueKeySelector.getKey(record);
             recordState.remove(uniqueKey);
+            if (recordCache != null) {
+                recordCache.removeRecord(uniqueKey);
+            }
         }
 
         @Override
@@ -198,7 +232,25 @@ public final class OuterJoinRecordStateViews {
         @Override
         public Iterable<Tuple2<RowData, Integer>> getRecordsAndNumOfAssociations()
                 throws Exception {
-            return recordState.values();
+            if (recordCache == null) {
+                return recordState.values();
+            }
+            Map<RowData, Tuple2<RowData, Integer>> cachedRecords = recordCache.get();
+            if (cachedRecords == null) {
+                cachedRecords = new HashMap<>();
+                for (Map.Entry<RowData, Tuple2<RowData, Integer>> entry : recordState.entries()) {
+                    cachedRecords.put(entry.getKey(), entry.getValue());
+                }
+                recordCache.put(cachedRecords);
+            }
+            return cachedRecords.values();
+        }
+
+        private void put(RowData uniqueKey, Tuple2<RowData, Integer> tuple) throws Exception {
+            recordState.put(uniqueKey, tuple);
+            if (recordCache != null) {
+                recordCache.putRecord(uniqueKey, tuple);
+            }
         }
     }
 
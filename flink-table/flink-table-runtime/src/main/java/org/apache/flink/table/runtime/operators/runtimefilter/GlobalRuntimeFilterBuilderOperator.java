@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Operator that merges the bloom filters of all {@link LocalRuntimeFilterBuilderOperator}s of a
+ * build side into one runtime filter, which is emitted as a single row at the end of the input.
+ * This operator must run with a parallelism of one.
+ */
+public class GlobalRuntimeFilterBuilderOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxRowCount;
+
+    private transient byte[] bits;
+
+    private transient long rowCount;
+
+    public GlobalRuntimeFilterBuilderOperator(int maxRowCount) {
+        checkArgument(maxRowCount > 0, "The maximum row count must be positive.");
+        this.maxRowCount = maxRowCount;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.bits = new byte[RuntimeFilterUtils.bloomFilterByteSize(maxRowCount)];
+        this.rowCount = 0;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        RowData localFilter = element.getValue();
+        rowCount += RuntimeFilterUtils.getRowCount(localFilter);
+        byte[] localBits = RuntimeFilterUtils.getBits(localFilter);
+        if (rowCount > maxRowCount || localBits == null) {
+            bits = null;
+        } else if (bits != null) {
+            checkState(
+                    localBits.length == bits.length,
+                    "The bloom filters of a runtime filter must have the same size.");
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] |= localBits[i];
+            }
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        output.collect(new StreamRecord<>(RuntimeFilterUtils.toRow(rowCount, bits)));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Operator that builds a bloom filter of the join keys of the rows of one subtask of the build side
+ * of a hash join. The filter is emitted as a single row at the end of the input, see {@link
+ * RuntimeFilterUtils}.
+ */
+public class LocalRuntimeFilterBuilderOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private GeneratedProjection keyProjectionCode;
+
+    private final int maxRowCount;
+
+    private transient Projection<RowData, BinaryRowData> keyProjection;
+
+    private transient byte[] bits;
+
+    private transient BloomFilter bloomFilter;
+
+    private transient long rowCount;
+
+    public LocalRuntimeFilterBuilderOperator(
+            GeneratedProjection keyProjectionCode, int maxRowCount) {
+        checkArgument(maxRowCount > 0, "The maximum row count must be positive.");
+        this.keyProjectionCode = checkNotNull(keyProjectionCode);
+        this.maxRowCount = maxRowCount;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.keyProjection = keyProjectionCode.newInstance(getUserCodeClassloader());
+        this.bits = new byte[RuntimeFilterUtils.bloomFilterByteSize(maxRowCount)];
+        this.bloomFilter = RuntimeFilterUtils.createBloomFilter(maxRowCount, bits);
+        this.rowCount = 0;
+        keyProjectionCode = null;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        // once the maximum is exceeded, the filter is dropped and only the rows are counted
+        if (++rowCount <= maxRowCount) {
+            bloomFilter.addHash(keyProjection.apply(element.getValue()).hashCode());
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        output.collect(
+                new StreamRecord<>(
+                        RuntimeFilterUtils.toRow(rowCount, rowCount <= maxRowCount ? bits : null)));
+    }
+}
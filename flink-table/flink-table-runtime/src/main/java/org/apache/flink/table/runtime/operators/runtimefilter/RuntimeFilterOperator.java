@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.BoundedMultiInput;
+import org.apache.flink.streaming.api.operators.InputSelectable;
+import org.apache.flink.streaming.api.operators.InputSelection;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Operator that filters the rows of the probe side of a hash join with a runtime filter built from
+ * the join keys of the build side.
+ *
+ * <p>The first input receives the runtime filter from the {@link
+ * GlobalRuntimeFilterBuilderOperator} and is read completely before the rows of the probe side are
+ * read from the second input. A probe side row is dropped if its join key is not contained in the
+ * bloom filter, in which case it can't have a join partner. If the build side was too large for the
+ * filter, all rows are forwarded.
+ */
+public class RuntimeFilterOperator extends TableStreamOperator<RowData>
+        implements TwoInputStreamOperator<RowData, RowData, RowData>,
+                BoundedMultiInput,
+                InputSelectable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RuntimeFilterOperator.class);
+
+    private GeneratedProjection keyProjectionCode;
+
+    private final int maxRowCount;
+
+    private transient Projection<RowData, BinaryRowData> keyProjection;
+
+    /** The bloom filter, or null if all rows are forwarded. */
+    private transient BloomFilter bloomFilter;
+
+    private transient boolean filterReceived;
+
+    private transient Counter numFilteredRows;
+
+    public RuntimeFilterOperator(GeneratedProjection keyProjectionCode, int maxRowCount) {
+        checkArgument(maxRowCount > 0, "The maximum row count must be positive.");
+        this.keyProjectionCode = checkNotNull(keyProjectionCode);
+        this.maxRowCount = maxRowCount;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.keyProjection = keyProjectionCode.newInstance(getUserCodeClassloader());
+        this.bloomFilter = null;
+        this.filterReceived = false;
+        this.numFilteredRows = getMetricGroup().counter("numFilteredRows");
+        keyProjectionCode = null;
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        checkState(!filterReceived, "The runtime filter must be received only once.");
+        filterReceived = true;
+
+        RowData filter = element.getValue();
+        byte[] bits = RuntimeFilterUtils.getBits(filter);
+        if (bits != null) {
+            bloomFilter = RuntimeFilterUtils.createBloomFilter(maxRowCount, bits);
+        } else {
+            LOG.info(
+                    "The build side has {} rows, which exceeds the maximum of {} rows of the "
+                            + "runtime filter. All rows are forwarded.",
+                    RuntimeFilterUtils.getRowCount(filter),
+                    maxRowCount);
+        }
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        if (bloomFilter == null
+                || bloomFilter.testHash(keyProjection.apply(element.getValue()).hashCode())) {
+            output.collect(element);
+        } else {
+            numFilteredRows.inc();
+        }
+    }
+
+    @Override
+    public InputSelection nextSelection() {
+        // the end of the first input may arrive after the filter, so it must remain selected
+        return filterReceived ? InputSelection.ALL : InputSelection.FIRST;
+    }
+
+    @Override
+    public void endInput(int inputId) throws Exception {
+        if (inputId == 1) {
+            // without a filter, all rows of the probe side are forwarded
+            filterReceived = true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarBinaryType;
+
+import javax.annotation.Nullable;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Utilities for runtime filters.
+ *
+ * <p>A runtime filter is a bloom filter of the join keys of the build side of a hash join. It is
+ * sent as a row with two fields: the number of build side rows and the bits of the bloom filter.
+ * The bits are null if the build side has more rows than the maximum number of rows of the filter,
+ * in which case the filter would not be selective and all rows pass it.
+ *
+ * <p>All bloom filters of a runtime filter are created with the same maximum number of rows, so
+ * they have the same size and number of hash functions and can be merged by combining their bits.
+ */
+@Internal
+public final class RuntimeFilterUtils {
+
+    /** The expected false positive probability of a bloom filter with the maximum row count. */
+    private static final double FPP = 0.05;
+
+    /** The type of the rows that carry a runtime filter. */
+    public static final RowType OUTPUT_TYPE =
+            RowType.of(
+                    new LogicalType[] {
+                        new BigIntType(false), new VarBinaryType(VarBinaryType.MAX_LENGTH)
+                    },
+                    new String[] {"rowCount", "filter"});
+
+    private RuntimeFilterUtils() {}
+
+    /** Returns the number of bytes of a bloom filter for the given maximum number of rows. */
+    static int bloomFilterByteSize(int maxRowCount) {
+        checkArgument(maxRowCount > 0, "The maximum row count must be positive.");
+        return Math.max(1, BloomFilter.optimalNumOfBits(maxRowCount, FPP) >>> 3);
+    }
+
+    /** Creates a bloom filter for the given maximum number of rows on top of the given bits. */
+    static BloomFilter createBloomFilter(int maxRowCount, byte[] bits) {
+        BloomFilter bloomFilter = new BloomFilter(maxRowCount, bits.length);
+        bloomFilter.setBitsLocation(MemorySegmentFactory.wrap(bits), 0);
+        return bloomFilter;
+    }
+
+    /** Creates the row that carries the given row count and bloom filter bits. */
+    static RowData toRow(long rowCount, @Nullable byte[] bits) {
+        return GenericRowData.of(rowCount, bits);
+    }
+
+    static long getRowCount(RowData row) {
+        return row.getLong(0);
+    }
+
+    @Nullable
+    static byte[] getBits(RowData row) {
+        return row.isNullAt(1) ? null : row.getBinary(1);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.filesystem;
+
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.vector.ColumnVector;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.data.vector.heap.HeapBooleanVector;
+import org.apache.flink.table.data.vector.heap.HeapDoubleVector;
+import org.apache.flink.table.data.vector.heap.HeapIntVector;
+import org.apache.flink.table.data.vector.heap.HeapLongVector;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.filesystem.ColumnBatchFilters.Comparison;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.utils.TypeConversions;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+/** Tests for {@link ColumnBatchFilters}. */
+public class ColumnBatchFiltersTest {
+
+    private static final int NUM_ROWS = 10;
+
+    private static final RowType ROW_TYPE =
+            (RowType)
+                    DataTypes.ROW(
+                                    DataTypes.FIELD("a", DataTypes.INT()),
+                                    DataTypes.FIELD("b", DataTypes.DOUBLE()),
+                                    DataTypes.FIELD("c", DataTypes.BOOLEAN()),
+                                    DataTypes.FIELD("d", DataTypes.BIGINT()),
+                                    DataTypes.FIELD("e", DataTypes.STRING()))
+                            .getLogicalType();
+
+    /**
+     * Creates a batch where row i has a = i, b = i / 2.0, c = (i is even) and d = -i, except for
+     * row 3, where all fields are null.
+     */
+    private static VectorizedColumnBatch createBatch() {
+        HeapIntVector a = new HeapIntVector(NUM_ROWS);
+        HeapDoubleVector b = new HeapDoubleVector(NUM_ROWS);
+        HeapBooleanVector c = new HeapBooleanVector(NUM_ROWS);
+        HeapLongVector d = new HeapLongVector(NUM_ROWS);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            a.vector[i] = i;
+            b.vector[i] = i / 2.0;
+            c.vector[i] = i % 2 == 0;
+            d.vector[i] = -i;
+        }
+        a.setNullAt(3);
+        b.setNullAt(3);
+        c.setNullAt(3);
+        d.setNullAt(3);
+        VectorizedColumnBatch batch = new VectorizedColumnBatch(new ColumnVector[] {a, b, c, d});
+        batch.setNumRows(NUM_ROWS);
+        return batch;
+    }
+
+    @Test
+    public void testComparisonsOnIntColumn() {
+        assertArrayEquals(new int[] {6, 7, 8, 9}, filter(call(GT, field("a"), literal(5))));
+        assertArrayEquals(new int[] {6, 7, 8, 9}, filter(call(LT, literal(5), field("a"))));
+        assertArrayEquals(new int[] {5, 6, 7, 8, 9}, filter(call(GE, field("a"), literal(5))));
+        assertArrayEquals(new int[] {0, 1, 2}, filter(call(LE, field("a"), literal(2))));
+        assertArrayEquals(new int[] {0, 1}, filter(call(LT, field("a"), literal(2))));
+        assertArrayEquals(new int[] {4}, filter(call(EQ, field("a"), literal(4))));
+        assertArrayEquals(
+                new int[] {0, 1, 2, 5, 6, 7, 8, 9}, filter(call(NE, field("a"), literal(4))));
+        // null never matches a comparison
+        assertArrayEquals(new int[0], filter(call(EQ, field("a"), literal(3))));
+    }
+
+    @Test
+    public void testComparisonsOnOtherColumns() {
+        assertArrayEquals(new int[] {0, 1}, filter(call(LT, field("b"), literal(1.0))));
+        assertArrayEquals(new int[] {0, 1, 2}, filter(call(LE, field("b"), literal(1.0))));
+        assertArrayEquals(new int[] {8, 9}, filter(call(GE, field("b"), literal(4.0))));
+        assertArrayEquals(new int[] {9}, filter(call(GT, field("b"), literal(4.0))));
+        assertArrayEquals(new int[] {0, 2, 4, 6, 8}, filter(call(EQ, field("c"), literal(true))));
+        assertArrayEquals(new int[] {1, 5, 7, 9}, filter(call(NE, field("c"), literal(true))));
+        assertArrayEquals(new int[] {7, 8, 9}, filter(call(LT, field("d"), literal(-6L))));
+    }
+
+    @Test
+    public void testComparisonsAtTheBoundsOfTheValueRange() {
+        assertArrayEquals(
+                new int[0],
+                filter(
+                        ColumnBatchFilters.compare(
+                                0, new IntType(), Comparison.GREATER_THAN, Long.MAX_VALUE)));
+        assertArrayEquals(
+                new int[0],
+                filter(
+                        ColumnBatchFilters.compare(
+                                3, new BigIntType(), Comparison.LESS_THAN, Long.MIN_VALUE)));
+        assertArrayEquals(
+                new int[] {0, 1, 2, 4, 5, 6, 7, 8, 9},
+                filter(
+                        ColumnBatchFilters.compare(
+                                3, new BigIntType(), Comparison.GREATER_THAN, Long.MIN_VALUE)));
+    }
+
+    @Test
+    public void testNullChecks() {
+        assertArrayEquals(new int[] {3}, filter(call(IS_NULL, field("a"))));
+        assertArrayEquals(
+                new int[] {0, 1, 2, 4, 5, 6, 7, 8, 9}, filter(call(IS_NOT_NULL, field("b"))));
+    }
+
+    @Test
+    public void testConjunctionsAndDisjunctions() {
+        ResolvedExpression lowOrHigh =
+                call(OR, call(LT, field("a"), literal(2)), call(GT, field("a"), literal(7)));
+        assertArrayEquals(new int[] {0, 1, 8, 9}, filter(lowOrHigh));
+        assertArrayEquals(
+                new int[] {0, 8},
+                filter(call(AND, lowOrHigh, call(EQ, field("c"), literal(true)))));
+        // overlapping disjunctions don't select a row twice
+        assertArrayEquals(
+                new int[] {0, 1, 2, 4, 5, 6, 8},
+                filter(
+                        call(
+                                OR,
+                                call(LE, field("a"), literal(5)),
+                                call(EQ, field("c"), literal(true)))));
+        // all filters of the list must match
+        assertArrayEquals(
+                new int[] {4, 6},
+                filter(
+                        call(GE, field("a"), literal(4)),
+                        call(EQ, field("c"), literal(true)),
+                        call(LT, field("b"), literal(4.0))));
+    }
+
+    @Test
+    public void testSelectionIsRefined() {
+        ColumnBatchFilter filter =
+                ColumnBatchFilters.fromExpressions(
+                                Collections.singletonList(call(GT, field("a"), literal(4))),
+                                ROW_TYPE)
+                        .get();
+        int[] selection = {1, 3, 5, 6, 9};
+        int numSelected = filter.filter(createBatch(), selection, 4);
+        assertArrayEquals(new int[] {5, 6}, Arrays.copyOf(selection, numSelected));
+    }
+
+    @Test
+    public void testUnsupportedFiltersAreIgnored() {
+        ResolvedExpression unsupported = call(EQ, field("e"), literal("x"));
+        ResolvedExpression fieldComparison = call(EQ, field("a"), field("d"));
+
+        assertFalse(
+                ColumnBatchFilters.fromExpressions(
+                                Arrays.asList(unsupported, fieldComparison), ROW_TYPE)
+                        .isPresent());
+        assertFalse(filterOf(call(OR, unsupported, call(GT, field("a"), literal(4)))).isPresent());
+        // a fractional literal can't be compared with an integral column
+        assertFalse(filterOf(call(GT, field("a"), literal(4.5))).isPresent());
+
+        // the supported parts of conjunctions are still evaluated
+        assertArrayEquals(
+                new int[] {5, 6, 7, 8, 9}, filter(unsupported, call(GT, field("a"), literal(4))));
+        assertArrayEquals(
+                new int[] {5, 6, 7, 8, 9},
+                filter(call(AND, call(GT, field("a"), literal(4)), unsupported)));
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    private static final FunctionDefinition EQ = BuiltInFunctionDefinitions.EQUALS;
+    private static final FunctionDefinition NE = BuiltInFunctionDefinitions.NOT_EQUALS;
+    private static final FunctionDefinition LT = BuiltInFunctionDefinitions.LESS_THAN;
+    private static final FunctionDefinition LE = BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL;
+    private static final FunctionDefinition GT = BuiltInFunctionDefinitions.GREATER_THAN;
+    private static final FunctionDefinition GE = BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL;
+    private static final FunctionDefinition IS_NULL = BuiltInFunctionDefinitions.IS_NULL;
+    private static final FunctionDefinition IS_NOT_NULL = BuiltInFunctionDefinitions.IS_NOT_NULL;
+    private static final FunctionDefinition AND = BuiltInFunctionDefinitions.AND;
+    private static final FunctionDefinition OR = BuiltInFunctionDefinitions.OR;
+
+    private static ResolvedExpression call(
+            FunctionDefinition function, ResolvedExpression... args) {
+        return new CallExpression(function, Arrays.asList(args), DataTypes.BOOLEAN());
+    }
+
+    private static ResolvedExpression field(String name) {
+        int index = ROW_TYPE.getFieldIndex(name);
+        DataType type = TypeConversions.fromLogicalToDataType(ROW_TYPE.getTypeAt(index));
+        return new FieldReferenceExpression(name, type, 0, index);
+    }
+
+    private static ResolvedExpression literal(Object value) {
+        return new ValueLiteralExpression(value);
+    }
+
+    private static Optional<ColumnBatchFilter> filterOf(ResolvedExpression... filters) {
+        return ColumnBatchFilters.fromExpressions(Arrays.asList(filters), ROW_TYPE);
+    }
+
+    private static int[] filter(ResolvedExpression... filters) {
+        return filter(filterOf(filters).get());
+    }
+
+    private static int[] filter(ColumnBatchFilter filter) {
+        int[] selection = new int[NUM_ROWS];
+        for (int i = 0; i < NUM_ROWS; i++) {
+            selection[i] = i;
+        }
+        int numSelected = filter.filter(createBatch(), selection, NUM_ROWS);
+        return Arrays.copyOf(selection, numSelected);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.table.runtime.operators.aggregate;
+
+import org.apache.flink.core.memory.ManagedMemoryUseCase;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.AggsHandleFunction;
+import org.apache.flink.table.runtime.generated.GeneratedAggsHandleFunction;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CountBundleTrigger;
+import org.apache.flink.table.runtime.operators.over.SumAggsHandleFunction;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.deleteRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link MiniBatchLocalGroupAggOperator}. */
+public class MiniBatchLocalGroupAggOperatorTest {
+
+    private static final GeneratedAggsHandleFunction SUM_AGGS_HANDLER =
+            new GeneratedAggsHandleFunction("Function", "", new Object[0]) {
+                @Override
+                public AggsHandleFunction newInstance(ClassLoader classLoader) {
+                    return new SumAggsHandleFunction(1);
+                }
+            };
+
+    private static final LogicalType[] ACC_TYPES = new LogicalType[] {new BigIntType()};
+
+    @Test
+    public void testFinishBundleByTrigger() throws Exception {
+        LogicalType[] inputTypes = new LogicalType[] {new VarCharType(), new BigIntType()};
+        MiniBatchLocalGroupAggOperator operator =
+                new MiniBatchLocalGroupAggOperator(
+                        SUM_AGGS_HANDLER,
+                        HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, inputTypes),
+                        ACC_TYPES,
+                        new CountBundleTrigger<>(4));
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createTestHarness(operator, inputTypes);
+        RowDataHarnessAssertor assertor = new RowDataHarnessAssertor(inputTypes);
+
+        testHarness.open();
+        testHarness.processElement(insertRecord("a", 1L));
+        testHarness.processElement(insertRecord("b", 2L));
+        testHarness.processElement(insertRecord("a", 3L));
+        assertTrue(testHarness.getOutput().isEmpty());
+
+        testHarness.processElement(deleteRecord("a", 1L));
+        List<Object> expected = new ArrayList<>();
+        expected.add(insertRecord("a", 3L));
+        expected.add(insertRecord("b", 2L));
+        assertor.assertOutputEqualsSorted("output wrong.", expected, testHarness.getOutput());
+
+        testHarness.processElement(insertRecord("b", 5L));
+        testHarness.processElement(insertRecord("c", 6L));
+        testHarness.close();
+        expected.add(insertRecord("b", 5L));
+        expected.add(insertRecord("c", 6L));
+        assertor.assertOutputEqualsSorted("output wrong.", expected, testHarness.getOutput());
+    }
+
+    @Test
+    public void testFinishBundleWhenOutOfMemory() throws Exception {
+        LogicalType[] inputTypes = new LogicalType[] {new IntType(), new BigIntType()};
+        MiniBatchLocalGroupAggOperator operator =
+                new MiniBatchLocalGroupAggOperator(
+                        SUM_AGGS_HANDLER,
+                        HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, inputTypes),
+                        ACC_TYPES,
+                        new CountBundleTrigger<>(Long.MAX_VALUE));
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createTestHarness(operator, inputTypes);
+
+        int numKeys = 200_000;
+        testHarness.open();
+        for (int i = 0; i < numKeys; i++) {
+            testHarness.processElement(insertRecord(i, (long) i));
+            testHarness.processElement(insertRecord(i, 1L));
+        }
+        // the bundle doesn't fit into the managed memory of the test harness
+        assertTrue(testHarness.getOutput().size() > 0);
+        assertTrue(testHarness.getOutput().size() < numKeys);
+
+        testHarness.close();
+        assertEquals(numKeys, testHarness.extractOutputValues().size());
+        long sum = 0;
+        for (RowData row : testHarness.extractOutputValues()) {
+            assertEquals(row.getInt(0) + 1L, row.getLong(1));
+            sum += row.getInt(0);
+        }
+        assertEquals((long) numKeys * (numKeys - 1) / 2, sum);
+    }
+
+    private OneInputStreamOperatorTestHarness<RowData, RowData> createTestHarness(
+            MiniBatchLocalGroupAggOperator operator, LogicalType[] outputTypes) throws Exception {
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                new OneInputStreamOperatorTestHarness<>(operator);
+        testHarness
+                .getStreamConfig()
+                .setManagedMemoryFractionOperatorOfUseCase(ManagedMemoryUseCase.OPERATOR, 0.99);
+        testHarness.setup(new RowDataSerializer(outputTypes));
+        return testHarness;
+    }
+}
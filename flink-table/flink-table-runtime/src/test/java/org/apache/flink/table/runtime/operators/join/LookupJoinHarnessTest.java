@@ -18,8 +18,10 @@
 
 package org.apache.flink.table.runtime.operators.join;
 
+import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.operators.testutils.MockEnvironment;
 import org.apache.flink.streaming.api.functions.ProcessFunction;
 import org.apache.flink.streaming.api.operators.ProcessOperator;
 import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
@@ -31,6 +33,7 @@ import org.apache.flink.table.data.utils.JoinedRowData;
 import org.apache.flink.table.runtime.collector.TableFunctionCollector;
 import org.apache.flink.table.runtime.generated.GeneratedCollectorWrapper;
 import org.apache.flink.table.runtime.generated.GeneratedFunctionWrapper;
+import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinCache;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
 import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
@@ -40,15 +43,19 @@ import org.apache.flink.util.Collector;
 
 import org.junit.Test;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.flink.table.data.StringData.fromString;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
 
 /** Harness tests for {@link LookupJoinRunner} and {@link LookupJoinWithCalcRunner}. */
 public class LookupJoinHarnessTest {
@@ -160,11 +167,130 @@ public class LookupJoinHarnessTest {
         testHarness.close();
     }
 
+    @Test
+    public void testTemporalLeftJoinWithCache() throws Exception {
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createHarness(JoinType.LEFT_JOIN, FilterOnTable.WITH_FILTER, createCache("join"));
+
+        testHarness.open();
+        TestingFetcherFunction.numLookups.set(0);
+
+        testHarness.processElement(insertRecord(3, "a"));
+        testHarness.processElement(insertRecord(2, "b"));
+        testHarness.processElement(insertRecord(3, "c"));
+        testHarness.processElement(insertRecord(2, "d"));
+        testHarness.processElement(insertRecord(1, "e"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(3, "a", 3, "Jackson"));
+        expectedOutput.add(insertRecord(2, "b", null, null));
+        expectedOutput.add(insertRecord(3, "c", 3, "Jackson"));
+        expectedOutput.add(insertRecord(2, "d", null, null));
+        expectedOutput.add(insertRecord(1, "e", 1, "Julian"));
+
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        // the rows of the keys 3 and 2, which has no rows, are looked up only once
+        assertEquals(3, TestingFetcherFunction.numLookups.get());
+        testHarness.close();
+    }
+
+    @Test
+    public void testCacheIsSharedBySubtasks() throws Exception {
+        JobID jobId = new JobID();
+        OneInputStreamOperatorTestHarness<RowData, RowData> subtask1 =
+                createHarness(createCache("join"), jobId, 0);
+        OneInputStreamOperatorTestHarness<RowData, RowData> subtask2 =
+                createHarness(createCache("join"), jobId, 1);
+        // another lookup join of the same job doesn't share the cache
+        OneInputStreamOperatorTestHarness<RowData, RowData> otherJoin =
+                createHarness(createCache("other-join"), jobId, 0);
+        // the same lookup join of another job doesn't share the cache
+        OneInputStreamOperatorTestHarness<RowData, RowData> otherJob =
+                createHarness(createCache("join"), new JobID(), 0);
+
+        subtask1.open();
+        subtask2.open();
+        otherJoin.open();
+        otherJob.open();
+        TestingFetcherFunction.numLookups.set(0);
+
+        subtask1.processElement(insertRecord(1, "a"));
+        subtask2.processElement(insertRecord(1, "b"));
+        subtask2.processElement(insertRecord(2, "c"));
+        subtask1.processElement(insertRecord(2, "d"));
+        // the rows of the keys 1 and 2 are looked up once by both subtasks
+        assertEquals(2, TestingFetcherFunction.numLookups.get());
+
+        otherJoin.processElement(insertRecord(1, "e"));
+        otherJob.processElement(insertRecord(1, "f"));
+        assertEquals(4, TestingFetcherFunction.numLookups.get());
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1, "b", 1, "Julian"));
+        expectedOutput.add(insertRecord(2, "c", null, null));
+        assertor.assertOutputEquals("output wrong.", expectedOutput, subtask2.getOutput());
+
+        // the cache is kept as long as a subtask uses it
+        subtask1.close();
+        subtask2.processElement(insertRecord(1, "g"));
+        assertEquals(4, TestingFetcherFunction.numLookups.get());
+
+        // the cache is released with the last subtask
+        subtask2.close();
+        OneInputStreamOperatorTestHarness<RowData, RowData> restartedSubtask =
+                createHarness(createCache("join"), jobId, 0);
+        restartedSubtask.open();
+        restartedSubtask.processElement(insertRecord(1, "h"));
+        assertEquals(5, TestingFetcherFunction.numLookups.get());
+
+        restartedSubtask.close();
+        otherJoin.close();
+        otherJob.close();
+    }
+
     // ---------------------------------------------------------------------------------
 
-    @SuppressWarnings("unchecked")
+    private static LookupJoinCache createCache(String cacheIdentifier) {
+        return new LookupJoinCache(
+                cacheIdentifier,
+                new int[] {0},
+                new LogicalType[] {DataTypes.INT().getLogicalType()},
+                new RowDataSerializer(
+                        DataTypes.INT().getLogicalType(), DataTypes.STRING().getLogicalType()),
+                10,
+                0,
+                true);
+    }
+
+    private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
+            LookupJoinCache cache, JobID jobId, int subtaskIndex) throws Exception {
+        MockEnvironment environment =
+                MockEnvironment.builder()
+                        .setJobID(jobId)
+                        .setMaxParallelism(2)
+                        .setParallelism(2)
+                        .setSubtaskIndex(subtaskIndex)
+                        .build();
+        ProcessOperator<RowData, RowData> operator =
+                new ProcessOperator<>(
+                        new LookupJoinRunner(
+                                new GeneratedFunctionWrapper<>(new TestingFetcherFunction()),
+                                new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
+                                true,
+                                2,
+                                cache));
+        return new OneInputStreamOperatorTestHarness<>(operator, inSerializer, environment);
+    }
+
     private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
             JoinType joinType, FilterOnTable filterOnTable) throws Exception {
+        return createHarness(joinType, filterOnTable, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
+            JoinType joinType, FilterOnTable filterOnTable, @Nullable LookupJoinCache cache)
+            throws Exception {
         boolean isLeftJoin = joinType == JoinType.LEFT_JOIN;
         ProcessFunction<RowData, RowData> joinRunner;
         if (filterOnTable == FilterOnTable.WITHOUT_FILTER) {
@@ -173,7 +299,8 @@ public class LookupJoinHarnessTest {
                             new GeneratedFunctionWrapper<>(new TestingFetcherFunction()),
                             new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
                             isLeftJoin,
-                            2);
+                            2,
+                            cache);
         } else {
             joinRunner =
                     new LookupJoinWithCalcRunner(
@@ -181,7 +308,8 @@ public class LookupJoinHarnessTest {
                             new GeneratedFunctionWrapper<>(new CalculateOnTemporalTable()),
                             new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
                             isLeftJoin,
-                            2);
+                            2,
+                            cache);
         }
 
         ProcessOperator<RowData, RowData> operator = new ProcessOperator<>(joinRunner);
@@ -212,6 +340,8 @@ public class LookupJoinHarnessTest {
 
         private static final Map<Integer, List<GenericRowData>> data = new HashMap<>();
 
+        private static final AtomicInteger numLookups = new AtomicInteger();
+
         static {
             data.put(1, Collections.singletonList(GenericRowData.of(1, fromString("Julian"))));
             data.put(
@@ -224,6 +354,7 @@ public class LookupJoinHarnessTest {
 
         @Override
         public void flatMap(RowData value, Collector<RowData> out) throws Exception {
+            numLookups.incrementAndGet();
             int id = value.getInt(0);
             List<GenericRowData> rows = data.get(id);
             if (rows != null) {
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.skew;
+
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.writer.BinaryRowWriter;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LocalHotKeyDetectorOperator}, {@link GlobalHotKeyDetectorOperator} and {@link
+ * HotKeyFilterOperator}.
+ */
+public class HotKeyOperatorsTest {
+
+    private static final double HOT_KEY_RATIO = 0.1;
+
+    @Test
+    public void testDetectHotKeys() throws Exception {
+        // key 7 has 20% of all rows, key 8 has 7.5% of all rows
+        RowData hotKeys =
+                detectGlobalHotKeys(
+                        detectLocalHotKeys(keys(7, 300, 1000, 700)),
+                        detectLocalHotKeys(keys(7, 100, 2000, 750), keys(8, 150, 3000, 0)));
+        assertEquals(2000, HotKeyUtils.getRowCount(hotKeys));
+        assertArrayEquals(new int[] {keyHash(7)}, HotKeyUtils.getKeyHashes(hotKeys));
+        assertTrue(HotKeyUtils.getKeyCounts(hotKeys)[0] >= 300);
+    }
+
+    @Test
+    public void testNoHotKeysOfUniformKeys() throws Exception {
+        RowData hotKeys =
+                detectGlobalHotKeys(
+                        detectLocalHotKeys(IntStream.range(0, 1000).toArray()),
+                        detectLocalHotKeys(IntStream.range(0, 1000).toArray()));
+        assertEquals(2000, HotKeyUtils.getRowCount(hotKeys));
+        assertEquals(0, HotKeyUtils.getKeyHashes(hotKeys).length);
+    }
+
+    @Test
+    public void testSplitRowsByHotKeys() throws Exception {
+        RowData hotKeys = detectGlobalHotKeys(detectLocalHotKeys(keys(7, 50, 0, 50)));
+        int[] rows = keys(7, 10, 100, 10);
+
+        List<Integer> hotRows = filter(hotKeys, true, rows);
+        List<Integer> otherRows = filter(hotKeys, false, rows);
+        assertEquals(10, hotRows.size());
+        assertTrue(hotRows.stream().allMatch(key -> key == 7));
+        assertEquals(10, otherRows.size());
+        assertTrue(otherRows.stream().noneMatch(key -> key == 7));
+    }
+
+    @Test
+    public void testSplitRowsWithoutHotKeys() throws Exception {
+        int[] rows = IntStream.range(0, 100).toArray();
+        assertTrue(filter(null, true, rows).isEmpty());
+        assertEquals(100, filter(null, false, rows).size());
+    }
+
+    /** Returns the given number of rows with the hot key followed by the given unique keys. */
+    private static int[] keys(int hotKey, int numHotKeys, int firstUniqueKey, int numUniqueKeys) {
+        return IntStream.concat(
+                        IntStream.generate(() -> hotKey).limit(numHotKeys),
+                        IntStream.range(firstUniqueKey, firstUniqueKey + numUniqueKeys))
+                .toArray();
+    }
+
+    private static RowData detectLocalHotKeys(int[]... keys) throws Exception {
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new LocalHotKeyDetectorOperator(keyProjection(), HOT_KEY_RATIO))) {
+            harness.open();
+            for (int key : Arrays.stream(keys).flatMapToInt(IntStream::of).toArray()) {
+                harness.processElement(new StreamRecord<>(GenericRowData.of(key, (long) key)));
+            }
+            harness.endInput();
+            return getSingleOutput(harness.extractOutputValues());
+        }
+    }
+
+    private static RowData detectGlobalHotKeys(RowData... localHotKeys) throws Exception {
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new GlobalHotKeyDetectorOperator(HOT_KEY_RATIO))) {
+            harness.open();
+            for (RowData candidates : localHotKeys) {
+                harness.processElement(new StreamRecord<>(candidates));
+            }
+            harness.endInput();
+            return getSingleOutput(harness.extractOutputValues());
+        }
+    }
+
+    private static List<Integer> filter(RowData hotKeys, boolean forwardHotKeys, int... keys)
+            throws Exception {
+        HotKeyFilterOperator operator = new HotKeyFilterOperator(keyProjection(), forwardHotKeys);
+        try (TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            if (hotKeys != null) {
+                harness.processElement1(new StreamRecord<>(hotKeys));
+            }
+            operator.endInput(1);
+            for (int key : keys) {
+                harness.processElement2(new StreamRecord<>(GenericRowData.of(key, (long) key)));
+            }
+            operator.endInput(2);
+
+            List<Integer> result = new ArrayList<>();
+            for (RowData row : harness.extractOutputValues()) {
+                result.add(row.getInt(0));
+            }
+            return result;
+        }
+    }
+
+    private static RowData getSingleOutput(List<RowData> output) {
+        assertEquals(1, output.size());
+        return output.get(0);
+    }
+
+    private static int keyHash(int key) {
+        return new KeyProjection().apply(GenericRowData.of(key, (long) key)).hashCode();
+    }
+
+    /** The key of the rows is their first field. */
+    private static GeneratedProjection keyProjection() {
+        return new GeneratedProjection("", "", new Object[0]) {
+            @Override
+            public Projection newInstance(ClassLoader classLoader) {
+                return new KeyProjection();
+            }
+        };
+    }
+
+    private static class KeyProjection implements Projection<RowData, BinaryRowData> {
+
+        private final BinaryRowData key = new BinaryRowData(1);
+        private final BinaryRowWriter writer = new BinaryRowWriter(key);
+
+        @Override
+        public BinaryRowData apply(RowData row) {
+            writer.reset();
+            writer.writeInt(0, row.getInt(0));
+            writer.complete();
+            return key;
+        }
+    }
+}
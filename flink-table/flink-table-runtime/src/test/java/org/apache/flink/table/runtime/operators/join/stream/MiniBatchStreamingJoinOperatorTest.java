@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.util.RowDataUtil;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CountCoBundleTrigger;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+import org.apache.flink.types.RowKind;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.deleteRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.record;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateAfterRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateBeforeRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Harness tests for {@link MiniBatchStreamingJoinOperator}. */
+public class MiniBatchStreamingJoinOperatorTest {
+
+    private final String funcCode =
+            "public class TrueJoinCondition extends org.apache.flink.api.common.functions.AbstractRichFunction "
+                    + "implements org.apache.flink.table.runtime.generated.JoinCondition {\n"
+                    + "\n"
+                    + "    public TrueJoinCondition(Object[] reference) {\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public boolean apply(org.apache.flink.table.data.RowData in1, org.apache.flink.table.data.RowData in2) {\n"
+                    + "        return true;\n"
+                    + "    }\n"
+                    + "}\n";
+    private final GeneratedJoinCondition joinCondition =
+            new GeneratedJoinCondition("TrueJoinCondition", funcCode, new Object[0]);
+
+    // (id, key) where id is the unique key and key is the join key
+    private final InternalTypeInfo<RowData> rowType =
+            InternalTypeInfo.ofFields(new BigIntType(), new VarCharType(VarCharType.MAX_LENGTH));
+    private final RowDataKeySelector joinKeySelector =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {1}, rowType.toRowFieldTypes());
+    private final RowDataKeySelector uniqueKeySelector =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, rowType.toRowFieldTypes());
+    private final JoinInputSideSpec inputSideSpec =
+            JoinInputSideSpec.withUniqueKey(uniqueKeySelector.getProducedType(), uniqueKeySelector);
+
+    private final RowDataHarnessAssertor assertor =
+            new RowDataHarnessAssertor(
+                    InternalTypeInfo.ofFields(
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH),
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH))
+                            .toRowFieldTypes());
+
+    @Test
+    public void testFoldRetractionsInBundle() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(100);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "a"));
+        testHarness.processElement2(insertRecord(10L, "a"));
+        // folded with the buffered insertion
+        testHarness.processElement1(updateBeforeRecord(1L, "a"));
+        testHarness.processElement1(updateAfterRecord(2L, "a"));
+        testHarness.processElement2(insertRecord(20L, "b"));
+        testHarness.processBothWatermarks(new Watermark(1));
+
+        testHarness.processElement2(deleteRecord(10L, "a"));
+        testHarness.processElement2(insertRecord(11L, "a"));
+        // folded with the buffered insertion
+        testHarness.processElement2(deleteRecord(11L, "a"));
+        testHarness.prepareSnapshotPreBarrier(1L);
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(2L, "a", 10L, "a"));
+        expectedOutput.add(new Watermark(1));
+        expectedOutput.add(deleteRecord(2L, "a", 10L, "a"));
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testFinishBundleByCount() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(2);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "a"));
+        assertor.assertOutputEquals("output wrong.", new ArrayList<>(), testHarness.getOutput());
+        testHarness.processElement2(insertRecord(10L, "a"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "a", 10L, "a"));
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testSameResultsAsStreamingJoin() throws Exception {
+        // (id, key, value) where key is the join key
+        InternalTypeInfo<RowData> type =
+                InternalTypeInfo.ofFields(
+                        new BigIntType(),
+                        new VarCharType(VarCharType.MAX_LENGTH),
+                        new BigIntType());
+        RowDataKeySelector keySelector =
+                HandwrittenSelectorUtil.getRowDataSelector(new int[] {1}, type.toRowFieldTypes());
+        RowDataKeySelector idSelector =
+                HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, type.toRowFieldTypes());
+        List<JoinInputSideSpec> inputSideSpecs =
+                Arrays.asList(
+                        JoinInputSideSpec.withUniqueKey(idSelector.getProducedType(), idSelector),
+                        JoinInputSideSpec.withUniqueKeyContainedByJoinKey(
+                                keySelector.getProducedType(), keySelector),
+                        JoinInputSideSpec.withoutUniqueKey());
+
+        long seed = new Random().nextLong();
+        for (JoinInputSideSpec leftSpec : inputSideSpecs) {
+            for (JoinInputSideSpec rightSpec : inputSideSpecs) {
+                for (int joinType = 0; joinType < 4; joinType++) {
+                    boolean leftIsOuter = joinType == 1 || joinType == 3;
+                    boolean rightIsOuter = joinType == 2 || joinType == 3;
+                    List<Object[]> changes = randomChanges(new Random(seed), leftSpec, rightSpec);
+                    StreamingJoinOperator operator =
+                            new StreamingJoinOperator(
+                                    type,
+                                    type,
+                                    joinCondition,
+                                    leftSpec,
+                                    rightSpec,
+                                    leftIsOuter,
+                                    rightIsOuter,
+                                    new boolean[] {true},
+                                    0);
+                    MiniBatchStreamingJoinOperator miniBatchOperator =
+                            new MiniBatchStreamingJoinOperator(
+                                    type,
+                                    type,
+                                    joinCondition,
+                                    leftSpec,
+                                    rightSpec,
+                                    leftIsOuter,
+                                    rightIsOuter,
+                                    new boolean[] {true},
+                                    0,
+                                    0,
+                                    new CountCoBundleTrigger<>(7));
+
+                    assertEquals(
+                            String.format(
+                                    "seed %d, %s, %s, join type %d",
+                                    seed, leftSpec, rightSpec, joinType),
+                            materialize(operator, keySelector, changes),
+                            materialize(miniBatchOperator, keySelector, changes));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates random changes of both sides as arrays of (isLeft, row kind, id, key, value), which
+     * are valid changelogs for the given input side specs.
+     */
+    private static List<Object[]> randomChanges(
+            Random random, JoinInputSideSpec leftSpec, JoinInputSideSpec rightSpec) {
+        List<Object[]> changes = new ArrayList<>();
+        List<List<Object[]>> currentRows = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+        long nextId = 0;
+        for (int i = 0; i < 300; i++) {
+            boolean isLeft = random.nextBoolean();
+            JoinInputSideSpec spec = isLeft ? leftSpec : rightSpec;
+            List<Object[]> rows = currentRows.get(isLeft ? 0 : 1);
+            String key = String.valueOf((char) ('a' + random.nextInt(3)));
+            boolean keyExists = rows.stream().anyMatch(row -> row[1].equals(key));
+
+            if (!rows.isEmpty()
+                    && (random.nextInt(3) == 0 || (spec.joinKeyContainsUniqueKey() && keyExists))) {
+                Object[] row = rows.remove(random.nextInt(rows.size()));
+                if (random.nextBoolean()) {
+                    changes.add(new Object[] {isLeft, RowKind.DELETE, row[0], row[1], row[2]});
+                } else {
+                    Object[] newRow = {row[0], row[1], (long) random.nextInt(3)};
+                    rows.add(newRow);
+                    changes.add(
+                            new Object[] {isLeft, RowKind.UPDATE_BEFORE, row[0], row[1], row[2]});
+                    changes.add(
+                            new Object[] {
+                                isLeft, RowKind.UPDATE_AFTER, newRow[0], newRow[1], newRow[2]
+                            });
+                }
+            } else if (!spec.joinKeyContainsUniqueKey() || !keyExists) {
+                long id = spec.hasUniqueKey() ? nextId++ : random.nextInt(2);
+                Object[] row = {id, key, (long) random.nextInt(3)};
+                rows.add(row);
+                changes.add(new Object[] {isLeft, RowKind.INSERT, row[0], row[1], row[2]});
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Processes the given changes with the given operator and returns the materialized join result,
+     * i.e. the number of times each joined row is contained in the result.
+     */
+    private static Map<String, Integer> materialize(
+            StreamingJoinOperator operator, RowDataKeySelector keySelector, List<Object[]> changes)
+            throws Exception {
+        Map<String, Integer> result = new TreeMap<>();
+        try (KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData>
+                testHarness =
+                        new KeyedTwoInputStreamOperatorTestHarness<>(
+                                operator,
+                                keySelector,
+                                keySelector,
+                                keySelector.getProducedType())) {
+            testHarness.open();
+            for (int i = 0; i < changes.size(); i++) {
+                Object[] change = changes.get(i);
+                StreamRecord<RowData> record =
+                        record((RowKind) change[1], change[2], change[3], change[4]);
+                if ((boolean) change[0]) {
+                    testHarness.processElement1(record);
+                } else {
+                    testHarness.processElement2(record);
+                }
+                if (i % 50 == 0) {
+                    testHarness.processBothWatermarks(new Watermark(i));
+                }
+            }
+            testHarness.processBothWatermarks(new Watermark(Long.MAX_VALUE));
+
+            for (Object element : testHarness.getOutput()) {
+                if (element instanceof StreamRecord) {
+                    RowData row = (RowData) ((StreamRecord<?>) element).getValue();
+                    StringBuilder joinedRow = new StringBuilder();
+                    for (int i = 0; i < 6; i++) {
+                        joinedRow.append(
+                                row.isNullAt(i)
+                                        ? "null"
+                                        : i % 3 == 1
+                                                ? row.getString(i).toString()
+                                                : String.valueOf(row.getLong(i)));
+                        joinedRow.append(',');
+                    }
+                    result.merge(
+                            joinedRow.toString(),
+                            RowDataUtil.isAccumulateMsg(row) ? 1 : -1,
+                            Integer::sum);
+                }
+            }
+        }
+        result.values().removeIf(count -> count == 0);
+        assertTrue(result.toString(), result.values().stream().allMatch(count -> count > 0));
+        return result;
+    }
+
+    private KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData>
+            createTestHarness(long bundleSize) throws Exception {
+        MiniBatchStreamingJoinOperator operator =
+                new MiniBatchStreamingJoinOperator(
+                        rowType,
+                        rowType,
+                        joinCondition,
+                        inputSideSpec,
+                        inputSideSpec,
+                        false,
+                        false,
+                        new boolean[] {true},
+                        0,
+                        0,
+                        new CountCoBundleTrigger<>(bundleSize));
+        return new KeyedTwoInputStreamOperatorTestHarness<>(
+                operator, joinKeySelector, joinKeySelector, joinKeySelector.getProducedType());
+    }
+}
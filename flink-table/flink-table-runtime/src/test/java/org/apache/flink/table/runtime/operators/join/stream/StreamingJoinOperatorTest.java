@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.deleteRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateAfterRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateBeforeRecord;
+
+/**
+ * Harness tests for {@link StreamingJoinOperator} whose inputs have a unique key which is not
+ * contained in the join key, with and without the cache of hot join keys.
+ */
+@RunWith(Parameterized.class)
+public class StreamingJoinOperatorTest {
+
+    private final String funcCode =
+            "public class TrueJoinCondition extends org.apache.flink.api.common.functions.AbstractRichFunction "
+                    + "implements org.apache.flink.table.runtime.generated.JoinCondition {\n"
+                    + "\n"
+                    + "    public TrueJoinCondition(Object[] reference) {\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public boolean apply(org.apache.flink.table.data.RowData in1, org.apache.flink.table.data.RowData in2) {\n"
+                    + "        return true;\n"
+                    + "    }\n"
+                    + "}\n";
+    private final GeneratedJoinCondition joinCondition =
+            new GeneratedJoinCondition("TrueJoinCondition", funcCode, new Object[0]);
+
+    // (id, key) where id is the unique key and key is the join key
+    private final InternalTypeInfo<RowData> rowType =
+            InternalTypeInfo.ofFields(new BigIntType(), new VarCharType(VarCharType.MAX_LENGTH));
+    private final RowDataKeySelector joinKeySelector =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {1}, rowType.toRowFieldTypes());
+    private final RowDataKeySelector uniqueKeySelector =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, rowType.toRowFieldTypes());
+    private final JoinInputSideSpec inputSideSpec =
+            JoinInputSideSpec.withUniqueKey(uniqueKeySelector.getProducedType(), uniqueKeySelector);
+
+    private final RowDataHarnessAssertor assertor =
+            new RowDataHarnessAssertor(
+                    InternalTypeInfo.ofFields(
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH),
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH))
+                            .toRowFieldTypes());
+
+    private final int hotKeyCacheMaxRows;
+
+    public StreamingJoinOperatorTest(int hotKeyCacheMaxRows) {
+        this.hotKeyCacheMaxRows = hotKeyCacheMaxRows;
+    }
+
+    @Test
+    public void testInnerJoin() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(false);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "a"));
+        testHarness.processElement2(insertRecord(10L, "a"));
+        testHarness.processElement1(insertRecord(2L, "a"));
+        testHarness.processElement2(insertRecord(20L, "b"));
+        // evicts join key "a" from the left cache bounded to 2 records
+        testHarness.processElement1(insertRecord(3L, "b"));
+        testHarness.processElement1(updateBeforeRecord(1L, "a"));
+        testHarness.processElement1(updateAfterRecord(1L, "a"));
+        testHarness.processElement2(deleteRecord(10L, "a"));
+        testHarness.processElement2(insertRecord(11L, "a"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "a", 10L, "a"));
+        expectedOutput.add(insertRecord(2L, "a", 10L, "a"));
+        expectedOutput.add(insertRecord(3L, "b", 20L, "b"));
+        expectedOutput.add(updateBeforeRecord(1L, "a", 10L, "a"));
+        expectedOutput.add(updateAfterRecord(1L, "a", 10L, "a"));
+        expectedOutput.add(deleteRecord(1L, "a", 10L, "a"));
+        expectedOutput.add(deleteRecord(2L, "a", 10L, "a"));
+        expectedOutput.add(insertRecord(1L, "a", 11L, "a"));
+        expectedOutput.add(insertRecord(2L, "a", 11L, "a"));
+        assertor.assertOutputEqualsSorted("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testLeftOuterJoin() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(true);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "a"));
+        testHarness.processElement2(insertRecord(10L, "a"));
+        testHarness.processElement2(insertRecord(11L, "a"));
+        testHarness.processElement1(insertRecord(2L, "b"));
+        testHarness.processElement2(deleteRecord(10L, "a"));
+        testHarness.processElement2(deleteRecord(11L, "a"));
+        testHarness.processElement1(deleteRecord(1L, "a"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "a", null, null));
+        expectedOutput.add(deleteRecord(1L, "a", null, null));
+        expectedOutput.add(insertRecord(1L, "a", 10L, "a"));
+        expectedOutput.add(insertRecord(1L, "a", 11L, "a"));
+        expectedOutput.add(insertRecord(2L, "b", null, null));
+        expectedOutput.add(deleteRecord(1L, "a", 10L, "a"));
+        expectedOutput.add(deleteRecord(1L, "a", 11L, "a"));
+        expectedOutput.add(insertRecord(1L, "a", null, null));
+        expectedOutput.add(deleteRecord(1L, "a", null, null));
+        assertor.assertOutputEqualsSorted("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    private KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData>
+            createTestHarness(boolean leftIsOuter) throws Exception {
+        StreamingJoinOperator operator =
+                new StreamingJoinOperator(
+                        rowType,
+                        rowType,
+                        joinCondition,
+                        inputSideSpec,
+                        inputSideSpec,
+                        leftIsOuter,
+                        false,
+                        new boolean[] {true},
+                        0,
+                        hotKeyCacheMaxRows);
+        return new KeyedTwoInputStreamOperatorTestHarness<>(
+                operator, joinKeySelector, joinKeySelector, joinKeySelector.getProducedType());
+    }
+
+    @Parameterized.Parameters(name = "hotKeyCacheMaxRows = {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[] {0}, new Object[] {2}, new Object[] {100});
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.streaming.util.KeyedMultiInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.deleteRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateAfterRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateBeforeRecord;
+
+/** Harness tests for {@link StreamingMultiJoinOperator}. */
+public class StreamingMultiJoinOperatorTest {
+
+    private final String funcCode =
+            "public class TrueJoinCondition extends org.apache.flink.api.common.functions.AbstractRichFunction "
+                    + "implements org.apache.flink.table.runtime.generated.JoinCondition {\n"
+                    + "\n"
+                    + "    public TrueJoinCondition(Object[] reference) {\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public boolean apply(org.apache.flink.table.data.RowData in1, org.apache.flink.table.data.RowData in2) {\n"
+                    + "        return true;\n"
+                    + "    }\n"
+                    + "}\n";
+    private final GeneratedJoinCondition joinCondition =
+            new GeneratedJoinCondition("TrueJoinCondition", funcCode, new Object[0]);
+
+    // (id, key) where id is the unique key and key is the join key
+    private final InternalTypeInfo<RowData> rowType =
+            InternalTypeInfo.ofFields(new BigIntType(), new VarCharType(VarCharType.MAX_LENGTH));
+    private final RowDataKeySelector joinKeySelector =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {1}, rowType.toRowFieldTypes());
+    private final RowDataKeySelector uniqueKeySelector =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, rowType.toRowFieldTypes());
+    private final JoinInputSideSpec inputSideSpec =
+            JoinInputSideSpec.withUniqueKey(uniqueKeySelector.getProducedType(), uniqueKeySelector);
+
+    private final RowDataHarnessAssertor assertor =
+            new RowDataHarnessAssertor(
+                    InternalTypeInfo.ofFields(
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH),
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH),
+                                    new BigIntType(),
+                                    new VarCharType(VarCharType.MAX_LENGTH))
+                            .toRowFieldTypes());
+
+    @Test
+    public void testInnerJoinOfThreeInputs() throws Exception {
+        KeyedMultiInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createTestHarness();
+        testHarness.open();
+
+        testHarness.processElement(0, insertRecord(1L, "a"));
+        testHarness.processElement(2, insertRecord(30L, "a"));
+        testHarness.processElement(1, insertRecord(20L, "a"));
+        testHarness.processElement(0, insertRecord(2L, "a"));
+        testHarness.processElement(1, insertRecord(21L, "b"));
+        testHarness.processElement(2, updateBeforeRecord(30L, "a"));
+        testHarness.processElement(2, updateAfterRecord(31L, "a"));
+        testHarness.processElement(1, deleteRecord(20L, "a"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "a", 20L, "a", 30L, "a"));
+        expectedOutput.add(insertRecord(2L, "a", 20L, "a", 30L, "a"));
+        expectedOutput.add(updateBeforeRecord(1L, "a", 20L, "a", 30L, "a"));
+        expectedOutput.add(updateBeforeRecord(2L, "a", 20L, "a", 30L, "a"));
+        expectedOutput.add(updateAfterRecord(1L, "a", 20L, "a", 31L, "a"));
+        expectedOutput.add(updateAfterRecord(2L, "a", 20L, "a", 31L, "a"));
+        expectedOutput.add(deleteRecord(1L, "a", 20L, "a", 31L, "a"));
+        expectedOutput.add(deleteRecord(2L, "a", 20L, "a", 31L, "a"));
+        assertor.assertOutputEqualsSorted("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    private KeyedMultiInputStreamOperatorTestHarness<RowData, RowData> createTestHarness()
+            throws Exception {
+        StreamingMultiJoinOperatorFactory operatorFactory =
+                new StreamingMultiJoinOperatorFactory(
+                        Arrays.asList(rowType, rowType, rowType),
+                        Arrays.asList(inputSideSpec, inputSideSpec, inputSideSpec),
+                        Arrays.asList(joinCondition, joinCondition),
+                        Arrays.asList(new boolean[] {true}, new boolean[] {true}),
+                        0,
+                        0);
+        KeyedMultiInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                new KeyedMultiInputStreamOperatorTestHarness<>(
+                        operatorFactory, joinKeySelector.getProducedType());
+        for (int i = 0; i < 3; i++) {
+            testHarness.setKeySelector(i, joinKeySelector);
+        }
+        return testHarness;
+    }
+}
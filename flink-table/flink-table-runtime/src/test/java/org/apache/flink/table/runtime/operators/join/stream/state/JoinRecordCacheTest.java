@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream.state;
+
+import org.apache.flink.streaming.api.operators.KeyContext;
+import org.apache.flink.table.data.RowData;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/** Tests for {@link JoinRecordCache}. */
+public class JoinRecordCacheTest {
+
+    private final TestKeyContext keyContext = new TestKeyContext();
+
+    @Test
+    public void testEvictLeastRecentlyAccessedKeysByNumOfRecords() {
+        JoinRecordCache<RowData> cache = new JoinRecordCache<>(keyContext, 3);
+
+        keyContext.setCurrentKey("a");
+        cache.put(records(2));
+        keyContext.setCurrentKey("b");
+        cache.put(records(1));
+        assertEquals(3, cache.getNumOfRecords());
+
+        // access "a" so that "b" becomes the least recently accessed key
+        keyContext.setCurrentKey("a");
+        assertNotNull(cache.get());
+
+        keyContext.setCurrentKey("c");
+        cache.put(records(1));
+        assertEquals(3, cache.getNumOfRecords());
+        keyContext.setCurrentKey("b");
+        assertNull(cache.get());
+        keyContext.setCurrentKey("a");
+        assertNotNull(cache.get());
+    }
+
+    @Test
+    public void testEvictWhenRecordsOfCachedKeyGrow() {
+        JoinRecordCache<RowData> cache = new JoinRecordCache<>(keyContext, 3);
+
+        keyContext.setCurrentKey("a");
+        cache.put(records(1));
+        keyContext.setCurrentKey("b");
+        cache.put(records(2));
+
+        // updating an existing record does not change the number of records
+        cache.putRecord(row(0), row(0));
+        assertEquals(3, cache.getNumOfRecords());
+
+        cache.putRecord(row(10), row(10));
+        assertEquals(3, cache.getNumOfRecords());
+        keyContext.setCurrentKey("a");
+        assertNull(cache.get());
+
+        keyContext.setCurrentKey("b");
+        cache.removeRecord(row(10));
+        assertEquals(2, cache.getNumOfRecords());
+    }
+
+    @Test
+    public void testDoNotCacheKeyExceedingMaxNumOfRecords() {
+        JoinRecordCache<RowData> cache = new JoinRecordCache<>(keyContext, 3);
+
+        keyContext.setCurrentKey("a");
+        cache.put(records(1));
+        keyContext.setCurrentKey("hot");
+        cache.put(records(4));
+        assertNull(cache.get());
+
+        // the other keys stay cached
+        assertEquals(1, cache.getNumOfRecords());
+        keyContext.setCurrentKey("a");
+        assertNotNull(cache.get());
+
+        // the records of a cached key which alone exceed the bound are evicted
+        for (int i = 1; i <= 3; i++) {
+            cache.putRecord(row(i), row(i));
+        }
+        assertNull(cache.get());
+        assertEquals(0, cache.getNumOfRecords());
+    }
+
+    private static Map<RowData, RowData> records(int numOfRecords) {
+        Map<RowData, RowData> records = new HashMap<>();
+        for (int i = 0; i < numOfRecords; i++) {
+            records.put(row(i), row(i));
+        }
+        return records;
+    }
+
+    private static class TestKeyContext implements KeyContext {
+
+        private Object currentKey;
+
+        @Override
+        public void setCurrentKey(Object key) {
+            this.currentKey = key;
+        }
+
+        @Override
+        public Object getCurrentKey() {
+            return currentKey;
+        }
+    }
+}
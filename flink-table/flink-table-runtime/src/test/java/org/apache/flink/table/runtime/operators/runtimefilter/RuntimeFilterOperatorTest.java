@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.writer.BinaryRowWriter;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LocalRuntimeFilterBuilderOperator}, {@link GlobalRuntimeFilterBuilderOperator}
+ * and {@link RuntimeFilterOperator}.
+ */
+public class RuntimeFilterOperatorTest {
+
+    private static final int MAX_ROW_COUNT = 1000;
+
+    @Test
+    public void testFilterProbeSide() throws Exception {
+        RowData filter =
+                buildGlobalFilter(
+                        buildLocalFilter(IntStream.rangeClosed(1, 50).toArray()),
+                        buildLocalFilter(IntStream.rangeClosed(51, 100).toArray()));
+        assertEquals(100, RuntimeFilterUtils.getRowCount(filter));
+        assertNotNull(RuntimeFilterUtils.getBits(filter));
+
+        List<Integer> result = applyFilter(filter, IntStream.rangeClosed(1, 10000).toArray());
+
+        // all rows with a join partner pass the filter, most other rows are filtered
+        for (int key = 1; key <= 100; key++) {
+            assertTrue(result.contains(key));
+        }
+        assertTrue(result.size() < 1000);
+    }
+
+    @Test
+    public void testEmptyBuildSideFiltersAllRows() throws Exception {
+        RowData filter = buildGlobalFilter(buildLocalFilter(), buildLocalFilter());
+        assertEquals(0, RuntimeFilterUtils.getRowCount(filter));
+
+        assertTrue(applyFilter(filter, IntStream.rangeClosed(1, 100).toArray()).isEmpty());
+    }
+
+    @Test
+    public void testLocalBuildSideExceedingMaxRowCount() throws Exception {
+        RowData localFilter = buildLocalFilter(IntStream.range(0, MAX_ROW_COUNT + 1).toArray());
+        assertEquals(MAX_ROW_COUNT + 1, RuntimeFilterUtils.getRowCount(localFilter));
+        assertNull(RuntimeFilterUtils.getBits(localFilter));
+
+        RowData filter = buildGlobalFilter(localFilter, buildLocalFilter(1, 2, 3));
+        assertEquals(MAX_ROW_COUNT + 4, RuntimeFilterUtils.getRowCount(filter));
+        assertNull(RuntimeFilterUtils.getBits(filter));
+
+        // all rows pass a filter without bits
+        int[] probeKeys = IntStream.rangeClosed(-100, 100).toArray();
+        assertEquals(probeKeys.length, applyFilter(filter, probeKeys).size());
+    }
+
+    @Test
+    public void testGlobalBuildSideExceedingMaxRowCount() throws Exception {
+        RowData filter =
+                buildGlobalFilter(
+                        buildLocalFilter(IntStream.range(0, MAX_ROW_COUNT / 2 + 1).toArray()),
+                        buildLocalFilter(IntStream.range(0, MAX_ROW_COUNT / 2).toArray()));
+        assertEquals(MAX_ROW_COUNT + 1, RuntimeFilterUtils.getRowCount(filter));
+        assertNull(RuntimeFilterUtils.getBits(filter));
+    }
+
+    private static RowData buildLocalFilter(int... keys) throws Exception {
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new LocalRuntimeFilterBuilderOperator(keyProjection(), MAX_ROW_COUNT))) {
+            harness.open();
+            for (int key : keys) {
+                harness.processElement(new StreamRecord<>(GenericRowData.of(key, (long) key)));
+            }
+            harness.endInput();
+            return getSingleOutput(harness.extractOutputValues());
+        }
+    }
+
+    private static RowData buildGlobalFilter(RowData... localFilters) throws Exception {
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new GlobalRuntimeFilterBuilderOperator(MAX_ROW_COUNT))) {
+            harness.open();
+            for (RowData localFilter : localFilters) {
+                harness.processElement(new StreamRecord<>(localFilter));
+            }
+            harness.endInput();
+            return getSingleOutput(harness.extractOutputValues());
+        }
+    }
+
+    private static List<Integer> applyFilter(RowData filter, int... probeKeys) throws Exception {
+        RuntimeFilterOperator operator = new RuntimeFilterOperator(keyProjection(), MAX_ROW_COUNT);
+        try (TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            harness.processElement1(new StreamRecord<>(filter));
+            operator.endInput(1);
+            for (int key : probeKeys) {
+                harness.processElement2(new StreamRecord<>(GenericRowData.of(key, (long) key)));
+            }
+            operator.endInput(2);
+
+            List<Integer> result = new ArrayList<>();
+            for (RowData row : harness.extractOutputValues()) {
+                result.add(row.getInt(0));
+            }
+            return result;
+        }
+    }
+
+    private static RowData getSingleOutput(List<RowData> output) {
+        assertEquals(1, output.size());
+        return output.get(0);
+    }
+
+    /** The key of the rows is their first field. */
+    private static GeneratedProjection keyProjection() {
+        return new GeneratedProjection("", "", new Object[0]) {
+            @Override
+            public Projection newInstance(ClassLoader classLoader) {
+                return new KeyProjection();
+            }
+        };
+    }
+
+    private static class KeyProjection implements Projection<RowData, BinaryRowData> {
+
+        private final BinaryRowData key = new BinaryRowData(1);
+        private final BinaryRowWriter writer = new BinaryRowWriter(key);
+
+        @Override
+        public BinaryRowData apply(RowData row) {
+            writer.reset();
+            writer.writeInt(0, row.getInt(0));
+            writer.complete();
+            return key;
+        }
+    }
+}